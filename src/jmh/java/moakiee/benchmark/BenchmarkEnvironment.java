@@ -0,0 +1,56 @@
+package moakiee.benchmark;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import moakiee.Ae2OcConfig;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * 基准测试的运行环境
+ *
+ * 基准测试在普通 JVM 中运行，没有 Forge 加载流程：
+ * - 配置用内存中的默认值填充，使 Ae2OcConfig 的 getter 可用
+ * - 禁用机器表直接写入缓存字段，避免触碰方块注册表
+ */
+final class BenchmarkEnvironment {
+
+    private static boolean configLoaded = false;
+
+    private BenchmarkEnvironment() {
+    }
+
+    /**
+     * 以默认值加载 COMMON 配置（重复调用无副作用）
+     */
+    static synchronized void loadDefaultConfig() {
+        if (configLoaded) {
+            return;
+        }
+        // setConfig 会按 SPEC 校正空配置，即写入全部默认值
+        Ae2OcConfig.SPEC.setConfig(CommentedConfig.inMemory());
+        configLoaded = true;
+    }
+
+    /**
+     * 设置禁用机器表缓存
+     *
+     * @param listed 为 true 时放入一个哨兵元素，使查询走完整的宿主解析路径；
+     *               为 false 时为空表，查询在空表判断处直接返回
+     */
+    static void setDisabledMachines(boolean listed) {
+        Set<Object> blocks = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (listed) {
+            blocks.add(new Object());
+        }
+        try {
+            Field field = Ae2OcConfig.class.getDeclaredField("disabledBlocks");
+            field.setAccessible(true);
+            field.set(null, listed ? blocks : Set.of());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot preset Ae2OcConfig.disabledBlocks", e);
+        }
+    }
+}
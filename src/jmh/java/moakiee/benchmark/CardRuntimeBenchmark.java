@@ -0,0 +1,53 @@
+package moakiee.benchmark;
+
+import moakiee.Ae2OcConfig;
+import moakiee.support.ParallelCardRuntime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 卡片运行时每 tick 查询路径的基准测试
+ *
+ * 宿主为 {@link StubHosts} 中的桩对象，测量的是 HostResolver 的缓存路径与禁用表查询，
+ * 不包含真实升级槽的扫描（需要完整的物品注册表）。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CardRuntimeBenchmark {
+
+    /** 宿主类型：直接机器 / 逻辑组件 / 压印线程 */
+    @Param({"machine", "logic", "thread"})
+    public String host;
+
+    /** 禁用机器表是否非空（非空时需要解析 BlockEntity） */
+    @Param({"false", "true"})
+    public boolean disabledListed;
+
+    private Object stub;
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.loadDefaultConfig();
+        BenchmarkEnvironment.setDisabledMachines(disabledListed);
+        stub = StubHosts.create(host);
+    }
+
+    @Benchmark
+    public int getParallelMultiplier() {
+        return ParallelCardRuntime.getParallelMultiplier(stub);
+    }
+
+    @Benchmark
+    public boolean isMachineDisabled() {
+        return Ae2OcConfig.isMachineDisabled(stub);
+    }
+}
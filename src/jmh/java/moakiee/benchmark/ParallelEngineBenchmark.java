@@ -0,0 +1,64 @@
+package moakiee.benchmark;
+
+import moakiee.support.ParallelEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ParallelEngine 结算路径的基准测试，覆盖全部并行卡等级
+ *
+ * 带 ItemStack 的 calculate 重载需要物品注册表，无法在游戏外运行；
+ * 它们的数值部分即 calculateSimple / calculateBatch，输出容量部分由 OutputCapacity 负责。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParallelEngineBenchmark {
+
+    /** 并行卡倍数：×2, ×8, ×64, ×1024, Max */
+    @Param({"2", "8", "64", "1024", "2147483647"})
+    public int card;
+
+    private int inputCount;
+    private int outputSpace;
+    private double availableEnergy;
+    private double unitEnergy;
+
+    // 反应仓形态：三种输入、一种产物
+    private long[] inputAvailable;
+    private long[] inputPerCraft;
+    private long[] outputCapacity;
+    private long[] outputPerCraft;
+
+    @Setup
+    public void setup() {
+        inputCount = 1_000_000;
+        outputSpace = Integer.MAX_VALUE;
+        availableEnergy = 1.0e12;
+        unitEnergy = 2000.0;
+
+        inputAvailable = new long[]{1_000_000L, 500_000L, 64_000_000L};
+        inputPerCraft = new long[]{4L, 2L, 1000L};
+        outputCapacity = new long[]{Long.MAX_VALUE};
+        outputPerCraft = new long[]{64L};
+    }
+
+    @Benchmark
+    public ParallelEngine.ParallelResult calculateSimple() {
+        return ParallelEngine.calculateSimple(card, inputCount, 1, outputSpace, availableEnergy, unitEnergy);
+    }
+
+    @Benchmark
+    public ParallelEngine.BatchResult calculateBatch() {
+        return ParallelEngine.calculateBatch(card, inputAvailable, inputPerCraft,
+                outputCapacity, outputPerCraft, availableEnergy, unitEnergy);
+    }
+}
@@ -0,0 +1,58 @@
+package moakiee.benchmark;
+
+/**
+ * 模拟各类机器宿主的桩对象
+ *
+ * 结构与 HostResolver 的解析顺序对应，用于测量反射路径本身的开销：
+ * - {@link Machine}：直接提供 getUpgrades() / getBlockEntity()
+ * - {@link Logic}：通过 getHost() 指向机器（类似 AE2 的逻辑组件）
+ * - {@link InscriberThread}：通过私有 host 字段指向逻辑组件（类似 ExtendedAE 的压印线程）
+ *
+ * 游戏外无法构造真实的升级槽与 BlockEntity，桩对象一律返回 null，
+ * 因此每次查询都会走完整条解析路径。
+ */
+final class StubHosts {
+
+    private StubHosts() {
+    }
+
+    static Object create(String kind) {
+        return switch (kind) {
+            case "machine" -> new Machine();
+            case "logic" -> new Logic(new Machine());
+            case "thread" -> new InscriberThread(new Logic(new Machine()));
+            default -> throw new IllegalArgumentException("Unknown stub host: " + kind);
+        };
+    }
+
+    public static final class Machine {
+        public Object getUpgrades() {
+            return null;
+        }
+
+        public Object getBlockEntity() {
+            return null;
+        }
+    }
+
+    public static final class Logic {
+        private final Machine machine;
+
+        Logic(Machine machine) {
+            this.machine = machine;
+        }
+
+        public Object getHost() {
+            return machine;
+        }
+    }
+
+    public static final class InscriberThread {
+        @SuppressWarnings({"unused", "FieldCanBeLocal"})
+        private final Object host;
+
+        InscriberThread(Object host) {
+            this.host = host;
+        }
+    }
+}
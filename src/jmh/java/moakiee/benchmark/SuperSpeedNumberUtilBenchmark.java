@@ -0,0 +1,39 @@
+package moakiee.benchmark;
+
+import moakiee.support.SuperSpeedNumberUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 超速卡数值放大的基准测试
+ *
+ * 每次调用都会读取配置并查询 ExtendedAE 的总线速度，
+ * 基准环境中没有 ExtendedAE，走的是类查找失败的回退分支。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SuperSpeedNumberUtilBenchmark {
+
+    /** 小值 / 常规值 / 会饱和的大值 */
+    @Param({"1", "65536", "9223372036854775807"})
+    public long value;
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.loadDefaultConfig();
+    }
+
+    @Benchmark
+    public long boostLongSaturating() {
+        return SuperSpeedNumberUtil.boostLongSaturating(value);
+    }
+}
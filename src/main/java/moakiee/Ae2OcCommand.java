@@ -0,0 +1,113 @@
+package moakiee;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.logging.LogUtils;
+import moakiee.support.BottleneckWindow;
+import moakiee.support.HookProfiler;
+import moakiee.support.ParallelEngine;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.arguments.coordinates.BlockPosArgument;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import org.slf4j.Logger;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * /ae2oc 管理命令（需要 OP 权限）
+ *
+ * - /ae2oc profile start：清空并开始统计各注入入口的耗时
+ * - /ae2oc profile stop：停止统计，保留数据
+ * - /ae2oc profile dump：输出统计结果（同时写入服务端日志）
+ * - /ae2oc bottleneck &lt;pos&gt;：输出该机器最近若干批并行结算的瓶颈分布
+ */
+public final class Ae2OcCommand {
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private Ae2OcCommand() {
+    }
+
+    public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal("ae2oc")
+                .requires(source -> source.hasPermission(2))
+                .then(Commands.literal("profile")
+                        .then(Commands.literal("start").executes(Ae2OcCommand::profileStart))
+                        .then(Commands.literal("stop").executes(Ae2OcCommand::profileStop))
+                        .then(Commands.literal("dump").executes(Ae2OcCommand::profileDump)))
+                .then(Commands.literal("bottleneck")
+                        .then(Commands.argument("pos", BlockPosArgument.blockPos())
+                                .executes(Ae2OcCommand::bottleneck))));
+    }
+
+    private static int profileStart(CommandContext<CommandSourceStack> context) {
+        HookProfiler.start();
+        context.getSource().sendSuccess(
+                () -> Component.translatable("command.ae2_overclocked.profile.started"), true);
+        return 1;
+    }
+
+    private static int profileStop(CommandContext<CommandSourceStack> context) {
+        HookProfiler.stop();
+        context.getSource().sendSuccess(
+                () -> Component.translatable("command.ae2_overclocked.profile.stopped"), true);
+        return 1;
+    }
+
+    private static int profileDump(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        List<HookProfiler.Stats> stats = HookProfiler.snapshot();
+        String seconds = String.format(Locale.ROOT, "%.1f", HookProfiler.elapsedNanos() / 1.0e9);
+
+        source.sendSuccess(() -> Component.translatable(HookProfiler.isEnabled()
+                ? "command.ae2_overclocked.profile.header_running"
+                : "command.ae2_overclocked.profile.header_stopped", seconds), false);
+        if (stats.isEmpty()) {
+            source.sendSuccess(() -> Component.translatable("command.ae2_overclocked.profile.empty"), false);
+            return 0;
+        }
+
+        LOGGER.info("AE2 Overclocked hook profile ({} s):", seconds);
+        for (HookProfiler.Stats entry : stats) {
+            String totalMs = String.format(Locale.ROOT, "%.3f", entry.totalNanos() / 1.0e6);
+            source.sendSuccess(() -> Component.translatable("command.ae2_overclocked.profile.entry",
+                    entry.hook().getDisplayName(), entry.calls(), totalMs,
+                    entry.averageNanos(), entry.p99Nanos()), false);
+            LOGGER.info("  {}: calls={}, total={} ms, avg={} ns, p99<={} ns",
+                    entry.hook().getDisplayName(), entry.calls(), totalMs,
+                    entry.averageNanos(), entry.p99Nanos());
+        }
+        return stats.size();
+    }
+
+    private static int bottleneck(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        CommandSourceStack source = context.getSource();
+        BlockPos pos = BlockPosArgument.getLoadedBlockPos(context, "pos");
+        String posText = pos.toShortString();
+
+        BottleneckWindow window = BottleneckWindow.of(source.getLevel().getBlockEntity(pos));
+        if (window == null || window.size() == 0) {
+            source.sendFailure(Component.translatable("command.ae2_overclocked.bottleneck.empty", posText));
+            return 0;
+        }
+
+        int size = window.size();
+        ParallelEngine.Bottleneck last = window.last();
+        source.sendSuccess(() -> Component.translatable("command.ae2_overclocked.bottleneck.header",
+                posText, size, last == null ? "-" : BottleneckWindow.displayName(last)), false);
+        for (ParallelEngine.Bottleneck bottleneck : ParallelEngine.Bottleneck.values()) {
+            int count = window.count(bottleneck);
+            if (count == 0) {
+                continue;
+            }
+            String percent = String.format(Locale.ROOT, "%.0f", count * 100.0 / size);
+            source.sendSuccess(() -> Component.translatable("command.ae2_overclocked.bottleneck.entry",
+                    BottleneckWindow.displayName(bottleneck), count, percent), false);
+        }
+        return size;
+    }
+}
@@ -1,14 +1,17 @@
 package moakiee;
 
+import moakiee.support.HostResolver;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraftforge.common.ForgeConfigSpec;
 import net.minecraftforge.registries.ForgeRegistries;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 /**
  * AE2 Overclocked common configuration.
@@ -37,6 +40,9 @@ public final class Ae2OcConfig {
     private static final ForgeConfigSpec.IntValue BREAK_PROTECTION_ITEM_THRESHOLD;
     private static final ForgeConfigSpec.ConfigValue<List<? extends String>> DISABLED_MACHINE_IDS;
 
+    /** 被禁用的机器方块（按对象身份查找），null 表示需要重建 */
+    private static volatile Set<Block> disabledBlocks;
+
     static {
         ForgeConfigSpec.Builder builder = new ForgeConfigSpec.Builder();
 
@@ -129,102 +135,47 @@ public final class Ae2OcConfig {
         return Math.max(configured, 1);
     }
 
+    /**
+     * 配置加载/重载时调用：丢弃禁用机器表，下次查询时按当前配置重建。
+     * 采用延迟重建，因为 COMMON 配置首次加载时方块注册表可能尚未就绪。
+     */
+    public static void invalidateDisabledMachines() {
+        disabledBlocks = null;
+    }
+
     public static boolean isMachineDisabled(Object hostOrMachine) {
-        Object machine = resolveMachine(hostOrMachine, 0);
-        if (machine == null) {
+        Set<Block> blocks = disabledBlocks;
+        if (blocks == null) {
+            blocks = buildDisabledBlocks();
+            disabledBlocks = blocks;
+        }
+        if (blocks.isEmpty()) {
             return false;
         }
 
-        return isBlockIdDisabled(machine);
+        BlockEntity blockEntity = HostResolver.resolveBlockEntity(hostOrMachine);
+        return blockEntity != null && blocks.contains(blockEntity.getBlockState().getBlock());
     }
 
-    private static boolean isBlockIdDisabled(Object machine) {
-        ResourceLocation blockId = resolveBlockId(machine);
-        if (blockId == null) {
-            return false;
-        }
-        String normalizedId = blockId.toString().toLowerCase(Locale.ROOT);
+    /**
+     * 将 disabledMachineIds 解析为按对象身份比较的 Block 集合
+     */
+    private static Set<Block> buildDisabledBlocks() {
+        Set<Block> blocks = Collections.newSetFromMap(new IdentityHashMap<>());
         for (String entry : DISABLED_MACHINE_IDS.get()) {
             if (entry == null) {
                 continue;
             }
             String value = entry.trim().toLowerCase(Locale.ROOT);
-            if (!value.isEmpty() && value.equals(normalizedId)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private static ResourceLocation resolveBlockId(Object machine) {
-        if (machine instanceof BlockEntity blockEntity) {
-            return ForgeRegistries.BLOCKS.getKey(blockEntity.getBlockState().getBlock());
-        }
-
-        Object byGetBlockEntity = tryInvokeNoArg(machine, "getBlockEntity");
-        if (byGetBlockEntity instanceof BlockEntity blockEntity) {
-            return ForgeRegistries.BLOCKS.getKey(blockEntity.getBlockState().getBlock());
-        }
-
-        Object byField = tryGetField(machine, "blockEntity");
-        if (byField instanceof BlockEntity blockEntity) {
-            return ForgeRegistries.BLOCKS.getKey(blockEntity.getBlockState().getBlock());
-        }
-
-        return null;
-    }
-
-    private static Object resolveMachine(Object target, int depth) {
-        if (target == null || depth > 6) {
-            return null;
-        }
-        if (target instanceof BlockEntity) {
-            return target;
-        }
-
-        Object byGetBlockEntity = tryInvokeNoArg(target, "getBlockEntity");
-        if (byGetBlockEntity != null) {
-            Object resolved = resolveMachine(byGetBlockEntity, depth + 1);
-            if (resolved != null) {
-                return resolved;
-            }
-        }
-
-        Object byGetHost = tryInvokeNoArg(target, "getHost");
-        if (byGetHost != null && byGetHost != target) {
-            Object resolved = resolveMachine(byGetHost, depth + 1);
-            if (resolved != null) {
-                return resolved;
+            if (value.isEmpty()) {
+                continue;
             }
-        }
-
-        Object byHostField = tryGetField(target, "host");
-        if (byHostField != null && byHostField != target) {
-            Object resolved = resolveMachine(byHostField, depth + 1);
-            if (resolved != null) {
-                return resolved;
+            ResourceLocation blockId = ResourceLocation.tryParse(value);
+            if (blockId == null || !ForgeRegistries.BLOCKS.containsKey(blockId)) {
+                continue;
             }
+            blocks.add(ForgeRegistries.BLOCKS.getValue(blockId));
         }
-
-        return target;
-    }
-
-    private static Object tryInvokeNoArg(Object target, String methodName) {
-        try {
-            Method method = target.getClass().getMethod(methodName);
-            return method.invoke(target);
-        } catch (Throwable ignored) {
-            return null;
-        }
-    }
-
-    private static Object tryGetField(Object target, String fieldName) {
-        try {
-            Field field = target.getClass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            return field.get(target);
-        } catch (Throwable ignored) {
-            return null;
-        }
+        return blocks.isEmpty() ? Set.of() : blocks;
     }
 }
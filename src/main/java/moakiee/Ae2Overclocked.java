@@ -1,7 +1,11 @@
 package moakiee;
 
 import com.mojang.logging.LogUtils;
+import moakiee.support.CardSnapshot;
+import moakiee.support.GridOutputBuffer;
 import moakiee.support.MachineBreakProtection;
+import moakiee.support.OverclockTimerWheel;
+import moakiee.support.RecipeOutputs;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
@@ -12,13 +16,18 @@ import net.minecraft.server.packs.repository.PackSource;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.AddPackFindersEvent;
+import net.minecraftforge.event.OnDatapackSyncEvent;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
 import net.minecraftforge.fml.ModList;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
 import net.minecraftforge.forgespi.locating.IModFile;
@@ -46,6 +55,10 @@ public class Ae2Overclocked {
         // 监听通用初始化事件，用于注册 Upgrades 绑定
         modEventBus.addListener(this::commonSetup);
 
+        // 配置加载/重载后，禁用机器表与所有机器的卡片快照失效
+        modEventBus.addListener(this::onConfigLoading);
+        modEventBus.addListener(this::onConfigReloading);
+
         // 注册内置资源包
         modEventBus.addListener(this::addPackFinders);
 
@@ -58,6 +71,20 @@ public class Ae2Overclocked {
         ModUpgrades.register(event);
     }
 
+    private void onConfigLoading(final ModConfigEvent.Loading event) {
+        if (event.getConfig().getSpec() == Ae2OcConfig.SPEC) {
+            Ae2OcConfig.invalidateDisabledMachines();
+            CardSnapshot.invalidateAll();
+        }
+    }
+
+    private void onConfigReloading(final ModConfigEvent.Reloading event) {
+        if (event.getConfig().getSpec() == Ae2OcConfig.SPEC) {
+            Ae2OcConfig.invalidateDisabledMachines();
+            CardSnapshot.invalidateAll();
+        }
+    }
+
     @SubscribeEvent
     public void onBlockBreak(BlockEvent.BreakEvent event) {
         if (event == null || event.getPlayer() == null) {
@@ -73,7 +100,7 @@ public class Ae2Overclocked {
             return;
         }
 
-        int totalItems = MachineBreakProtection.getInternalItemTotalCount(blockEntity);
+        long totalItems = MachineBreakProtection.getInternalItemTotalCount(blockEntity);
         int threshold = Ae2OcConfig.getBreakProtectionItemThreshold();
         if (totalItems <= threshold) {
             return;
@@ -89,6 +116,42 @@ public class Ae2Overclocked {
         }
     }
 
+    /**
+     * 每个服务端 tick 开始时推进超频定时唤醒；结束时把各网格登记的机器输出合并插入 ME 网络
+     */
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.START) {
+            OverclockTimerWheel.advance();
+        } else if (event.phase == TickEvent.Phase.END) {
+            GridOutputBuffer.flushAll();
+        }
+    }
+
+    @SubscribeEvent
+    public void onServerStopping(ServerStoppingEvent event) {
+        // 世界保存前把缓冲中的产物交付，交付不了的由 clear 记录
+        GridOutputBuffer.flushAll();
+        GridOutputBuffer.clear();
+        OverclockTimerWheel.clear();
+        RecipeOutputs.clear();
+    }
+
+    /**
+     * 数据包重载后（整服同步时 player 为 null）配方对象全部替换，清空产物模板缓存
+     */
+    @SubscribeEvent
+    public void onDatapackSync(OnDatapackSyncEvent event) {
+        if (event.getPlayer() == null) {
+            RecipeOutputs.clear();
+        }
+    }
+
+    @SubscribeEvent
+    public void onRegisterCommands(RegisterCommandsEvent event) {
+        Ae2OcCommand.register(event.getDispatcher());
+    }
+
     /**
      * 注册内置可选资源包：不同作者材质版本
      */
@@ -0,0 +1,55 @@
+package moakiee.gametest;
+
+import moakiee.Ae2Overclocked;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraftforge.fml.ModList;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 各机器在每种卡片组合下的吞吐量测试
+ *
+ * 运行：./gradlew runGameTestServer（无客户端，跑完即退出）。
+ * 每台已加载的机器 × {@link CardLoadout#matrix()} 生成一个测试，
+ * 断言每批产量、每批耗时与每 tick 产量，并在日志中记录 tick 方法的墙钟耗时。
+ */
+@GameTestHolder(Ae2Overclocked.MODID)
+@PrefixGameTestTemplate(false)
+public final class Ae2OcGameTests {
+
+    /** 5×3×5 的平台结构，机器和能源元件在测试中放置 */
+    private static final String TEMPLATE = Ae2Overclocked.MODID + ":gametest/platform";
+    private static final int TIMEOUT_TICKS = 400;
+
+    private Ae2OcGameTests() {
+    }
+
+    @GameTestGenerator
+    public static List<TestFunction> throughput() {
+        List<TestFunction> tests = new ArrayList<>();
+        for (MachineScenario scenario : MachineScenario.values()) {
+            if (!ModList.get().isLoaded(scenario.modId)) {
+                continue;
+            }
+            String machineName = scenario.name().toLowerCase(Locale.ROOT);
+            for (CardLoadout loadout : CardLoadout.matrix()) {
+                tests.add(new TestFunction(
+                        "throughput_" + machineName,
+                        "throughput_" + machineName + "_" + loadout.id(),
+                        TEMPLATE,
+                        Rotation.NONE,
+                        TIMEOUT_TICKS,
+                        0L,
+                        true,
+                        helper -> new ThroughputRun(helper, scenario, loadout).start()));
+            }
+        }
+        return tests;
+    }
+}
@@ -0,0 +1,82 @@
+package moakiee.gametest;
+
+import moakiee.Ae2OcConfig;
+import moakiee.ModItems;
+import moakiee.item.ParallelCard;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.registries.RegistryObject;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一组要安装到机器上的升级卡
+ *
+ * @param parallelId   并行等级标识（用于测试名）
+ * @param parallelCard 并行卡；null 表示不安装
+ * @param overclock    是否安装超频卡
+ * @param capacity     是否安装扩容卡
+ */
+record CardLoadout(String parallelId, @Nullable RegistryObject<ParallelCard> parallelCard,
+                   boolean overclock, boolean capacity) {
+
+    /**
+     * 全部组合：并行等级（无 / ×2 / ×8 / ×64 / ×1024 / Max）× 超频 × 扩容
+     */
+    static List<CardLoadout> matrix() {
+        List<CardLoadout> result = new ArrayList<>();
+        addTier(result, "p1", null);
+        addTier(result, "p2", ModItems.PARALLEL_CARD);
+        addTier(result, "p8", ModItems.PARALLEL_CARD_8X);
+        addTier(result, "p64", ModItems.PARALLEL_CARD_64X);
+        addTier(result, "p1024", ModItems.PARALLEL_CARD_1024X);
+        addTier(result, "pmax", ModItems.PARALLEL_CARD_MAX);
+        return result;
+    }
+
+    private static void addTier(List<CardLoadout> result, String id, @Nullable RegistryObject<ParallelCard> card) {
+        for (boolean overclock : new boolean[]{false, true}) {
+            for (boolean capacity : new boolean[]{false, true}) {
+                result.add(new CardLoadout(id, card, overclock, capacity));
+            }
+        }
+    }
+
+    /**
+     * 要安装的卡片物品
+     */
+    List<ItemStack> cards() {
+        List<ItemStack> cards = new ArrayList<>();
+        if (parallelCard != null) {
+            cards.add(new ItemStack(parallelCard.get()));
+        }
+        if (overclock) {
+            cards.add(new ItemStack(ModItems.OVERCLOCK_CARD.get()));
+        }
+        if (capacity) {
+            cards.add(new ItemStack(ModItems.CAPACITY_CARD.get()));
+        }
+        return cards;
+    }
+
+    /**
+     * 并行倍数（未装并行卡为 1）
+     */
+    int parallel() {
+        if (parallelCard == null) {
+            return 1;
+        }
+        if (parallelCard == ModItems.PARALLEL_CARD_MAX) {
+            return Ae2OcConfig.getParallelCardMaxMultiplier();
+        }
+        return parallelCard.get().getMultiplier();
+    }
+
+    /**
+     * 测试名片段，如 p64_oc_cap
+     */
+    String id() {
+        return parallelId + (overclock ? "_oc" : "") + (capacity ? "_cap" : "");
+    }
+}
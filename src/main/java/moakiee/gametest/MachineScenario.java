@@ -0,0 +1,90 @@
+package moakiee.gametest;
+
+import net.minecraft.world.level.block.entity.BlockEntity;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * 被测机器
+ *
+ * 可选 mod 的方块与配方类型只按注册名引用，对应 mod 未加载时不生成测试。
+ * 配方在运行时从 RecipeManager 中按类型挑选，不依赖具体的配方 id。
+ */
+enum MachineScenario {
+
+    INSCRIBER("ae2", "ae2:inscriber", "ae2:inscriber", "tickingRequest", 100),
+
+    /** 扩展压印器由多个线程加工，测试只向第一个线程投料 */
+    EX_INSCRIBER("extendedae", "extendedae:ex_inscriber", "ae2:inscriber", "tickingRequest", 100) {
+        @Override
+        @Nullable
+        Object machine(BlockEntity blockEntity) {
+            for (Class<?> c = blockEntity.getClass(); c != null; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    Object first = firstThread(field, blockEntity);
+                    if (first != null) {
+                        return first;
+                    }
+                }
+            }
+            return null;
+        }
+    },
+
+    CIRCUIT_CUTTER("extendedae", "extendedae:circuit_cutter", "extendedae:circuit_cutter", "tickingRequest", 100),
+
+    REACTION_CHAMBER("advanced_ae", "advanced_ae:reaction_chamber", "advanced_ae:reaction", "tickingRequest", 200),
+
+    CIRCUIT_ETCHER("ae2cs", "ae2cs:circuit_etcher", "ae2cs:circuit_etcher", "serverTick", 200),
+
+    CRYSTAL_AGGREGATOR("ae2cs", "ae2cs:crystal_aggregator", "ae2cs:crystal_aggregator", "serverTick", 200),
+
+    CRYSTAL_PULVERIZER("ae2cs", "ae2cs:crystal_pulverizer", "ae2cs:crystal_pulverizer", "serverTick", 200),
+
+    /** 输入输出都是泛型槽（物品/流体），按泛型槽投料与计数 */
+    ENTROPY_VARIATION_REACTION_CHAMBER("ae2cs", "ae2cs:entropy_variation_reaction_chamber",
+            "ae2cs:entropy_variation_reaction_chamber", "serverTick", 200);
+
+    final String modId;
+    final String blockId;
+    final String recipeTypeId;
+    /** 计时的 tick 方法：AE2 网格 tick 为 tickingRequest，AE2CS 为 serverTick */
+    final String tickMethod;
+    /** 不装超频卡时一批允许的最长耗时（tick），并行卡不应让一批变慢 */
+    final int maxBatchTicks;
+
+    MachineScenario(String modId, String blockId, String recipeTypeId, String tickMethod, int maxBatchTicks) {
+        this.modId = modId;
+        this.blockId = blockId;
+        this.recipeTypeId = recipeTypeId;
+        this.tickMethod = tickMethod;
+        this.maxBatchTicks = maxBatchTicks;
+    }
+
+    /**
+     * 实际执行加工、持有输入输出槽的对象（一般就是 BlockEntity 本身）
+     */
+    @Nullable
+    Object machine(BlockEntity blockEntity) {
+        return blockEntity;
+    }
+
+    private static Object firstThread(Field field, Object owner) {
+        try {
+            field.setAccessible(true);
+            Object value = field.get(owner);
+            Object first = null;
+            if (value != null && value.getClass().isArray() && Array.getLength(value) > 0) {
+                first = Array.get(value, 0);
+            } else if (value instanceof List<?> list && !list.isEmpty()) {
+                first = list.get(0);
+            }
+            return first != null && first.getClass().getSimpleName().equals("InscriberThread") ? first : null;
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,440 @@
+package moakiee.gametest;
+
+import appeng.api.config.Actionable;
+import appeng.api.inventories.InternalInventory;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.stacks.AEFluidKey;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.AEKey;
+import appeng.api.stacks.GenericStack;
+import appeng.api.upgrades.IUpgradeInventory;
+import appeng.helpers.externalstorage.GenericStackInv;
+import appeng.recipes.handlers.InscriberProcessType;
+import appeng.recipes.handlers.InscriberRecipe;
+import com.mojang.logging.LogUtils;
+import moakiee.Ae2OcConfig;
+import moakiee.support.HostResolver;
+import moakiee.support.OutputCapacity;
+import moakiee.support.VirtualSlots;
+import moakiee.support.machine.MachineAdapter;
+import moakiee.support.machine.MachineAdapters;
+import moakiee.support.machine.PressMachineAdapter;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.Recipe;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.registries.ForgeRegistries;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 单台机器、单组卡片的吞吐量测试
+ *
+ * 流程：放置创造能源元件与机器 → 等待网格上线 → 安装卡片并投料 → 等待第一批产物 →
+ * 断言每批产量、每批耗时与每 tick 产量 → 直接调用机器的 tick 方法若干次记录墙钟耗时。
+ *
+ * 网格中没有存储，产物会留在机器输出槽里，便于计数。
+ * 物品机器通过适配器的输入输出槽投料与计数；熵变反应仓的槽位是泛型槽，按 AEKey 投料与计数。
+ */
+final class ThroughputRun {
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final BlockPos CELL_POS = new BlockPos(1, 1, 2);
+    private static final BlockPos MACHINE_POS = new BlockPos(2, 1, 2);
+    private static final ResourceLocation CREATIVE_CELL = new ResourceLocation("ae2", "creative_energy_cell");
+
+    /** 装扩容卡时最多投放的配方份数，避免测试过慢 */
+    private static final int MAX_FED_CRAFTS = 4096;
+    /** 超频完成时间允许的额外 tick（扣电 + 输出刷新） */
+    private static final int OVERCLOCK_SLACK_TICKS = 3;
+    /** 计时阶段调用 tick 方法的次数 */
+    private static final int TIMED_CALLS = 50;
+
+    /**
+     * 配方的一种输入或输出
+     *
+     * @param key      物品或流体
+     * @param perCraft 每份配方的数量
+     */
+    private record Part(AEKey key, long perCraft) {
+    }
+
+    private final GameTestHelper helper;
+    private final MachineScenario scenario;
+    private final CardLoadout loadout;
+
+    private BlockEntity blockEntity;
+    private Object machine;
+    private MachineAdapter<Object> adapter;
+    @Nullable
+    private Part result;
+    private long expectedCrafts;
+    private long startTick;
+    private long batchTick;
+    private long producedAmount;
+
+    ThroughputRun(GameTestHelper helper, MachineScenario scenario, CardLoadout loadout) {
+        this.helper = helper;
+        this.scenario = scenario;
+        this.loadout = loadout;
+    }
+
+    void start() {
+        Block cell = ForgeRegistries.BLOCKS.getValue(CREATIVE_CELL);
+        Block block = ForgeRegistries.BLOCKS.getValue(new ResourceLocation(scenario.blockId));
+        if (cell == null || block == null) {
+            helper.fail("Missing block " + (cell == null ? CREATIVE_CELL : scenario.blockId));
+            return;
+        }
+        helper.setBlock(CELL_POS, cell);
+        helper.setBlock(MACHINE_POS, block);
+
+        helper.startSequence()
+                .thenWaitUntil(this::awaitOnline)
+                .thenExecute(this::installAndFeed)
+                .thenWaitUntil(this::awaitFirstBatch)
+                .thenExecute(this::verifyAndTime)
+                .thenSucceed();
+    }
+
+    private void awaitOnline() {
+        blockEntity = helper.getBlockEntity(MACHINE_POS);
+        helper.assertTrue(blockEntity != null, "Machine block entity not placed");
+        machine = scenario.machine(blockEntity);
+        adapter = MachineAdapters.get(machine);
+        helper.assertTrue(adapter != null, "No machine adapter for " + scenario.blockId);
+        IGridNode node = adapter.getGridNode(machine);
+        helper.assertTrue(node != null && node.isActive(), "Grid not online yet");
+    }
+
+    private void installAndFeed() {
+        IUpgradeInventory upgrades = HostResolver.resolveUpgrades(blockEntity);
+        helper.assertTrue(upgrades != null, "Machine has no upgrade inventory");
+        for (ItemStack card : loadout.cards()) {
+            helper.assertTrue(upgrades.addItems(card).isEmpty(), "Machine rejected " + card.getItem());
+        }
+
+        InternalInventory input = adapter.getInputSlots(machine);
+        if (input == null) {
+            feedGeneric();
+        } else {
+            feedItems(input);
+        }
+        startTick = helper.getTick();
+    }
+
+    private void feedItems(InternalInventory input) {
+        Recipe<?> recipe = findRecipe();
+        helper.assertTrue(recipe != null, "No item-only recipe of type " + scenario.recipeTypeId);
+        ItemStack resultStack = recipe.getResultItem(helper.getLevel().registryAccess());
+        result = new Part(AEItemKey.of(resultStack), resultStack.getCount());
+
+        long fed;
+        if (recipe instanceof InscriberRecipe inscriberRecipe && adapter instanceof PressMachineAdapter<Object> press) {
+            fed = feedCrafts(1);
+            setTemplate(press.getTopSlot(machine), inscriberRecipe.getTopOptional());
+            setTemplate(press.getBottomSlot(machine), inscriberRecipe.getBottomOptional());
+            insertOrFail(input, firstStack(inscriberRecipe.getMiddleInput()), fed);
+        } else {
+            List<ItemStack> inputs = itemInputs(recipe);
+            int maxPerCraft = 1;
+            for (ItemStack stack : inputs) {
+                maxPerCraft = Math.max(maxPerCraft, stack.getCount());
+            }
+            fed = feedCrafts(maxPerCraft);
+            for (ItemStack stack : inputs) {
+                insertOrFail(input, stack, stack.getCount() * fed);
+            }
+        }
+
+        long outputRoom = loadout.capacity() ? Long.MAX_VALUE : resultStack.getMaxStackSize() / resultStack.getCount();
+        expectedCrafts = Math.min(Math.min(loadout.parallel(), fed), outputRoom);
+    }
+
+    private void feedGeneric() {
+        GenericStackInv input = genericInventory("getInputInv");
+        GenericStackInv output = genericInventory("getOutputInv");
+        helper.assertTrue(input != null && output != null, "Machine has neither item nor generic slots");
+
+        Part in = null;
+        for (Recipe<?> recipe : recipesOfType()) {
+            Part candidateIn = genericInput(recipe);
+            Part candidateOut = genericOutput(recipe);
+            if (candidateIn != null && candidateOut != null) {
+                in = candidateIn;
+                result = candidateOut;
+                break;
+            }
+        }
+        helper.assertTrue(in != null, "No generic recipe of type " + scenario.recipeTypeId);
+
+        long inputRoom = OutputCapacity.remainingCapacity(input, 0, in.key()) / in.perCraft();
+        long fed = Math.max(Math.min(Math.min(loadout.parallel(), inputRoom), MAX_FED_CRAFTS), 1);
+        long toInsert = in.perCraft() * fed;
+        long inserted = input.insert(in.key(), toInsert, Actionable.MODULATE, IActionSource.empty());
+        helper.assertTrue(inserted == toInsert, "Input slots rejected " + (toInsert - inserted) + " " + in.key());
+
+        long outputRoom = OutputCapacity.remainingCapacity(output, 0, result.key()) / result.perCraft();
+        expectedCrafts = Math.min(Math.min(loadout.parallel(), fed), outputRoom);
+    }
+
+    private void awaitFirstBatch() {
+        producedAmount = countOutput();
+        helper.assertTrue(producedAmount > 0, "No output yet");
+        batchTick = helper.getTick();
+    }
+
+    private void verifyAndTime() {
+        long ticksPerBatch = Math.max(batchTick - startTick, 1);
+        long expectedAmount = expectedCrafts * result.perCraft();
+        helper.assertTrue(producedAmount == expectedAmount,
+                "Expected " + expectedAmount + " items in first batch, got " + producedAmount);
+
+        // 超频卡把一批压到配置的 tick 数内；否则不超过机器本身的加工时间，并行卡不能让一批变慢
+        int tickLimit = loadout.overclock()
+                ? Ae2OcConfig.getOverclockCardProcessTicks() + OVERCLOCK_SLACK_TICKS
+                : scenario.maxBatchTicks;
+        helper.assertTrue(ticksPerBatch <= tickLimit,
+                "Batch took " + ticksPerBatch + " ticks, limit " + tickLimit);
+
+        double itemsPerTick = (double) producedAmount / ticksPerBatch;
+        double minItemsPerTick = (double) expectedAmount / tickLimit;
+        helper.assertTrue(itemsPerTick >= minItemsPerTick,
+                "Throughput " + String.format(Locale.ROOT, "%.2f", itemsPerTick) + " items/tick, expected at least "
+                        + String.format(Locale.ROOT, "%.2f", minItemsPerTick));
+
+        long[] timing = timeTickMethod();
+        LOGGER.info("[ae2oc gametest] {} {}: {} items/batch, {} ticks/batch, {} items/tick, {}: avg {} ns, max {} ns",
+                scenario.name().toLowerCase(Locale.ROOT), loadout.id(),
+                producedAmount, ticksPerBatch, String.format(Locale.ROOT, "%.2f", itemsPerTick),
+                scenario.tickMethod, timing[0], timing[1]);
+    }
+
+    private List<Recipe<?>> recipesOfType() {
+        ResourceLocation typeId = new ResourceLocation(scenario.recipeTypeId);
+        List<Recipe<?>> result = new ArrayList<>();
+        for (Recipe<?> recipe : helper.getLevel().getRecipeManager().getRecipes()) {
+            if (typeId.equals(BuiltInRegistries.RECIPE_TYPE.getKey(recipe.getType()))) {
+                result.add(recipe);
+            }
+        }
+        return result;
+    }
+
+    @Nullable
+    private Recipe<?> findRecipe() {
+        for (Recipe<?> recipe : recipesOfType()) {
+            if (recipe.getResultItem(helper.getLevel().registryAccess()).isEmpty()) {
+                continue;
+            }
+            if (recipe instanceof InscriberRecipe inscriberRecipe) {
+                // 只用不消耗模板的配方，第一批之后模板仍在
+                if (inscriberRecipe.getProcessType() == InscriberProcessType.INSCRIBE) {
+                    return recipe;
+                }
+                continue;
+            }
+            List<ItemStack> inputs = itemInputs(recipe);
+            if (!inputs.isEmpty() && inputs.stream().noneMatch(ItemStack::isEmpty)) {
+                return recipe;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 配方每份的物品输入（数量即每份消耗量）
+     *
+     * AE2CS 的配方用带数量的材料（蚀刻器/聚合器的 required()、粉碎机的 input()），
+     * getIngredients 只给出不带数量的材料，这里优先读带数量的版本。
+     */
+    private static List<ItemStack> itemInputs(Recipe<?> recipe) {
+        List<ItemStack> result = new ArrayList<>();
+        Object sized = invokeNoArg(recipe, "required");
+        if (sized instanceof List<?> list) {
+            for (Object entry : list) {
+                result.add(sizedStack(entry));
+            }
+            return result;
+        }
+        sized = invokeNoArg(recipe, "input");
+        if (sized != null && !(sized instanceof Ingredient)) {
+            result.add(sizedStack(sized));
+            return result;
+        }
+        for (Ingredient ingredient : recipe.getIngredients()) {
+            result.add(firstStack(ingredient));
+        }
+        return result;
+    }
+
+    private static ItemStack sizedStack(Object sized) {
+        if (!(invokeNoArg(sized, "ingredient") instanceof Ingredient ingredient)
+                || !(invokeNoArg(sized, "count") instanceof Number count)) {
+            return ItemStack.EMPTY;
+        }
+        ItemStack first = firstStack(ingredient);
+        return first.isEmpty() ? first : first.copyWithCount(count.intValue());
+    }
+
+    /**
+     * 熵变反应仓配方的输入（物品或流体）；读不出时返回 null
+     */
+    @Nullable
+    private static Part genericInput(Recipe<?> recipe) {
+        Object input = invokeNoArg(recipe, "input");
+        if (input instanceof GenericStack stack) {
+            return stack.amount() > 0 ? new Part(stack.what(), stack.amount()) : null;
+        }
+        if (input instanceof FluidStack fluid && !fluid.isEmpty()) {
+            return new Part(AEFluidKey.of(fluid), fluid.getAmount());
+        }
+        if (input instanceof Ingredient ingredient) {
+            ItemStack first = firstStack(ingredient);
+            return first.isEmpty() ? null : new Part(AEItemKey.of(first), first.getCount());
+        }
+        if (input != null) {
+            ItemStack first = sizedStack(input);
+            return first.isEmpty() ? null : new Part(AEItemKey.of(first), first.getCount());
+        }
+        return null;
+    }
+
+    /**
+     * 熵变反应仓配方的第一个产物，由机器自己的 getRecipeOutput 给出；读不出时返回 null
+     */
+    @Nullable
+    private Part genericOutput(Recipe<?> recipe) {
+        for (Class<?> c = blockEntity.getClass(); c != null; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                if (!method.getName().equals("getRecipeOutput") || method.getParameterCount() != 1
+                        || !Modifier.isStatic(method.getModifiers())
+                        || !method.getParameterTypes()[0].isInstance(recipe)) {
+                    continue;
+                }
+                try {
+                    method.setAccessible(true);
+                    if (method.invoke(null, recipe) instanceof List<?> outputs && !outputs.isEmpty()
+                            && outputs.get(0) instanceof GenericStack stack && stack.amount() > 0) {
+                        return new Part(stack.what(), stack.amount());
+                    }
+                } catch (ReflectiveOperationException ignored) {
+                }
+                return null;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private GenericStackInv genericInventory(String getter) {
+        return invokeNoArg(machine, getter) instanceof GenericStackInv inv ? inv : null;
+    }
+
+    @Nullable
+    private static Object invokeNoArg(Object target, String name) {
+        try {
+            Method method = target.getClass().getMethod(name);
+            method.setAccessible(true);
+            return method.invoke(target);
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * 本次投放的配方份数：装扩容卡时按并行数投放（有上限），否则受 64 格上限约束
+     */
+    private int feedCrafts(int perCraft) {
+        int slotRoom = loadout.capacity() ? MAX_FED_CRAFTS : Math.max(64 / perCraft, 1);
+        return Math.max(Math.min(loadout.parallel(), slotRoom), 1);
+    }
+
+    private void setTemplate(@Nullable InternalInventory slot, Ingredient ingredient) {
+        if (slot != null && !ingredient.isEmpty()) {
+            slot.setItemDirect(0, firstStack(ingredient).copyWithCount(1));
+        }
+    }
+
+    private void insertOrFail(InternalInventory input, ItemStack template, long count) {
+        ItemStack remainder = input.addItems(template.copyWithCount((int) count));
+        helper.assertTrue(remainder.isEmpty(), "Input slots rejected " + remainder.getCount() + " " + template.getItem());
+    }
+
+    private static ItemStack firstStack(Ingredient ingredient) {
+        ItemStack[] items = ingredient.getItems();
+        return items.length == 0 ? ItemStack.EMPTY : items[0];
+    }
+
+    /**
+     * 输出槽中产物的总量；装扩容卡时包括虚拟槽位的溢出部分
+     */
+    private long countOutput() {
+        InternalInventory output = adapter.getOutputSlots(machine);
+        if (output == null) {
+            GenericStackInv generic = genericInventory("getOutputInv");
+            return generic == null ? 0 : generic.getAmount(0);
+        }
+        if (!(result.key() instanceof AEItemKey resultKey)) {
+            return 0;
+        }
+        long count = 0;
+        for (int slot = 0; slot < output.size(); slot++) {
+            ItemStack stack = output.getStackInSlot(slot);
+            if (resultKey.matches(stack)) {
+                count += VirtualSlots.amount(output, slot);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 直接调用机器的 tick 方法，返回 {平均 ns, 最大 ns}；找不到方法时返回 {-1, -1}
+     */
+    private long[] timeTickMethod() {
+        Method method = null;
+        Object[] args = null;
+        try {
+            method = blockEntity.getClass().getMethod(scenario.tickMethod, IGridNode.class, int.class);
+            args = new Object[]{adapter.getGridNode(machine), 1};
+        } catch (NoSuchMethodException e) {
+            try {
+                method = blockEntity.getClass().getMethod(scenario.tickMethod);
+                args = new Object[0];
+            } catch (NoSuchMethodException ignored) {
+            }
+        }
+        if (method == null) {
+            return new long[]{-1, -1};
+        }
+
+        long total = 0;
+        long max = 0;
+        try {
+            for (int i = 0; i < TIMED_CALLS; i++) {
+                long begin = System.nanoTime();
+                method.invoke(blockEntity, args);
+                long elapsed = System.nanoTime() - begin;
+                total += elapsed;
+                max = Math.max(max, elapsed);
+            }
+        } catch (ReflectiveOperationException e) {
+            helper.fail("Failed to invoke " + scenario.tickMethod + ": " + e.getCause());
+        }
+        return new long[]{total / TIMED_CALLS, max};
+    }
+}
@@ -0,0 +1,20 @@
+package moakiee.mixin;
+
+import appeng.api.stacks.GenericStack;
+import appeng.helpers.externalstorage.GenericStackInv;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+/**
+ * AE2 GenericStackInv 的类型化访问器，供 {@link MixinConfigInventory} 使用
+ */
+@Mixin(value = GenericStackInv.class, remap = false)
+public interface AccessorGenericStackInv {
+
+    @Accessor("stacks")
+    GenericStack[] ae2oc_getStacks();
+
+    @Invoker("onChange")
+    void ae2oc_invokeOnChange();
+}
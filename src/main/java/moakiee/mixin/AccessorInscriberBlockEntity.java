@@ -0,0 +1,26 @@
+package moakiee.mixin;
+
+import appeng.blockentity.misc.InscriberBlockEntity;
+import appeng.util.inv.AppEngInternalInventory;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+/**
+ * AE2 压印器的类型化访问器，供 {@link moakiee.support.machine.InscriberMachineAdapter} 使用
+ */
+@Mixin(value = InscriberBlockEntity.class, remap = false)
+public interface AccessorInscriberBlockEntity {
+
+    @Accessor("sideItemHandler")
+    AppEngInternalInventory ae2oc_getSideItemHandler();
+
+    @Accessor("topItemHandler")
+    AppEngInternalInventory ae2oc_getTopItemHandler();
+
+    @Accessor("bottomItemHandler")
+    AppEngInternalInventory ae2oc_getBottomItemHandler();
+
+    @Invoker("setProcessingTime")
+    void ae2oc_invokeSetProcessingTime(int processingTime);
+}
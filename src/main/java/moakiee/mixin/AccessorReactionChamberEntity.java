@@ -0,0 +1,38 @@
+package moakiee.mixin;
+
+import appeng.helpers.externalstorage.GenericStackInv;
+import appeng.util.inv.AppEngInternalInventory;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+/**
+ * AdvancedAE 反应仓的类型化访问器，供 {@link moakiee.support.machine.ReactionChamberAdapter} 使用
+ */
+@Mixin(targets = "net.pedroksl.advanced_ae.common.entities.ReactionChamberEntity", remap = false)
+public interface AccessorReactionChamberEntity {
+
+    @Accessor("inputInv")
+    AppEngInternalInventory ae2oc_getInputInv();
+
+    @Accessor("outputInv")
+    AppEngInternalInventory ae2oc_getOutputInv();
+
+    @Accessor("processingTime")
+    int ae2oc_getProcessingTime();
+
+    @Accessor("processingTime")
+    void ae2oc_setProcessingTime(int processingTime);
+
+    @Accessor("dirty")
+    boolean ae2oc_isDirty();
+
+    @Accessor("dirty")
+    void ae2oc_setDirty(boolean dirty);
+
+    @Invoker("getTank")
+    GenericStackInv ae2oc_invokeGetTank();
+
+    @Invoker("setWorking")
+    void ae2oc_invokeSetWorking(boolean working);
+}
@@ -0,0 +1,28 @@
+package moakiee.mixin;
+
+import appeng.util.inv.AppEngInternalInventory;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+/**
+ * ExtendedAE 电路切片器的类型化访问器，供 {@link moakiee.support.machine.CircuitCutterAdapter} 使用
+ */
+@Mixin(targets = "com.glodblock.github.extendedae.common.tileentities.TileCircuitCutter", remap = false)
+public interface AccessorTileCircuitCutter {
+
+    @Accessor("input")
+    AppEngInternalInventory ae2oc_getInput();
+
+    @Accessor("output")
+    AppEngInternalInventory ae2oc_getOutput();
+
+    @Accessor("progress")
+    int ae2oc_getProgress();
+
+    @Accessor("progress")
+    void ae2oc_setProgress(int progress);
+
+    @Invoker("setWorking")
+    void ae2oc_invokeSetWorking(boolean working);
+}
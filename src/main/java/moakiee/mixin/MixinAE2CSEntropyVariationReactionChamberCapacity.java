@@ -4,6 +4,7 @@ import appeng.api.stacks.AEKeyType;
 import appeng.helpers.externalstorage.GenericStackInv;
 import moakiee.Ae2OcConfig;
 import moakiee.support.CapacityCardRuntime;
+import moakiee.support.HookProfiler;
 import moakiee.support.OverstackingRegistry;
 import net.minecraft.nbt.CompoundTag;
 import org.spongepowered.asm.mixin.Mixin;
@@ -42,6 +43,16 @@ public class MixinAE2CSEntropyVariationReactionChamberCapacity {
 
     @Inject(method = "serverTick", at = @At("HEAD"))
     private void ae2oc_beforeServerTick(CallbackInfo ci) {
+        long profileStart = HookProfiler.begin();
+        try {
+            ae2oc_beforeServerTickImpl(ci);
+        } finally {
+            HookProfiler.end(HookProfiler.Hook.AE2CS_CAPACITY_SERVER_TICK, profileStart);
+        }
+    }
+
+    @Unique
+    private void ae2oc_beforeServerTickImpl(CallbackInfo ci) {
         ae2oc_applyCapacity();
     }
 
@@ -1,8 +1,14 @@
 package moakiee.mixin;
 
+import appeng.api.inventories.InternalInventory;
 import appeng.util.inv.AppEngInternalInventory;
 import moakiee.Ae2OcConfig;
-import moakiee.support.CapacityCardRuntime;
+import moakiee.support.CardSnapshot;
+import moakiee.support.HookProfiler;
+import moakiee.support.VirtualSlotHolder;
+import moakiee.support.VirtualSlots;
+import moakiee.support.machine.AE2CSMachineAdapter;
+import moakiee.support.machine.MachineAdapters;
 import net.minecraft.nbt.CompoundTag;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Pseudo;
@@ -11,8 +17,10 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
-import java.lang.reflect.Method;
-
+/**
+ * AE2CS 物品机器的堆叠卡：装卡时提升输入/输出槽上限，并开启 long 数量的虚拟槽位（{@link VirtualSlots}），
+ * 单槽不再受 Integer.MAX_VALUE 限制
+ */
 @Pseudo
 @Mixin(targets = {
         "io.github.lounode.ae2cs.common.block.entity.CircuitEtcherBlockEntity",
@@ -23,6 +31,10 @@ public class MixinAE2CSItemMachinesCapacity {
 
     private static final int AE2OC_DEFAULT_ITEM_LIMIT = 64;
 
+    /** 上次应用槽位上限时的卡片快照；快照重建（换卡或配置重载）后才重新应用 */
+    @Unique
+    private CardSnapshot ae2oc_appliedSnapshot;
+
     @Inject(method = "<init>", at = @At("TAIL"))
     private void ae2oc_afterCtor(CallbackInfo ci) {
         ae2oc_applyItemCapacity();
@@ -30,49 +42,58 @@ public class MixinAE2CSItemMachinesCapacity {
 
     @Inject(method = "loadTag", at = @At("TAIL"))
     private void ae2oc_afterLoadTag(CompoundTag data, CallbackInfo ci) {
+        this.ae2oc_appliedSnapshot = null;
         ae2oc_applyItemCapacity();
     }
 
     @Inject(method = "serverTick", at = @At("HEAD"))
     private void ae2oc_beforeServerTick(CallbackInfo ci) {
+        long profileStart = HookProfiler.begin();
+        try {
+            ae2oc_beforeServerTickImpl(ci);
+        } finally {
+            HookProfiler.end(HookProfiler.Hook.AE2CS_CAPACITY_SERVER_TICK, profileStart);
+        }
+    }
+
+    @Unique
+    private void ae2oc_beforeServerTickImpl(CallbackInfo ci) {
         ae2oc_applyItemCapacity();
     }
 
     @Unique
     private void ae2oc_applyItemCapacity() {
-        int targetLimit = CapacityCardRuntime.getInstalledCapacityCards(this) > 0
-                ? Ae2OcConfig.getCapacityCardSlotLimit()
-                : AE2OC_DEFAULT_ITEM_LIMIT;
+        CardSnapshot snapshot = CardSnapshot.of(this);
+        if (snapshot == this.ae2oc_appliedSnapshot) {
+            return;
+        }
 
-        Object inputInv = ae2oc_tryInvokeNoArg(this, "getInputInv");
-        Object outputInv = ae2oc_tryInvokeNoArg(this, "getOutputInv");
+        AE2CSMachineAdapter adapter = MachineAdapters.AE2CS_MACHINE;
+        InternalInventory inputInv = adapter.getInputSlots(this);
+        InternalInventory outputInv = adapter.getOutputSlots(this);
+        if (inputInv == null || outputInv == null) {
+            return;
+        }
 
-        ae2oc_applyInventoryLimit(inputInv, targetLimit);
-        ae2oc_applyInventoryLimit(outputInv, targetLimit);
+        boolean hasCard = snapshot.hasCapacityCard();
+        int targetLimit = hasCard ? Ae2OcConfig.getCapacityCardSlotLimit() : AE2OC_DEFAULT_ITEM_LIMIT;
+        ae2oc_applyInventoryLimit(inputInv, targetLimit, hasCard);
+        ae2oc_applyInventoryLimit(outputInv, targetLimit, hasCard);
+        this.ae2oc_appliedSnapshot = snapshot;
     }
 
     @Unique
-    private static void ae2oc_applyInventoryLimit(Object invObj, int targetLimit) {
-        if (!(invObj instanceof AppEngInternalInventory inv)) {
+    private static void ae2oc_applyInventoryLimit(InternalInventory slots, int targetLimit, boolean virtualSlots) {
+        if (!(slots instanceof AppEngInternalInventory inv)) {
             return;
         }
 
-        try {
-            Method setMaxStackSize = inv.getClass().getMethod("setMaxStackSize", int.class, int.class);
-            for (int i = 0; i < inv.size(); i++) {
-                setMaxStackSize.invoke(inv, i, targetLimit);
-            }
-        } catch (Throwable ignored) {
+        if (inv instanceof VirtualSlotHolder holder) {
+            holder.ae2oc_setVirtualSlotsEnabled(virtualSlots);
         }
-    }
 
-    @Unique
-    private static Object ae2oc_tryInvokeNoArg(Object target, String methodName) {
-        try {
-            Method method = target.getClass().getMethod(methodName);
-            return method.invoke(target);
-        } catch (Throwable ignored) {
-            return null;
+        for (int i = 0; i < inv.size(); i++) {
+            inv.setMaxStackSize(i, targetLimit);
         }
     }
 }
@@ -1,16 +1,33 @@
 package moakiee.mixin;
 
 import appeng.api.config.Actionable;
-import appeng.api.config.PowerMultiplier;
+import appeng.api.inventories.InternalInventory;
 import appeng.api.networking.IGridNode;
-import appeng.api.networking.energy.IEnergyService;
+import appeng.api.networking.energy.IEnergySource;
 import appeng.api.networking.security.IActionSource;
-import appeng.api.networking.storage.IStorageService;
+import appeng.api.stacks.AEFluidKey;
 import appeng.api.stacks.AEItemKey;
-import appeng.api.stacks.AEKey;
+import appeng.api.stacks.GenericStack;
+import appeng.helpers.externalstorage.GenericStackInv;
+import com.mojang.logging.LogUtils;
+import moakiee.support.BottleneckWindow;
+import moakiee.support.EnergyLedger;
+import moakiee.support.EnergySourceHolder;
+import moakiee.support.GridOutputBuffer;
+import moakiee.support.HookProfiler;
 import moakiee.support.ParallelCardRuntime;
+import moakiee.support.OutputFlushTracker;
 import moakiee.support.OverclockCardRuntime;
+import moakiee.support.ParallelEngine;
+import moakiee.support.VirtualSlots;
+import moakiee.support.machine.AE2CSMachineAdapter;
+import moakiee.support.machine.MachineAdapter;
+import moakiee.support.machine.MachineAdapters;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Pseudo;
 import org.spongepowered.asm.mixin.Unique;
@@ -19,9 +36,8 @@ import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.util.List;
+import java.util.function.BooleanSupplier;
 
 @Pseudo
 @Mixin(targets = {
@@ -30,13 +46,18 @@ import java.util.List;
         "io.github.lounode.ae2cs.common.block.entity.CrystalAggregatorBlockEntity",
         "io.github.lounode.ae2cs.common.block.entity.EntropyVariationReactionChamberBlockEntity"
 }, remap = false)
-public class MixinAE2CSOverclock {
+public class MixinAE2CSOverclock implements EnergySourceHolder {
+
+    @Unique
+    private static final Logger AE2OC_LOGGER = LogUtils.getLogger();
 
     @Unique
     private int ae2oc_prevProgress = -1;
     @Unique
     private int ae2oc_pendingParallel = 0;
     @Unique
+    private ParallelEngine.Bottleneck ae2oc_pendingBottleneck;
+    @Unique
     private boolean ae2oc_overclockArmed = false;
     @Unique
     private boolean ae2oc_hasOverclock = false;
@@ -47,18 +68,60 @@ public class MixinAE2CSOverclock {
     @Unique
     private double ae2oc_cachedUnitEnergy = 0.0;
     @Unique
-    private Object ae2oc_cachedLevel = null;
+    private Level ae2oc_cachedLevel = null;
+    @Unique
+    private final EnergyLedger ae2oc_energyLedger = new EnergyLedger();
+    @Unique
+    private IEnergySource ae2oc_energySource;
+    /** 装卡但没有进行中的配方：只检查配方是否开始与输出槽变化，跳过其余准备工作 */
+    @Unique
+    private boolean ae2oc_idle = false;
+    /** 输出容器（机器生命周期内不变），首次使用时取一次 */
+    @Unique
+    private Object ae2oc_outputInv;
+
+    @Override
+    public IEnergySource ae2oc_getEnergySource() {
+        return ae2oc_energySource;
+    }
+
+    @Override
+    public void ae2oc_setEnergySource(IEnergySource source) {
+        this.ae2oc_energySource = source;
+    }
 
     @Inject(method = "serverTick", at = @At("HEAD"))
     private void ae2oc_beforeServerTick(CallbackInfo ci) {
+        long profileStart = HookProfiler.begin();
+        try {
+            ae2oc_beforeServerTickImpl(ci);
+        } finally {
+            HookProfiler.end(HookProfiler.Hook.AE2CS_BEFORE_SERVER_TICK, profileStart);
+        }
+    }
+
+    @Unique
+    private void ae2oc_beforeServerTickImpl(CallbackInfo ci) {
+        // 空闲时上一 tick 已清空缓存状态；配方未开始则只处理输出槽变化
+        if (this.ae2oc_idle) {
+            if (MachineAdapters.AE2CS_MACHINE.getCurrentRecipe(this) == null) {
+                if (ParallelCardRuntime.getParallelMultiplier(this) > 1 || OverclockCardRuntime.hasOverclockCard(this)) {
+                    ae2oc_flushOutputToMENetwork();
+                    return;
+                }
+            }
+            this.ae2oc_idle = false;
+        }
+
         this.ae2oc_prevProgress = -1;
         this.ae2oc_pendingParallel = 0;
+        this.ae2oc_pendingBottleneck = null;
         this.ae2oc_overclockArmed = false;
         this.ae2oc_hasOverclock = false;
         this.ae2oc_cachedRecipe = null;
         this.ae2oc_cachedMatch = null;
         this.ae2oc_cachedUnitEnergy = 0.0;
-        this.ae2oc_cachedLevel = ae2oc_getLevel(this);
+        this.ae2oc_cachedLevel = (Object) this instanceof BlockEntity blockEntity ? blockEntity.getLevel() : null;
 
         // serverTick() 仅在服务端调用（ServerTickingBlockEntity接口保证），无需 isServer 检查
         int parallelMultiplier = ParallelCardRuntime.getParallelMultiplier(this);
@@ -72,10 +135,12 @@ public class MixinAE2CSOverclock {
 
         this.ae2oc_hasOverclock = hasOverclock;
 
-        Integer progress = ae2oc_getIntField(this, "recipeProgress");
-        Integer total = ae2oc_getIntField(this, "activeRecipeEnergyCost");
-        Object recipe = ae2oc_getFieldRecursive(this, "activeRecipe");
-        if (progress == null || total == null || recipe == null || total <= 0) {
+        AE2CSMachineAdapter adapter = MachineAdapters.AE2CS_MACHINE;
+        int progress = adapter.getProgress(this);
+        int total = adapter.getEnergyCost(this);
+        Object recipe = adapter.getCurrentRecipe(this);
+        this.ae2oc_idle = recipe == null;
+        if (progress < 0 || recipe == null || total <= 0) {
             return;
         }
 
@@ -83,19 +148,29 @@ public class MixinAE2CSOverclock {
         this.ae2oc_cachedRecipe = recipe;
         this.ae2oc_cachedUnitEnergy = total;
 
-        int pending = ae2oc_calculateParallel(recipe, parallelMultiplier, hasOverclock, total);
+        int pending = ae2oc_calculateParallel(recipe, parallelMultiplier, total);
         this.ae2oc_pendingParallel = Math.max(pending, 1);
         this.ae2oc_overclockArmed = hasOverclock && progress < total;
     }
 
     @Inject(method = "serverTick", at = @At("RETURN"))
     private void ae2oc_afterServerTick(CallbackInfo ci) {
+        long profileStart = HookProfiler.begin();
+        try {
+            ae2oc_afterServerTickImpl(ci);
+        } finally {
+            HookProfiler.end(HookProfiler.Hook.AE2CS_AFTER_SERVER_TICK, profileStart);
+        }
+    }
+
+    @Unique
+    private void ae2oc_afterServerTickImpl(CallbackInfo ci) {
         if (this.ae2oc_cachedRecipe == null) {
             return;
         }
 
-        Integer currentProgress = ae2oc_getIntField(this, "recipeProgress");
-        if (currentProgress == null) {
+        int currentProgress = MachineAdapters.AE2CS_MACHINE.getProgress(this);
+        if (currentProgress < 0) {
             return;
         }
 
@@ -108,6 +183,7 @@ public class MixinAE2CSOverclock {
         if (extraRounds > 0) {
             ae2oc_doExtraRounds(extraRounds);
         }
+        BottleneckWindow.record(this, this.ae2oc_pendingBottleneck);
 
         // 超频或并行完成后，都将本地输出槽产物转移到 ME 网络
         if (this.ae2oc_hasOverclock || this.ae2oc_pendingParallel > 1) {
@@ -121,9 +197,9 @@ public class MixinAE2CSOverclock {
             return;
         }
 
-        Integer progress = ae2oc_getIntField(this, "recipeProgress");
-        Integer total = ae2oc_getIntField(this, "activeRecipeEnergyCost");
-        if (progress == null || total == null) {
+        int progress = MachineAdapters.AE2CS_MACHINE.getProgress(this);
+        int total = MachineAdapters.AE2CS_MACHINE.getEnergyCost(this);
+        if (progress < 0 || total < 0) {
             return;
         }
 
@@ -138,373 +214,308 @@ public class MixinAE2CSOverclock {
 
     // 并行模式不修改 getEnergyPerTick：
     // 在 AE2CS 机器中 progress = consumedEnergy，缩放能耗会直接加速配方完成。
-    // 并行的额外能量由 ae2oc_doOneExtraRound 中逐轮扣除。
+    // 并行的额外份数在 ae2oc_doExtraRounds 中按份数一次性预留能量，未用上的部分退回。
 
     @Unique
-    private int ae2oc_calculateParallel(Object recipe, int cardMultiplier, boolean hasOverclock, int unitEnergy) {
+    private int ae2oc_calculateParallel(Object recipe, int cardMultiplier, int unitEnergy) {
         if (cardMultiplier <= 1) {
+            this.ae2oc_pendingBottleneck = ParallelEngine.Bottleneck.CARD;
             return 1;
         }
 
         int materialLimit = ae2oc_getMaterialLimit(recipe);
-        if (materialLimit <= 0) {
+
+        // 产物直出 ME 网络，输出空间不参与约束；能量在追加结算时一次性预留，不预先查询
+        ParallelEngine.ParallelResult result = ParallelEngine.calculateSimple(
+                cardMultiplier, materialLimit, 1,
+                Integer.MAX_VALUE,
+                Double.MAX_VALUE, unitEnergy);
+        this.ae2oc_pendingBottleneck = result.bottleneck();
+        return Math.max(result.actualParallel(), 1);
+    }
+
+    /**
+     * 按输入槽剩余材料计算还能执行的份数（蚀刻器/聚合器同时刷新 ae2oc_cachedMatch）
+     */
+    @Unique
+    private int ae2oc_getMaterialLimit(Object recipe) {
+        AE2CSMachineAdapter adapter = MachineAdapters.AE2CS_MACHINE;
+        String machine = this.getClass().getName();
+        if (machine.endsWith("EntropyVariationReactionChamberBlockEntity")) {
+            GenericStackInv inputInv = adapter.getGenericInput(this);
+            GenericStack gs = inputInv == null ? null : inputInv.getStack(0);
+            if (gs == null) {
+                return 0;
+            }
+            long amount = gs.what() instanceof AEFluidKey ? gs.amount() / AEFluidKey.AMOUNT_BUCKET : gs.amount();
+            return (int) Math.min(Math.max(amount, 0L), Integer.MAX_VALUE);
+        }
+
+        InternalInventory inputInv = adapter.getInputSlots(this);
+        if (inputInv == null) {
             return 1;
         }
 
-        int energyLimit = Integer.MAX_VALUE;
-        if (hasOverclock && unitEnergy > 0) {
-            double available = ae2oc_getAvailableEnergy();
-            energyLimit = (int) Math.max(0, available / unitEnergy);
+        if (machine.endsWith("CrystalPulverizerBlockEntity")) {
+            int need = adapter.getCount(adapter.getInput(recipe));
+            return (int) Math.min(VirtualSlots.amount(inputInv, 0) / need, Integer.MAX_VALUE);
+        }
+
+        // 电路蚀刻器 / 水晶聚合器：三槽配方，材料与槽位的对应关系由配方的 findMatch 给出
+        int[] match = adapter.findMatch(recipe, inputInv);
+        if (match == null) {
+            return 0;
         }
+        this.ae2oc_cachedMatch = match;
 
-        int actual = Math.min(cardMultiplier, Math.min(materialLimit, energyLimit));
-        return Math.max(actual, 1);
+        List<?> required = adapter.getRequired(recipe);
+        if (required == null) {
+            return 1;
+        }
+        long min = Integer.MAX_VALUE;
+        for (int i = 0; i < required.size() && i < match.length; i++) {
+            int need = adapter.getCount(required.get(i));
+            min = Math.min(min, VirtualSlots.amount(inputInv, match[i]) / need);
+        }
+        return (int) min;
     }
 
+    /**
+     * 追加 extraRounds 份结算（原版本 tick 已完成 1 份），代价与份数无关：
+     * 先按剩余材料和输出空间（本地槽 + ME 网络）定出份数并一次性预留能量；
+     * 第一份调用机器自己的 consumeInputs，由槽位数量变化得到每份消耗量，其余份数一次性扣除；
+     * 产物按 单份数量 × 份数 一次性写出。
+     */
     @Unique
-    private int ae2oc_getMaterialLimit(Object recipe) {
-        try {
-            String machine = this.getClass().getName();
-            if (machine.endsWith("CircuitEtcherBlockEntity") || machine.endsWith("CrystalAggregatorBlockEntity")) {
-                Object inputInv = ae2oc_invokeNoArg(this, "getInputInv");
-                if (inputInv == null) {
-                    return 1;
-                }
+    private void ae2oc_doExtraRounds(int extraRounds) {
+        String machine = this.getClass().getName();
+        Object recipe = this.ae2oc_cachedRecipe;
+        double unitEnergy = Math.max(1.0, this.ae2oc_cachedUnitEnergy);
 
-                Method getStackInSlot = inputInv.getClass().getMethod("getStackInSlot", int.class);
-                ItemStack s0 = (ItemStack) getStackInSlot.invoke(inputInv, 0);
-                ItemStack s1 = (ItemStack) getStackInSlot.invoke(inputInv, 1);
-                ItemStack s2 = (ItemStack) getStackInSlot.invoke(inputInv, 2);
+        // 原版本 tick 已消耗一份，按剩余材料重新限制（同时刷新 ae2oc_cachedMatch）
+        long rounds = Math.min(extraRounds, ae2oc_getMaterialLimit(recipe));
+        if (rounds <= 0) return;
 
-                Class<?> inputCls = Class.forName("io.github.lounode.ae2cs.common.recipe.input.ThreeItemStackRecipeInput");
-                Method of = inputCls.getMethod("of", ItemStack.class, ItemStack.class, ItemStack.class);
-                Object input = of.invoke(null, s0, s1, s2);
+        IGridNode gridNode = MachineAdapters.AE2CS_MACHINE.getGridNode(this);
 
-                Method findMatch = recipe.getClass().getMethod("findMatch", inputCls);
-                int[] match = (int[]) findMatch.invoke(recipe, input);
-                if (match == null) {
-                    return 0;
-                }
-                this.ae2oc_cachedMatch = match;
-
-                Method required = recipe.getClass().getMethod("required");
-                @SuppressWarnings("unchecked")
-                List<Object> requiredList = (List<Object>) required.invoke(recipe);
-
-                int min = Integer.MAX_VALUE;
-                for (int i = 0; i < requiredList.size(); i++) {
-                    Object ing = requiredList.get(i);
-                    Method count = ing.getClass().getMethod("count");
-                    int need = (int) count.invoke(ing);
-                    int slot = match[i];
-                    ItemStack stack = (ItemStack) getStackInSlot.invoke(inputInv, slot);
-                    min = Math.min(min, stack.getCount() / Math.max(need, 1));
-                }
-                return min == Integer.MAX_VALUE ? 0 : min;
-            }
-
-            if (machine.endsWith("CrystalPulverizerBlockEntity")) {
-                Object inputInv = ae2oc_invokeNoArg(this, "getInputInv");
-                Method getStackInSlot = inputInv.getClass().getMethod("getStackInSlot", int.class);
-                ItemStack stack = (ItemStack) getStackInSlot.invoke(inputInv, 0);
+        if (machine.endsWith("EntropyVariationReactionChamberBlockEntity")) {
+            ae2oc_doEntropyRounds(recipe, gridNode, rounds, unitEnergy);
+        } else {
+            ae2oc_doItemRounds(machine, recipe, gridNode, rounds, unitEnergy);
+        }
+    }
 
-                Method input = recipe.getClass().getMethod("input");
-                Object sizedIng = input.invoke(recipe);
-                Method count = sizedIng.getClass().getMethod("count");
-                int need = (int) count.invoke(sizedIng);
-                return stack.getCount() / Math.max(need, 1);
-            }
+    /**
+     * 电路蚀刻器 / 水晶聚合器 / 水晶粉碎机：物品输入、物品输出，产物先进本地槽，
+     * 放不下的存入网格输出缓冲（tick 结束时合并进 ME 网络，网络少收的放回本地槽）
+     */
+    @Unique
+    private void ae2oc_doItemRounds(String machine, Object recipe, @Nullable IGridNode gridNode, long rounds,
+                                    double unitEnergy) {
+        AE2CSMachineAdapter adapter = MachineAdapters.AE2CS_MACHINE;
+        InternalInventory input = adapter.getInputSlots(this);
+        InternalInventory output = adapter.getOutputSlots(this);
+        Level level = this.ae2oc_cachedLevel;
+        if (input == null || output == null || level == null) return;
+
+        // 粉碎机的产物可分散到所有输出槽，蚀刻器/聚合器只用 0 号槽
+        boolean anySlot = machine.endsWith("CrystalPulverizerBlockEntity");
+        Object recipeInput;
+        BooleanSupplier consume;
+        if (anySlot) {
+            recipeInput = adapter.singleItemInput(input);
+            consume = () -> adapter.consumeInputs(this, recipe);
+        } else {
+            recipeInput = adapter.threeItemInput(input);
+            int[] cached = this.ae2oc_cachedMatch;
+            int[] match = cached != null ? cached : adapter.findMatch(recipe, input);
+            if (match == null) return;
+            consume = () -> adapter.consumeInputs(this, recipe, match);
+        }
 
-            if (machine.endsWith("EntropyVariationReactionChamberBlockEntity")) {
-                Object inputInv = ae2oc_invokeNoArg(this, "getInputInv");
-                Method getStack = inputInv.getClass().getMethod("getStack", int.class);
-                Object gs = getStack.invoke(inputInv, 0);
-                if (gs == null) {
-                    return 0;
-                }
-                Method what = gs.getClass().getMethod("what");
-                Method amount = gs.getClass().getMethod("amount");
-                Object key = what.invoke(gs);
-                long amt = ((Number) amount.invoke(gs)).longValue();
-                if (key != null && key.getClass().getName().contains("Fluid")) {
-                    return (int) Math.max(amt / 1000L, 0L);
-                }
-                return (int) Math.max(amt, 0L);
+        ItemStack unit = adapter.assemble(recipe, recipeInput, level.registryAccess());
+        if (unit.isEmpty()) return;
+        AEItemKey key = AEItemKey.of(unit);
+        long perRound = unit.getCount();
+
+        // 输出空间
+        long total = perRound * rounds;
+        long localRoom = key == null ? 0 : ae2oc_insertLocal(output, key, total, anySlot, Actionable.SIMULATE);
+        long networkRoom = key == null || localRoom >= total ? 0
+                : Math.min(GridOutputBuffer.networkRoom(gridNode, key, IActionSource.empty()), total - localRoom);
+        rounds = Math.min(rounds, (localRoom + networkRoom) / perRound);
+
+        long reserved = ae2oc_reserveEnergy(unitEnergy, rounds);
+        if (reserved < rounds) {
+            this.ae2oc_pendingBottleneck = ParallelEngine.Bottleneck.ENERGY;
+        }
+        long done = ae2oc_consumeItemRounds(input, consume, reserved);
+        ae2oc_releaseEnergy(unitEnergy * (reserved - done));
+        if (done <= 0) return;
+
+        if (key == null) return;
+        long produced = perRound * done;
+        long leftover = produced - ae2oc_insertLocal(output, key, Math.min(produced, localRoom), anySlot,
+                Actionable.MODULATE);
+        if (leftover > 0) {
+            GridOutputBuffer.Fallback fallback = (k, amount) -> k instanceof AEItemKey itemKey
+                    ? ae2oc_insertLocal(output, itemKey, amount, anySlot, Actionable.MODULATE)
+                    : 0;
+            leftover -= GridOutputBuffer.deposit(gridNode, key, leftover, IActionSource.empty(), fallback);
+            if (leftover > 0) {
+                leftover -= fallback.place(key, leftover);
             }
-        } catch (Throwable ignored) {
         }
-        return 1;
+        if (leftover > 0) {
+            AE2OC_LOGGER.warn("{} could not store {} x {}", machine, leftover, key);
+        }
     }
 
+    /**
+     * 熵变反应仓：泛型输入输出（物品/流体），产物先存入网格输出缓冲（tick 结束时合并进 ME 网络），
+     * 网络收不下的进本地槽
+     */
     @Unique
-    private void ae2oc_doExtraRounds(int extraRounds) {
-        try {
-            String machine = this.getClass().getName();
-            Object recipe = this.ae2oc_cachedRecipe;
-            double unitEnergy = Math.max(1.0, this.ae2oc_cachedUnitEnergy);
-
-            Object inputInv = ae2oc_invokeNoArg(this, "getInputInv");
-            Object outputInv = ae2oc_invokeNoArg(this, "getOutputInv");
-            if (inputInv == null || outputInv == null) return;
-
-            Object level = this.ae2oc_cachedLevel;
-            if (level == null) return;
-            Object registryAccess = ae2oc_getRegistryAccess(level);
-
-            if (machine.endsWith("CircuitEtcherBlockEntity") || machine.endsWith("CrystalAggregatorBlockEntity")) {
-                // 预缓存所有 Method / Class
-                Method getStackInSlot = inputInv.getClass().getMethod("getStackInSlot", int.class);
-                Class<?> inputCls = Class.forName("io.github.lounode.ae2cs.common.recipe.input.ThreeItemStackRecipeInput");
-                Method of = inputCls.getMethod("of", ItemStack.class, ItemStack.class, ItemStack.class);
-                Method insertItem = outputInv.getClass().getMethod("insertItem", int.class, ItemStack.class, boolean.class);
-                Method consume = this.getClass().getDeclaredMethod("consumeInputs", recipe.getClass(), int[].class);
-                consume.setAccessible(true);
-
-                for (int i = 0; i < extraRounds; i++) {
-                    if (!ae2oc_tryConsumeEnergy(unitEnergy)) break;
-
-                    ItemStack s0 = (ItemStack) getStackInSlot.invoke(inputInv, 0);
-                    ItemStack s1 = (ItemStack) getStackInSlot.invoke(inputInv, 1);
-                    ItemStack s2 = (ItemStack) getStackInSlot.invoke(inputInv, 2);
-                    Object input = of.invoke(null, s0, s1, s2);
-                    if (registryAccess == null) break;
-                    ItemStack result = ae2oc_invokeAssemble(recipe, input, registryAccess);
-                    if (result == null || result.isEmpty()) break;
-
-                    ItemStack remain = (ItemStack) insertItem.invoke(outputInv, 0, result, true);
-                    if (remain != null && !remain.isEmpty()) {
-                        if (!ae2oc_tryOutputToMENetwork(result)) break;
-                        int[] match = this.ae2oc_cachedMatch;
-                        if (match == null) match = ae2oc_recalculateMatch(inputInv, recipe);
-                        if (match == null) break;
-                        Object consumed = consume.invoke(this, recipe, match);
-                        if (!(consumed instanceof Boolean ok) || !ok) break;
-                    } else {
-                        int[] match = this.ae2oc_cachedMatch;
-                        if (match == null) match = ae2oc_recalculateMatch(inputInv, recipe);
-                        if (match == null) break;
-                        Object consumed = consume.invoke(this, recipe, match);
-                        if (!(consumed instanceof Boolean ok) || !ok) break;
-                        insertItem.invoke(outputInv, 0, result, false);
-                    }
-                }
-                return;
-            }
+    private void ae2oc_doEntropyRounds(Object recipe, @Nullable IGridNode gridNode, long rounds, double unitEnergy) {
+        AE2CSMachineAdapter adapter = MachineAdapters.AE2CS_MACHINE;
+        GenericStackInv input = adapter.getGenericInput(this);
+        GenericStackInv output = adapter.getGenericOutput(this);
+        if (input == null || output == null) return;
+
+        List<?> outputs = adapter.getRecipeOutput(this, recipe);
+        if (outputs == null || outputs.isEmpty()) return;
+        IActionSource localSource = adapter.getActionSource(this);
+
+        // 输出空间（各产物分别检查）
+        for (Object entry : outputs) {
+            if (!(entry instanceof GenericStack gs) || gs.amount() <= 0) continue;
+            long total = gs.amount() * rounds;
+            long networkRoom = Math.min(GridOutputBuffer.networkRoom(gridNode, gs.what(), IActionSource.empty()), total);
+            long localRoom = networkRoom >= total ? 0
+                    : output.insert(gs.what(), total - networkRoom, Actionable.SIMULATE, localSource);
+            rounds = Math.min(rounds, (networkRoom + localRoom) / gs.amount());
+        }
 
-            if (machine.endsWith("CrystalPulverizerBlockEntity")) {
-                Method getStackInSlot = inputInv.getClass().getMethod("getStackInSlot", int.class);
-                Class<?> inputCls = Class.forName("io.github.lounode.ae2cs.common.recipe.input.SingleItemStackRecipeInput");
-                Method of = inputCls.getMethod("of", ItemStack.class);
-                Method addItems = outputInv.getClass().getMethod("addItems", ItemStack.class, boolean.class);
-                Method consume = this.getClass().getDeclaredMethod("consumeInputs", recipe.getClass());
-                consume.setAccessible(true);
-
-                for (int i = 0; i < extraRounds; i++) {
-                    if (!ae2oc_tryConsumeEnergy(unitEnergy)) break;
-
-                    ItemStack s0 = (ItemStack) getStackInSlot.invoke(inputInv, 0);
-                    Object input = of.invoke(null, s0);
-                    if (registryAccess == null) break;
-                    ItemStack result = ae2oc_invokeAssemble(recipe, input, registryAccess);
-                    if (result == null || result.isEmpty()) break;
-
-                    ItemStack remain = (ItemStack) addItems.invoke(outputInv, result, true);
-                    if (remain != null && !remain.isEmpty()) {
-                        if (!ae2oc_tryOutputToMENetwork(result)) break;
-                        Object consumed = consume.invoke(this, recipe);
-                        if (!(consumed instanceof Boolean ok) || !ok) break;
-                    } else {
-                        Object consumed = consume.invoke(this, recipe);
-                        if (!(consumed instanceof Boolean ok) || !ok) break;
-                        addItems.invoke(outputInv, result, false);
-                    }
-                }
-                return;
+        long reserved = ae2oc_reserveEnergy(unitEnergy, rounds);
+        if (reserved < rounds) {
+            this.ae2oc_pendingBottleneck = ParallelEngine.Bottleneck.ENERGY;
+        }
+        long done = ae2oc_consumeGenericRounds(input, () -> adapter.consumeInputs(this, recipe), reserved);
+        ae2oc_releaseEnergy(unitEnergy * (reserved - done));
+        if (done <= 0) return;
+
+        GridOutputBuffer.Fallback fallback = (key, amount) -> output.insert(key, amount, Actionable.MODULATE,
+                localSource);
+        for (Object entry : outputs) {
+            if (!(entry instanceof GenericStack gs) || gs.amount() <= 0) continue;
+            long total = gs.amount() * done;
+            long leftover = total - GridOutputBuffer.deposit(gridNode, gs.what(), total, IActionSource.empty(),
+                    fallback);
+            if (leftover > 0) {
+                leftover -= fallback.place(gs.what(), leftover);
             }
-
-            if (machine.endsWith("EntropyVariationReactionChamberBlockEntity")) {
-                Method getRecipeOutput = this.getClass().getDeclaredMethod("getRecipeOutput", recipe.getClass());
-                getRecipeOutput.setAccessible(true);
-                Method consume = this.getClass().getDeclaredMethod("consumeInputs", recipe.getClass());
-                consume.setAccessible(true);
-
-                // 预获取 ME 网络和本地 outputInv
-                Object mainNode = ae2oc_invokeNoArg(this, "getMainNode");
-                Object gridNodeObj = mainNode != null ? ae2oc_invokeNoArg(mainNode, "getNode") : null;
-                IStorageService storageService = null;
-                if (gridNodeObj instanceof IGridNode gridNode) {
-                    var grid = gridNode.getGrid();
-                    if (grid != null) {
-                        storageService = grid.getService(IStorageService.class);
-                    }
-                }
-                Object actionSource = ae2oc_getFieldRecursive(this, "actionSource");
-                Method localInsert = outputInv.getClass().getMethod("insert",
-                        Class.forName("appeng.api.stacks.AEKey"), long.class, Actionable.class,
-                        Class.forName("appeng.api.networking.security.IActionSource"));
-
-                for (int i = 0; i < extraRounds; i++) {
-                    if (!ae2oc_tryConsumeEnergy(unitEnergy)) break;
-
-                    @SuppressWarnings("unchecked")
-                    List<Object> outputs = (List<Object>) getRecipeOutput.invoke(null, recipe);
-                    if (outputs == null || outputs.isEmpty()) break;
-
-                    // 模拟检查
-                    boolean canOutput = true;
-                    for (Object gs : outputs) {
-                        Method what = gs.getClass().getMethod("what");
-                        Method amount = gs.getClass().getMethod("amount");
-                        Object key = what.invoke(gs);
-                        long amt = ((Number) amount.invoke(gs)).longValue();
-                        if (storageService != null) {
-                            long accepted = storageService.getInventory().insert(
-                                    (AEKey) key, amt, Actionable.SIMULATE, IActionSource.empty());
-                            if (accepted < amt) {
-                                long localAccepted = ((Number) localInsert.invoke(
-                                        outputInv, key, amt, Actionable.SIMULATE, actionSource)).longValue();
-                                if (localAccepted < amt) { canOutput = false; break; }
-                            }
-                        } else {
-                            long accepted = ((Number) localInsert.invoke(
-                                    outputInv, key, amt, Actionable.SIMULATE, actionSource)).longValue();
-                            if (accepted < amt) { canOutput = false; break; }
-                        }
-                    }
-                    if (!canOutput) break;
-
-                    // 扣材料
-                    Object consumed = consume.invoke(this, recipe);
-                    if (!(consumed instanceof Boolean ok) || !ok) break;
-
-                    // 实际输出
-                    for (Object gs : outputs) {
-                        Method what = gs.getClass().getMethod("what");
-                        Method amount = gs.getClass().getMethod("amount");
-                        Object key = what.invoke(gs);
-                        long amt = ((Number) amount.invoke(gs)).longValue();
-                        if (storageService != null) {
-                            long accepted = storageService.getInventory().insert(
-                                    (AEKey) key, amt, Actionable.MODULATE, IActionSource.empty());
-                            if (accepted < amt) {
-                                long remain = amt - accepted;
-                                localInsert.invoke(outputInv, key, remain, Actionable.MODULATE, actionSource);
-                            }
-                        } else {
-                            localInsert.invoke(outputInv, key, amt, Actionable.MODULATE, actionSource);
-                        }
-                    }
-                }
+            if (leftover > 0) {
+                AE2OC_LOGGER.warn("Entropy variation reaction chamber could not store {} x {}", leftover, gs.what());
             }
-        } catch (Throwable ignored) {
         }
     }
 
+    /**
+     * 消耗 rounds 份物品材料：第一份调用 consumeInputs，由各槽数量变化得到每份消耗量，
+     * 其余份数按该消耗量一次性扣除
+     *
+     * @return 实际消耗的份数
+     */
     @Unique
-    private static int[] ae2oc_recalculateMatch(Object inputInv, Object recipe) {
-        try {
-            Method getStackInSlot = inputInv.getClass().getMethod("getStackInSlot", int.class);
-            ItemStack s0 = (ItemStack) getStackInSlot.invoke(inputInv, 0);
-            ItemStack s1 = (ItemStack) getStackInSlot.invoke(inputInv, 1);
-            ItemStack s2 = (ItemStack) getStackInSlot.invoke(inputInv, 2);
+    private static long ae2oc_consumeItemRounds(InternalInventory input, BooleanSupplier consume, long rounds) {
+        if (rounds <= 0) return 0;
 
-            Class<?> inputCls = Class.forName("io.github.lounode.ae2cs.common.recipe.input.ThreeItemStackRecipeInput");
-            Method of = inputCls.getMethod("of", ItemStack.class, ItemStack.class, ItemStack.class);
-            Object input = of.invoke(null, s0, s1, s2);
-
-            Method findMatch = recipe.getClass().getMethod("findMatch", inputCls);
-            return (int[]) findMatch.invoke(recipe, input);
-        } catch (Throwable ignored) {
-            return null;
+        int size = input.size();
+        long[] before = new long[size];
+        for (int i = 0; i < size; i++) {
+            before[i] = VirtualSlots.amount(input, i);
         }
-    }
+        if (!consume.getAsBoolean()) return 0;
+
+        long more = rounds - 1;
+        long[] perRound = new long[size];
+        boolean consumed = false;
+        for (int i = 0; i < size; i++) {
+            long after = VirtualSlots.amount(input, i);
+            perRound[i] = before[i] - after;
+            if (perRound[i] > 0) {
+                consumed = true;
+                more = Math.min(more, after / perRound[i]);
+            }
+        }
+        // 没有观察到消耗时不推算，只算已执行的一份
+        if (!consumed || more <= 0) return 1;
 
-    @Unique
-    private static ItemStack ae2oc_invokeAssemble(Object recipe, Object input, Object registryAccess) {
-        try {
-            for (Method method : recipe.getClass().getMethods()) {
-                if (!"assemble".equals(method.getName()) || method.getParameterCount() != 2) {
-                    continue;
-                }
-                Class<?>[] p = method.getParameterTypes();
-                if (!p[0].isInstance(input)) {
-                    continue;
-                }
-                if (!p[1].isInstance(registryAccess)) {
-                    continue;
-                }
-                Object result = method.invoke(recipe, input, registryAccess);
-                if (result instanceof ItemStack stack) {
-                    return stack;
-                }
+        for (int i = 0; i < size; i++) {
+            if (perRound[i] > 0) {
+                VirtualSlots.extract(input, i, null, more * perRound[i], Actionable.MODULATE);
             }
-        } catch (Throwable ignored) {
         }
-        return ItemStack.EMPTY;
+        return 1 + more;
     }
 
+    /**
+     * 消耗 rounds 份泛型材料，做法同 {@link #ae2oc_consumeItemRounds}
+     *
+     * @return 实际消耗的份数
+     */
     @Unique
-    private double ae2oc_getAvailableEnergy() {
-        double total = 0;
-        try {
-            Method extract = this.getClass().getMethod("extractAEPower", double.class, Actionable.class);
-            Object v = extract.invoke(this, Double.MAX_VALUE, Actionable.SIMULATE);
-            if (v instanceof Number n) {
-                total += n.doubleValue();
+    private static long ae2oc_consumeGenericRounds(GenericStackInv input, BooleanSupplier consume, long rounds) {
+        if (rounds <= 0) return 0;
+
+        int size = input.size();
+        long[] before = new long[size];
+        for (int i = 0; i < size; i++) {
+            GenericStack gs = input.getStack(i);
+            before[i] = gs == null ? 0 : gs.amount();
+        }
+        if (!consume.getAsBoolean()) return 0;
+
+        long more = rounds - 1;
+        long[] perRound = new long[size];
+        boolean consumed = false;
+        for (int i = 0; i < size; i++) {
+            GenericStack gs = input.getStack(i);
+            long after = gs == null ? 0 : gs.amount();
+            perRound[i] = before[i] - after;
+            if (perRound[i] > 0) {
+                consumed = true;
+                more = Math.min(more, after / perRound[i]);
             }
-        } catch (Throwable ignored) {
         }
+        if (!consumed || more <= 0) return 1;
 
-        // 加上 ME 网络能量
-        try {
-            Object mainNode = ae2oc_invokeNoArg(this, "getMainNode");
-            if (mainNode != null) {
-                Object gridNodeObj = ae2oc_invokeNoArg(mainNode, "getNode");
-                if (gridNodeObj instanceof IGridNode gridNode) {
-                    var grid = gridNode.getGrid();
-                    if (grid != null) {
-                        IEnergyService energyService = grid.getEnergyService();
-                        total += energyService.extractAEPower(Double.MAX_VALUE, Actionable.SIMULATE, PowerMultiplier.CONFIG);
-                    }
-                }
+        for (int i = 0; i < size; i++) {
+            GenericStack gs = input.getStack(i);
+            if (perRound[i] > 0 && gs != null) {
+                long remaining = gs.amount() - more * perRound[i];
+                input.setStack(i, remaining > 0 ? new GenericStack(gs.what(), remaining) : null);
             }
-        } catch (Throwable ignored) {
         }
-        return total;
+        return 1 + more;
     }
 
     /**
-     * 将产物直接输出到 ME 网络存储。
-     * AE2CS 机器继承自 AENetworkBlockEntity，可通过 getMainNode() 获取 IGridNode。
+     * 写入本地输出槽，返回接收的数量（装有堆叠卡时可写入虚拟槽位的 long 部分）
      */
     @Unique
-    private boolean ae2oc_tryOutputToMENetwork(ItemStack outputStack) {
-        try {
-            // 获取 IGridNode：getMainNode().getNode()
-            Object mainNode = ae2oc_invokeNoArg(this, "getMainNode");
-            if (mainNode == null) return false;
-            Object gridNodeObj = ae2oc_invokeNoArg(mainNode, "getNode");
-            if (!(gridNodeObj instanceof IGridNode gridNode)) return false;
-
-            var grid = gridNode.getGrid();
-            if (grid == null) return false;
-
-            IStorageService storageService = grid.getService(IStorageService.class);
-            if (storageService == null) return false;
-
-            AEItemKey key = AEItemKey.of(outputStack);
-            if (key == null) return false;
-
-            // 先模拟
-            long accepted = storageService.getInventory().insert(key, outputStack.getCount(), Actionable.SIMULATE, IActionSource.empty());
-            if (accepted < outputStack.getCount()) return false;
-
-            // 实际插入
-            storageService.getInventory().insert(key, outputStack.getCount(), Actionable.MODULATE, IActionSource.empty());
-            return true;
-        } catch (Throwable ignored) {
+    private static long ae2oc_insertLocal(InternalInventory output, AEItemKey key, long amount,
+                                          boolean anySlot, Actionable mode) {
+        if (amount <= 0) return 0;
+        if (!anySlot) {
+            return VirtualSlots.insert(output, 0, key, amount, mode);
         }
-        return false;
+        // 模拟时各槽位独立计算，与实插一样按槽位顺序累加
+        long inserted = 0;
+        for (int slot = 0; slot < output.size() && inserted < amount; slot++) {
+            inserted += VirtualSlots.insert(output, slot, key, amount - inserted, mode);
+        }
+        return inserted;
     }
 
     /**
@@ -514,191 +525,51 @@ public class MixinAE2CSOverclock {
     @Unique
     private void ae2oc_flushOutputToMENetwork() {
         try {
-            String machine = this.getClass().getName();
-
-            Object outputInv = ae2oc_invokeNoArg(this, "getOutputInv");
-            if (outputInv == null) return;
-
-            Object mainNode = ae2oc_invokeNoArg(this, "getMainNode");
-            if (mainNode == null) return;
-            Object gridNodeObj = ae2oc_invokeNoArg(mainNode, "getNode");
-            if (!(gridNodeObj instanceof IGridNode gridNode)) return;
-
-            var grid = gridNode.getGrid();
-            if (grid == null) return;
-
-            IStorageService storageService = grid.getService(IStorageService.class);
-            if (storageService == null) return;
-
-            // CircuitEtcher/CrystalAggregator 使用 getStackInSlot + setItemDirect
-            if (machine.endsWith("CircuitEtcherBlockEntity") || machine.endsWith("CrystalAggregatorBlockEntity")) {
-                Method getStackInSlot = outputInv.getClass().getMethod("getStackInSlot", int.class);
-                ItemStack stack = (ItemStack) getStackInSlot.invoke(outputInv, 0);
-                if (stack.isEmpty()) return;
-
-                AEItemKey key = AEItemKey.of(stack);
-                if (key == null) return;
-
-                long inserted = storageService.getInventory().insert(key, stack.getCount(), Actionable.MODULATE, IActionSource.empty());
-                if (inserted >= stack.getCount()) {
-                    Method setItemDirect = outputInv.getClass().getMethod("setItemDirect", int.class, ItemStack.class);
-                    setItemDirect.invoke(outputInv, 0, ItemStack.EMPTY);
-                } else if (inserted > 0) {
-                    stack.shrink((int) inserted);
-                }
+            Object outputInv = this.ae2oc_outputInv;
+            if (outputInv == null) {
+                AE2CSMachineAdapter adapter = MachineAdapters.AE2CS_MACHINE;
+                InternalInventory itemOutput = adapter.getOutputSlots(this);
+                outputInv = itemOutput != null ? itemOutput : adapter.getGenericOutput(this);
+                if (outputInv == null) return;
+                this.ae2oc_outputInv = outputInv;
             }
 
-            // CrystalPulverizer 使用 addItems，输出槽也是 AppEngInternalInventory
-            if (machine.endsWith("CrystalPulverizerBlockEntity")) {
-                Method getStackInSlot = outputInv.getClass().getMethod("getStackInSlot", int.class);
-                ItemStack stack = (ItemStack) getStackInSlot.invoke(outputInv, 0);
-                if (stack.isEmpty()) return;
-
-                AEItemKey key = AEItemKey.of(stack);
-                if (key == null) return;
-
-                long inserted = storageService.getInventory().insert(key, stack.getCount(), Actionable.MODULATE, IActionSource.empty());
-                if (inserted >= stack.getCount()) {
-                    Method setItemDirect = outputInv.getClass().getMethod("setItemDirect", int.class, ItemStack.class);
-                    setItemDirect.invoke(outputInv, 0, ItemStack.EMPTY);
-                } else if (inserted > 0) {
-                    stack.shrink((int) inserted);
-                }
-            }
+            // 输出槽无变化或正处于拒收退避中时跳过（物品槽与泛型槽的变化均由 Mixin 标记）
+            if (!OutputFlushTracker.take(outputInv)) return;
 
-            // EntropyVariationReactor 使用 ConfigInventory (GenericInternalInventory)，支持 AEKey（物品/流体）
-            if (machine.endsWith("EntropyVariationReactionChamberBlockEntity")) {
-                Method sizeMethod = outputInv.getClass().getMethod("size");
-                int size = ((Number) sizeMethod.invoke(outputInv)).intValue();
-                Method getStack = outputInv.getClass().getMethod("getStack", int.class);
-                Method extractMethod = outputInv.getClass().getMethod("extract",
-                        int.class, Class.forName("appeng.api.stacks.AEKey"), long.class, Actionable.class);
-
-                for (int slot = 0; slot < size; slot++) {
-                    Object gs = getStack.invoke(outputInv, slot);
-                    if (gs == null) continue;
-                    Method what = gs.getClass().getMethod("what");
-                    Method amount = gs.getClass().getMethod("amount");
-                    Object key = what.invoke(gs);
-                    if (key == null) continue;
-                    long amt = ((Number) amount.invoke(gs)).longValue();
-                    if (amt <= 0) continue;
-
-                    long inserted = storageService.getInventory().insert(
-                            (AEKey) key, amt, Actionable.MODULATE, IActionSource.empty());
-                    if (inserted > 0) {
-                        extractMethod.invoke(outputInv, slot, key, inserted, Actionable.MODULATE);
-                    }
-                }
-            }
-        } catch (Throwable ignored) {
-        }
-    }
+            IGridNode gridNode = MachineAdapters.AE2CS_MACHINE.getGridNode(this);
 
-    @Unique
-    private boolean ae2oc_tryConsumeEnergy(double amount) {
-        try {
-            // 1. 模拟检查总可用能量（内部 + 网络）
-            Method extract = this.getClass().getMethod("extractAEPower", double.class, Actionable.class);
-            Object simV = extract.invoke(this, amount, Actionable.SIMULATE);
-            double internalAvail = (simV instanceof Number n) ? n.doubleValue() : 0;
-
-            double networkAvail = 0;
-            IEnergyService energyService = null;
-            Object mainNode = ae2oc_invokeNoArg(this, "getMainNode");
-            if (mainNode != null) {
-                Object gridNodeObj = ae2oc_invokeNoArg(mainNode, "getNode");
-                if (gridNodeObj instanceof IGridNode gridNode) {
-                    var grid = gridNode.getGrid();
-                    if (grid != null) {
-                        energyService = grid.getEnergyService();
-                        networkAvail = energyService.extractAEPower(amount, Actionable.SIMULATE, PowerMultiplier.CONFIG);
-                    }
-                }
-            }
-
-            if (internalAvail + networkAvail < amount - 0.01) {
-                return false; // 总量不够
+            // CircuitEtcher/CrystalAggregator/CrystalPulverizer 的输出槽是 AppEngInternalInventory，
+            // 登记到网格输出缓冲，tick 结束时与同网格其他机器合并插入（网络不可用时由缓冲负责退避）
+            if (outputInv instanceof InternalInventory itemOutput) {
+                GridOutputBuffer.queueDrain(gridNode, itemOutput, 0, IActionSource.empty());
+                return;
             }
 
-            // 2. 实际扣除：先扣内部，剩余扣网络
-            Object modV = extract.invoke(this, amount, Actionable.MODULATE);
-            double actualInternal = (modV instanceof Number n2) ? n2.doubleValue() : 0;
-            double remaining = amount - actualInternal;
-
-            if (remaining > 0.01 && energyService != null) {
-                energyService.extractAEPower(remaining, Actionable.MODULATE, PowerMultiplier.CONFIG);
+            // EntropyVariationReactor 使用 ConfigInventory (GenericStackInv)，支持 AEKey（物品/流体），同样逐槽登记
+            if (outputInv instanceof GenericStackInv genericOutput) {
+                for (int slot = 0; slot < genericOutput.size(); slot++) {
+                    GridOutputBuffer.queueDrain(gridNode, genericOutput, slot, IActionSource.empty());
+                }
             }
-
-            return true;
         } catch (Throwable ignored) {
         }
-        return false;
-    }
-
-    @Unique
-    private static Object ae2oc_getLevel(Object target) {
-        // 尝试方法调用（MCP 名称）
-        Object level = ae2oc_invokeNoArg(target, "getLevel");
-        if (level != null) return level;
-        // 尝试字段访问（MCP 名称）
-        level = ae2oc_getFieldRecursive(target, "level");
-        if (level != null) return level;
-        // 尝试 SRG 字段名（BlockEntity.level -> f_58857_）
-        level = ae2oc_getFieldRecursive(target, "f_58857_");
-        if (level != null) return level;
-        // 尝试 SRG 方法名（BlockEntity.getLevel -> m_58904_）
-        level = ae2oc_invokeNoArg(target, "m_58904_");
-        return level;
-    }
-
-    @Unique
-    private static Object ae2oc_invokeNoArg(Object target, String methodName) {
-        if (target == null) {
-            return null;
-        }
-        try {
-            Method m = target.getClass().getMethod(methodName);
-            return m.invoke(target);
-        } catch (Throwable ignored) {
-            return null;
-        }
-    }
-
-    @Unique
-    private static Object ae2oc_getFieldRecursive(Object target, String fieldName) {
-        if (target == null) {
-            return null;
-        }
-
-        Class<?> clazz = target.getClass();
-        while (clazz != null) {
-            try {
-                Field field = clazz.getDeclaredField(fieldName);
-                field.setAccessible(true);
-                return field.get(target);
-            } catch (Throwable ignored) {
-                clazz = clazz.getSuperclass();
-            }
-        }
-        return null;
     }
 
+    /**
+     * 为 units 份配方一次性预留能量
+     *
+     * @return 批准的份数
+     */
     @Unique
-    private static Integer ae2oc_getIntField(Object target, String fieldName) {
-        Object value = ae2oc_getFieldRecursive(target, fieldName);
-        if (value instanceof Integer i) {
-            return i;
-        }
-        return null;
+    private long ae2oc_reserveEnergy(double unitEnergy, long units) {
+        MachineAdapter<Object> adapter = MachineAdapters.AE2CS_MACHINE;
+        return ae2oc_energyLedger.reserve(adapter.getEnergySource(this), adapter.getGridNode(this), unitEnergy, units);
     }
 
     @Unique
-    private static Object ae2oc_getRegistryAccess(Object level) {
-        // 尝试 MCP -> SRG 方法名
-        Object ra = ae2oc_invokeNoArg(level, "registryAccess");
-        if (ra != null) return ra;
-        ra = ae2oc_invokeNoArg(level, "m_9598_");
-        return ra;
+    private void ae2oc_releaseEnergy(double amount) {
+        MachineAdapter<Object> adapter = MachineAdapters.AE2CS_MACHINE;
+        ae2oc_energyLedger.release(adapter.getEnergySource(this), adapter.getGridNode(this), amount);
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,11 @@
 package moakiee.mixin;
 
 import appeng.api.inventories.InternalInventory;
+import moakiee.support.VirtualSlots;
+import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
 
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
@@ -10,10 +13,13 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
+import java.util.List;
+
 /**
  * 修复 AE2 机器超量堆叠 NBT 持久化问题。
  * saveAdditional TAIL: 重写超过 64 的槽位数据，加入 ae2ocCount 标记。
  * loadTag TAIL: 从 ae2ocCount 标记恢复真实数量。
+ * addAdditionalDrops TAIL: 堆叠卡虚拟槽位的溢出部分随机器一起掉落。
  */
 @Mixin(targets = "appeng.blockentity.AEBaseInvBlockEntity", remap = false)
 public abstract class MixinAEBaseInvBlockEntity {
@@ -124,4 +130,12 @@ public abstract class MixinAEBaseInvBlockEntity {
             }
         }
     }
+
+    /**
+     * addAdditionalDrops TAIL: 原版只掉落可见的 ItemStack，溢出部分在这里补上并清空。
+     */
+    @Inject(method = "addAdditionalDrops", at = @At("TAIL"), require = 0)
+    private void ae2oc_dropVirtualOverflow(Level level, BlockPos pos, List<ItemStack> drops, CallbackInfo ci) {
+        VirtualSlots.dropMachineOverflow(this, drops);
+    }
 }
@@ -5,20 +5,36 @@ import appeng.menu.slot.CraftingMatrixSlot;
 import appeng.menu.slot.DisabledSlot;
 import appeng.menu.slot.FakeSlot;
 import appeng.menu.slot.InaccessibleSlot;
+import moakiee.support.BottleneckSync;
+import moakiee.support.BottleneckSyncHolder;
+import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.DataSlot;
+import net.minecraft.world.inventory.MenuType;
 import net.minecraft.world.inventory.Slot;
 import net.minecraft.world.item.ItemStack;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Mixin(value = AEBaseMenu.class, remap = false)
-public abstract class MixinAEBaseMenu {
+public abstract class MixinAEBaseMenu extends AbstractContainerMenu implements BottleneckSyncHolder {
+
+    /** 可装并行卡的机器菜单才有，见 {@link BottleneckSync} */
+    @Unique
+    private BottleneckSync ae2oc_bottleneckSync;
+
+    protected MixinAEBaseMenu(MenuType<?> menuType, int containerId) {
+        super(menuType, containerId);
+    }
 
     @Shadow
     private boolean isPlayerSideSlot(Slot slot) {
@@ -31,6 +47,27 @@ public abstract class MixinAEBaseMenu {
     @Shadow
     protected abstract ItemStack transferStackToMenu(ItemStack input);
 
+    @Override
+    public BottleneckSync ae2oc_getBottleneckSync() {
+        return ae2oc_bottleneckSync;
+    }
+
+    /**
+     * 为可装并行卡的机器菜单注册瓶颈统计的 DataSlot，随菜单一起同步到客户端
+     */
+    @Inject(method = "<init>", at = @At("TAIL"), require = 0)
+    private void ae2oc_addBottleneckSync(MenuType<?> menuType, int id, Inventory playerInventory, Object host,
+                                         CallbackInfo ci) {
+        BottleneckSync sync = BottleneckSync.create(host, this.isClientSide());
+        if (sync == null) {
+            return;
+        }
+        for (DataSlot slot : sync.dataSlots()) {
+            this.addDataSlot(slot);
+        }
+        this.ae2oc_bottleneckSync = sync;
+    }
+
     @Inject(
             method = {
                     "quickMoveStack(Lnet/minecraft/world/entity/player/Player;I)Lnet/minecraft/world/item/ItemStack;",
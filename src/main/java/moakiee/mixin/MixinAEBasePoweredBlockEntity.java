@@ -4,6 +4,7 @@ import appeng.api.config.Actionable;
 import appeng.me.energy.StoredEnergyAmount;
 import moakiee.Ae2OcConfig;
 import moakiee.support.EnergyCardRuntime;
+import moakiee.support.HookProfiler;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
@@ -34,6 +35,16 @@ public class MixinAEBasePoweredBlockEntity {
      */
     @Inject(method = "getInternalMaxPower", at = @At("RETURN"), cancellable = true)
     private void ae2oc_getInternalMaxPower(CallbackInfoReturnable<Double> cir) {
+        long profileStart = HookProfiler.begin();
+        try {
+            ae2oc_getInternalMaxPowerImpl(cir);
+        } finally {
+            HookProfiler.end(HookProfiler.Hook.INTERNAL_MAX_POWER, profileStart);
+        }
+    }
+
+    @Unique
+    private void ae2oc_getInternalMaxPowerImpl(CallbackInfoReturnable<Double> cir) {
         ae2oc_updateStoredMaximum();
         
         if (EnergyCardRuntime.hasEnergyCard(this)) {
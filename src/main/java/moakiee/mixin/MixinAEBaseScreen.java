@@ -4,10 +4,14 @@ import appeng.client.gui.AEBaseScreen;
 import appeng.menu.slot.AppEngSlot;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.Tesselator;
+import moakiee.support.BottleneckSync;
+import moakiee.support.BottleneckSyncHolder;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.Font;
 import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
 import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.network.chat.Component;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
@@ -21,6 +25,32 @@ public class MixinAEBaseScreen {
     // 缩放因子：0.7f = 70% 大小
     private static final float SCALE_FACTOR = 0.7f;
 
+    /**
+     * 在机器界面上方显示最近批次中最常见的并行瓶颈（数据由 {@link BottleneckSync} 同步）
+     */
+    @Inject(
+            method = {
+                    "renderLabels(Lnet/minecraft/client/gui/GuiGraphics;II)V",
+                    "m_280003_(Lnet/minecraft/client/gui/GuiGraphics;II)V"
+            },
+            at = @At("TAIL"),
+            require = 0
+    )
+    private void ae2oc_renderBottleneck(GuiGraphics guiGraphics, int mouseX, int mouseY, CallbackInfo ci) {
+        Object menu = ((AbstractContainerScreen<?>) (Object) this).getMenu();
+        if (!(menu instanceof BottleneckSyncHolder holder)) {
+            return;
+        }
+        BottleneckSync sync = holder.ae2oc_getBottleneckSync();
+        Component text = sync == null ? null : sync.describe();
+        if (text == null) {
+            return;
+        }
+        // renderLabels 中坐标已平移到界面左上角，标签画在界面顶边之上
+        Font font = Minecraft.getInstance().font;
+        guiGraphics.drawString(font, text, 0, -font.lineHeight - 1, 0xFFFFFF, true);
+    }
+
     @Inject(method = "renderAppEngSlot", at = @At("HEAD"), cancellable = true)
     private void ae2oc_renderCompactCount(GuiGraphics guiGraphics, AppEngSlot slot, CallbackInfo ci) {
         var stack = slot.getItem();
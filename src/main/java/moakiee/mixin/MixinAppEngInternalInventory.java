@@ -1,22 +1,27 @@
 package moakiee.mixin;
 
-import appeng.api.upgrades.IUpgradeableObject;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.upgrades.IUpgradeInventory;
 import appeng.util.inv.AppEngInternalInventory;
 import appeng.util.inv.InternalInventoryHost;
 import moakiee.Ae2OcConfig;
-import moakiee.ModItems;
+import moakiee.support.CardSnapshot;
+import moakiee.support.HookProfiler;
+import moakiee.support.HostResolver;
+import moakiee.support.OutputFlushTracker;
+import moakiee.support.OutputFlushTrackerHolder;
+import moakiee.support.VirtualSlotHolder;
+import moakiee.support.VirtualSlots;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.Tag;
 import net.minecraft.core.NonNullList;
 import net.minecraft.world.item.ItemStack;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
@@ -25,26 +30,180 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 /**
  * 堆叠卡功能注入：装有堆叠卡时，提升槽位上限。
  * NBT 读写时通过 ae2ocCount 字段保存/恢复超量堆叠。
+ * 同时为用作机器输出槽的容器挂载刷新状态（{@link OutputFlushTracker}），内容变化时标记待刷新。
+ *
+ * getSlotLimit 对游戏中所有 AppEngInternalInventory 生效，调用非常频繁：
+ * 每个容器第一次查询时解析一次宿主的升级槽并缓存；解析不到升级槽的容器永久标记为不可能装卡，直接走原版。
+ * 槽位上限跟随升级槽上的卡片快照（{@link CardSnapshot}），快照重建（卡片变化、配置重载）时重新计算。
+ *
+ * 开启虚拟槽位（{@link VirtualSlots}）的容器另存每个槽位的 long 溢出量：
+ * setItemDirect 写入不满的同种物品时先从溢出部分补足；溢出量以 ae2ocOverflow 列表随 NBT 读写。
  */
 @Mixin(value = AppEngInternalInventory.class, remap = false)
-public class MixinAppEngInternalInventory {
+public class MixinAppEngInternalInventory implements OutputFlushTrackerHolder, VirtualSlotHolder {
 
     private static final String AE2OC_COUNT_KEY = "ae2ocCount";
+    private static final String AE2OC_OVERFLOW_SUFFIX = "_ae2ocOverflow";
 
     @Shadow
     @Final
     private NonNullList<ItemStack> stacks;
 
+    @Unique
+    private OutputFlushTracker ae2oc_flushTracker;
+
+    /** 已解析的宿主，宿主变化时重新解析 */
+    @Unique
+    private InternalInventoryHost ae2oc_capacityHost;
+
+    /** 宿主的升级槽；null 且 ae2oc_capacityResolved 时表示宿主不可能装堆叠卡 */
+    @Unique
+    private IUpgradeInventory ae2oc_capacityUpgrades;
+
+    @Unique
+    private boolean ae2oc_capacityResolved;
+
+    /** 计算 ae2oc_capacityLimit 时的卡片快照 */
+    @Unique
+    private CardSnapshot ae2oc_capacitySnapshot;
+
+    /** 堆叠卡生效时的槽位上限；0 表示不干预 */
+    @Unique
+    private int ae2oc_capacityLimit;
+
+    @Unique
+    private boolean ae2oc_virtualSlots;
+
+    /** 各槽位的溢出量，没有溢出时为 null */
+    @Unique
+    private long[] ae2oc_overflow;
+
+    @Unique
+    private AEItemKey[] ae2oc_overflowKeys;
+
+    /** 补足可见部分时会重入 setItemDirect */
+    @Unique
+    private boolean ae2oc_refilling;
+
+    @Override
+    public boolean ae2oc_isVirtualSlotsEnabled() {
+        return ae2oc_virtualSlots;
+    }
+
+    @Override
+    public void ae2oc_setVirtualSlotsEnabled(boolean enabled) {
+        this.ae2oc_virtualSlots = enabled;
+    }
+
+    @Override
+    public long ae2oc_getOverflow(int slot) {
+        long[] overflow = this.ae2oc_overflow;
+        return overflow == null || slot < 0 || slot >= overflow.length ? 0 : overflow[slot];
+    }
+
+    @Override
+    public AEItemKey ae2oc_getOverflowKey(int slot) {
+        AEItemKey[] keys = this.ae2oc_overflowKeys;
+        return keys == null || slot < 0 || slot >= keys.length ? null : keys[slot];
+    }
+
+    @Override
+    public void ae2oc_setOverflow(int slot, AEItemKey key, long amount) {
+        if (slot < 0 || slot >= this.stacks.size()) {
+            return;
+        }
+        if (amount <= 0 || key == null) {
+            if (this.ae2oc_overflow != null) {
+                this.ae2oc_overflow[slot] = 0;
+                this.ae2oc_overflowKeys[slot] = null;
+            }
+            return;
+        }
+        if (this.ae2oc_overflow == null) {
+            this.ae2oc_overflow = new long[this.stacks.size()];
+            this.ae2oc_overflowKeys = new AEItemKey[this.stacks.size()];
+        }
+        this.ae2oc_overflow[slot] = amount;
+        this.ae2oc_overflowKeys[slot] = key;
+    }
+
+    @Override
+    public OutputFlushTracker ae2oc_getFlushTracker() {
+        return ae2oc_flushTracker;
+    }
+
+    @Override
+    public void ae2oc_setFlushTracker(OutputFlushTracker tracker) {
+        this.ae2oc_flushTracker = tracker;
+    }
+
+    /**
+     * 可见部分被取走后从溢出部分补足：以补足后的栈重新调用 setItemDirect，宿主只收到一次变化通知
+     */
+    @Inject(method = "setItemDirect", at = @At("HEAD"), cancellable = true)
+    private void ae2oc_refillFromOverflow(int slot, ItemStack stack, CallbackInfo ci) {
+        if (this.ae2oc_overflow == null || this.ae2oc_refilling) {
+            return;
+        }
+        AppEngInternalInventory inventory = (AppEngInternalInventory) (Object) this;
+        ItemStack refilled = VirtualSlots.refill(this, slot, stack, inventory.getSlotLimit(slot));
+        if (refilled == null) {
+            return;
+        }
+        ci.cancel();
+        this.ae2oc_refilling = true;
+        try {
+            inventory.setItemDirect(slot, refilled);
+        } finally {
+            this.ae2oc_refilling = false;
+        }
+    }
+
+    @Inject(method = "setItemDirect", at = @At("TAIL"))
+    private void ae2oc_markFlushOnSet(int slot, ItemStack stack, CallbackInfo ci) {
+        if (this.ae2oc_flushTracker != null) {
+            OutputFlushTracker.markChanged(this);
+        }
+    }
+
     @Inject(method = "getSlotLimit", at = @At("HEAD"), cancellable = true)
     private void ae2oc_getSlotLimit(int slot, CallbackInfoReturnable<Integer> cir) {
+        long profileStart = HookProfiler.begin();
+        try {
+            ae2oc_getSlotLimitImpl(slot, cir);
+        } finally {
+            HookProfiler.end(HookProfiler.Hook.SLOT_LIMIT, profileStart);
+        }
+    }
+
+    @Unique
+    private void ae2oc_getSlotLimitImpl(int slot, CallbackInfoReturnable<Integer> cir) {
         AppEngInternalInventory inventory = (AppEngInternalInventory) (Object) this;
 
-        // 获取宿主（BlockEntity）
+        // 获取宿主（BlockEntity），只在第一次或宿主变化时解析升级槽
         InternalInventoryHost host = inventory.getHost();
+        if (!this.ae2oc_capacityResolved || host != this.ae2oc_capacityHost) {
+            this.ae2oc_capacityHost = host;
+            this.ae2oc_capacityUpgrades = HostResolver.resolveUpgrades(host);
+            this.ae2oc_capacityResolved = true;
+            this.ae2oc_capacitySnapshot = null;
+        }
+
+        IUpgradeInventory upgrades = this.ae2oc_capacityUpgrades;
+        if (upgrades == null) {
+            return;
+        }
+
+        // 快照未变时直接用缓存的上限
+        CardSnapshot snapshot = CardSnapshot.of(host, upgrades);
+        if (snapshot != this.ae2oc_capacitySnapshot) {
+            this.ae2oc_capacitySnapshot = snapshot;
+            this.ae2oc_capacityLimit = snapshot.hasCapacityCard() ? Ae2OcConfig.getCapacityCardSlotLimit() : 0;
+        }
 
         // 只有装了堆叠卡时才允许超过 64
-        if (getInstalledCapacityCards(host, 0) > 0) {
-            cir.setReturnValue(Ae2OcConfig.getCapacityCardSlotLimit());
+        if (this.ae2oc_capacityLimit > 0) {
+            cir.setReturnValue(this.ae2oc_capacityLimit);
         }
         // 不干预时让原版返回 64
     }
@@ -92,6 +251,8 @@ public class MixinAppEngInternalInventory {
 
     @Inject(method = "writeToNBT", at = @At("HEAD"), cancellable = true)
     private void ae2oc_writeToNBT(CompoundTag data, String name, CallbackInfo ci) {
+        ae2oc_writeOverflow(data, name);
+
         AppEngInternalInventory inventory = (AppEngInternalInventory) (Object) this;
 
         if (inventory.isEmpty()) {
@@ -144,6 +305,12 @@ public class MixinAppEngInternalInventory {
 
     @Inject(method = "readFromNBT", at = @At("HEAD"), cancellable = true)
     private void ae2oc_readFromNBT(CompoundTag data, String name, CallbackInfo ci) {
+        ae2oc_readOverflow(data, name);
+
+        if (this.ae2oc_flushTracker != null) {
+            OutputFlushTracker.markChanged(this);
+        }
+
         // 只有 NBT 中包含 ae2ocCount 标记时才接管；否则让原版处理
         if (!data.contains(name, Tag.TAG_LIST)) {
             return;
@@ -202,69 +369,47 @@ public class MixinAppEngInternalInventory {
         ci.cancel();
     }
 
-    private static int getInstalledCapacityCards(Object target, int depth) {
-        if (target == null || depth > 4) {
-            return 0;
-        }
-
-        if (target instanceof IUpgradeableObject upgradeable) {
-            return upgradeable.getUpgrades().getInstalledUpgrades(ModItems.CAPACITY_CARD.get());
-        }
-
-        Integer fromGetUpgrades = tryGetInstalledFromGetUpgrades(target);
-        if (fromGetUpgrades != null && fromGetUpgrades > 0) {
-            return fromGetUpgrades;
-        }
-
-        Object byGetBlockEntity = tryInvokeNoArg(target, "getBlockEntity");
-        int fromBlockEntity = getInstalledCapacityCards(byGetBlockEntity, depth + 1);
-        if (fromBlockEntity > 0) {
-            return fromBlockEntity;
+    /**
+     * 溢出量写在 name + "_ae2ocOverflow" 下：[{Slot, Item, Amount(long)}]；没有溢出时移除该键
+     */
+    @Unique
+    private void ae2oc_writeOverflow(CompoundTag data, String name) {
+        String key = name + AE2OC_OVERFLOW_SUFFIX;
+        long[] overflow = this.ae2oc_overflow;
+        ListTag entries = new ListTag();
+        if (overflow != null) {
+            for (int slot = 0; slot < overflow.length; slot++) {
+                AEItemKey item = this.ae2oc_overflowKeys[slot];
+                if (overflow[slot] <= 0 || item == null) {
+                    continue;
+                }
+                CompoundTag entry = new CompoundTag();
+                entry.putInt("Slot", slot);
+                entry.put("Item", item.toTag());
+                entry.putLong("Amount", overflow[slot]);
+                entries.add(entry);
+            }
         }
-
-        Object byGetHost = tryInvokeNoArg(target, "getHost");
-        int fromHost = getInstalledCapacityCards(byGetHost, depth + 1);
-        if (fromHost > 0) {
-            return fromHost;
+        if (entries.isEmpty()) {
+            data.remove(key);
+        } else {
+            data.put(key, entries);
         }
-
-        Object byHostField = tryGetField(target, "host");
-        return getInstalledCapacityCards(byHostField, depth + 1);
     }
 
-    private static Integer tryGetInstalledFromGetUpgrades(Object target) {
-        try {
-            Method getUpgrades = target.getClass().getMethod("getUpgrades");
-            Object upgrades = getUpgrades.invoke(target);
-            if (upgrades == null) {
-                return null;
-            }
-            Method getInstalled = upgrades.getClass().getMethod("getInstalledUpgrades", net.minecraft.world.level.ItemLike.class);
-            Object result = getInstalled.invoke(upgrades, ModItems.CAPACITY_CARD.get());
-            if (result instanceof Integer i) {
-                return i;
-            }
-        } catch (Throwable ignored) {
-        }
-        return null;
-    }
+    @Unique
+    private void ae2oc_readOverflow(CompoundTag data, String name) {
+        this.ae2oc_overflow = null;
+        this.ae2oc_overflowKeys = null;
 
-    private static Object tryInvokeNoArg(Object target, String methodName) {
-        try {
-            Method method = target.getClass().getMethod(methodName);
-            return method.invoke(target);
-        } catch (Throwable ignored) {
-            return null;
+        String key = name + AE2OC_OVERFLOW_SUFFIX;
+        if (!data.contains(key, Tag.TAG_LIST)) {
+            return;
         }
-    }
-
-    private static Object tryGetField(Object target, String fieldName) {
-        try {
-            Field field = target.getClass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            return field.get(target);
-        } catch (Throwable ignored) {
-            return null;
+        for (Tag rawTag : data.getList(key, Tag.TAG_COMPOUND)) {
+            CompoundTag entry = (CompoundTag) rawTag;
+            AEItemKey item = AEItemKey.fromTag(entry.getCompound("Item"));
+            ae2oc_setOverflow(entry.getInt("Slot"), item, entry.getLong("Amount"));
         }
     }
 }
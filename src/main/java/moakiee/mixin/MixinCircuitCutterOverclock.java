@@ -1,27 +1,34 @@
 package moakiee.mixin;
 
 import appeng.api.config.Actionable;
-import appeng.api.config.PowerMultiplier;
+import appeng.api.inventories.InternalInventory;
 import appeng.api.networking.IGridNode;
-import appeng.api.networking.energy.IEnergyService;
-import appeng.api.networking.storage.IStorageService;
 import appeng.api.networking.ticking.TickRateModulation;
 import appeng.api.networking.security.IActionSource;
 import appeng.api.stacks.AEItemKey;
+import appeng.blockentity.AEBaseBlockEntity;
+import com.mojang.logging.LogUtils;
+import moakiee.support.BottleneckWindow;
+import moakiee.support.EnergyLedger;
+import moakiee.support.GridOutputBuffer;
+import moakiee.support.HookProfiler;
+import moakiee.support.IdleBackoff;
+import moakiee.support.OutputFlushTracker;
 import moakiee.support.OverclockCardRuntime;
+import moakiee.support.OverclockTimerWheel;
 import moakiee.support.ParallelCardRuntime;
 import moakiee.support.ParallelEngine;
-import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.item.crafting.Recipe;
+import moakiee.support.RecipeOutputs;
+import moakiee.support.VirtualSlots;
+import moakiee.support.machine.CircuitCutterAdapter;
+import moakiee.support.machine.MachineAdapters;
+import org.slf4j.Logger;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-
 /**
  * 并行卡 + 超频卡 功能注入 — ExtendedAE 电路切片器
  *
@@ -40,6 +47,9 @@ public abstract class MixinCircuitCutterOverclock {
     @Unique
     private static final double AE2OC_CUTTER_RECIPE_ENERGY = 2000.0;
 
+    @Unique
+    private static final Logger AE2OC_LOGGER = LogUtils.getLogger();
+
     // ===== 跨 HEAD/RETURN 缓存 =====
 
     /** 重入保护标志，防止 saveChanges 触发的 wakeDevice 导致递归 tick */
@@ -54,22 +64,38 @@ public abstract class MixinCircuitCutterOverclock {
     @Unique
     private int ae2oc_pendingParallel = 0;
 
+    /** 待执行并行数的瓶颈，配方完成时记入 {@link BottleneckWindow} */
+    @Unique
+    private ParallelEngine.Bottleneck ae2oc_pendingBottleneck;
+
     /** 缓存的配方引用（原版完成后会清除 currentRecipe，所以需要提前缓存） */
     @Unique
     private Object ae2oc_cachedRecipe = null;
 
     /** 缓存的配方单份产物 */
     @Unique
-    private ItemStack ae2oc_cachedOutput = ItemStack.EMPTY;
+    private RecipeOutputs.Output ae2oc_cachedOutput = null;
 
-    /** 超频模式 tick 计数器 */
+    /** 超频批次的到期 tick，见 {@link OverclockTimerWheel} */
     @Unique
-    private int ae2oc_tickCounter = 0;
+    private long ae2oc_overclockDueTick = 0L;
 
     /** 超频模式是否已激活 */
     @Unique
     private boolean ae2oc_overclockActive = false;
 
+    /** 超频批次开始时已预留能量的份数，结算时未用上的部分退回 */
+    @Unique
+    private long ae2oc_overclockReserved = 0L;
+
+    /** 单次扣除的能量账本，缓存当前网格的能量服务 */
+    @Unique
+    private final EnergyLedger ae2oc_energyLedger = new EnergyLedger();
+
+    /** 超频路径无事可做时的空闲退避 */
+    @Unique
+    private final IdleBackoff ae2oc_idleBackoff = new IdleBackoff();
+
     /**
      * HEAD 注入：
      * - 有超频卡 → 取消原版，N-tick 后完成（可选带并行）
@@ -78,6 +104,17 @@ public abstract class MixinCircuitCutterOverclock {
     @Inject(method = "tickingRequest", at = @At("HEAD"), cancellable = true)
     private void ae2oc_headTick(IGridNode node, int ticksSinceLastCall,
                                  CallbackInfoReturnable<TickRateModulation> cir) {
+        long profileStart = HookProfiler.begin();
+        try {
+            ae2oc_headTickImpl(node, ticksSinceLastCall, cir);
+        } finally {
+            HookProfiler.end(HookProfiler.Hook.CIRCUIT_CUTTER_HEAD, profileStart);
+        }
+    }
+
+    @Unique
+    private void ae2oc_headTickImpl(IGridNode node, int ticksSinceLastCall,
+                                 CallbackInfoReturnable<TickRateModulation> cir) {
         Object self = this;
 
         // 重入保护
@@ -100,19 +137,18 @@ public abstract class MixinCircuitCutterOverclock {
             if (hasOverclock) {
                 // ===== 超频模式：检查计时状态 =====
                 if (this.ae2oc_overclockActive) {
-                    this.ae2oc_tickCounter++;
-                    int targetTicks = OverclockCardRuntime.getProcessTicks();
-
-                    if (this.ae2oc_tickCounter >= targetTicks) {
-                        // 到达 N tick，执行结算
-                        this.ae2oc_overclockActive = false;
-                        this.ae2oc_tickCounter = 0;
-                        this.ae2oc_processing = true;
-                        try {
-                            ae2oc_instantCraft(self, node, parallelMultiplier);
-                        } finally {
-                            this.ae2oc_processing = false;
-                        }
+                    // 未到期（被其他原因提前唤醒）继续休眠，由时间轮到期唤醒
+                    if (!OverclockTimerWheel.isDue(this.ae2oc_overclockDueTick)) {
+                        cir.setReturnValue(TickRateModulation.SLEEP);
+                        return;
+                    }
+                    // 到达 N tick，执行结算
+                    this.ae2oc_overclockActive = false;
+                    this.ae2oc_processing = true;
+                    try {
+                        ae2oc_instantCraft(self, node, parallelMultiplier);
+                    } finally {
+                        this.ae2oc_processing = false;
                     }
                     cir.setReturnValue(TickRateModulation.URGENT);
                     return;
@@ -122,60 +158,42 @@ public abstract class MixinCircuitCutterOverclock {
                 this.ae2oc_processing = true;
                 try {
                     // 预检查是否有配方可执行（不实际执行）
-                    Field ctxField = ae2oc_getField(self.getClass(), "ctx");
-                    ctxField.setAccessible(true);
-                    Object ctx = ctxField.get(self);
-
-                    Field recipeField = ae2oc_getField(ctx.getClass(), "currentRecipe");
-                    recipeField.setAccessible(true);
-                    Object currentRecipe = recipeField.get(ctx);
-
-                    if (currentRecipe == null) {
-                        Method shouldTick = ctx.getClass().getMethod("shouldTick");
-                        if ((boolean) shouldTick.invoke(ctx)) {
-                            Method findRecipe = ae2oc_getMethod(ctx.getClass(), "findRecipe");
-                            findRecipe.setAccessible(true);
-                            findRecipe.invoke(ctx);
-                            currentRecipe = recipeField.get(ctx);
-                        }
-                    }
+                    Object currentRecipe = MachineAdapters.CIRCUIT_CUTTER.findRecipe(self);
 
                     if (currentRecipe == null) {
-                        cir.setReturnValue(TickRateModulation.IDLE);
+                        cir.setReturnValue(ae2oc_idleBackoff.sleep(node, self));
                         return;
                     }
 
-                    // 获取材料信息计算并行数
-                    Field inputField = ae2oc_getField(self.getClass(), "input");
-                    inputField.setAccessible(true);
-                    Object inputInv = inputField.get(self);
+                    // 获取材料信息计算并行数（能量由预留决定，不预先查询）
+                    int inputCount = MachineAdapters.CIRCUIT_CUTTER.getInputSlots(self).getStackInSlot(0).getCount();
 
-                    Method getStackInSlot = inputInv.getClass().getMethod("getStackInSlot", int.class);
-                    ItemStack inputStack = (ItemStack) getStackInSlot.invoke(inputInv, 0);
-                    int inputCount = inputStack.getCount();
-
-                    double availableEnergy = ae2oc_getAvailableEnergy(self, node);
+                    RecipeOutputs.Output recipeOutput = RecipeOutputs.ofCutter(currentRecipe);
+                    int outputLimit = recipeOutput == null ? 0 : ae2oc_outputLimit(self, node, recipeOutput);
 
                     int actualParallel = ParallelEngine.calculateSimple(
                             parallelMultiplier, inputCount, 1,
-                            Integer.MAX_VALUE,
-                            availableEnergy, AE2OC_CUTTER_RECIPE_ENERGY
+                            outputLimit,
+                            Double.MAX_VALUE, AE2OC_CUTTER_RECIPE_ENERGY
                     ).actualParallel();
 
                     if (actualParallel < 1) {
-                        cir.setReturnValue(TickRateModulation.IDLE);
+                        cir.setReturnValue(ae2oc_idleBackoff.sleep(node, self));
                         return;
                     }
 
-                    double totalEnergy = actualParallel * AE2OC_CUTTER_RECIPE_ENERGY;
-                    if (!ae2oc_tryConsumePower(self, node, totalEnergy)) {
-                        cir.setReturnValue(TickRateModulation.IDLE);
+                    long reserved = ae2oc_reserveEnergy(self, node, actualParallel);
+                    if (reserved < 1) {
+                        cir.setReturnValue(ae2oc_idleBackoff.sleep(node, self));
                         return;
                     }
 
+                    this.ae2oc_overclockReserved = reserved;
+                    this.ae2oc_idleBackoff.reset();
                     this.ae2oc_overclockActive = true;
-                    this.ae2oc_tickCounter = 0;
-                    cir.setReturnValue(TickRateModulation.URGENT);
+                    this.ae2oc_overclockDueTick = OverclockTimerWheel.schedule(node,
+                            OverclockCardRuntime.getProcessTicks());
+                    cir.setReturnValue(TickRateModulation.SLEEP);
                 } finally {
                     this.ae2oc_processing = false;
                 }
@@ -185,24 +203,14 @@ public abstract class MixinCircuitCutterOverclock {
             // ===== 仅并行模式：缓存状态，让原版跑进度条 =====
 
             // 记录当前 progress
-            Field progressField = ae2oc_getField(self.getClass(), "progress");
-            progressField.setAccessible(true);
-            this.ae2oc_prevProgress = progressField.getInt(self);
+            this.ae2oc_prevProgress = MachineAdapters.CIRCUIT_CUTTER.getProgress(self);
 
             // 获取配方并缓存
-            Field ctxField = ae2oc_getField(self.getClass(), "ctx");
-            ctxField.setAccessible(true);
-            Object ctx = ctxField.get(self);
-
-            Field recipeField = ae2oc_getField(ctx.getClass(), "currentRecipe");
-            recipeField.setAccessible(true);
-            Object recipe = recipeField.get(ctx);
+            Object recipe = MachineAdapters.CIRCUIT_CUTTER.getCurrentRecipe(self);
 
             if (recipe != null) {
                 this.ae2oc_cachedRecipe = recipe;
-                Field outputFieldInRecipe = ae2oc_getField(recipe.getClass(), "output");
-                outputFieldInRecipe.setAccessible(true);
-                this.ae2oc_cachedOutput = ((ItemStack) outputFieldInRecipe.get(recipe)).copy();
+                this.ae2oc_cachedOutput = RecipeOutputs.ofCutter(recipe);
 
                 // 计算并行数
                 this.ae2oc_pendingParallel = ae2oc_calculateParallel(self, node, recipe, parallelMultiplier);
@@ -226,8 +234,19 @@ public abstract class MixinCircuitCutterOverclock {
     @Inject(method = "tickingRequest", at = @At("RETURN"))
     private void ae2oc_tailTick(IGridNode node, int ticksSinceLastCall,
                                  CallbackInfoReturnable<TickRateModulation> cir) {
-        // 检查是否有需要处理的并行
-        if (this.ae2oc_pendingParallel <= 1 || this.ae2oc_prevProgress <= 0) {
+        long profileStart = HookProfiler.begin();
+        try {
+            ae2oc_tailTickImpl(node, ticksSinceLastCall, cir);
+        } finally {
+            HookProfiler.end(HookProfiler.Hook.CIRCUIT_CUTTER_TAIL, profileStart);
+        }
+    }
+
+    @Unique
+    private void ae2oc_tailTickImpl(IGridNode node, int ticksSinceLastCall,
+                                 CallbackInfoReturnable<TickRateModulation> cir) {
+        // 检查是否有需要处理的并行（并行数为 1 时也要记录瓶颈）
+        if (this.ae2oc_pendingParallel < 1 || this.ae2oc_prevProgress <= 0) {
             ae2oc_resetCache();
             return;
         }
@@ -236,9 +255,7 @@ public abstract class MixinCircuitCutterOverclock {
             Object self = this;
 
             // 检查 progress 是否被重置为 0（表示配方刚完成）
-            Field progressField = ae2oc_getField(self.getClass(), "progress");
-            progressField.setAccessible(true);
-            int currentProgress = progressField.getInt(self);
+            int currentProgress = MachineAdapters.CIRCUIT_CUTTER.getProgress(self);
 
             if (currentProgress == 0 && this.ae2oc_cachedRecipe != null) {
                 // 配方刚刚完成！原版已执行 1 次，补充 (P-1) 次
@@ -249,6 +266,7 @@ public abstract class MixinCircuitCutterOverclock {
                 } finally {
                     this.ae2oc_processing = false;
                 }
+                BottleneckWindow.record(self, this.ae2oc_pendingBottleneck);
             }
 
         } catch (Exception e) {
@@ -261,134 +279,89 @@ public abstract class MixinCircuitCutterOverclock {
     @Unique
     private void ae2oc_resetCache() {
         this.ae2oc_pendingParallel = 0;
+        this.ae2oc_pendingBottleneck = null;
         this.ae2oc_prevProgress = -1;
         this.ae2oc_cachedRecipe = null;
-        this.ae2oc_cachedOutput = ItemStack.EMPTY;
+        this.ae2oc_cachedOutput = null;
     }
 
     /**
-     * 超频模式瞬间完成
+     * 超频模式瞬间完成：批次开始时预留的能量按实际执行次数结算，其余退回
      */
     @Unique
-    private void ae2oc_instantCraft(Object self, IGridNode node, int parallelMultiplier) throws Exception {
-        // 获取 ctx 和配方
-        Field ctxField = ae2oc_getField(self.getClass(), "ctx");
-        ctxField.setAccessible(true);
-        Object ctx = ctxField.get(self);
+    private void ae2oc_instantCraft(Object self, IGridNode node, int parallelMultiplier) {
+        long reserved = this.ae2oc_overclockReserved;
+        this.ae2oc_overclockReserved = 0L;
+        long crafted = 0;
+        try {
+            crafted = ae2oc_settleOverclock(self, node, parallelMultiplier, reserved);
+        } finally {
+            ae2oc_releaseEnergy(self, node, reserved - crafted);
+        }
+    }
 
-        Field recipeField = ae2oc_getField(ctx.getClass(), "currentRecipe");
-        recipeField.setAccessible(true);
-        Object currentRecipe = recipeField.get(ctx);
+    /**
+     * 在预留的份数内执行配方
+     *
+     * @return 实际执行的次数
+     */
+    @Unique
+    private long ae2oc_settleOverclock(Object self, IGridNode node, int parallelMultiplier, long reserved) {
+        CircuitCutterAdapter adapter = MachineAdapters.CIRCUIT_CUTTER;
 
         // 无配方则尝试查找
-        if (currentRecipe == null) {
-            Method shouldTick = ctx.getClass().getMethod("shouldTick");
-            if ((boolean) shouldTick.invoke(ctx)) {
-                Method findRecipe = ae2oc_getMethod(ctx.getClass(), "findRecipe");
-                findRecipe.setAccessible(true);
-                findRecipe.invoke(ctx);
-                currentRecipe = recipeField.get(ctx);
-            }
-        }
+        Object currentRecipe = adapter.findRecipe(self);
+        if (currentRecipe == null) return 0;
 
-        if (currentRecipe == null) return;
-
-        Method testRecipe = ctx.getClass().getMethod("testRecipe", Recipe.class);
-        if (!(boolean) testRecipe.invoke(ctx, currentRecipe)) return;
+        if (!adapter.testRecipe(self, currentRecipe)) return 0;
 
         // 获取材料信息
-        Field inputField = ae2oc_getField(self.getClass(), "input");
-        inputField.setAccessible(true);
-        Object inputInv = inputField.get(self);
-
-        Field outputField = ae2oc_getField(self.getClass(), "output");
-        outputField.setAccessible(true);
-        Object outputInv = outputField.get(self);
+        InternalInventory outputInv = adapter.getOutputSlots(self);
 
-        Field recipeOutputField = ae2oc_getField(currentRecipe.getClass(), "output");
-        recipeOutputField.setAccessible(true);
-        ItemStack recipeOutput = ((ItemStack) recipeOutputField.get(currentRecipe)).copy();
+        RecipeOutputs.Output recipeOutput = RecipeOutputs.ofCutter(currentRecipe);
+        if (recipeOutput == null) return 0;
 
-        Method getStackInSlot = inputInv.getClass().getMethod("getStackInSlot", int.class);
-        ItemStack inputStack = (ItemStack) getStackInSlot.invoke(inputInv, 0);
-        int inputCount = inputStack.getCount();
+        int inputCount = adapter.getInputSlots(self).getStackInSlot(0).getCount();
 
-        Method insertItem = outputInv.getClass().getMethod("insertItem",
-                int.class, ItemStack.class, boolean.class);
-
-        double availableEnergy = ae2oc_getAvailableEnergy(self, node);
+        // 能量已在批次开始时预留
+        double availableEnergy = reserved * AE2OC_CUTTER_RECIPE_ENERGY;
 
         // 计算实际并行数
-        // 当有并行卡或超频卡时，产物优先输出到ME网络，不受本地槽限制
+        // 当有并行卡或超频卡时，产物优先输出到ME网络，输出空间为网络余量 + 本地槽余量
         ParallelEngine.ParallelResult result;
         boolean directToNetwork = parallelMultiplier > 1 || OverclockCardRuntime.hasOverclockCard(self);
         if (directToNetwork) {
             result = ParallelEngine.calculateSimple(
                     parallelMultiplier, inputCount, 1,
-                    Integer.MAX_VALUE, // 输出空间不限制，因为会输出到ME网络
+                    ae2oc_outputLimit(self, node, recipeOutput),
                     availableEnergy, AE2OC_CUTTER_RECIPE_ENERGY
             );
         } else {
             result = ParallelEngine.calculate(
-                    parallelMultiplier, inputCount, 1, recipeOutput,
-                    (stack, simulate) -> {
-                        try {
-                            return (ItemStack) insertItem.invoke(outputInv, 0, stack, simulate);
-                        } catch (Exception e) {
-                            return stack;
-                        }
-                    },
+                    parallelMultiplier, inputCount, 1, recipeOutput.template(),
+                    outputInv, 0,
                     availableEnergy, AE2OC_CUTTER_RECIPE_ENERGY
             );
         }
 
         int actualParallel = result.actualParallel();
-        if (actualParallel < 1) return;
+        if (actualParallel < 1) return 0;
 
-        double totalEnergy = actualParallel * AE2OC_CUTTER_RECIPE_ENERGY;
-        if (!ae2oc_tryConsumePower(self, node, totalEnergy)) return;
+        BottleneckWindow.record(self, result.bottleneck());
 
         // 原子化结算
-        // 注意：ExtendedAE 的 runRecipe 只负责“消耗材料”，
-        // 真正产物写入需要额外调用 output.insertItem(..., false)
-        Method runRecipe = ctx.getClass().getMethod("runRecipe", Recipe.class);
-        int crafted = 0;
-        for (int i = 0; i < actualParallel; i++) {
-            ItemStack singleOutput = recipeOutput.copy();
-            
-            if (directToNetwork) {
-                // 有并行卡：跳过本地槽检查，先消耗材料，再直接尝试插入ME网络
-                runRecipe.invoke(ctx, currentRecipe);
-                
-                // 直接尝试插入ME网络
-                int insertedToNetwork = ae2oc_tryOutputToNetwork(node, singleOutput);
-                if (insertedToNetwork < singleOutput.getCount()) {
-                    // ME网络未能全部接收，剩余放入本地槽
-                    ItemStack remaining = singleOutput.copy();
-                    remaining.setCount(singleOutput.getCount() - insertedToNetwork);
-                    insertItem.invoke(outputInv, 0, remaining, false);
-                }
-            } else {
-                // 无并行卡：检查本地槽空间
-                if (!((ItemStack) insertItem.invoke(outputInv, 0, singleOutput, true)).isEmpty()) {
-                    break;
-                }
-                runRecipe.invoke(ctx, currentRecipe);
-                insertItem.invoke(outputInv, 0, singleOutput, false);
-            }
-            crafted++;
-        }
-
-        Field progressField = ae2oc_getField(self.getClass(), "progress");
-        progressField.setAccessible(true);
-        progressField.setInt(self, 0);
-        recipeField.set(ctx, null);
-
-        Method setWorking = self.getClass().getMethod("setWorking", boolean.class);
-        setWorking.invoke(self, false);
-
-        ae2oc_markForUpdate(self);
-        ae2oc_saveChanges(self);
+        // 注意：ExtendedAE 的 runRecipe 只负责“消耗材料”，产物在全部执行后一次性写入
+        long crafted = ae2oc_runRecipes(adapter, self, currentRecipe, actualParallel);
+        ae2oc_output(self, node, outputInv, recipeOutput, crafted, directToNetwork);
+
+        adapter.setProgress(self, 0);
+        adapter.clearRecipe(self);
+        adapter.setWorking(self, false);
+
+        AEBaseBlockEntity blockEntity = (AEBaseBlockEntity) self;
+        blockEntity.markForUpdate();
+        blockEntity.saveChanges();
+        return crafted;
     }
 
     /**
@@ -398,48 +371,34 @@ public abstract class MixinCircuitCutterOverclock {
     @Unique
     private int ae2oc_calculateParallel(Object self, IGridNode node, Object recipe, int cardMultiplier) {
         try {
-            Field inputField = ae2oc_getField(self.getClass(), "input");
-            inputField.setAccessible(true);
-            Object inputInv = inputField.get(self);
-
-            Field outputField = ae2oc_getField(self.getClass(), "output");
-            outputField.setAccessible(true);
-            Object outputInv = outputField.get(self);
+            InternalInventory outputInv = MachineAdapters.CIRCUIT_CUTTER.getOutputSlots(self);
 
-            Method getStackInSlot = inputInv.getClass().getMethod("getStackInSlot", int.class);
-            ItemStack inputStack = (ItemStack) getStackInSlot.invoke(inputInv, 0);
-            int inputCount = inputStack.getCount();
+            int inputCount = MachineAdapters.CIRCUIT_CUTTER.getInputSlots(self).getStackInSlot(0).getCount();
 
-            Field recipeOutputField = ae2oc_getField(recipe.getClass(), "output");
-            recipeOutputField.setAccessible(true);
-            ItemStack recipeOutput = ((ItemStack) recipeOutputField.get(recipe)).copy();
+            RecipeOutputs.Output recipeOutput = RecipeOutputs.ofCutter(recipe);
+            if (recipeOutput == null) return 1;
 
-            double availableEnergy = ae2oc_getAvailableEnergy(self, node);
+            // 能量在配方完成时按额外份数一次性预留，这里不预先查询
+            double availableEnergy = Double.MAX_VALUE;
 
-            // 当有并行卡(cardMultiplier > 1)时，产物优先输出到ME网络，使用简化计算（不受本地槽限制）
+            ParallelEngine.ParallelResult result;
             if (cardMultiplier > 1) {
-                return ParallelEngine.calculateSimple(
+                // 当有并行卡时，产物优先输出到ME网络，输出空间为网络余量 + 本地槽余量
+                // （原版的 1 份已在本地槽中，tick 结束时才转移，不计入余量）
+                result = ParallelEngine.calculateSimple(
                         cardMultiplier, inputCount, 1,
-                        Integer.MAX_VALUE, // 输出空间不限制，因为会输出到ME网络
+                        ae2oc_outputLimit(self, node, recipeOutput) + 1,
                         availableEnergy, AE2OC_CUTTER_RECIPE_ENERGY
-                ).actualParallel();
+                );
+            } else {
+                // 无并行卡时使用本地槽限制
+                result = ParallelEngine.calculate(
+                        cardMultiplier, inputCount, 1, recipeOutput.template(),
+                        outputInv, 0,
+                        availableEnergy, AE2OC_CUTTER_RECIPE_ENERGY
+                );
             }
-
-            // 无并行卡时使用本地槽限制
-            Method insertItem = outputInv.getClass().getMethod("insertItem",
-                    int.class, ItemStack.class, boolean.class);
-
-            ParallelEngine.ParallelResult result = ParallelEngine.calculate(
-                    cardMultiplier, inputCount, 1, recipeOutput,
-                    (stack, simulate) -> {
-                        try {
-                            return (ItemStack) insertItem.invoke(outputInv, 0, stack, simulate);
-                        } catch (Exception e) {
-                            return stack;
-                        }
-                    },
-                    availableEnergy, AE2OC_CUTTER_RECIPE_ENERGY
-            );
+            this.ae2oc_pendingBottleneck = result.bottleneck();
             return result.actualParallel();
         } catch (Exception e) {
             return 1;
@@ -453,30 +412,18 @@ public abstract class MixinCircuitCutterOverclock {
      */
     @Unique
     private void ae2oc_doExtraOutputs(Object self, IGridNode node, int extraRounds) {
-        if (extraRounds <= 0 || this.ae2oc_cachedRecipe == null) return;
+        if (extraRounds <= 0 || this.ae2oc_cachedRecipe == null || this.ae2oc_cachedOutput == null) return;
 
         try {
-            Field ctxField = ae2oc_getField(self.getClass(), "ctx");
-            ctxField.setAccessible(true);
-            Object ctx = ctxField.get(self);
-
-            Field outputField = ae2oc_getField(self.getClass(), "output");
-            outputField.setAccessible(true);
-            Object outputInv = outputField.get(self);
-
-            Method runRecipe = ctx.getClass().getMethod("runRecipe", Recipe.class);
-            Method testRecipe = ctx.getClass().getMethod("testRecipe", Recipe.class);
-
-            // 消耗额外能量
-            double extraEnergy = extraRounds * AE2OC_CUTTER_RECIPE_ENERGY;
-            if (!ae2oc_tryConsumePower(self, node, extraEnergy)) {
-                // 能量不够全部额外轮次，尽可能做几轮
-                double available = ae2oc_getAvailableEnergy(self, node);
-                extraRounds = (int) (available / AE2OC_CUTTER_RECIPE_ENERGY);
-                if (extraRounds <= 0) return;
-                extraEnergy = extraRounds * AE2OC_CUTTER_RECIPE_ENERGY;
-                if (!ae2oc_tryConsumePower(self, node, extraEnergy)) return;
+            CircuitCutterAdapter adapter = MachineAdapters.CIRCUIT_CUTTER;
+            InternalInventory outputInv = adapter.getOutputSlots(self);
+
+            // 一次性预留额外轮次的能量；能量不够全部额外轮次时尽可能做几轮
+            long reserved = ae2oc_reserveEnergy(self, node, extraRounds);
+            if (reserved < extraRounds) {
+                this.ae2oc_pendingBottleneck = ParallelEngine.Bottleneck.ENERGY;
             }
+            if (reserved <= 0) return;
 
             // 检查是否有并行卡或超频卡
             int parallelMultiplier = ParallelCardRuntime.getParallelMultiplier(self);
@@ -487,42 +434,17 @@ public abstract class MixinCircuitCutterOverclock {
                 ae2oc_transferOutputToNetwork(node, outputInv);
             }
 
-            // 缓存 insertItem Method 到循环外
-            Method insertItem = outputInv.getClass().getMethod("insertItem", int.class, ItemStack.class, boolean.class);
-
-            // 逐轮执行（验证材料 → 消耗 + 产出）
-            int actualExtra = 0;
-            for (int i = 0; i < extraRounds; i++) {
-                // 验证材料
-                if (!(boolean) testRecipe.invoke(ctx, this.ae2oc_cachedRecipe)) break;
-
-                // 执行配方（先消耗材料）
-                runRecipe.invoke(ctx, this.ae2oc_cachedRecipe);
-
-                ItemStack output = this.ae2oc_cachedOutput.copy();
-                if (directToNetwork) {
-                    // 有并行卡：直接尝试插入ME网络
-                    int insertedToNetwork = ae2oc_tryOutputToNetwork(node, output);
-                    if (insertedToNetwork < output.getCount()) {
-                        // ME网络未能全部接收，剩余放入本地槽
-                        ItemStack remaining = output.copy();
-                        remaining.setCount(output.getCount() - insertedToNetwork);
-                        insertItem.invoke(outputInv, 0, remaining, false);
-                    }
-                } else {
-                    // 无并行卡：检查本地槽空间
-                    if (!((ItemStack) insertItem.invoke(outputInv, 0, output, true)).isEmpty()) {
-                        break;
-                    }
-                    insertItem.invoke(outputInv, 0, output, false);
-                }
-                actualExtra++;
+            // 逐轮消耗材料，产物一次性写入；未用上的能量退回
+            long actualExtra = 0;
+            try {
+                actualExtra = ae2oc_runRecipes(adapter, self, this.ae2oc_cachedRecipe, (int) reserved);
+            } finally {
+                ae2oc_releaseEnergy(self, node, reserved - actualExtra);
             }
-            
-            // 注意：directToNetwork模式下，产物已直接插入ME网络，无需再调用transferOutputToNetwork
+            ae2oc_output(self, node, outputInv, this.ae2oc_cachedOutput, actualExtra, directToNetwork);
 
             if (actualExtra > 0) {
-                ae2oc_saveChanges(self);
+                ((AEBaseBlockEntity) self).saveChanges();
             }
 
         } catch (Exception e) {
@@ -531,188 +453,84 @@ public abstract class MixinCircuitCutterOverclock {
     }
     
     /**
-     * 把本地输出槽的产物转移到 ME 网络
+     * 把本地输出槽的产物登记到网格输出缓冲，tick 结束时统一转移到 ME 网络
      */
     @Unique
     private void ae2oc_transferOutputToNetwork(IGridNode node, Object outputInv) {
-        try {
-            var grid = node.getGrid();
-            if (grid == null) return;
-            
-            IStorageService storageService = grid.getService(IStorageService.class);
-            if (storageService == null) return;
-            
-            Method getStackInSlot = outputInv.getClass().getMethod("getStackInSlot", int.class);
-            Method extractItem = outputInv.getClass().getMethod("extractItem", int.class, int.class, boolean.class);
-            
-            // 只检查输出槽 0
-            ItemStack stack = (ItemStack) getStackInSlot.invoke(outputInv, 0);
-            if (stack.isEmpty()) return;
-            
-            AEItemKey key = AEItemKey.of(stack);
-            if (key == null) return;
-            
-                long inserted = storageService.getInventory().insert(
-                    key,
-                    stack.getCount(),
-                    Actionable.MODULATE,
-                    IActionSource.empty()
-                );
-            
-            if (inserted >= stack.getCount()) {
-                // 全部插入成功，清空本地槽
-                extractItem.invoke(outputInv, 0, stack.getCount(), false);
-            } else if (inserted > 0) {
-                // 部分插入，减少本地槽数量
-                extractItem.invoke(outputInv, 0, (int) inserted, false);
-            }
-            
-        } catch (Exception e) {
-            // 忽略
+        if (outputInv instanceof InternalInventory inv) {
+            // 只处理输出槽 0
+            GridOutputBuffer.queueDrain(node, inv, 0, IActionSource.empty());
         }
     }
     
     /**
-     * 尝试将产物输出到 ME 网络
-     * @return 实际插入的物品数量
+     * 逐次验证材料并执行配方（只消耗材料）
+     *
+     * @return 实际执行的次数
      */
     @Unique
-    private int ae2oc_tryOutputToNetwork(IGridNode node, ItemStack outputStack) {
-        try {
-            var grid = node.getGrid();
-            if (grid == null) {
-                return 0;
+    private long ae2oc_runRecipes(CircuitCutterAdapter adapter, Object self, Object recipe, int rounds) {
+        long crafted = 0;
+        for (int i = 0; i < rounds; i++) {
+            if (!adapter.testRecipe(self, recipe) || !adapter.runRecipe(self, recipe)) {
+                break;
             }
-            
-            IStorageService storageService = grid.getService(IStorageService.class);
-            if (storageService == null) {
-                return 0;
-            }
-            
-            AEItemKey key = AEItemKey.of(outputStack);
-            if (key == null) {
-                return 0;
-            }
-            
-            var inventory = storageService.getInventory();
-            
-            long inserted = inventory.insert(
-                key,
-                outputStack.getCount(),
-                Actionable.MODULATE,
-                IActionSource.empty()
-            );
-            
-            return (int) inserted;
-            
-        } catch (Exception e) {
-            return 0;
+            crafted++;
         }
+        return crafted;
     }
 
-    // ===== 工具方法 =====
-
+    /**
+     * 写入 crafted 份产物：直出时存入网格输出缓冲（网络收不下的放入本地槽），否则直接放入本地槽
+     */
     @Unique
-    private double ae2oc_getAvailableEnergy(Object self, IGridNode node) {
-        double total = 0;
-        try {
-            Method extractMethod = self.getClass().getMethod(
-                    "extractAEPower", double.class, Actionable.class, PowerMultiplier.class);
-            total += (double) extractMethod.invoke(self, Double.MAX_VALUE,
-                    Actionable.SIMULATE, PowerMultiplier.CONFIG);
-
-            var grid = node.getGrid();
-            if (grid != null) {
-                IEnergyService energyService = grid.getEnergyService();
-                total += energyService.extractAEPower(Double.MAX_VALUE, Actionable.SIMULATE, PowerMultiplier.CONFIG);
-            }
-        } catch (Exception e) {
-            // 忽略
+    private void ae2oc_output(Object self, IGridNode node, InternalInventory outputInv,
+                              RecipeOutputs.Output output, long crafted, boolean directToNetwork) {
+        if (crafted <= 0 || !(output.key() instanceof AEItemKey key)) {
+            return;
         }
-        return total;
-    }
-
-    @Unique
-    private boolean ae2oc_tryConsumePower(Object self, IGridNode node, double powerNeeded) {
-        try {
-            Method extractMethod = self.getClass().getMethod(
-                    "extractAEPower", double.class, Actionable.class, PowerMultiplier.class);
-
-            // 1. 模拟检查总可用能量（内部 + 网络）
-            double internalAvail = (double) extractMethod.invoke(self, powerNeeded,
-                    Actionable.SIMULATE, PowerMultiplier.CONFIG);
-
-            double networkAvail = 0;
-            IEnergyService energyService = null;
-            var grid = node.getGrid();
-            if (grid != null) {
-                energyService = grid.getEnergyService();
-                networkAvail = energyService.extractAEPower(powerNeeded, Actionable.SIMULATE,
-                        PowerMultiplier.CONFIG);
-            }
-
-            if (internalAvail + networkAvail < powerNeeded - 0.01) {
-                return false; // 总量不够
-            }
-
-            // 2. 实际扣除：先扣内部，剩余扣网络
-            double remaining = powerNeeded;
-            double actualInternal = (double) extractMethod.invoke(self, remaining,
-                    Actionable.MODULATE, PowerMultiplier.CONFIG);
-            remaining -= actualInternal;
-
-            if (remaining > 0.01 && energyService != null) {
-                energyService.extractAEPower(remaining, Actionable.MODULATE, PowerMultiplier.CONFIG);
-            }
-
-            return true;
-        } catch (Exception e) {
-            // 反射失败
+        long total = output.total(crafted);
+        long delivered = directToNetwork
+                ? GridOutputBuffer.deliver(node, key, total, IActionSource.empty(), outputInv, 0)
+                : VirtualSlots.insert(outputInv, 0, key, total, Actionable.MODULATE);
+        if (delivered < total) {
+            AE2OC_LOGGER.warn("Circuit cutter at {} could not store {} x {}",
+                    ((AEBaseBlockEntity) self).getBlockPos(), total - delivered, key);
         }
-        return false;
     }
 
+    /**
+     * 直出模式下可容纳的产出份数：网络本 tick 余量 + 本地输出槽余量
+     */
     @Unique
-    private Field ae2oc_getField(Class<?> clazz, String fieldName) throws NoSuchFieldException {
-        try {
-            return clazz.getDeclaredField(fieldName);
-        } catch (NoSuchFieldException e) {
-            Class<?> superClass = clazz.getSuperclass();
-            if (superClass != null) {
-                return ae2oc_getField(superClass, fieldName);
-            }
-            throw e;
-        }
+    private int ae2oc_outputLimit(Object self, IGridNode node, RecipeOutputs.Output output) {
+        InternalInventory outputInv = MachineAdapters.CIRCUIT_CUTTER.getOutputSlots(self);
+        long capacity = ParallelEngine.directOutputCapacity(output.template(), outputInv, 0, Integer.MAX_VALUE,
+                node, IActionSource.empty());
+        return (int) Math.min(capacity / Math.max(output.amount(), 1), Integer.MAX_VALUE - 1);
     }
 
-    @Unique
-    private Method ae2oc_getMethod(Class<?> clazz, String methodName, Class<?>... paramTypes) throws NoSuchMethodException {
-        try {
-            return clazz.getDeclaredMethod(methodName, paramTypes);
-        } catch (NoSuchMethodException e) {
-            Class<?> superClass = clazz.getSuperclass();
-            if (superClass != null) {
-                return ae2oc_getMethod(superClass, methodName, paramTypes);
-            }
-            throw e;
-        }
-    }
+    // ===== 工具方法 =====
 
+    /**
+     * 为 units 份配方一次性预留能量
+     *
+     * @return 批准的份数
+     */
     @Unique
-    private void ae2oc_markForUpdate(Object self) {
-        try {
-            Method method = self.getClass().getMethod("markForUpdate");
-            method.invoke(self);
-        } catch (Exception ignored) {
-        }
+    private long ae2oc_reserveEnergy(Object self, IGridNode node, long units) {
+        return ae2oc_energyLedger.reserve(MachineAdapters.CIRCUIT_CUTTER.getEnergySource(self), node,
+                AE2OC_CUTTER_RECIPE_ENERGY, units);
     }
 
+    /**
+     * 退回 units 份未用上的预留能量
+     */
     @Unique
-    private void ae2oc_saveChanges(Object self) {
-        try {
-            Method method = self.getClass().getMethod("saveChanges");
-            method.invoke(self);
-        } catch (Exception ignored) {
+    private void ae2oc_releaseEnergy(Object self, IGridNode node, long units) {
+        if (units > 0) {
+            ae2oc_energyLedger.release(MachineAdapters.CIRCUIT_CUTTER.getEnergySource(self), node,
+                    units * AE2OC_CUTTER_RECIPE_ENERGY);
         }
     }
 
@@ -722,13 +540,10 @@ public abstract class MixinCircuitCutterOverclock {
     @Unique
     private void ae2oc_tryFlushOutputSlot(Object self, IGridNode node) {
         try {
-            Field outputField = ae2oc_getField(self.getClass(), "output");
-            outputField.setAccessible(true);
-            Object outputInv = outputField.get(self);
-
-            Method getStackInSlot = outputInv.getClass().getMethod("getStackInSlot", int.class);
-            ItemStack stack = (ItemStack) getStackInSlot.invoke(outputInv, 0);
-            if (stack.isEmpty()) return;
+            InternalInventory outputInv = MachineAdapters.CIRCUIT_CUTTER.getOutputSlots(self);
+            // 输出槽无变化或正处于拒收退避中时跳过
+            if (outputInv == null || !OutputFlushTracker.take(outputInv)) return;
+            if (outputInv.getStackInSlot(0).isEmpty()) return;
 
             ae2oc_transferOutputToNetwork(node, outputInv);
         } catch (Exception ignored) {
@@ -1,22 +1,20 @@
 package moakiee.mixin;
 
 import appeng.api.stacks.AEKey;
-import appeng.api.stacks.AEKeyType;
 import appeng.api.stacks.GenericStack;
+import appeng.helpers.externalstorage.GenericStackInv;
 import moakiee.support.OverstackingRegistry;
 import org.spongepowered.asm.mixin.Mixin;
-import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.util.Objects;
 
 /**
  * 注入 ConfigInventory，绕过 allowOverstacking 和 getMaxAmount 限制。
+ * 父类 GenericStackInv 的字段与方法经由 {@link AccessorGenericStackInv} 直接访问，不再反射。
  */
 @Mixin(targets = "appeng.util.ConfigInventory", remap = false)
 public abstract class MixinConfigInventory {
@@ -25,7 +23,7 @@ public abstract class MixinConfigInventory {
     @Inject(method = "getMaxAmount", at = @At("HEAD"), cancellable = true)
     private void ae2oc_getMaxAmount(AEKey key, CallbackInfoReturnable<Long> cir) {
         if (OverstackingRegistry.shouldAllowOverstacking(this)) {
-            long capacity = ae2oc_getCapacityViaReflection(key.getType());
+            long capacity = ((GenericStackInv) (Object) this).getCapacity(key.getType());
             if (capacity > 0) {
                 cir.setReturnValue(capacity);
             }
@@ -38,74 +36,22 @@ public abstract class MixinConfigInventory {
         if (!OverstackingRegistry.shouldAllowOverstacking(this)) {
             return;
         }
-        
-        try {
-            // 检查 filter
-            if (stack != null) {
-                Method isAllowed = this.getClass().getMethod("isAllowed", AEKey.class);
-                if (!(Boolean) isAllowed.invoke(this, stack.what())) {
-                    ci.cancel();
-                    return;
-                }
-            }
-            
-            // 获取 stacks 数组（在父类 GenericStackInv 中定义）
-            Field stacksField = ae2oc_getFieldRecursive(this.getClass(), "stacks");
-            stacksField.setAccessible(true);
-            GenericStack[] stacks = (GenericStack[]) stacksField.get(this);
-            
-            // 直接设置，完全绕过所有限制
-            if (!Objects.equals(stacks[slot], stack)) {
-                stacks[slot] = stack;
-                
-                // 调用 onChange()
-                Method onChange = ae2oc_getMethodRecursive(this.getClass(), "onChange");
-                onChange.setAccessible(true);
-                onChange.invoke(this);
-            }
-            
+
+        // 检查 filter
+        GenericStackInv self = (GenericStackInv) (Object) this;
+        if (stack != null && !self.isAllowed(stack.what())) {
             ci.cancel();
-        } catch (Throwable e) {
-            // 反射失败，回退到原始逻辑
-        }
-    }
-    
-    @Unique
-    private long ae2oc_getCapacityViaReflection(AEKeyType keyType) {
-        try {
-            Method method = this.getClass().getMethod("getCapacity", AEKeyType.class);
-            Object result = method.invoke(this, keyType);
-            if (result instanceof Long l) {
-                return l;
-            }
-        } catch (Throwable ignored) {
-        }
-        return Long.MAX_VALUE;
-    }
-    
-    @Unique
-    private static Field ae2oc_getFieldRecursive(Class<?> clazz, String fieldName) throws NoSuchFieldException {
-        try {
-            return clazz.getDeclaredField(fieldName);
-        } catch (NoSuchFieldException e) {
-            Class<?> superClass = clazz.getSuperclass();
-            if (superClass != null) {
-                return ae2oc_getFieldRecursive(superClass, fieldName);
-            }
-            throw e;
+            return;
         }
-    }
-    
-    @Unique
-    private static Method ae2oc_getMethodRecursive(Class<?> clazz, String methodName) throws NoSuchMethodException {
-        try {
-            return clazz.getDeclaredMethod(methodName);
-        } catch (NoSuchMethodException e) {
-            Class<?> superClass = clazz.getSuperclass();
-            if (superClass != null) {
-                return ae2oc_getMethodRecursive(superClass, methodName);
-            }
-            throw e;
+
+        // 直接设置，完全绕过所有限制
+        AccessorGenericStackInv accessor = (AccessorGenericStackInv) self;
+        GenericStack[] stacks = accessor.ae2oc_getStacks();
+        if (!Objects.equals(stacks[slot], stack)) {
+            stacks[slot] = stack;
+            accessor.ae2oc_invokeOnChange();
         }
+
+        ci.cancel();
     }
 }
@@ -15,6 +15,7 @@ import appeng.blockentity.storage.IOPortBlockEntity;
 import appeng.core.definitions.AEItems;
 import appeng.util.inv.AppEngInternalInventory;
 import moakiee.ModItems;
+import moakiee.support.HookProfiler;
 import moakiee.support.SuperSpeedNumberUtil;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.block.state.BlockState;
@@ -53,6 +54,16 @@ public abstract class MixinExIOPortSuperSpeed extends IOPortBlockEntity implemen
      */
     @Inject(method = "tickingRequest", at = @At("HEAD"), cancellable = true, remap = false)
     private void ae2oc_tickingRequest(IGridNode node, int ticksSinceLastCall, CallbackInfoReturnable<TickRateModulation> cir) {
+        long profileStart = HookProfiler.begin();
+        try {
+            ae2oc_tickingRequestImpl(node, ticksSinceLastCall, cir);
+        } finally {
+            HookProfiler.end(HookProfiler.Hook.EX_IO_PORT_TICK, profileStart);
+        }
+    }
+
+    @Unique
+    private void ae2oc_tickingRequestImpl(IGridNode node, int ticksSinceLastCall, CallbackInfoReturnable<TickRateModulation> cir) {
         if (!this.getMainNode().isActive()) {
             cir.setReturnValue(TickRateModulation.IDLE);
             return;
@@ -0,0 +1,41 @@
+package moakiee.mixin;
+
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.ticking.TickRateModulation;
+import moakiee.support.ExInscriberHostTick;
+import moakiee.support.ExInscriberHostTickHolder;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * 扩展压印器宿主 tick 的共享状态
+ *
+ * TileExInscriber.tickingRequest 开始时计算一次卡片状态，供本 tick 内各 InscriberThread 共享；
+ * 结束时清空本 tick 的句柄缓存。见 {@link ExInscriberHostTick}。
+ */
+@Mixin(targets = "com.glodblock.github.extendedae.common.tileentities.TileExInscriber", remap = false)
+public abstract class MixinExInscriberHostTick implements ExInscriberHostTickHolder {
+
+    @Unique
+    private final ExInscriberHostTick ae2oc_hostTick = new ExInscriberHostTick();
+
+    @Override
+    public ExInscriberHostTick ae2oc_getHostTick() {
+        return ae2oc_hostTick;
+    }
+
+    @Inject(method = "tickingRequest", at = @At("HEAD"))
+    private void ae2oc_beginHostTick(IGridNode node, int ticksSinceLastCall,
+                                     CallbackInfoReturnable<TickRateModulation> cir) {
+        ae2oc_hostTick.begin(this);
+    }
+
+    @Inject(method = "tickingRequest", at = @At("RETURN"))
+    private void ae2oc_endHostTick(IGridNode node, int ticksSinceLastCall,
+                                   CallbackInfoReturnable<TickRateModulation> cir) {
+        ae2oc_hostTick.end();
+    }
+}
@@ -1,16 +1,27 @@
 package moakiee.mixin;
 
 import appeng.api.config.Actionable;
-import appeng.api.config.PowerMultiplier;
-import appeng.api.networking.energy.IEnergyService;
-import appeng.api.networking.storage.IStorageService;
+import appeng.api.inventories.InternalInventory;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.security.IActionSource;
 import appeng.api.networking.ticking.TickRateModulation;
 import appeng.api.stacks.AEItemKey;
+import appeng.blockentity.AEBaseBlockEntity;
 import appeng.recipes.handlers.InscriberProcessType;
 import appeng.recipes.handlers.InscriberRecipe;
+import moakiee.support.BottleneckWindow;
+import moakiee.support.ExInscriberHostTick;
+import moakiee.support.ExInscriberMergeHolder;
+import moakiee.support.GridOutputBuffer;
+import moakiee.support.HookProfiler;
+import moakiee.support.IdleBackoff;
+import moakiee.support.InternalInventoryCounts;
+import moakiee.support.OutputFlushTracker;
 import moakiee.support.OverclockCardRuntime;
-import moakiee.support.ParallelCardRuntime;
 import moakiee.support.ParallelEngine;
+import moakiee.support.RecipeOutputs;
+import moakiee.support.machine.ExInscriberThreadAdapter;
+import moakiee.support.machine.MachineAdapters;
 import net.minecraft.world.item.ItemStack;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Unique;
@@ -18,26 +29,36 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 并行卡 + 超频卡 功能注入 — ExtendedAE 扩展压印器线程
  *
  * ExtendedAE 的 TileExInscriber 内部使用 4 个 InscriberThread。
- * 每个线程独立运行，超频/并行卡通过 host 字段检测。
+ * 每个线程独立运行，卡片状态、能量与网络句柄由宿主每 tick 计算一次，
+ * 经 {@link ExInscriberHostTick} 在各线程间共享；直出 ME 网络的产物存入网格输出缓冲，tick 结束时合并插入。
+ * 线程与宿主的字段访问统一经由 {@link ExInscriberThreadAdapter}。
+ *
+ * 同一宿主中加工同一配方的空闲线程会合并成一批：开批的线程作为主线程借入其他线程，
+ * 汇总各线程的输入与模板，卡倍数按参与线程数放大，只扣一次电、只输出一次；
+ * 被借出的线程在这一批结算前不自行加工，配方不同的线程不受影响。
  *
  * 结算顺序与压印器一致：先定并行量 → 再算总电 → 判超频 → 秒结算
  */
 @Mixin(targets = "com.glodblock.github.extendedae.common.me.InscriberThread", remap = false)
-public abstract class MixinExInscriberThreadOverclock {
+public abstract class MixinExInscriberThreadOverclock implements ExInscriberMergeHolder {
 
     @Unique
     private static final double AE2OC_THREAD_RECIPE_ENERGY = 2000.0;
 
     /** 缓存并行结算结果 */
     @Unique
-    private int ae2oc_pendingParallel = 0;
+    private long ae2oc_pendingParallel = 0;
+
+    /** 本批并行数的瓶颈，结算时记入宿主的 {@link BottleneckWindow} */
+    @Unique
+    private ParallelEngine.Bottleneck ae2oc_pendingBottleneck;
 
     /** 超频模式 tick 计数器 */
     @Unique
@@ -47,26 +68,87 @@ public abstract class MixinExInscriberThreadOverclock {
     @Unique
     private boolean ae2oc_overclockActive = false;
 
+    /** 超频批次开始时已预留能量的份数；仅并行模式为 0（原版已为 1 份供能，其余在结算时预留） */
+    @Unique
+    private long ae2oc_reservedParallel = 0L;
+
+    /** 装卡后无事可做时的空闲退避（唤醒宿主的网格节点） */
+    @Unique
+    private final IdleBackoff ae2oc_idleBackoff = new IdleBackoff();
+
+    /** 本线程作为主线程时借入的同配方线程 */
+    @Unique
+    private final List<Object> ae2oc_mergedPeers = new ArrayList<>();
+
+    /** 本线程被借给的主线程 */
+    @Unique
+    private Object ae2oc_lender;
+
+    @Override
+    public boolean ae2oc_isMergeIdle(Object leader) {
+        if (this.ae2oc_overclockActive || !this.ae2oc_mergedPeers.isEmpty()) {
+            return false;
+        }
+        // 仍被其他主线程借用时不可再借
+        return this.ae2oc_lender == null || this.ae2oc_lender == leader
+                || !(this.ae2oc_lender instanceof ExInscriberMergeHolder other && other.ae2oc_hasMergedPeer(this));
+    }
+
+    @Override
+    public void ae2oc_lendTo(Object leader) {
+        this.ae2oc_lender = leader;
+    }
+
+    @Override
+    public boolean ae2oc_hasMergedPeer(Object thread) {
+        return this.ae2oc_mergedPeers.contains(thread);
+    }
+
     @Inject(method = "tick", at = @At("HEAD"), cancellable = true)
     private void ae2oc_parallelOverclockThreadTick(CallbackInfoReturnable<TickRateModulation> cir) {
+        long profileStart = HookProfiler.begin();
+        try {
+            ae2oc_parallelOverclockThreadTickImpl(cir);
+        } finally {
+            HookProfiler.end(HookProfiler.Hook.EX_INSCRIBER_THREAD_TICK, profileStart);
+        }
+    }
+
+    @Unique
+    private void ae2oc_parallelOverclockThreadTickImpl(CallbackInfoReturnable<TickRateModulation> cir) {
         Object self = this;
+        ExInscriberThreadAdapter adapter = MachineAdapters.EX_INSCRIBER_THREAD;
 
         try {
             // 获取 host
-            Field hostField = ae2oc_getField(self.getClass(), "host");
-            hostField.setAccessible(true);
-            Object host = hostField.get(self);
+            Object host = adapter.getHost(self);
+            ExInscriberHostTick shared = ExInscriberHostTick.of(host);
+            if (shared == null) {
+                return;
+            }
+
+            shared.register(self);
+
+            // 已借给主线程合批：主线程结算前不自行加工
+            if (this.ae2oc_lender != null) {
+                if (this.ae2oc_lender instanceof ExInscriberMergeHolder leader && leader.ae2oc_hasMergedPeer(self)) {
+                    cir.setReturnValue(TickRateModulation.IDLE);
+                    return;
+                }
+                this.ae2oc_lender = null;
+            }
 
-            boolean hasOverclock = OverclockCardRuntime.hasOverclockCard(host);
-            int parallelMultiplier = ParallelCardRuntime.getParallelMultiplier(host);
+            boolean hasOverclock = shared.hasOverclock();
+            int parallelMultiplier = shared.parallelMultiplier();
 
             // 无卡 → 走原版
             if (!hasOverclock && parallelMultiplier <= 1) {
+                this.ae2oc_mergedPeers.clear();
                 return;
             }
 
             // 主动刷新：将输出槽残留物品转移到 ME 网络（防止死锁）
-            ae2oc_tryFlushOutputSlot(self, host);
+            ae2oc_tryFlushOutputSlot(self, shared);
 
             // 超频模式正在计时中
             if (this.ae2oc_overclockActive) {
@@ -78,419 +160,375 @@ public abstract class MixinExInscriberThreadOverclock {
                     this.ae2oc_overclockActive = false;
                     this.ae2oc_tickCounter = 0;
 
-                    Method setSmash = self.getClass().getMethod("setSmash", boolean.class);
-                    setSmash.invoke(self, true);
-                    Field finalStepField = ae2oc_getField(self.getClass(), "finalStep");
-                    finalStepField.setAccessible(true);
-                    finalStepField.setInt(self, 0);
+                    adapter.setSmash(self, true);
+                    adapter.setFinalStep(self, 0);
                     ae2oc_markHostForUpdate(host);
                 }
                 cir.setReturnValue(TickRateModulation.URGENT);
                 return;
             }
 
-            // 获取 smash/finalStep 字段
-            Field smashField = ae2oc_getField(self.getClass(), "smash");
-            smashField.setAccessible(true);
-            boolean smash = smashField.getBoolean(self);
-
-            Field finalStepField = ae2oc_getField(self.getClass(), "finalStep");
-            finalStepField.setAccessible(true);
-            int finalStep = finalStepField.getInt(self);
-
             // 正在播放 smash 动画
-            if (smash) {
-                finalStep += 4;
-                finalStepField.setInt(self, finalStep);
+            if (adapter.isSmash(self)) {
+                int finalStep = adapter.getFinalStep(self) + 4;
+                adapter.setFinalStep(self, finalStep);
 
                 if (finalStep >= 8 && finalStep < 16) {
-                    int parallel = Math.max(this.ae2oc_pendingParallel, 1);
-                    ae2oc_finishCraftParallel(self, host, parallel);
+                    ae2oc_settle(self, host, shared);
+                    BottleneckWindow.record(host, this.ae2oc_pendingBottleneck);
                     this.ae2oc_pendingParallel = 0;
-                    finalStepField.setInt(self, 16);
+                    this.ae2oc_reservedParallel = 0L;
+                    this.ae2oc_mergedPeers.clear();
+                    adapter.setFinalStep(self, 16);
                 }
                 if (finalStep >= 16) {
-                    finalStepField.setInt(self, 0);
-                    Method setSmash = self.getClass().getMethod("setSmash", boolean.class);
-                    setSmash.invoke(self, false);
+                    adapter.setFinalStep(self, 0);
+                    adapter.setSmash(self, false);
                     ae2oc_markHostForUpdate(host);
                 }
                 cir.setReturnValue(TickRateModulation.URGENT);
                 return;
             }
 
+            // 开新批前释放上一次借入的线程，计算并行数时重新合批
+            this.ae2oc_mergedPeers.clear();
+
             // 获取配方
-            Method getTask = self.getClass().getMethod("getTask");
-            InscriberRecipe recipe = (InscriberRecipe) getTask.invoke(self);
-            if (recipe == null) {
+            if (!(adapter.getCurrentRecipe(self) instanceof InscriberRecipe recipe)) {
+                ae2oc_sleepIdle(shared, host, cir);
                 return;
             }
 
             // 计算并行数
-            int actualParallel = ae2oc_calculateParallel(self, host, recipe, parallelMultiplier);
+            long actualParallel = ae2oc_calculateParallel(self, shared, recipe, parallelMultiplier);
             if (actualParallel < 1) {
+                this.ae2oc_mergedPeers.clear();
+                ae2oc_sleepIdle(shared, host, cir);
                 return;
             }
 
             if (hasOverclock) {
-                // 超频模式：一次性扣电，开始计时
-                double totalEnergy = actualParallel * AE2OC_THREAD_RECIPE_ENERGY;
-                if (!ae2oc_tryConsumePower(host, totalEnergy)) {
+                // 超频模式：一次性预留能量，开始计时
+                long reserved = shared.reserveEnergy(AE2OC_THREAD_RECIPE_ENERGY, actualParallel);
+                if (reserved < 1) {
+                    this.ae2oc_mergedPeers.clear();
+                    ae2oc_sleepIdle(shared, host, cir);
                     return;
                 }
+                if (reserved < actualParallel) {
+                    this.ae2oc_pendingBottleneck = ParallelEngine.Bottleneck.ENERGY;
+                }
 
-                this.ae2oc_pendingParallel = actualParallel;
+                this.ae2oc_idleBackoff.reset();
+                this.ae2oc_pendingParallel = reserved;
+                this.ae2oc_reservedParallel = reserved;
                 this.ae2oc_overclockActive = true;
                 this.ae2oc_tickCounter = 0;
                 ae2oc_markHostForUpdate(host);
                 cir.setReturnValue(TickRateModulation.URGENT);
             } else {
                 // 仅并行模式：缓存并行数，让原版推进度条
+                this.ae2oc_idleBackoff.reset();
                 this.ae2oc_pendingParallel = actualParallel;
+                this.ae2oc_reservedParallel = 0L;
             }
 
         } catch (Exception e) {
-            // 反射失败，走原版
+            // 访问失败，走原版
         }
     }
 
     /**
-     * 计算实际并行数（木桶效应）
+     * 装卡线程无事可做：按 {@link IdleBackoff} 休眠，由时间轮唤醒宿主重试；
+     * 取不到宿主节点时仍交给原版处理
      */
     @Unique
-    private int ae2oc_calculateParallel(Object self, Object host, InscriberRecipe recipe, int cardMultiplier) {
-        try {
-            Field sideField = ae2oc_getField(self.getClass(), "sideItemHandler");
-            sideField.setAccessible(true);
-            Object sideHandler = sideField.get(self);
-
-            Method getStackInSlot = sideHandler.getClass().getMethod("getStackInSlot", int.class);
-            ItemStack inputStack = (ItemStack) getStackInSlot.invoke(sideHandler, 0);
-            int inputCount = inputStack.getCount();
-
-            // PRESS 模板约束
-            if (recipe.getProcessType() == InscriberProcessType.PRESS) {
-                Field topField = ae2oc_getField(self.getClass(), "topItemHandler");
-                topField.setAccessible(true);
-                Object topHandler = topField.get(self);
-
-                Field bottomField = ae2oc_getField(self.getClass(), "bottomItemHandler");
-                bottomField.setAccessible(true);
-                Object bottomHandler = bottomField.get(self);
-
-                ItemStack topStack = (ItemStack) getStackInSlot.invoke(topHandler, 0);
-                ItemStack bottomStack = (ItemStack) getStackInSlot.invoke(bottomHandler, 0);
-
-                int topCount = topStack.isEmpty() ? Integer.MAX_VALUE : topStack.getCount();
-                int bottomCount = bottomStack.isEmpty() ? Integer.MAX_VALUE : bottomStack.getCount();
-                cardMultiplier = Math.min(cardMultiplier, Math.min(topCount, bottomCount));
-            }
-
-            ItemStack outputStack = recipe.getResultItem().copy();
-
-            double availableEnergy = ae2oc_getAvailableEnergy(host);
+    private void ae2oc_sleepIdle(ExInscriberHostTick shared, Object host,
+                                 CallbackInfoReturnable<TickRateModulation> cir) {
+        IGridNode node = shared.node();
+        if (node != null) {
+            cir.setReturnValue(this.ae2oc_idleBackoff.sleep(node, host));
+        }
+    }
 
-            // 有并行卡时，产物优先输出到ME网络，不受本地槽限制
-            if (cardMultiplier > 1) {
-                return ParallelEngine.calculateSimple(
-                        cardMultiplier, inputCount, 1,
-                        Integer.MAX_VALUE,
-                        availableEnergy, AE2OC_THREAD_RECIPE_ENERGY
-                ).actualParallel();
+    /**
+     * 多倍结算：补足未供能份数的能量，按实际结算份数退回未用上的部分
+     */
+    @Unique
+    private void ae2oc_settle(Object self, Object host, ExInscriberHostTick shared) {
+        long parallel = Math.max(this.ae2oc_pendingParallel, 1);
+        // 已供能的份数：超频批次开始时预留的份数，仅并行模式为原版自己供能的 1 份
+        long prepaid = this.ae2oc_reservedParallel;
+        long free = prepaid > 0 ? 0 : 1;
+        long paid = prepaid;
+        if (parallel > prepaid + free) {
+            long wanted = parallel - prepaid - free;
+            long granted = shared.reserveEnergy(AE2OC_THREAD_RECIPE_ENERGY, wanted);
+            if (granted < wanted) {
+                this.ae2oc_pendingBottleneck = ParallelEngine.Bottleneck.ENERGY;
+            }
+            paid += granted;
+            parallel = prepaid + free + granted;
+        }
+        long done = 0;
+        try {
+            done = ae2oc_finishCraftParallel(self, host, shared, parallel);
+        } finally {
+            long unused = paid - Math.max(done - free, 0);
+            if (unused > 0) {
+                shared.releaseEnergy(unused * AE2OC_THREAD_RECIPE_ENERGY);
             }
-
-            // 无并行卡时使用本地槽限制
-            Method insertMethod = sideHandler.getClass().getMethod("insertItem",
-                    int.class, ItemStack.class, boolean.class);
-
-            ParallelEngine.ParallelResult result = ParallelEngine.calculate(
-                    cardMultiplier, inputCount, 1, outputStack,
-                    (stack, simulate) -> {
-                        try {
-                            return (ItemStack) insertMethod.invoke(sideHandler, 1, stack, simulate);
-                        } catch (Exception e) {
-                            return stack;
-                        }
-                    },
-                    availableEnergy, AE2OC_THREAD_RECIPE_ENERGY
-            );
-
-            return result.actualParallel();
-        } catch (Exception e) {
-            return 0;
         }
     }
 
     /**
-     * 原子化执行多倍结算
-     * 有并行卡/超频卡时，产物优先直出 ME 网络，剩余放本地槽。
+     * 计算实际并行数（木桶效应）
+     * 先借入同配方的空闲线程，输入与模板按参与线程汇总，卡倍数按线程数放大。
      */
     @Unique
-    private void ae2oc_finishCraftParallel(Object self, Object host, int parallel) {
+    private long ae2oc_calculateParallel(Object self, ExInscriberHostTick shared, InscriberRecipe recipe,
+                                         int cardMultiplier) {
         try {
-            Method getTask = self.getClass().getMethod("getTask");
-            InscriberRecipe recipe = (InscriberRecipe) getTask.invoke(self);
-            if (recipe == null) return;
-
-            Field sideField = ae2oc_getField(self.getClass(), "sideItemHandler");
-            sideField.setAccessible(true);
-            Object sideHandler = sideField.get(self);
-
-            Field topField = ae2oc_getField(self.getClass(), "topItemHandler");
-            topField.setAccessible(true);
-            Object topHandler = topField.get(self);
-
-            Field bottomField = ae2oc_getField(self.getClass(), "bottomItemHandler");
-            bottomField.setAccessible(true);
-            Object bottomHandler = bottomField.get(self);
-
-            // 多倍产物
-            ItemStack outputCopy = recipe.getResultItem().copy();
-            int totalOutput = outputCopy.getCount() * parallel;
-            int singleOutputCount = recipe.getResultItem().getCount();
+            ExInscriberThreadAdapter adapter = MachineAdapters.EX_INSCRIBER_THREAD;
+            InternalInventory sideHandler = adapter.getSideSlots(self);
+            if (sideHandler == null) {
+                return 0;
+            }
 
-            int parallelMultiplier = ParallelCardRuntime.getParallelMultiplier(host);
-            boolean hasOverclock = OverclockCardRuntime.hasOverclockCard(host);
-            boolean directToNetwork = parallelMultiplier > 1 || hasOverclock;
+            ae2oc_mergePeers(self, shared, recipe);
 
-            int actualInserted;
-            if (directToNetwork) {
-                // 产物优先直出 ME 网络
-                int insertedToNetwork = ae2oc_tryDirectOutputToNetwork(host, outputCopy.copyWithCount(totalOutput));
-                int remaining = totalOutput - insertedToNetwork;
-                actualInserted = insertedToNetwork;
-                if (remaining > 0) {
-                    Method insertMethod = sideHandler.getClass().getMethod("insertItem",
-                            int.class, ItemStack.class, boolean.class);
-                    ItemStack leftover = (ItemStack) insertMethod.invoke(sideHandler, 1,
-                            outputCopy.copyWithCount(remaining), false);
-                    actualInserted += remaining - leftover.getCount();
+            // 各线程可支撑的份数：INSCRIBE 只看输入，PRESS 还受该线程上下模板约束
+            boolean press = recipe.getProcessType() == InscriberProcessType.PRESS;
+            long inputCount = 0;
+            long templateCount = 0;
+            int threadCount = 0;
+            for (Object thread : ae2oc_batchThreads(self)) {
+                if (adapter.getSideSlots(thread) == null) {
+                    continue;
                 }
-            } else {
-                outputCopy.setCount(totalOutput);
-                Method insertMethod = sideHandler.getClass().getMethod("insertItem",
-                        int.class, ItemStack.class, boolean.class);
-                ItemStack leftover = (ItemStack) insertMethod.invoke(sideHandler, 1, outputCopy, false);
-                actualInserted = totalOutput - leftover.getCount();
+                inputCount += ae2oc_threadCrafts(thread, press);
+                if (press) {
+                    templateCount += ae2oc_templateLimit(thread);
+                }
+                threadCount++;
+            }
+            if (threadCount == 0) {
+                return 0;
+            }
+
+            long scaledMultiplier = (long) cardMultiplier * threadCount;
+            boolean templateBound = press && templateCount < scaledMultiplier;
+            if (templateBound) {
+                scaledMultiplier = templateCount;
             }
 
-            int actualParallel = singleOutputCount > 0 ? actualInserted / singleOutputCount : 0;
+            RecipeOutputs.Output output = RecipeOutputs.of(recipe);
+            if (output == null) {
+                return 0;
+            }
 
-            if (actualParallel > 0) {
-                Method setProcessingTime = self.getClass().getDeclaredMethod("setProcessingTime", int.class);
-                setProcessingTime.setAccessible(true);
-                setProcessingTime.invoke(self, 0);
+            // 能量由预留决定，不预先查询
+            double availableEnergy = Double.MAX_VALUE;
 
-                if (recipe.getProcessType() == InscriberProcessType.PRESS) {
-                    Method extractItem = topHandler.getClass().getMethod("extractItem",
-                            int.class, int.class, boolean.class);
-                    extractItem.invoke(topHandler, 0, actualParallel, false);
-                    extractItem.invoke(bottomHandler, 0, actualParallel, false);
-                }
+            // 有并行卡或合批时，产物优先输出到ME网络，不受本地槽限制；单线程且无并行卡时使用本地槽限制
+            long outputCapacity = scaledMultiplier > 1 ? Long.MAX_VALUE
+                    : ParallelEngine.outputCapacity(output.template(), sideHandler, 1, scaledMultiplier);
+            ParallelEngine.BatchResult result = ParallelEngine.calculateBatch(
+                    scaledMultiplier,
+                    new long[]{inputCount}, new long[]{1},
+                    new long[]{outputCapacity}, new long[]{output.amount()},
+                    availableEnergy, AE2OC_THREAD_RECIPE_ENERGY
+            );
 
-                Method sideExtract = sideHandler.getClass().getMethod("extractItem",
-                        int.class, int.class, boolean.class);
-                sideExtract.invoke(sideHandler, 0, actualParallel, false);
+            ParallelEngine.Bottleneck bottleneck = result.bottleneck();
+            if (templateBound && bottleneck == ParallelEngine.Bottleneck.CARD) {
+                bottleneck = ParallelEngine.Bottleneck.TEMPLATE;
             }
-
-            ae2oc_saveHostChanges(host);
+            this.ae2oc_pendingBottleneck = bottleneck;
+            return result.actualParallel();
         } catch (Exception e) {
-            // 忽略
+            return 0;
         }
     }
 
     /**
-     * 直接将产物输出到 ME 网络，返回实际插入数量
+     * 借入同一宿主中加工同一配方、当前空闲的线程
      */
     @Unique
-    private int ae2oc_tryDirectOutputToNetwork(Object host, ItemStack outputStack) {
-        try {
-            Method getMainNode = host.getClass().getMethod("getMainNode");
-            Object mainNode = getMainNode.invoke(host);
-            if (mainNode == null) return 0;
-
-            Method getGrid = mainNode.getClass().getMethod("getGrid");
-            Object grid = getGrid.invoke(mainNode);
-            if (grid == null) return 0;
-
-            IStorageService storageService = (IStorageService) ((appeng.api.networking.IGrid) grid).getService(IStorageService.class);
-            if (storageService == null) return 0;
-
-            AEItemKey key = AEItemKey.of(outputStack);
-            if (key == null) return 0;
-
-            appeng.api.networking.security.IActionSource actionSource = ae2oc_getActionSource(host, mainNode);
-            long inserted = storageService.getInventory().insert(key, outputStack.getCount(), Actionable.MODULATE, actionSource);
-            return (int) inserted;
-        } catch (Exception e) {
-            return 0;
+    private void ae2oc_mergePeers(Object self, ExInscriberHostTick shared, InscriberRecipe recipe) {
+        ExInscriberThreadAdapter adapter = MachineAdapters.EX_INSCRIBER_THREAD;
+        for (Object thread : shared.threads()) {
+            if (thread == self || !(thread instanceof ExInscriberMergeHolder peer) || !peer.ae2oc_isMergeIdle(self)) {
+                continue;
+            }
+            if (adapter.isSmash(thread) || adapter.getProgress(thread) > 0
+                    || adapter.getCurrentRecipe(thread) != recipe) {
+                continue;
+            }
+            peer.ae2oc_lendTo(self);
+            this.ae2oc_mergedPeers.add(thread);
         }
     }
-    
+
     /**
-     * 把本地输出槽的产物转移到 ME 网络
+     * 本批参与结算的线程：本线程在前，借入的线程按借入顺序在后
      */
     @Unique
-    private void ae2oc_transferOutputToNetwork(Object host, Object sideHandler) {
-        try {
-            Method getMainNode = host.getClass().getMethod("getMainNode");
-            Object mainNode = getMainNode.invoke(host);
-            if (mainNode == null) return;
-            
-            Method getGrid = mainNode.getClass().getMethod("getGrid");
-            Object grid = getGrid.invoke(mainNode);
-            if (grid == null) return;
-            
-            IStorageService storageService = (IStorageService) ((appeng.api.networking.IGrid) grid).getService(IStorageService.class);
-            if (storageService == null) return;
-            
-            Method getStackInSlot = sideHandler.getClass().getMethod("getStackInSlot", int.class);
-            Method extractItem = sideHandler.getClass().getMethod("extractItem", int.class, int.class, boolean.class);
-            
-            // 输出槽是 slot 1
-            ItemStack stack = (ItemStack) getStackInSlot.invoke(sideHandler, 1);
-            if (stack.isEmpty()) return;
-            
-            AEItemKey key = AEItemKey.of(stack);
-            if (key == null) return;
-            
-            // 获取 IActionSource 用于 ME 网络操作（修复 AE2 Additions 超级存储元件兼容性问题）
-            appeng.api.networking.security.IActionSource actionSource = ae2oc_getActionSource(host, mainNode);
-
-            long inserted = storageService.getInventory().insert(key, stack.getCount(), Actionable.MODULATE, actionSource);
-
-            if (inserted > 0) {
-                // 从本地槽取出已转移的数量
-                extractItem.invoke(sideHandler, 1, (int) inserted, false);
-            }
-            
-        } catch (Exception e) {
-            // 忽略
-        }
+    private List<Object> ae2oc_batchThreads(Object self) {
+        List<Object> threads = new ArrayList<>(this.ae2oc_mergedPeers.size() + 1);
+        threads.add(self);
+        threads.addAll(this.ae2oc_mergedPeers);
+        return threads;
     }
 
     /**
-     * 获取有效的 IActionSource 用于 ME 网络操作
-     * 修复 AE2 Additions 超级存储元件因 null 参数导致的兼容性问题
+     * 该线程的输入（PRESS 配方还有上下模板）可支撑的份数
      */
     @Unique
-    private appeng.api.networking.security.IActionSource ae2oc_getActionSource(Object host, Object mainNode) {
-        try {
-            if (mainNode != null) {
-                Method getNode = mainNode.getClass().getMethod("getNode");
-                Object node = getNode.invoke(mainNode);
-                if (node instanceof appeng.api.networking.IGridNode gridNode) {
-                    Object owner = gridNode.getOwner();
-                    if (owner instanceof appeng.api.networking.security.IActionHost actionHost) {
-                        return appeng.api.networking.security.IActionSource.ofMachine(actionHost);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            // 忽略
+    private int ae2oc_threadCrafts(Object thread, boolean press) {
+        InternalInventory side = MachineAdapters.EX_INSCRIBER_THREAD.getSideSlots(thread);
+        if (side == null) {
+            return 0;
         }
-        return appeng.api.networking.security.IActionSource.empty();
+        int input = side.getStackInSlot(0).getCount();
+        return press ? Math.min(input, ae2oc_templateLimit(thread)) : input;
     }
 
+    /**
+     * PRESS 配方下该线程上下模板可支撑的份数（空模板槽不构成约束）
+     */
     @Unique
-    private double ae2oc_getAvailableEnergy(Object host) {
-        double total = 0;
-        try {
-            Method extractMethod = host.getClass().getMethod(
-                    "extractAEPower", double.class, Actionable.class, PowerMultiplier.class);
-            total += (double) extractMethod.invoke(host, Double.MAX_VALUE,
-                    Actionable.SIMULATE, PowerMultiplier.CONFIG);
-
-            Method getMainNode = host.getClass().getMethod("getMainNode");
-            Object mainNode = getMainNode.invoke(host);
-            if (mainNode != null) {
-                Method getGrid = mainNode.getClass().getMethod("getGrid");
-                Object grid = getGrid.invoke(mainNode);
-                if (grid != null) {
-                    Method getEnergyService = grid.getClass().getMethod("getEnergyService");
-                    IEnergyService energyService = (IEnergyService) getEnergyService.invoke(grid);
-                    total += energyService.extractAEPower(Double.MAX_VALUE, Actionable.SIMULATE, PowerMultiplier.CONFIG);
-                }
-            }
-        } catch (Exception e) {
-            // 忽略
+    private int ae2oc_templateLimit(Object thread) {
+        ExInscriberThreadAdapter adapter = MachineAdapters.EX_INSCRIBER_THREAD;
+        InternalInventory topHandler = adapter.getTopSlot(thread);
+        InternalInventory bottomHandler = adapter.getBottomSlot(thread);
+        if (topHandler == null || bottomHandler == null) {
+            return 0;
         }
-        return total;
+        ItemStack topStack = topHandler.getStackInSlot(0);
+        ItemStack bottomStack = bottomHandler.getStackInSlot(0);
+        int topCount = topStack.isEmpty() ? Integer.MAX_VALUE : topStack.getCount();
+        int bottomCount = bottomStack.isEmpty() ? Integer.MAX_VALUE : bottomStack.getCount();
+        return Math.min(topCount, bottomCount);
     }
 
+    /**
+     * 原子化执行多倍结算
+     * 有并行卡/超频卡时，产物优先存入网格输出缓冲（tick 结束时合并直出 ME 网络），剩余放本地槽。
+     * 合批时输入与模板按线程顺序消耗：先本线程，再借入的线程。
+     *
+     * @return 实际结算的份数
+     */
     @Unique
-    private boolean ae2oc_tryConsumePower(Object host, double powerNeeded) {
+    private long ae2oc_finishCraftParallel(Object self, Object host, ExInscriberHostTick shared, long parallel) {
         try {
-            Method extractMethod = host.getClass().getMethod(
-                    "extractAEPower", double.class, Actionable.class, PowerMultiplier.class);
-
-            // 1. 模拟检查总可用能量（内部 + 网络）
-            double internalAvail = (double) extractMethod.invoke(host, powerNeeded,
-                    Actionable.SIMULATE, PowerMultiplier.CONFIG);
-
-            double networkAvail = 0;
-            IEnergyService energyService = null;
-            Method getMainNode = host.getClass().getMethod("getMainNode");
-            Object mainNode = getMainNode.invoke(host);
-            if (mainNode != null) {
-                Method getGrid = mainNode.getClass().getMethod("getGrid");
-                Object grid = getGrid.invoke(mainNode);
-                if (grid != null) {
-                    Method getEnergyService = grid.getClass().getMethod("getEnergyService");
-                    energyService = (IEnergyService) getEnergyService.invoke(grid);
-                    networkAvail = energyService.extractAEPower(powerNeeded, Actionable.SIMULATE, PowerMultiplier.CONFIG);
-                }
+            ExInscriberThreadAdapter adapter = MachineAdapters.EX_INSCRIBER_THREAD;
+            if (!(adapter.getCurrentRecipe(self) instanceof InscriberRecipe recipe)) return 0;
+
+            InternalInventory sideHandler = adapter.getSideSlots(self);
+            if (sideHandler == null) return 0;
+            boolean press = recipe.getProcessType() == InscriberProcessType.PRESS;
+
+            // 计时期间输入可能被取走，按当前仍可支撑的份数结算
+            List<Object> batchThreads = ae2oc_batchThreads(self);
+            long available = 0;
+            for (Object thread : batchThreads) {
+                available += ae2oc_threadCrafts(thread, press);
             }
+            parallel = Math.min(parallel, available);
+            if (parallel <= 0) return 0;
+
+            // 多倍产物
+            RecipeOutputs.Output output = RecipeOutputs.of(recipe);
+            if (output == null) return 0;
+            long totalOutput = output.total(parallel);
 
-            if (internalAvail + networkAvail < powerNeeded - 0.01) {
-                return false; // 总量不够
+            boolean directToNetwork = shared.parallelMultiplier() > 1 || shared.hasOverclock();
+
+            long actualInserted;
+            if (directToNetwork) {
+                // 产物优先直出 ME 网络
+                long insertedToNetwork = shared.insertOutput(output.key(), totalOutput, sideHandler);
+                long remaining = totalOutput - insertedToNetwork;
+                actualInserted = insertedToNetwork;
+                if (remaining > 0) {
+                    actualInserted += ae2oc_insertLocal(sideHandler, output, remaining);
+                }
+            } else {
+                actualInserted = ae2oc_insertLocal(sideHandler, output, totalOutput);
             }
 
-            // 2. 实际扣除：先扣内部，剩余扣网络
-            double remaining = powerNeeded;
-            double actualInternal = (double) extractMethod.invoke(host, remaining,
-                    Actionable.MODULATE, PowerMultiplier.CONFIG);
-            remaining -= actualInternal;
+            long actualParallel = output.amount() > 0 ? actualInserted / output.amount() : 0;
+
+            long remainingCrafts = actualParallel;
+            for (Object thread : batchThreads) {
+                if (remainingCrafts <= 0) break;
+                long crafts = Math.min(remainingCrafts, ae2oc_threadCrafts(thread, press));
+                if (crafts <= 0) continue;
+                remainingCrafts -= crafts;
+                adapter.setProgress(thread, 0);
+
+                if (press) {
+                    InternalInventory topHandler = adapter.getTopSlot(thread);
+                    InternalInventory bottomHandler = adapter.getBottomSlot(thread);
+                    if (topHandler != null) {
+                        InternalInventoryCounts.extractCount(topHandler, 0, null, crafts, Actionable.MODULATE);
+                    }
+                    if (bottomHandler != null) {
+                        InternalInventoryCounts.extractCount(bottomHandler, 0, null, crafts, Actionable.MODULATE);
+                    }
+                }
 
-            if (remaining > 0.01 && energyService != null) {
-                energyService.extractAEPower(remaining, Actionable.MODULATE, PowerMultiplier.CONFIG);
+                InternalInventory side = adapter.getSideSlots(thread);
+                if (side != null) {
+                    InternalInventoryCounts.extractCount(side, 0, null, crafts, Actionable.MODULATE);
+                }
             }
 
-            return true;
+            ae2oc_saveHostChanges(host);
+            return actualParallel - remainingCrafts;
         } catch (Exception e) {
-            // 反射失败
+            return 0;
         }
-        return false;
     }
 
+    /**
+     * 把 count 个产物放入本地输出槽（1 号），返回实际放入数量
+     */
     @Unique
-    private Field ae2oc_getField(Class<?> clazz, String fieldName) throws NoSuchFieldException {
-        try {
-            return clazz.getDeclaredField(fieldName);
-        } catch (NoSuchFieldException e) {
-            Class<?> superClass = clazz.getSuperclass();
-            if (superClass != null) {
-                return ae2oc_getField(superClass, fieldName);
-            }
-            throw e;
+    private long ae2oc_insertLocal(InternalInventory sideHandler, RecipeOutputs.Output output, long count) {
+        if (!(output.key() instanceof AEItemKey itemKey)) {
+            return 0;
         }
+        return InternalInventoryCounts.insertCount(sideHandler, 1, itemKey, count, Actionable.MODULATE);
+    }
+
+    /**
+     * 把本地输出槽的产物登记到网格输出缓冲，tick 结束时统一转移到 ME 网络
+     */
+    @Unique
+    private void ae2oc_transferOutputToNetwork(ExInscriberHostTick shared, InternalInventory sideHandler) {
+        IGridNode gridNode = shared.node();
+
+        // 输出槽是 slot 1；网络不可用时由缓冲负责退避
+        GridOutputBuffer.queueDrain(gridNode, sideHandler, 1,
+                gridNode == null ? IActionSource.empty() : shared.actionSource());
     }
 
+    /**
+     * 宿主 TileExInscriber 继承自 AEBaseBlockEntity，直接调用
+     */
     @Unique
     private void ae2oc_markHostForUpdate(Object host) {
-        try {
-            Method method = host.getClass().getMethod("markForUpdate");
-            method.invoke(host);
-        } catch (Exception ignored) {
+        if (host instanceof AEBaseBlockEntity blockEntity) {
+            blockEntity.markForUpdate();
         }
     }
 
     @Unique
     private void ae2oc_saveHostChanges(Object host) {
-        try {
-            Method method = host.getClass().getMethod("saveChanges");
-            method.invoke(host);
-        } catch (Exception ignored) {
+        if (host instanceof AEBaseBlockEntity blockEntity) {
+            blockEntity.saveChanges();
         }
     }
 
@@ -498,18 +536,12 @@ public abstract class MixinExInscriberThreadOverclock {
      * 主动刷新输出槽到 ME 网络，防止 ME 短暂掉线后死锁
      */
     @Unique
-    private void ae2oc_tryFlushOutputSlot(Object self, Object host) {
-        try {
-            Field sideField = ae2oc_getField(self.getClass(), "sideItemHandler");
-            sideField.setAccessible(true);
-            Object sideHandler = sideField.get(self);
+    private void ae2oc_tryFlushOutputSlot(Object self, ExInscriberHostTick shared) {
+        InternalInventory sideHandler = MachineAdapters.EX_INSCRIBER_THREAD.getSideSlots(self);
+        // 输出槽无变化或正处于拒收退避中时跳过
+        if (sideHandler == null || !OutputFlushTracker.take(sideHandler)) return;
+        if (sideHandler.getStackInSlot(1).isEmpty()) return;
 
-            Method getStackInSlot = sideHandler.getClass().getMethod("getStackInSlot", int.class);
-            ItemStack stack = (ItemStack) getStackInSlot.invoke(sideHandler, 1);
-            if (stack.isEmpty()) return;
-
-            ae2oc_transferOutputToNetwork(host, sideHandler);
-        } catch (Exception ignored) {
-        }
+        ae2oc_transferOutputToNetwork(shared, sideHandler);
     }
 }
@@ -4,9 +4,13 @@ import appeng.api.config.Actionable;
 import appeng.api.stacks.AEKey;
 import appeng.api.stacks.AEKeyType;
 import appeng.api.stacks.GenericStack;
+import moakiee.support.OutputFlushTracker;
+import moakiee.support.OutputFlushTrackerHolder;
+import moakiee.support.OverstackingHolder;
 import moakiee.support.OverstackingRegistry;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
@@ -16,12 +20,39 @@ import java.util.Objects;
 
 /**
  * 注入 GenericStackInv 的核心方法，绕过堆叠限制。
+ * 同时挂载超量堆叠标记（{@link OverstackingRegistry}）与输出刷新状态（{@link OutputFlushTracker}）。
  */
 @Mixin(targets = "appeng.helpers.externalstorage.GenericStackInv", remap = false)
-public abstract class MixinGenericStackInv {
+public abstract class MixinGenericStackInv implements OverstackingHolder, OutputFlushTrackerHolder {
     
     @Shadow
     protected GenericStack[] stacks;
+
+    @Unique
+    private boolean ae2oc_overstacking;
+
+    @Unique
+    private OutputFlushTracker ae2oc_flushTracker;
+
+    @Override
+    public OutputFlushTracker ae2oc_getFlushTracker() {
+        return ae2oc_flushTracker;
+    }
+
+    @Override
+    public void ae2oc_setFlushTracker(OutputFlushTracker tracker) {
+        this.ae2oc_flushTracker = tracker;
+    }
+
+    @Override
+    public boolean ae2oc_isOverstacking() {
+        return ae2oc_overstacking;
+    }
+
+    @Override
+    public void ae2oc_setOverstacking(boolean overstacking) {
+        this.ae2oc_overstacking = overstacking;
+    }
     
     @Shadow
     public abstract long getCapacity(AEKeyType space);
@@ -44,6 +75,12 @@ public abstract class MixinGenericStackInv {
     @Shadow
     protected abstract void onChange();
     
+    // ===== onChange 注入 - 内容变化时标记输出待刷新 =====
+    @Inject(method = "onChange", at = @At("HEAD"))
+    private void ae2oc_onChange(CallbackInfo ci) {
+        OutputFlushTracker.markChanged(this);
+    }
+
     // ===== setStack 注入 - 绕过 clamp 逻辑 =====
     @Inject(method = "setStack", at = @At("HEAD"), cancellable = true)
     private void ae2oc_setStack(int slot, GenericStack stack, CallbackInfo ci) {
@@ -51,7 +88,7 @@ public abstract class MixinGenericStackInv {
         boolean shouldBypass = false;
         if (stack != null && stack.amount() > 64) {
             shouldBypass = true;
-        } else if (OverstackingRegistry.shouldAllowOverstacking(this)) {
+        } else if (this.ae2oc_overstacking) {
             shouldBypass = true;
         }
         
@@ -72,7 +109,7 @@ public abstract class MixinGenericStackInv {
     @Inject(method = "insert(ILappeng/api/stacks/AEKey;JLappeng/api/config/Actionable;)J", at = @At("HEAD"), cancellable = true)
     private void ae2oc_insert(int slot, AEKey what, long amount, Actionable mode, CallbackInfoReturnable<Long> cir) {
         // 只在注册的 inventory 中生效（在放入时，判断当前数量可能还是 0）
-        if (!OverstackingRegistry.shouldAllowOverstacking(this)) {
+        if (!this.ae2oc_overstacking) {
             return;
         }
         
@@ -115,7 +152,7 @@ public abstract class MixinGenericStackInv {
         boolean shouldBypass = false;
         if (currentAmount > 64) {
             shouldBypass = true;
-        } else if (OverstackingRegistry.shouldAllowOverstacking(this)) {
+        } else if (this.ae2oc_overstacking) {
             shouldBypass = true;
         }
         
@@ -14,6 +14,7 @@ import appeng.blockentity.storage.IOPortBlockEntity;
 import appeng.core.definitions.AEItems;
 import appeng.util.inv.AppEngInternalInventory;
 import moakiee.ModItems;
+import moakiee.support.HookProfiler;
 import moakiee.support.SuperSpeedNumberUtil;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
@@ -42,6 +43,16 @@ public abstract class MixinIOPortSuperSpeed implements IUpgradeableObject {
      */
     @Overwrite(remap = false)
     public TickRateModulation tickingRequest(IGridNode node, int ticksSinceLastCall) {
+        long profileStart = HookProfiler.begin();
+        try {
+            return ae2oc_tickingRequest(node, ticksSinceLastCall);
+        } finally {
+            HookProfiler.end(HookProfiler.Hook.IO_PORT_TICK, profileStart);
+        }
+    }
+
+    @Unique
+    private TickRateModulation ae2oc_tickingRequest(IGridNode node, int ticksSinceLastCall) {
         IOPortBlockEntity self = (IOPortBlockEntity)(Object)this;
         if (!self.getMainNode().isActive()) {
             return TickRateModulation.IDLE;
@@ -1,18 +1,26 @@
 package moakiee.mixin;
 
 import appeng.api.config.Actionable;
-import appeng.api.config.PowerMultiplier;
+import appeng.api.inventories.InternalInventory;
 import appeng.api.networking.IGridNode;
-import appeng.api.networking.energy.IEnergyService;
-import appeng.api.networking.storage.IStorageService;
+import appeng.api.networking.security.IActionSource;
 import appeng.api.networking.ticking.TickRateModulation;
 import appeng.api.stacks.AEItemKey;
 import appeng.blockentity.misc.InscriberBlockEntity;
 import appeng.recipes.handlers.InscriberProcessType;
 import appeng.recipes.handlers.InscriberRecipe;
+import moakiee.support.BottleneckWindow;
+import moakiee.support.EnergyLedger;
+import moakiee.support.GridOutputBuffer;
+import moakiee.support.HookProfiler;
+import moakiee.support.InternalInventoryCounts;
+import moakiee.support.OutputFlushTracker;
 import moakiee.support.OverclockCardRuntime;
+import moakiee.support.OverclockTimerWheel;
 import moakiee.support.ParallelCardRuntime;
 import moakiee.support.ParallelEngine;
+import moakiee.support.RecipeOutputs;
+import moakiee.support.machine.InscriberMachineAdapter;
 import net.minecraft.world.item.ItemStack;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
@@ -40,16 +48,28 @@ public abstract class MixinInscriberOverclock {
 
     /** 缓存并行结算结果，用于 smash 动画完成后的原子化产出 */
     @Unique
-    private int ae2oc_pendingParallel = 0;
+    private long ae2oc_pendingParallel = 0;
 
-    /** 超频模式 tick 计数器 */
+    /** 本批并行数的瓶颈，结算时记入 {@link BottleneckWindow} */
     @Unique
-    private int ae2oc_tickCounter = 0;
+    private ParallelEngine.Bottleneck ae2oc_pendingBottleneck;
+
+    /** 超频批次的到期 tick，见 {@link OverclockTimerWheel} */
+    @Unique
+    private long ae2oc_overclockDueTick = 0L;
 
     /** 超频模式是否已激活（已扣电，正在等待 N tick） */
     @Unique
     private boolean ae2oc_overclockActive = false;
 
+    /** 超频批次开始时已预留能量的份数；仅并行模式为 0（原版已为 1 份供能，其余在结算时预留） */
+    @Unique
+    private long ae2oc_reservedParallel = 0L;
+
+    /** 单次扣除的能量账本，缓存当前网格的能量服务 */
+    @Unique
+    private final EnergyLedger ae2oc_energyLedger = new EnergyLedger();
+
     // ========== Shadow 访问原版字段和方法 ==========
 
     @Shadow
@@ -76,6 +96,17 @@ public abstract class MixinInscriberOverclock {
     @Inject(method = "tickingRequest", at = @At("HEAD"), cancellable = true, remap = false)
     private void ae2oc_parallelOverclockTick(IGridNode node, int ticksSinceLastCall,
                                               CallbackInfoReturnable<TickRateModulation> cir) {
+        long profileStart = HookProfiler.begin();
+        try {
+            ae2oc_parallelOverclockTickImpl(node, ticksSinceLastCall, cir);
+        } finally {
+            HookProfiler.end(HookProfiler.Hook.INSCRIBER_TICK, profileStart);
+        }
+    }
+
+    @Unique
+    private void ae2oc_parallelOverclockTickImpl(IGridNode node, int ticksSinceLastCall,
+                                              CallbackInfoReturnable<TickRateModulation> cir) {
         InscriberBlockEntity self = (InscriberBlockEntity) (Object) this;
 
         boolean hasOverclock = OverclockCardRuntime.hasOverclockCard(self);
@@ -89,19 +120,17 @@ public abstract class MixinInscriberOverclock {
         // 主动刷新：将输出槽残留物品转移到 ME 网络（防止死锁）
         ae2oc_tryFlushOutputSlot(self);
 
-        // 超频模式正在计时中
+        // 超频模式正在计时中：未到期（被其他原因提前唤醒）继续休眠，由时间轮到期唤醒
         if (this.ae2oc_overclockActive) {
-            this.ae2oc_tickCounter++;
-            int targetTicks = OverclockCardRuntime.getProcessTicks();
-
-            if (this.ae2oc_tickCounter >= targetTicks) {
-                // 到达 N tick，触发 smash 动画
-                this.ae2oc_overclockActive = false;
-                this.ae2oc_tickCounter = 0;
-                this.setSmash(true);
-                this.finalStep = 0;
-                ae2oc_markForUpdate(self);
+            if (!OverclockTimerWheel.isDue(this.ae2oc_overclockDueTick)) {
+                cir.setReturnValue(TickRateModulation.SLEEP);
+                return;
             }
+            // 到达 N tick，触发 smash 动画
+            this.ae2oc_overclockActive = false;
+            this.setSmash(true);
+            this.finalStep = 0;
+            ae2oc_markForUpdate(self);
             cir.setReturnValue(TickRateModulation.URGENT);
             return;
         }
@@ -120,26 +149,31 @@ public abstract class MixinInscriberOverclock {
         }
 
         // 计算并行数
-        int actualParallel = ae2oc_calculateParallel(self, node, recipe, parallelMultiplier);
+        long actualParallel = ae2oc_calculateParallel(self, node, recipe, parallelMultiplier);
         if (actualParallel < 1) {
             return;
         }
 
         if (hasOverclock) {
-            // === 超频模式：一次性扣电，开始计时 ===
-            double totalEnergy = actualParallel * AE2OC_INSCRIBER_RECIPE_ENERGY;
-            if (!ae2oc_tryConsumePower(self, node, totalEnergy)) {
+            // === 超频模式：一次性预留能量，开始计时 ===
+            long reserved = ae2oc_reserveEnergy(self, node, actualParallel);
+            if (reserved < 1) {
                 return;
             }
+            if (reserved < actualParallel) {
+                this.ae2oc_pendingBottleneck = ParallelEngine.Bottleneck.ENERGY;
+            }
 
-            this.ae2oc_pendingParallel = actualParallel;
+            this.ae2oc_pendingParallel = reserved;
+            this.ae2oc_reservedParallel = reserved;
             this.ae2oc_overclockActive = true;
-            this.ae2oc_tickCounter = 0;
+            this.ae2oc_overclockDueTick = OverclockTimerWheel.schedule(node, OverclockCardRuntime.getProcessTicks());
             ae2oc_markForUpdate(self);
-            cir.setReturnValue(TickRateModulation.URGENT);
+            cir.setReturnValue(TickRateModulation.SLEEP);
         } else {
             // 仅并行模式：让原版正常推进度条， smash 触发时用 pendingParallel 多倍结算
             this.ae2oc_pendingParallel = actualParallel;
+            this.ae2oc_reservedParallel = 0L;
         }
     }
 
@@ -151,9 +185,30 @@ public abstract class MixinInscriberOverclock {
         this.finalStep += 4; // 超频加速动画
         if (this.finalStep >= 8 && this.finalStep < 16) {
             // 动画到达结算点 → 原子化执行多倍结算
-            int parallel = Math.max(this.ae2oc_pendingParallel, 1);
-            ae2oc_finishCraftParallel(self, parallel);
+            long parallel = Math.max(this.ae2oc_pendingParallel, 1);
+            // 已供能的份数：超频批次开始时预留的份数，仅并行模式为原版自己供能的 1 份
+            long prepaid = this.ae2oc_reservedParallel;
+            long free = prepaid > 0 ? 0 : 1;
+            long paid = prepaid;
+            if (parallel > prepaid + free) {
+                long wanted = parallel - prepaid - free;
+                long granted = ae2oc_reserveEnergy(self, ae2oc_getGridNode(self), wanted);
+                if (granted < wanted) {
+                    this.ae2oc_pendingBottleneck = ParallelEngine.Bottleneck.ENERGY;
+                }
+                paid += granted;
+                parallel = prepaid + free + granted;
+            }
+            long done = 0;
+            try {
+                done = ae2oc_finishCraftParallel(self, parallel);
+            } finally {
+                // 未用上的预留能量退回
+                ae2oc_releaseEnergy(self, ae2oc_getGridNode(self), paid - Math.max(done - free, 0));
+            }
+            BottleneckWindow.record(self, this.ae2oc_pendingBottleneck);
             this.ae2oc_pendingParallel = 0;
+            this.ae2oc_reservedParallel = 0L;
             this.finalStep = 16;
         }
         if (this.finalStep >= 16) {
@@ -167,76 +222,59 @@ public abstract class MixinInscriberOverclock {
      * 计算实际并行数（木桶效应）
      */
     @Unique
-    private int ae2oc_calculateParallel(InscriberBlockEntity self, IGridNode node,
-                                         InscriberRecipe recipe, int cardMultiplier) {
+    private long ae2oc_calculateParallel(InscriberBlockEntity self, IGridNode node,
+                                          InscriberRecipe recipe, int cardMultiplier) {
         try {
-            java.lang.reflect.Field sideField = InscriberBlockEntity.class.getDeclaredField("sideItemHandler");
-            sideField.setAccessible(true);
-            Object sideHandler = sideField.get(self);
+            InscriberMachineAdapter adapter = InscriberMachineAdapter.INSTANCE;
+            InternalInventory sideHandler = adapter.getSideSlots(self);
 
             // 获取输入物品数量
-            java.lang.reflect.Method getStackInSlot = sideHandler.getClass().getMethod("getStackInSlot", int.class);
-            ItemStack inputStack = (ItemStack) getStackInSlot.invoke(sideHandler, 0);
+            ItemStack inputStack = sideHandler.getStackInSlot(0);
             int inputCount = inputStack.getCount();
 
             // 配方每次消耗 1 个输入（压印器标准）
             int recipeInputCount = 1;
 
             // PRESS 类型需要检查模板约束
+            boolean templateBound = false;
             if (recipe.getProcessType() == InscriberProcessType.PRESS) {
-                java.lang.reflect.Field topField = InscriberBlockEntity.class.getDeclaredField("topItemHandler");
-                topField.setAccessible(true);
-                Object topHandler = topField.get(self);
-
-                java.lang.reflect.Field bottomField = InscriberBlockEntity.class.getDeclaredField("bottomItemHandler");
-                bottomField.setAccessible(true);
-                Object bottomHandler = bottomField.get(self);
-
-                ItemStack topStack = (ItemStack) getStackInSlot.invoke(topHandler, 0);
-                ItemStack bottomStack = (ItemStack) getStackInSlot.invoke(bottomHandler, 0);
+                ItemStack topStack = adapter.getTopSlot(self).getStackInSlot(0);
+                ItemStack bottomStack = adapter.getBottomSlot(self).getStackInSlot(0);
 
                 int topCount = topStack.isEmpty() ? Integer.MAX_VALUE : topStack.getCount();
                 int bottomCount = bottomStack.isEmpty() ? Integer.MAX_VALUE : bottomStack.getCount();
                 int templateLimit = Math.min(topCount, bottomCount);
+                templateBound = templateLimit < cardMultiplier;
                 cardMultiplier = Math.min(cardMultiplier, templateLimit);
             }
 
             // 产物
-            ItemStack outputStack = recipe.getResultItem().copy();
-
-            // 可用能量
-            double availableEnergy = ae2oc_getAvailableEnergy(self, node);
-
-            // 有并行卡时，产物优先输出到ME网络，不受本地槽限制（与切片器行为一致）
-            if (cardMultiplier > 1) {
-                return ParallelEngine.calculateSimple(
-                        cardMultiplier,
-                        inputCount, recipeInputCount,
-                        Integer.MAX_VALUE,
-                        availableEnergy,
-                        AE2OC_INSCRIBER_RECIPE_ENERGY
-                ).actualParallel();
+            RecipeOutputs.Output output = RecipeOutputs.of(recipe);
+            if (output == null) {
+                return 0;
             }
 
-            // 无并行卡时使用本地槽限制
-            java.lang.reflect.Method insertMethod = sideHandler.getClass().getMethod("insertItem",
-                    int.class, ItemStack.class, boolean.class);
+            // 能量由预留决定，不预先查询
+            double availableEnergy = Double.MAX_VALUE;
 
-            ParallelEngine.ParallelResult result = ParallelEngine.calculate(
+            // 有并行卡时，产物优先输出到ME网络，受网络余量 + 本地槽余量限制（与切片器行为一致）；无并行卡时使用本地槽限制
+            long outputCapacity = cardMultiplier > 1
+                    ? ParallelEngine.directOutputCapacity(output.template(), sideHandler, 1, cardMultiplier,
+                            node, node == null ? IActionSource.empty() : ae2oc_getActionSource(node))
+                    : ParallelEngine.outputCapacity(output.template(), sideHandler, 1, cardMultiplier);
+            ParallelEngine.BatchResult result = ParallelEngine.calculateBatch(
                     cardMultiplier,
-                    inputCount, recipeInputCount,
-                    outputStack,
-                    (stack, simulate) -> {
-                        try {
-                            return (ItemStack) insertMethod.invoke(sideHandler, 1, stack, simulate);
-                        } catch (Exception e) {
-                            return stack;
-                        }
-                    },
+                    new long[]{inputCount}, new long[]{recipeInputCount},
+                    new long[]{outputCapacity}, new long[]{output.amount()},
                     availableEnergy,
                     AE2OC_INSCRIBER_RECIPE_ENERGY
             );
 
+            ParallelEngine.Bottleneck bottleneck = result.bottleneck();
+            if (templateBound && bottleneck == ParallelEngine.Bottleneck.CARD) {
+                bottleneck = ParallelEngine.Bottleneck.TEMPLATE;
+            }
+            this.ae2oc_pendingBottleneck = bottleneck;
             return result.actualParallel();
 
         } catch (Exception e) {
@@ -247,84 +285,60 @@ public abstract class MixinInscriberOverclock {
     /**
      * 原子化执行多倍配方结算。
      * 有并行卡/超频卡时，产物优先直出 ME 网络，剩余放本地槽。
+     *
+     * @return 实际结算的份数
      */
     @Unique
-    private void ae2oc_finishCraftParallel(InscriberBlockEntity self, int parallel) {
+    private long ae2oc_finishCraftParallel(InscriberBlockEntity self, long parallel) {
         InscriberRecipe recipe = this.getTask();
         if (recipe == null) {
-            return;
+            return 0;
         }
 
+        long actualParallel = 0;
         try {
-            java.lang.reflect.Field sideField = InscriberBlockEntity.class.getDeclaredField("sideItemHandler");
-            sideField.setAccessible(true);
-            Object sideHandler = sideField.get(self);
-
-            java.lang.reflect.Field topField = InscriberBlockEntity.class.getDeclaredField("topItemHandler");
-            topField.setAccessible(true);
-            Object topHandler = topField.get(self);
+            InscriberMachineAdapter adapter = InscriberMachineAdapter.INSTANCE;
+            InternalInventory sideHandler = adapter.getSideSlots(self);
 
-            java.lang.reflect.Field bottomField = InscriberBlockEntity.class.getDeclaredField("bottomItemHandler");
-            bottomField.setAccessible(true);
-            Object bottomHandler = bottomField.get(self);
-
-            // 构造多倍产物
-            ItemStack outputCopy = recipe.getResultItem().copy();
-            int totalOutput = outputCopy.getCount() * parallel;
-            int singleOutputCount = recipe.getResultItem().getCount();
+            // 多倍产物
+            RecipeOutputs.Output output = RecipeOutputs.of(recipe);
+            if (output == null) {
+                return 0;
+            }
+            long totalOutput = output.total(parallel);
 
             int parallelMultiplier = ParallelCardRuntime.getParallelMultiplier(self);
             boolean hasOverclock = OverclockCardRuntime.hasOverclockCard(self);
             boolean directToNetwork = parallelMultiplier > 1 || hasOverclock;
 
-            int actualInserted;
-            if (directToNetwork) {
-                // 有并行卡/超频卡：产物优先直出 ME 网络
-                int insertedToNetwork = ae2oc_tryDirectOutputToNetwork(self, outputCopy.copyWithCount(totalOutput));
-                int remaining = totalOutput - insertedToNetwork;
-                actualInserted = insertedToNetwork;
-                // 剩余放本地槽
-                if (remaining > 0) {
-                    java.lang.reflect.Method insertMethod = sideHandler.getClass().getMethod("insertItem",
-                            int.class, ItemStack.class, boolean.class);
-                    ItemStack leftover = (ItemStack) insertMethod.invoke(sideHandler, 1,
-                            outputCopy.copyWithCount(remaining), false);
-                    actualInserted += remaining - leftover.getCount();
-                }
+            long actualInserted;
+            if (directToNetwork && output.key() instanceof AEItemKey itemKey) {
+                // 有并行卡/超频卡：产物存入网格输出缓冲，tick 结束时合并直出 ME 网络，网络收不下的放本地槽
+                IGridNode gridNode = adapter.getGridNode(self);
+                actualInserted = GridOutputBuffer.deliver(gridNode, itemKey, totalOutput,
+                        gridNode == null ? IActionSource.empty() : ae2oc_getActionSource(gridNode), sideHandler, 1);
             } else {
                 // 无卡：放入本地输出槽
-                outputCopy.setCount(totalOutput);
-                java.lang.reflect.Method insertMethod = sideHandler.getClass().getMethod("insertItem",
-                        int.class, ItemStack.class, boolean.class);
-                ItemStack leftover = (ItemStack) insertMethod.invoke(sideHandler, 1, outputCopy, false);
-                actualInserted = totalOutput - leftover.getCount();
+                actualInserted = ae2oc_insertLocal(sideHandler, output, totalOutput);
             }
 
             // 计算实际成功放入的份数
-            int actualParallel = singleOutputCount > 0 ? actualInserted / singleOutputCount : 0;
+            actualParallel = output.amount() > 0 ? actualInserted / output.amount() : 0;
 
             if (actualParallel > 0) {
                 // 重置进度
-                java.lang.reflect.Method setProcessingTime = InscriberBlockEntity.class.getDeclaredMethod(
-                        "setProcessingTime", int.class);
-                setProcessingTime.setAccessible(true);
-                setProcessingTime.invoke(self, 0);
+                adapter.setProgress(self, 0);
 
                 // 扣除模板（PRESS 类型）
                 if (recipe.getProcessType() == InscriberProcessType.PRESS) {
-                    java.lang.reflect.Method extractTop = topHandler.getClass().getMethod("extractItem",
-                            int.class, int.class, boolean.class);
-                    extractTop.invoke(topHandler, 0, actualParallel, false);
-
-                    java.lang.reflect.Method extractBottom = bottomHandler.getClass().getMethod("extractItem",
-                            int.class, int.class, boolean.class);
-                    extractBottom.invoke(bottomHandler, 0, actualParallel, false);
+                    InternalInventoryCounts.extractCount(adapter.getTopSlot(self), 0, null, actualParallel,
+                            Actionable.MODULATE);
+                    InternalInventoryCounts.extractCount(adapter.getBottomSlot(self), 0, null, actualParallel,
+                            Actionable.MODULATE);
                 }
 
                 // 扣除输入材料
-                java.lang.reflect.Method extractSide = sideHandler.getClass().getMethod("extractItem",
-                        int.class, int.class, boolean.class);
-                extractSide.invoke(sideHandler, 0, actualParallel, false);
+                InternalInventoryCounts.extractCount(sideHandler, 0, null, actualParallel, Actionable.MODULATE);
             }
 
         } catch (Exception e) {
@@ -332,76 +346,31 @@ public abstract class MixinInscriberOverclock {
         }
 
         ae2oc_saveChanges(self);
+        return actualParallel;
     }
 
     /**
-     * 直接将产物输出到 ME 网络，返回实际插入数量
+     * 把 count 个产物放入本地输出槽（1 号），返回实际放入数量
      */
     @Unique
-    private int ae2oc_tryDirectOutputToNetwork(InscriberBlockEntity self, ItemStack outputStack) {
-        try {
-            java.lang.reflect.Method getMainNode = self.getClass().getMethod("getMainNode");
-            Object mainNode = getMainNode.invoke(self);
-            if (mainNode == null) return 0;
-
-            java.lang.reflect.Method getGrid = mainNode.getClass().getMethod("getGrid");
-            Object grid = getGrid.invoke(mainNode);
-            if (grid == null) return 0;
-
-            IStorageService storageService = (IStorageService) ((appeng.api.networking.IGrid) grid).getService(IStorageService.class);
-            if (storageService == null) return 0;
-
-            AEItemKey key = AEItemKey.of(outputStack);
-            if (key == null) return 0;
-
-            appeng.api.networking.security.IActionSource actionSource = ae2oc_getActionSource(self, mainNode);
-            long inserted = storageService.getInventory().insert(key, outputStack.getCount(), Actionable.MODULATE, actionSource);
-            return (int) inserted;
-        } catch (Exception e) {
+    private long ae2oc_insertLocal(InternalInventory sideHandler, RecipeOutputs.Output output, long count) {
+        if (!(output.key() instanceof AEItemKey itemKey)) {
             return 0;
         }
+        return InternalInventoryCounts.insertCount(sideHandler, 1, itemKey, count, Actionable.MODULATE);
     }
-    
+
+
     /**
-     * 把本地输出槽的产物转移到 ME 网络
+     * 把本地输出槽的产物登记到网格输出缓冲，tick 结束时统一转移到 ME 网络
      */
     @Unique
-    private void ae2oc_transferOutputToNetwork(InscriberBlockEntity self, Object sideHandler) {
-        try {
-            java.lang.reflect.Method getMainNode = self.getClass().getMethod("getMainNode");
-            Object mainNode = getMainNode.invoke(self);
-            if (mainNode == null) return;
-            
-            java.lang.reflect.Method getGrid = mainNode.getClass().getMethod("getGrid");
-            Object grid = getGrid.invoke(mainNode);
-            if (grid == null) return;
-            
-            IStorageService storageService = (IStorageService) ((appeng.api.networking.IGrid) grid).getService(IStorageService.class);
-            if (storageService == null) return;
-            
-            java.lang.reflect.Method getStackInSlot = sideHandler.getClass().getMethod("getStackInSlot", int.class);
-            java.lang.reflect.Method extractItem = sideHandler.getClass().getMethod("extractItem", int.class, int.class, boolean.class);
-            
-            // 输出槽是 slot 1
-            ItemStack stack = (ItemStack) getStackInSlot.invoke(sideHandler, 1);
-            if (stack.isEmpty()) return;
-            
-            AEItemKey key = AEItemKey.of(stack);
-            if (key == null) return;
-            
-            // 获取 IActionSource 用于 ME 网络操作（修复 AE2 Additions 超级存储元件兼容性问题）
-            appeng.api.networking.security.IActionSource actionSource = ae2oc_getActionSource(self, mainNode);
-
-            long inserted = storageService.getInventory().insert(key, stack.getCount(), Actionable.MODULATE, actionSource);
-
-            if (inserted > 0) {
-                // 从本地槽取出已转移的数量
-                extractItem.invoke(sideHandler, 1, (int) inserted, false);
-            }
-            
-        } catch (Exception e) {
-            // 忽略
-        }
+    private void ae2oc_transferOutputToNetwork(InscriberBlockEntity self, InternalInventory sideHandler) {
+        IGridNode gridNode = InscriberMachineAdapter.INSTANCE.getGridNode(self);
+
+        // 输出槽是 slot 1；网络不可用时由缓冲负责退避
+        GridOutputBuffer.queueDrain(gridNode, sideHandler, 1,
+                gridNode == null ? IActionSource.empty() : ae2oc_getActionSource(gridNode));
     }
 
     /**
@@ -409,92 +378,46 @@ public abstract class MixinInscriberOverclock {
      * 修复 AE2 Additions 超级存储元件因 null 参数导致的兼容性问题
      */
     @Unique
-    private appeng.api.networking.security.IActionSource ae2oc_getActionSource(InscriberBlockEntity self, Object mainNode) {
-        try {
-            if (mainNode != null) {
-                java.lang.reflect.Method getNode = mainNode.getClass().getMethod("getNode");
-                Object node = getNode.invoke(mainNode);
-                if (node instanceof appeng.api.networking.IGridNode gridNode) {
-                    Object owner = gridNode.getOwner();
-                    if (owner instanceof appeng.api.networking.security.IActionHost actionHost) {
-                        return appeng.api.networking.security.IActionSource.ofMachine(actionHost);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            // 忽略
+    private appeng.api.networking.security.IActionSource ae2oc_getActionSource(IGridNode gridNode) {
+        if (gridNode.getOwner() instanceof appeng.api.networking.security.IActionHost actionHost) {
+            return appeng.api.networking.security.IActionSource.ofMachine(actionHost);
         }
         return appeng.api.networking.security.IActionSource.empty();
     }
 
     /**
-     * 获取可用能量（内部缓存 + 网络）
+     * 为 units 份配方一次性预留能量（先内部缓存，再网络）
+     *
+     * @return 批准的份数
      */
     @Unique
-    private double ae2oc_getAvailableEnergy(InscriberBlockEntity self, IGridNode node) {
-        // 内部缓存
-        double internal = self.extractAEPower(Double.MAX_VALUE, Actionable.SIMULATE, PowerMultiplier.CONFIG);
-
-        // 网络能量
-        double network = 0;
-        var grid = node.getGrid();
-        if (grid != null) {
-            IEnergyService energyService = grid.getEnergyService();
-            network = energyService.extractAEPower(Double.MAX_VALUE, Actionable.SIMULATE, PowerMultiplier.CONFIG);
-        }
-
-        return internal + network;
+    private long ae2oc_reserveEnergy(InscriberBlockEntity self, IGridNode node, long units) {
+        return ae2oc_energyLedger.reserve(self, node, AE2OC_INSCRIBER_RECIPE_ENERGY, units);
     }
 
     /**
-     * 尝试消耗指定能量（先内部缓存，再网络）
+     * 退回 units 份未用上的预留能量
      */
     @Unique
-    private boolean ae2oc_tryConsumePower(InscriberBlockEntity self, IGridNode node, double powerNeeded) {
-        // 1. 模拟检查总可用能量（内部 + 网络）
-        double internalAvail = self.extractAEPower(powerNeeded, Actionable.SIMULATE, PowerMultiplier.CONFIG);
-
-        double networkAvail = 0;
-        IEnergyService energyService = null;
-        var grid = node.getGrid();
-        if (grid != null) {
-            energyService = grid.getEnergyService();
-            networkAvail = energyService.extractAEPower(powerNeeded, Actionable.SIMULATE,
-                    PowerMultiplier.CONFIG);
-        }
-
-        if (internalAvail + networkAvail < powerNeeded - 0.01) {
-            return false; // 总量不够
-        }
-
-        // 2. 实际扣除：先扣内部，剩余扣网络
-        double remaining = powerNeeded;
-        double actualInternal = self.extractAEPower(remaining, Actionable.MODULATE, PowerMultiplier.CONFIG);
-        remaining -= actualInternal;
-
-        if (remaining > 0.01 && energyService != null) {
-            energyService.extractAEPower(remaining, Actionable.MODULATE, PowerMultiplier.CONFIG);
+    private void ae2oc_releaseEnergy(InscriberBlockEntity self, IGridNode node, long units) {
+        if (units > 0) {
+            ae2oc_energyLedger.release(self, node, units * AE2OC_INSCRIBER_RECIPE_ENERGY);
         }
+    }
 
-        return true;
+    @Unique
+    private IGridNode ae2oc_getGridNode(InscriberBlockEntity self) {
+        return InscriberMachineAdapter.INSTANCE.getGridNode(self);
     }
 
     @Unique
     private void ae2oc_markForUpdate(InscriberBlockEntity self) {
-        try {
-            java.lang.reflect.Method method = self.getClass().getMethod("markForUpdate");
-            method.invoke(self);
-        } catch (Exception ignored) {
-        }
+        self.markForUpdate();
     }
 
     @Unique
     private void ae2oc_saveChanges(InscriberBlockEntity self) {
-        try {
-            java.lang.reflect.Method method = self.getClass().getMethod("saveChanges");
-            method.invoke(self);
-        } catch (Exception ignored) {
-        }
+        self.saveChanges();
     }
 
     /**
@@ -503,12 +426,10 @@ public abstract class MixinInscriberOverclock {
     @Unique
     private void ae2oc_tryFlushOutputSlot(InscriberBlockEntity self) {
         try {
-            java.lang.reflect.Field sideField = InscriberBlockEntity.class.getDeclaredField("sideItemHandler");
-            sideField.setAccessible(true);
-            Object sideHandler = sideField.get(self);
-
-            java.lang.reflect.Method getStackInSlot = sideHandler.getClass().getMethod("getStackInSlot", int.class);
-            ItemStack stack = (ItemStack) getStackInSlot.invoke(sideHandler, 1);
+            InternalInventory sideHandler = InscriberMachineAdapter.INSTANCE.getSideSlots(self);
+            // 输出槽无变化或正处于拒收退避中时跳过
+            if (!OutputFlushTracker.take(sideHandler)) return;
+            ItemStack stack = sideHandler.getStackInSlot(1);
             if (stack.isEmpty()) return;
 
             ae2oc_transferOutputToNetwork(self, sideHandler);
@@ -1,11 +1,22 @@
 package moakiee.mixin;
 
+import appeng.api.config.Actionable;
 import appeng.api.inventories.InternalInventory;
+import appeng.api.stacks.AEItemKey;
 import com.google.common.base.Preconditions;
+import moakiee.support.InternalInventoryCounts;
+import moakiee.support.VirtualSlotHolder;
+import moakiee.support.VirtualSlots;
 import net.minecraft.world.item.ItemStack;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Overwrite;
 
+/**
+ * 堆叠卡功能注入：insertItem 按槽位上限（而不是物品的最大堆叠数）插入。
+ * 实际逻辑在 {@link InternalInventoryCounts}，这里只负责 ItemStack 与数量之间的转换。
+ * 开启虚拟槽位的容器（装堆叠卡的 AE2CS 物品机器）经 {@link VirtualSlots#insert} 插入，
+ * 机器自身的 insertItem / addItems 也能写入溢出部分。
+ */
 @Mixin(value = InternalInventory.class, remap = false)
 public interface MixinInternalInventory {
 
@@ -19,31 +30,17 @@ public interface MixinInternalInventory {
             return stack;
         }
 
-        var inSlot = inventory.getStackInSlot(slot);
-
-        int maxSpace = inventory.getSlotLimit(slot);
-        int freeSpace = maxSpace - inSlot.getCount();
-        if (freeSpace <= 0) {
-            return stack;
-        }
-
-        if (!inSlot.isEmpty() && !ItemStack.isSameItemSameTags(inSlot, stack)) {
-            return stack;
-        }
-
-        var insertAmount = Math.min(stack.getCount(), freeSpace);
-        if (!simulate) {
-            var newItem = inSlot.isEmpty() ? stack.copy() : inSlot.copy();
-            newItem.setCount(inSlot.getCount() + insertAmount);
-            inventory.setItemDirect(slot, newItem);
+        int inserted;
+        if (inventory instanceof VirtualSlotHolder holder && holder.ae2oc_isVirtualSlotsEnabled()) {
+            AEItemKey key = AEItemKey.of(stack);
+            inserted = key == null ? 0 : (int) VirtualSlots.insert(inventory, slot, key, stack.getCount(),
+                    simulate ? Actionable.SIMULATE : Actionable.MODULATE);
+        } else {
+            inserted = InternalInventoryCounts.insertStack(inventory, slot, stack, stack.getCount(), simulate, true);
         }
-
-        if (freeSpace >= stack.getCount()) {
+        if (inserted >= stack.getCount()) {
             return ItemStack.EMPTY;
-        } else {
-            var remainder = stack.copy();
-            remainder.shrink(insertAmount);
-            return remainder;
         }
+        return inserted == 0 ? stack : stack.copyWithCount(stack.getCount() - inserted);
     }
 }
@@ -1,20 +1,105 @@
 package moakiee.mixin;
 
+import appeng.api.networking.IGridNode;
 import appeng.api.upgrades.IUpgradeInventory;
 import appeng.util.inv.AppEngInternalInventory;
 import moakiee.item.ParallelCard;
+import moakiee.support.BottleneckWindow;
+import moakiee.support.BottleneckWindowHolder;
+import moakiee.support.CardSnapshot;
+import moakiee.support.CardSnapshotHolder;
+import moakiee.support.IdleBackoff;
+import moakiee.support.IdleWakeHolder;
+import moakiee.support.OverclockTimerWheel;
+import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.item.ItemStack;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 /**
  * Mixin 拦截 AppEngInternalInventory 的 isItemValid 方法
  * 实现并行卡互斥：任何等级的并行卡只能安装一张
+ *
+ * 同时为升级槽挂载卡片快照（{@link CardSnapshot}），槽位内容变化时清空，下次查询时重建；
+ * 以及并行结算的瓶颈记录（{@link BottleneckWindow}），卡片变化后丢弃；
+ * 宿主处于空闲休眠（{@link IdleBackoff}）时，卡片变化立即唤醒宿主
  */
 @Mixin(AppEngInternalInventory.class)
-public abstract class MixinUpgradeInventory {
+public abstract class MixinUpgradeInventory implements CardSnapshotHolder, BottleneckWindowHolder, IdleWakeHolder {
+
+    @Unique
+    private CardSnapshot ae2oc_cardSnapshot;
+
+    @Unique
+    private BottleneckWindow ae2oc_bottleneckWindow;
+
+    @Unique
+    private IGridNode ae2oc_idleNode;
+
+    @Override
+    public CardSnapshot ae2oc_getCardSnapshot() {
+        return ae2oc_cardSnapshot;
+    }
+
+    @Override
+    public void ae2oc_setCardSnapshot(CardSnapshot snapshot) {
+        this.ae2oc_cardSnapshot = snapshot;
+    }
+
+    @Override
+    public BottleneckWindow ae2oc_getBottleneckWindow() {
+        return ae2oc_bottleneckWindow;
+    }
+
+    @Override
+    public void ae2oc_setBottleneckWindow(BottleneckWindow window) {
+        this.ae2oc_bottleneckWindow = window;
+    }
+
+    @Override
+    public IGridNode ae2oc_getIdleNode() {
+        return ae2oc_idleNode;
+    }
+
+    @Override
+    public void ae2oc_setIdleNode(IGridNode node) {
+        this.ae2oc_idleNode = node;
+    }
+
+    /**
+     * 槽位写入前后都清空快照：
+     * 写入过程中宿主的 onChangeInventory 回调可能查询卡片，HEAD 保证不会读到旧快照，
+     * TAIL 保证回调期间重建的快照不会残留到写入完成之后
+     */
+    @Inject(method = "setItemDirect", at = @At("HEAD"), remap = false)
+    private void ae2oc_invalidateSnapshotBeforeSet(int slot, ItemStack stack, CallbackInfo ci) {
+        this.ae2oc_cardSnapshot = null;
+        this.ae2oc_bottleneckWindow = null;
+    }
+
+    @Inject(method = "setItemDirect", at = @At("TAIL"), remap = false)
+    private void ae2oc_invalidateSnapshotAfterSet(int slot, ItemStack stack, CallbackInfo ci) {
+        this.ae2oc_cardSnapshot = null;
+
+        IGridNode idleNode = this.ae2oc_idleNode;
+        if (idleNode != null) {
+            this.ae2oc_idleNode = null;
+            OverclockTimerWheel.wake(idleNode);
+        }
+    }
+
+    /**
+     * 从 NBT 读取会直接改写槽位内容，读取前清空快照
+     */
+    @Inject(method = "readFromNBT", at = @At("HEAD"), remap = false)
+    private void ae2oc_invalidateSnapshotOnRead(CompoundTag data, String name, CallbackInfo ci) {
+        this.ae2oc_cardSnapshot = null;
+        this.ae2oc_bottleneckWindow = null;
+    }
 
     /**
      * 在 isItemValid 返回之前检查并行卡互斥
@@ -0,0 +1,102 @@
+package moakiee.support;
+
+import appeng.api.upgrades.IUpgradeInventory;
+import moakiee.ModItems;
+import moakiee.support.ParallelEngine.Bottleneck;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.inventory.DataSlot;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 把机器的 {@link BottleneckWindow} 同步到机器界面
+ *
+ * 每种瓶颈的批数各占一个 DataSlot（窗口长度 64，在 DataSlot 的 short 范围内）。
+ * 服务端从宿主升级槽上的记录实时读取；客户端只保存收到的值，供界面绘制。
+ */
+public final class BottleneckSync {
+
+    private static final Bottleneck[] VALUES = Bottleneck.values();
+
+    private final IUpgradeInventory upgrades;
+    private final boolean clientSide;
+    private final int[] counts = new int[VALUES.length];
+
+    private BottleneckSync(IUpgradeInventory upgrades, boolean clientSide) {
+        this.upgrades = upgrades;
+        this.clientSide = clientSide;
+    }
+
+    /**
+     * 为菜单宿主创建同步状态；宿主不能安装并行卡时返回 null。
+     * 判断只依赖升级槽的可安装卡片，两端结果一致，保证 DataSlot 数量相同。
+     *
+     * @param host       菜单宿主
+     * @param clientSide 菜单是否在客户端
+     */
+    @Nullable
+    public static BottleneckSync create(@Nullable Object host, boolean clientSide) {
+        IUpgradeInventory upgrades = HostResolver.resolveUpgrades(host);
+        if (upgrades == null || upgrades.getMaxInstalled(ModItems.PARALLEL_CARD.get()) <= 0) {
+            return null;
+        }
+        return new BottleneckSync(upgrades, clientSide);
+    }
+
+    /**
+     * 需要注册到菜单的 DataSlot
+     */
+    public List<DataSlot> dataSlots() {
+        List<DataSlot> slots = new ArrayList<>(VALUES.length);
+        for (Bottleneck bottleneck : VALUES) {
+            slots.add(new CountSlot(bottleneck));
+        }
+        return slots;
+    }
+
+    /**
+     * 界面上显示的摘要：窗口内最常见的瓶颈及其批数；尚无记录时返回 null
+     */
+    @Nullable
+    public Component describe() {
+        int total = 0;
+        Bottleneck dominant = null;
+        for (Bottleneck bottleneck : VALUES) {
+            int count = counts[bottleneck.ordinal()];
+            total += count;
+            if (count > 0 && (dominant == null || count > counts[dominant.ordinal()])) {
+                dominant = bottleneck;
+            }
+        }
+        if (dominant == null) {
+            return null;
+        }
+        return Component.translatable("gui.ae2_overclocked.bottleneck",
+                BottleneckWindow.displayName(dominant), counts[dominant.ordinal()], total);
+    }
+
+    private final class CountSlot extends DataSlot {
+
+        private final Bottleneck bottleneck;
+
+        private CountSlot(Bottleneck bottleneck) {
+            this.bottleneck = bottleneck;
+        }
+
+        @Override
+        public int get() {
+            if (!clientSide) {
+                BottleneckWindow window = BottleneckWindow.of(upgrades);
+                counts[bottleneck.ordinal()] = window == null ? 0 : window.count(bottleneck);
+            }
+            return counts[bottleneck.ordinal()];
+        }
+
+        @Override
+        public void set(int value) {
+            counts[bottleneck.ordinal()] = value;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package moakiee.support;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 由 Mixin 注入到 AE2 菜单（AEBaseMenu）上的瓶颈同步状态接口，见 {@link BottleneckSync}。
+ */
+public interface BottleneckSyncHolder {
+
+    @Nullable
+    BottleneckSync ae2oc_getBottleneckSync();
+}
@@ -0,0 +1,113 @@
+package moakiee.support;
+
+import appeng.api.upgrades.IUpgradeInventory;
+import moakiee.support.ParallelEngine.Bottleneck;
+import net.minecraft.network.chat.Component;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+
+/**
+ * 机器最近若干批并行结算的瓶颈记录（滚动窗口）
+ *
+ * 每批结算时记录压低并行数的约束项（卡倍数 / 材料 / 模板 / 输出空间 / 能量），
+ * 用于判断该加能源元件、存储还是输入吞吐。
+ *
+ * 记录挂在机器升级槽上（见 {@link BottleneckWindowHolder}），扩展压印器的各线程共享宿主的记录；
+ * 卡片变化后旧记录不再代表当前配置，随之丢弃。
+ * 通过 /ae2oc bottleneck 查询，并由 {@link BottleneckSync} 同步到机器界面。
+ *
+ * 只在服务端主线程使用。
+ */
+public final class BottleneckWindow {
+
+    /** 窗口长度（批数） */
+    public static final int SIZE = 64;
+
+    private static final Bottleneck[] VALUES = Bottleneck.values();
+
+    private final byte[] ring = new byte[SIZE];
+    private final int[] counts = new int[VALUES.length];
+    private int head;
+    private int size;
+    @Nullable
+    private Bottleneck last;
+
+    private BottleneckWindow() {
+    }
+
+    /**
+     * 记录一批结算的瓶颈
+     *
+     * @param host       机器 BlockEntity 或其宿主对象
+     * @param bottleneck 本批的瓶颈；为 null 时忽略
+     */
+    public static void record(@Nullable Object host, @Nullable Bottleneck bottleneck) {
+        if (bottleneck == null) {
+            return;
+        }
+        IUpgradeInventory upgrades = HostResolver.resolveUpgrades(host);
+        if (!(upgrades instanceof BottleneckWindowHolder holder)) {
+            return;
+        }
+        BottleneckWindow window = holder.ae2oc_getBottleneckWindow();
+        if (window == null) {
+            window = new BottleneckWindow();
+            holder.ae2oc_setBottleneckWindow(window);
+        }
+        window.add(bottleneck);
+    }
+
+    /**
+     * 查询宿主的瓶颈记录，不创建
+     *
+     * @param host 机器 BlockEntity、其宿主对象或升级槽本身
+     * @return 记录；尚未结算过或宿主没有升级槽时返回 null
+     */
+    @Nullable
+    public static BottleneckWindow of(@Nullable Object host) {
+        Object upgrades = host instanceof BottleneckWindowHolder ? host : HostResolver.resolveUpgrades(host);
+        return upgrades instanceof BottleneckWindowHolder holder ? holder.ae2oc_getBottleneckWindow() : null;
+    }
+
+    /**
+     * 瓶颈项的显示名称
+     */
+    public static Component displayName(Bottleneck bottleneck) {
+        return Component.translatable("ae2_overclocked.bottleneck." + bottleneck.name().toLowerCase(Locale.ROOT));
+    }
+
+    private void add(Bottleneck bottleneck) {
+        if (size == SIZE) {
+            counts[ring[head]]--;
+        } else {
+            size++;
+        }
+        ring[head] = (byte) bottleneck.ordinal();
+        counts[bottleneck.ordinal()]++;
+        head = (head + 1) % SIZE;
+        last = bottleneck;
+    }
+
+    /**
+     * 窗口内的批数（不超过 {@link #SIZE}）
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 窗口内以该项为瓶颈的批数
+     */
+    public int count(Bottleneck bottleneck) {
+        return counts[bottleneck.ordinal()];
+    }
+
+    /**
+     * 最近一批的瓶颈
+     */
+    @Nullable
+    public Bottleneck last() {
+        return last;
+    }
+}
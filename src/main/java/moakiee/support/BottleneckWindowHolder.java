@@ -0,0 +1,15 @@
+package moakiee.support;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 由 Mixin 注入到 AE2 升级槽（AppEngInternalInventory）上的瓶颈记录存储接口。
+ * 升级槽内容变化时 Mixin 会丢弃记录，见 {@link BottleneckWindow}。
+ */
+public interface BottleneckWindowHolder {
+
+    @Nullable
+    BottleneckWindow ae2oc_getBottleneckWindow();
+
+    void ae2oc_setBottleneckWindow(@Nullable BottleneckWindow window);
+}
@@ -2,13 +2,9 @@ package moakiee.support;
 
 import appeng.api.stacks.AEKeyType;
 import appeng.api.stacks.GenericStack;
-import appeng.api.upgrades.IUpgradeableObject;
 import appeng.helpers.externalstorage.GenericStackInv;
-import moakiee.Ae2OcConfig;
-import moakiee.ModItems;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 
 public final class CapacityCardRuntime {
@@ -17,10 +13,7 @@ public final class CapacityCardRuntime {
     }
 
     public static int getInstalledCapacityCards(@Nullable Object host) {
-        if (Ae2OcConfig.isMachineDisabled(host)) {
-            return 0;
-        }
-        return getInstalledCapacityCards(host, 0);
+        return CardSnapshot.of(host).getCapacityCards();
     }
 
     public static void applyFluidCapacity(@Nullable Object host, long defaultCapacity, long upgradedCapacity) {
@@ -33,9 +26,7 @@ public final class CapacityCardRuntime {
             return;
         }
 
-        long targetCapacity = Ae2OcConfig.isMachineDisabled(host)
-            ? defaultCapacity
-            : (getInstalledCapacityCards(host) > 0 ? upgradedCapacity : defaultCapacity);
+        long targetCapacity = CardSnapshot.of(host).hasCapacityCard() ? upgradedCapacity : defaultCapacity;
         inv.setCapacity(AEKeyType.fluids(), targetCapacity);
         clampFluidToCapacity(inv, targetCapacity);
     }
@@ -62,53 +53,6 @@ public final class CapacityCardRuntime {
         }
     }
 
-    private static int getInstalledCapacityCards(@Nullable Object target, int depth) {
-        if (target == null || depth > 4) {
-            return 0;
-        }
-
-        if (target instanceof IUpgradeableObject upgradeable) {
-            return upgradeable.getUpgrades().getInstalledUpgrades(ModItems.CAPACITY_CARD.get());
-        }
-
-        Integer fromGetUpgrades = tryGetInstalledFromGetUpgrades(target);
-        if (fromGetUpgrades != null && fromGetUpgrades > 0) {
-            return fromGetUpgrades;
-        }
-
-        Object byGetBlockEntity = tryInvokeNoArg(target, "getBlockEntity");
-        int fromBlockEntity = getInstalledCapacityCards(byGetBlockEntity, depth + 1);
-        if (fromBlockEntity > 0) {
-            return fromBlockEntity;
-        }
-
-        Object byGetHost = tryInvokeNoArg(target, "getHost");
-        int fromHost = getInstalledCapacityCards(byGetHost, depth + 1);
-        if (fromHost > 0) {
-            return fromHost;
-        }
-
-        Object byHostField = tryGetField(target, "host");
-        return getInstalledCapacityCards(byHostField, depth + 1);
-    }
-
-    private static Integer tryGetInstalledFromGetUpgrades(Object target) {
-        try {
-            Method getUpgrades = target.getClass().getMethod("getUpgrades");
-            Object upgrades = getUpgrades.invoke(target);
-            if (upgrades == null) {
-                return null;
-            }
-            Method getInstalled = upgrades.getClass().getMethod("getInstalledUpgrades", net.minecraft.world.level.ItemLike.class);
-            Object result = getInstalled.invoke(upgrades, ModItems.CAPACITY_CARD.get());
-            if (result instanceof Integer i) {
-                return i;
-            }
-        } catch (Throwable ignored) {
-        }
-        return null;
-    }
-
     private static Object tryInvokeNoArg(Object target, String methodName) {
         try {
             Method method = target.getClass().getMethod(methodName);
@@ -117,14 +61,4 @@ public final class CapacityCardRuntime {
             return null;
         }
     }
-
-    private static Object tryGetField(Object target, String fieldName) {
-        try {
-            Field field = target.getClass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            return field.get(target);
-        } catch (Throwable ignored) {
-            return null;
-        }
-    }
 }
@@ -0,0 +1,135 @@
+package moakiee.support;
+
+import appeng.api.upgrades.IUpgradeInventory;
+import moakiee.Ae2OcConfig;
+import moakiee.ModItems;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 单台机器的升级卡快照（不可变）
+ *
+ * 快照缓存在机器的升级槽上（见 {@link CardSnapshotHolder}），只在以下情况重建：
+ * - 升级槽内容变化（插入/取出卡片、读取 NBT）
+ * - 配置文件加载或重载（全局版本号 {@link #invalidateAll()} 递增）
+ *
+ * 各卡片运行时类都从这里读取，避免每 tick 重新扫描升级槽。
+ */
+public final class CardSnapshot {
+
+    /** 找不到升级槽时使用的空快照 */
+    public static final CardSnapshot NONE = new CardSnapshot(-1, false, 1, 0, 0, 0);
+
+    /** 配置版本号，配置重载后旧快照全部失效 */
+    private static volatile int configEpoch = 0;
+
+    private final int epoch;
+    private final boolean disabled;
+    private final int parallelMultiplier;
+    private final int overclockCards;
+    private final int capacityCards;
+    private final int energyCards;
+
+    private CardSnapshot(int epoch, boolean disabled, int parallelMultiplier,
+                         int overclockCards, int capacityCards, int energyCards) {
+        this.epoch = epoch;
+        this.disabled = disabled;
+        this.parallelMultiplier = parallelMultiplier;
+        this.overclockCards = overclockCards;
+        this.capacityCards = capacityCards;
+        this.energyCards = energyCards;
+    }
+
+    /**
+     * 获取宿主当前的卡片快照。
+     * 快照有效时直接返回缓存；否则重新扫描升级槽并写回缓存。
+     *
+     * @param host 机器 BlockEntity 或其宿主对象
+     * @return 卡片快照（永不为 null）
+     */
+    public static CardSnapshot of(@Nullable Object host) {
+        IUpgradeInventory upgrades = HostResolver.resolveUpgrades(host);
+        if (upgrades == null) {
+            return NONE;
+        }
+        return of(host, upgrades);
+    }
+
+    /**
+     * 已解析出升级槽时获取快照，跳过宿主解析
+     *
+     * @param host     机器 BlockEntity 或其宿主对象
+     * @param upgrades 由 {@link HostResolver#resolveUpgrades(Object)} 解析出的升级槽
+     */
+    public static CardSnapshot of(@Nullable Object host, IUpgradeInventory upgrades) {
+        int currentEpoch = configEpoch;
+        if (upgrades instanceof CardSnapshotHolder holder) {
+            CardSnapshot cached = holder.ae2oc_getCardSnapshot();
+            if (cached != null && cached.epoch == currentEpoch) {
+                return cached;
+            }
+            CardSnapshot rebuilt = build(host, upgrades, currentEpoch);
+            holder.ae2oc_setCardSnapshot(rebuilt);
+            return rebuilt;
+        }
+        return build(host, upgrades, currentEpoch);
+    }
+
+    /**
+     * 使所有已缓存的快照失效（配置加载/重载时调用）
+     */
+    public static void invalidateAll() {
+        configEpoch++;
+    }
+
+    private static CardSnapshot build(@Nullable Object host, IUpgradeInventory upgrades, int epoch) {
+        if (Ae2OcConfig.isMachineDisabled(host)) {
+            return new CardSnapshot(epoch, true, 1, 0, 0, 0);
+        }
+        return new CardSnapshot(
+                epoch,
+                false,
+                ParallelCardRuntime.scanUpgradeInventory(upgrades),
+                upgrades.getInstalledUpgrades(ModItems.OVERCLOCK_CARD.get()),
+                upgrades.getInstalledUpgrades(ModItems.CAPACITY_CARD.get()),
+                upgrades.getInstalledUpgrades(ModItems.SUPER_ENERGY_CARD.get()));
+    }
+
+    /**
+     * 机器是否在配置中被禁用（禁用时所有卡片效果均视为未安装）
+     */
+    public boolean isDisabled() {
+        return disabled;
+    }
+
+    public int getParallelMultiplier() {
+        return parallelMultiplier;
+    }
+
+    public int getOverclockCards() {
+        return overclockCards;
+    }
+
+    public int getCapacityCards() {
+        return capacityCards;
+    }
+
+    public int getEnergyCards() {
+        return energyCards;
+    }
+
+    public boolean hasParallelCard() {
+        return parallelMultiplier > 1;
+    }
+
+    public boolean hasOverclockCard() {
+        return overclockCards > 0;
+    }
+
+    public boolean hasCapacityCard() {
+        return capacityCards > 0;
+    }
+
+    public boolean hasEnergyCard() {
+        return energyCards > 0;
+    }
+}
@@ -0,0 +1,15 @@
+package moakiee.support;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 由 Mixin 注入到 AE2 升级槽（AppEngInternalInventory）上的快照存储接口。
+ * 升级槽内容变化时 Mixin 会清空快照，下次查询时由 {@link CardSnapshot#of(Object)} 重建。
+ */
+public interface CardSnapshotHolder {
+
+    @Nullable
+    CardSnapshot ae2oc_getCardSnapshot();
+
+    void ae2oc_setCardSnapshot(@Nullable CardSnapshot snapshot);
+}
@@ -0,0 +1,157 @@
+package moakiee.support;
+
+import appeng.api.config.Actionable;
+import appeng.api.config.PowerMultiplier;
+import appeng.api.networking.IGrid;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.energy.IAEPowerStorage;
+import appeng.api.networking.energy.IEnergyService;
+import appeng.api.networking.energy.IEnergySource;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 单次扣除的能量账本
+ *
+ * 原来的扣能流程是"内部模拟 + 网络模拟 → 判断是否足够 → 内部实扣 + 网络实扣"，每次至少四次提取调用。
+ * 这里直接按"先内部、后网络"实扣一次，只有总量不足时才把多扣的部分退回，
+ * 正常情况下只需要两次提取调用。
+ *
+ * 调用方应先按其他约束算出份数，再用 {@link #reserve} 一次性扣除，不需要先查询 {@link #available}。
+ *
+ * 退回的能量回到来源：网络扣的退回网络，内部缓存扣的回充内部缓存。
+ * 内部能量源不可回充（如 AE2CS 的能量组件）时，退回的部分注入网络；
+ * 只有机器不在网络中时才暂记为本机的预付余额，下次预留时优先使用
+ * （余额不写入 NBT，因此不长期持有）。
+ *
+ * 每台机器持有一个实例，缓存当前网格的 IEnergyService，网格变化时自动刷新。
+ * 所有数值均以 PowerMultiplier.CONFIG 为单位，与原有调用方一致。
+ * 只在服务端主线程使用。
+ */
+public final class EnergyLedger {
+
+    /** 浮点误差容限，与原有的"不足"判断保持一致 */
+    private static final double EPSILON = 0.01;
+
+    @Nullable
+    private IGrid cachedGrid;
+    @Nullable
+    private IEnergyService cachedService;
+    /** 没有网络可退时，从不可回充的内部能量源扣除后退回的预付余额 */
+    private double credit;
+
+    /**
+     * 查询当前可用能量（内部缓存 + 网络），用于并行数计算
+     *
+     * @param internal 机器内部能量源，可为 null
+     * @param node     机器所在网格节点，可为 null
+     */
+    public double available(@Nullable IEnergySource internal, @Nullable IGridNode node) {
+        double total = credit;
+        if (internal != null) {
+            total += internal.extractAEPower(Double.MAX_VALUE, Actionable.SIMULATE, PowerMultiplier.CONFIG);
+        }
+        IEnergyService service = service(node);
+        if (service != null) {
+            total += service.extractAEPower(Double.MAX_VALUE, Actionable.SIMULATE, PowerMultiplier.CONFIG);
+        }
+        return total;
+    }
+
+    /**
+     * 扣除指定能量，要么全部扣除，要么不扣
+     *
+     * @return 是否扣除成功
+     */
+    public boolean consume(@Nullable IEnergySource internal, @Nullable IGridNode node, double amount) {
+        if (amount <= 0) {
+            return true;
+        }
+        return reserve(internal, node, amount, 1) == 1;
+    }
+
+    /**
+     * 为 units 份配方预留能量，返回实际批准的份数
+     *
+     * 只扣除批准份数对应的能量，多扣的部分退回。
+     *
+     * @param internal   机器内部能量源，可为 null
+     * @param node       机器所在网格节点，可为 null
+     * @param unitEnergy 单份配方能耗
+     * @param units      请求份数
+     * @return 批准的份数，范围 [0, units]
+     */
+    public long reserve(@Nullable IEnergySource internal, @Nullable IGridNode node, double unitEnergy, long units) {
+        if (units <= 0) {
+            return 0;
+        }
+        if (unitEnergy <= 0) {
+            return units;
+        }
+
+        double wanted = unitEnergy * units;
+        double fromCredit = Math.min(credit, wanted);
+        credit -= fromCredit;
+        double fromInternal = 0;
+        if (internal != null && wanted - fromCredit > EPSILON) {
+            fromInternal = internal.extractAEPower(wanted - fromCredit, Actionable.MODULATE, PowerMultiplier.CONFIG);
+        }
+        double fromNetwork = 0;
+        IEnergyService service = service(node);
+        if (service != null && wanted - fromCredit - fromInternal > EPSILON) {
+            fromNetwork = service.extractAEPower(wanted - fromCredit - fromInternal, Actionable.MODULATE,
+                    PowerMultiplier.CONFIG);
+        }
+
+        double drawn = fromCredit + fromInternal + fromNetwork;
+        long granted = Math.min(units, (long) ((drawn + EPSILON) / unitEnergy));
+        double excess = drawn - granted * unitEnergy;
+        if (excess > EPSILON) {
+            // 先退网络（最后扣的），再退内部
+            double toNetwork = Math.min(excess, fromNetwork);
+            refund(internal, service, toNetwork, excess - toNetwork);
+        }
+        return granted;
+    }
+
+    /**
+     * 退回已预留但未用上的能量（先回充内部缓存，内部不可回充时注入网络）
+     *
+     * @param internal 机器内部能量源，可为 null
+     * @param node     机器所在网格节点，可为 null
+     * @param amount   退回的能量
+     */
+    public void release(@Nullable IEnergySource internal, @Nullable IGridNode node, double amount) {
+        if (amount > EPSILON) {
+            refund(internal, service(node), 0, amount);
+        }
+    }
+
+    private void refund(@Nullable IEnergySource internal, @Nullable IEnergyService service,
+                        double toNetwork, double toInternal) {
+        if (toInternal > 0) {
+            if (internal instanceof IAEPowerStorage storage) {
+                double overflow = storage.injectAEPower(PowerMultiplier.CONFIG.multiply(toInternal),
+                        Actionable.MODULATE);
+                toNetwork += PowerMultiplier.CONFIG.divide(overflow);
+            } else if (internal != null && service == null) {
+                // 内部能量源不可回充（如 AE2CS 的能量组件）且不在网络中，暂记为预付余额
+                credit += toInternal;
+            } else {
+                toNetwork += toInternal;
+            }
+        }
+        if (toNetwork > 0 && service != null) {
+            service.injectPower(PowerMultiplier.CONFIG.multiply(toNetwork), Actionable.MODULATE);
+        }
+    }
+
+    @Nullable
+    private IEnergyService service(@Nullable IGridNode node) {
+        IGrid grid = node == null ? null : node.getGrid();
+        if (grid != cachedGrid) {
+            cachedGrid = grid;
+            cachedService = grid == null ? null : grid.getEnergyService();
+        }
+        return cachedService;
+    }
+}
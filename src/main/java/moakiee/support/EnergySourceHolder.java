@@ -0,0 +1,17 @@
+package moakiee.support;
+
+import appeng.api.networking.energy.IEnergySource;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 由 Mixin 注入到 AE2CS 机器上的能量来源缓存接口。
+ * AE2CS 的能量组件需要包装成 AE2 的 IEnergySource，每台机器只包装一次，
+ * 见 {@link moakiee.support.machine.AE2CSMachineAdapter#getEnergySource}。
+ */
+public interface EnergySourceHolder {
+
+    @Nullable
+    IEnergySource ae2oc_getEnergySource();
+
+    void ae2oc_setEnergySource(@Nullable IEnergySource source);
+}
@@ -0,0 +1,177 @@
+package moakiee.support;
+
+import appeng.api.inventories.InternalInventory;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.energy.IEnergySource;
+import appeng.api.networking.security.IActionHost;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.stacks.AEKey;
+import moakiee.support.machine.MachineAdapters;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 扩展压印器各线程共享的单 tick 状态
+ *
+ * TileExInscriber 在一次 tickingRequest 中依次调用 4 个 InscriberThread.tick()，
+ * 原先每个线程都要各自反射读 host、检测卡片、查询能量与网络存储服务。
+ * 现在宿主在 tickingRequest 开始时 {@link #begin} 一次，计算卡片状态，能量与网络句柄按需取一次，
+ * 各线程共享；线程按算出的份数向共享的 {@link EnergyLedger} 一次性预留能量。
+ *
+ * 线程产出直出 ME 网络时存入 {@link GridOutputBuffer}，与同网格其他机器的产出按 AEKey 合并插入；
+ * 网络少收的部分放回登记线程的本地输出槽，仍放不下的由缓冲留到下一 tick 重试并记录日志，不会丢失。
+ *
+ * 不在宿主 tick 内（线程被单独调用）时，卡片状态现算。
+ * 每个宿主持有一个实例，只在服务端主线程使用。
+ */
+public final class ExInscriberHostTick {
+
+    private static final int OUTPUT_SLOT = 1;
+
+    private final EnergyLedger energyLedger = new EnergyLedger();
+    /** 宿主的线程（线程第一次 tick 时登记），合批时在其中查找同配方的线程 */
+    private final List<Object> threads = new ArrayList<>();
+
+    private boolean active = false;
+    private Object host;
+    private boolean hasOverclock;
+    private int parallelMultiplier;
+
+    // 按需取得，本 tick 内有效
+    private boolean handlesResolved;
+    @Nullable
+    private IGridNode node;
+    @Nullable
+    private IEnergySource energySource;
+    private IActionSource actionSource = IActionSource.empty();
+
+    /**
+     * 取宿主的共享状态；不在宿主 tick 内时按当前卡片重新计算
+     *
+     * @return 宿主未挂载共享状态时返回 null
+     */
+    @Nullable
+    public static ExInscriberHostTick of(@Nullable Object host) {
+        if (!(host instanceof ExInscriberHostTickHolder holder)) {
+            return null;
+        }
+        ExInscriberHostTick tick = holder.ae2oc_getHostTick();
+        if (!tick.active) {
+            tick.refresh(host);
+        }
+        return tick;
+    }
+
+    /**
+     * 宿主 tickingRequest 开始时调用
+     */
+    public void begin(Object host) {
+        if (active) {
+            // 上一 tick 异常退出未走到 end
+            end();
+        }
+        refresh(host);
+        this.active = true;
+    }
+
+    /**
+     * 宿主 tickingRequest 结束时调用
+     */
+    public void end() {
+        this.active = false;
+        resetHandles();
+    }
+
+    public boolean hasOverclock() {
+        return hasOverclock;
+    }
+
+    public int parallelMultiplier() {
+        return parallelMultiplier;
+    }
+
+    /**
+     * 登记宿主的线程
+     */
+    public void register(Object thread) {
+        if (!threads.contains(thread)) {
+            threads.add(thread);
+        }
+    }
+
+    /**
+     * 已登记的线程（按首次 tick 顺序）
+     */
+    public List<Object> threads() {
+        return threads;
+    }
+
+    @Nullable
+    public IGridNode node() {
+        resolveHandles();
+        return node;
+    }
+
+    public IActionSource actionSource() {
+        resolveHandles();
+        return actionSource;
+    }
+
+    /**
+     * 为 units 份配方一次性预留能量（宿主内部缓存 + 网络）
+     *
+     * @return 批准的份数
+     */
+    public long reserveEnergy(double unitEnergy, long units) {
+        resolveHandles();
+        return energyLedger.reserve(energySource, node, unitEnergy, units);
+    }
+
+    /**
+     * 退回未用上的预留能量
+     */
+    public void releaseEnergy(double amount) {
+        resolveHandles();
+        energyLedger.release(energySource, node, amount);
+    }
+
+    /**
+     * 产出直出 ME 网络：存入网格输出缓冲，结算时与同网格其他机器的产出合并插入
+     *
+     * @param sideSlots 登记线程的侧面槽位，结算时网络少收的部分放回其输出槽
+     * @return 缓冲接受的数量；其余由调用方放入本地输出槽
+     */
+    public long insertOutput(AEKey key, long amount, InternalInventory sideSlots) {
+        resolveHandles();
+        return GridOutputBuffer.deposit(node, key, amount, actionSource,
+                GridOutputBuffer.slotFallback(sideSlots, OUTPUT_SLOT));
+    }
+
+    private void refresh(Object host) {
+        if (this.host != host) {
+            this.host = host;
+            resetHandles();
+        }
+        CardSnapshot cards = CardSnapshot.of(host);
+        this.hasOverclock = cards.hasOverclockCard();
+        this.parallelMultiplier = cards.getParallelMultiplier();
+    }
+
+    private void resolveHandles() {
+        if (handlesResolved) {
+            return;
+        }
+        handlesResolved = true;
+        node = MachineAdapters.EX_INSCRIBER_THREAD.getHostGridNode(host);
+        energySource = MachineAdapters.EX_INSCRIBER_THREAD.getHostEnergySource(host);
+        actionSource = node != null && node.getOwner() instanceof IActionHost actionHost
+                ? IActionSource.ofMachine(actionHost)
+                : IActionSource.empty();
+    }
+
+    private void resetHandles() {
+        handlesResolved = false;
+    }
+}
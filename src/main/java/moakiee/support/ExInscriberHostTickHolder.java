@@ -0,0 +1,10 @@
+package moakiee.support;
+
+/**
+ * 由 Mixin 注入到 ExtendedAE 扩展压印器（TileExInscriber）上的共享 tick 状态接口，
+ * 见 {@link ExInscriberHostTick}。
+ */
+public interface ExInscriberHostTickHolder {
+
+    ExInscriberHostTick ae2oc_getHostTick();
+}
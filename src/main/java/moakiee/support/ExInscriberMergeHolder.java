@@ -0,0 +1,25 @@
+package moakiee.support;
+
+/**
+ * 由 Mixin 注入到 ExtendedAE InscriberThread 上的合批状态接口
+ *
+ * 同一宿主中加工同一配方的空闲线程会被借给主线程，合并成一批并行结算；
+ * 被借出的线程在主线程释放前不自行加工。
+ */
+public interface ExInscriberMergeHolder {
+
+    /**
+     * 是否可以被借给该主线程合批：没有在计时、没有借入线程、也没有被别的主线程借用
+     */
+    boolean ae2oc_isMergeIdle(Object leader);
+
+    /**
+     * 记录本线程被借给的主线程
+     */
+    void ae2oc_lendTo(Object leader);
+
+    /**
+     * 该线程是否是本线程当前借入的合批线程
+     */
+    boolean ae2oc_hasMergedPeer(Object thread);
+}
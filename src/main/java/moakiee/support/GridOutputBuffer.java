@@ -0,0 +1,439 @@
+package moakiee.support;
+
+import appeng.api.config.Actionable;
+import appeng.api.inventories.InternalInventory;
+import appeng.api.networking.IGrid;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.networking.storage.IStorageService;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.AEKey;
+import appeng.api.stacks.GenericStack;
+import appeng.helpers.externalstorage.GenericStackInv;
+import com.mojang.logging.LogUtils;
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按网格合并的 ME 输出缓冲
+ *
+ * 机器不再各自插入 ME 网络，而是向缓冲登记，服务端 tick 结束时每个网格只做一次 IStorageService 查找，
+ * 相同 AEKey 合并成一次 insert。登记有两种：
+ * - {@link #deposit}：新产出的一批产物（AEKey × long），按"已登记量 + 本次"模拟插入预留网络空间，
+ *   只接受网络能收下的部分，其余由调用方当场放回本地槽；结算时网络万一少收，剩余交给登记时给出的
+ *   {@link Fallback}（机器的本地输出槽或虚拟槽），仍放不下的保留到下一 tick 重试并记录日志
+ * - {@link #queueDrain}：已经在机器输出槽里的产物（物品槽或泛型槽，流体与物品同样合并），
+ *   网络实际接受的数量按登记顺序从各输出槽中扣除，拒收的部分自然留在原处
+ *
+ * 产物不会丢失或复制。每个槽位的刷新结果回报给 {@link OutputFlushTracker}，拒收时由其退避。
+ * 只在服务端主线程使用。
+ */
+public final class GridOutputBuffer {
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final Map<IGrid, GridOutputBuffer> PENDING = new IdentityHashMap<>();
+
+    private final IGrid grid;
+    private final Map<SlotRef, IActionSource> slots = new LinkedHashMap<>();
+    private final List<Deposit> deposits = new ArrayList<>();
+    /** 本 tick 各 AEKey 已预留的总量，新的预留按"已预留量 + 本次"模拟插入 */
+    private final Map<AEKey, Long> reserved = new HashMap<>();
+    @Nullable
+    private IStorageService storage;
+    private boolean storageResolved;
+    /** 存入的产物已开始实际插入，之后失败不能再整体保留，否则会复制 */
+    private boolean depositsSettling;
+
+    /**
+     * 网络少收时接收剩余产物的去处
+     */
+    @FunctionalInterface
+    public interface Fallback {
+
+        /**
+         * 放入剩余产物
+         *
+         * @return 实际放入的数量
+         */
+        long place(AEKey key, long amount);
+    }
+
+    private GridOutputBuffer(IGrid grid) {
+        this.grid = grid;
+    }
+
+    /**
+     * 登记一个待搬运到 ME 网络的输出槽（同一槽位一个 tick 内只登记一次）
+     *
+     * @param node   机器所在网格节点
+     * @param inv    输出容器
+     * @param slot   输出槽位
+     * @param source 插入 ME 网络时使用的操作源
+     */
+    public static void queueDrain(@Nullable IGridNode node, InternalInventory inv, int slot, IActionSource source) {
+        if (inv.getStackInSlot(slot).isEmpty()) {
+            return;
+        }
+        enqueue(node, new ItemSlotRef(inv, slot), source);
+    }
+
+    /**
+     * 登记一个待搬运到 ME 网络的泛型输出槽（流体槽、熵变反应仓的 ConfigInventory 等）
+     *
+     * @param node   机器所在网格节点
+     * @param inv    泛型输出容器
+     * @param slot   输出槽位
+     * @param source 插入 ME 网络时使用的操作源
+     */
+    public static void queueDrain(@Nullable IGridNode node, GenericStackInv inv, int slot, IActionSource source) {
+        GenericStack stack = inv.getStack(slot);
+        if (stack == null || stack.amount() <= 0) {
+            return;
+        }
+        enqueue(node, new GenericSlotRef(inv, slot), source);
+    }
+
+    private static void enqueue(@Nullable IGridNode node, SlotRef ref, IActionSource source) {
+        IGrid grid = node == null ? null : node.getGrid();
+        if (grid == null) {
+            // 网络不可用，按拒收处理，退避后重试
+            OutputFlushTracker.onDrained(ref.inv(), true);
+            return;
+        }
+        PENDING.computeIfAbsent(grid, GridOutputBuffer::new).slots.putIfAbsent(ref, source);
+    }
+
+    /**
+     * 存入一批新产物，tick 结束时与同网格的其他产物合并插入 ME 网络
+     *
+     * @param node     机器所在网格节点
+     * @param key      产物
+     * @param amount   数量
+     * @param source   插入 ME 网络时使用的操作源
+     * @param fallback 结算时网络少收的剩余产物的去处
+     * @return 缓冲接受的数量（网络预计能收下的部分）；其余由调用方自行放置
+     */
+    public static long deposit(@Nullable IGridNode node, AEKey key, long amount, IActionSource source,
+                               Fallback fallback) {
+        IGrid grid = node == null ? null : node.getGrid();
+        if (grid == null || amount <= 0) {
+            return 0;
+        }
+        GridOutputBuffer buffer = PENDING.computeIfAbsent(grid, GridOutputBuffer::new);
+        IStorageService storageService = buffer.storage();
+        if (storageService == null) {
+            return 0;
+        }
+
+        long already = buffer.reserved.getOrDefault(key, 0L);
+        long accepted = storageService.getInventory().insert(key, already + amount, Actionable.SIMULATE, source)
+                - already;
+        accepted = Math.max(Math.min(accepted, amount), 0);
+        if (accepted > 0) {
+            buffer.reserved.put(key, already + accepted);
+            buffer.deposits.add(new Deposit(key, accepted, source, fallback));
+        }
+        return accepted;
+    }
+
+    /**
+     * 存入一批物品产物，网络预计收不下的部分当场放入机器的输出槽；结算时网络少收的部分也放回该槽
+     *
+     * @param outputSlots 机器的输出槽位（开启虚拟槽位时可写入溢出部分）
+     * @return 交付的总数（缓冲接受 + 当场放入输出槽），小于 amount 时剩余部分未被接收
+     */
+    public static long deliver(@Nullable IGridNode node, AEItemKey key, long amount, IActionSource source,
+                               InternalInventory outputSlots, int slot) {
+        Fallback fallback = slotFallback(outputSlots, slot);
+        long accepted = deposit(node, key, amount, source, fallback);
+        if (accepted >= amount) {
+            return accepted;
+        }
+        return accepted + fallback.place(key, amount - accepted);
+    }
+
+    /**
+     * 以机器输出槽为去处的 Fallback
+     */
+    public static Fallback slotFallback(InternalInventory outputSlots, int slot) {
+        return (key, amount) -> key instanceof AEItemKey itemKey
+                ? VirtualSlots.insert(outputSlots, slot, itemKey, amount, Actionable.MODULATE)
+                : 0;
+    }
+
+    /**
+     * 网络本 tick 还能为 key 接收多少（扣除已存入缓冲的部分），用于在产出前限制并行数
+     */
+    public static long networkRoom(@Nullable IGridNode node, AEKey key, IActionSource source) {
+        IGrid grid = node == null ? null : node.getGrid();
+        if (grid == null) {
+            return 0;
+        }
+        GridOutputBuffer buffer = PENDING.get(grid);
+        IStorageService storageService = buffer != null ? buffer.storage() : grid.getService(IStorageService.class);
+        if (storageService == null) {
+            return 0;
+        }
+        long already = buffer == null ? 0 : buffer.reserved.getOrDefault(key, 0L);
+        long room = storageService.getInventory().insert(key, Long.MAX_VALUE, Actionable.SIMULATE, source);
+        return Math.max(room - already, 0);
+    }
+
+    /**
+     * 刷新所有网格的缓冲，在服务端 tick 结束时调用
+     */
+    public static void flushAll() {
+        if (PENDING.isEmpty()) {
+            return;
+        }
+        List<GridOutputBuffer> buffers = new ArrayList<>(PENDING.values());
+        PENDING.clear();
+        for (GridOutputBuffer buffer : buffers) {
+            try {
+                buffer.flush();
+            } catch (Exception e) {
+                // 单个网格失败不影响其他网格；未结算的产物保留到下一 tick
+                LOGGER.warn("Failed to flush machine outputs into ME grid", e);
+                if (!buffer.depositsSettling) {
+                    buffer.carryOver(buffer.deposits);
+                }
+            }
+        }
+    }
+
+    /**
+     * 丢弃所有未刷新的登记（服务器关闭时调用）。槽位登记的产物仍在机器输出槽中；
+     * 未能结算的存入产物只能丢弃，记录日志
+     */
+    public static void clear() {
+        for (GridOutputBuffer buffer : PENDING.values()) {
+            for (Deposit deposit : buffer.deposits) {
+                LOGGER.error("Discarding {} x {} that could not be delivered to the ME grid or back to its machine",
+                        deposit.amount, deposit.key);
+            }
+        }
+        PENDING.clear();
+    }
+
+    @Nullable
+    private IStorageService storage() {
+        if (!storageResolved) {
+            storageResolved = true;
+            storage = grid.getService(IStorageService.class);
+        }
+        return storage;
+    }
+
+    private void flush() {
+        IStorageService storageService = storage();
+        if (storageService == null) {
+            for (SlotRef ref : slots.keySet()) {
+                OutputFlushTracker.onDrained(ref.inv(), true);
+            }
+            settleDeposits(null);
+            return;
+        }
+
+        // 存入的产物已预留网络空间，先于槽位结算
+        settleDeposits(storageService);
+
+        // 按 AEKey 分组，保持登记顺序
+        Map<AEKey, KeyGroup> groups = new LinkedHashMap<>();
+        for (Map.Entry<SlotRef, IActionSource> entry : slots.entrySet()) {
+            SlotRef ref = entry.getKey();
+            AEKey key = ref.key();
+            long amount = ref.amount();
+            if (key == null || amount <= 0) {
+                continue;
+            }
+            KeyGroup group = groups.computeIfAbsent(key, k -> new KeyGroup(entry.getValue()));
+            group.refs.add(ref);
+            group.total = saturatedAdd(group.total, amount);
+        }
+
+        // 网络没有全部收下的槽位；按网络接受的数量判断，不看扣除后的槽位
+        // （开启虚拟槽位时 setItemDirect 会从溢出部分补足可见部分，槽位不为空也可能已全部送出）
+        Set<SlotRef> rejected = new HashSet<>();
+        for (Map.Entry<AEKey, KeyGroup> entry : groups.entrySet()) {
+            KeyGroup group = entry.getValue();
+            long inserted = storageService.getInventory().insert(entry.getKey(), group.total,
+                    Actionable.MODULATE, group.source);
+
+            // 按登记顺序从各输出槽扣除网络实际接受的数量
+            for (SlotRef ref : group.refs) {
+                long inSlot = ref.amount();
+                long take = Math.min(Math.max(inserted, 0), inSlot);
+                if (take < inSlot) {
+                    rejected.add(ref);
+                }
+                if (take > 0) {
+                    ref.remove(take);
+                    inserted -= take;
+                }
+            }
+        }
+
+        // 同一容器的多个槽位只要有一个被拒收，整个容器退避
+        Map<Object, Boolean> results = new IdentityHashMap<>();
+        for (SlotRef ref : slots.keySet()) {
+            results.merge(ref.inv(), rejected.contains(ref), Boolean::logicalOr);
+        }
+        results.forEach(OutputFlushTracker::onDrained);
+    }
+
+    /**
+     * 结算存入的产物：同种合并插入，网络少收的部分按登记顺序交给各自的 Fallback，仍放不下的留到下一 tick
+     */
+    private void settleDeposits(@Nullable IStorageService storageService) {
+        if (deposits.isEmpty()) {
+            return;
+        }
+        depositsSettling = true;
+        Map<AEKey, Long> inserted = new HashMap<>();
+        if (storageService != null) {
+            Map<AEKey, Long> totals = new LinkedHashMap<>();
+            Map<AEKey, IActionSource> sources = new HashMap<>();
+            for (Deposit deposit : deposits) {
+                totals.merge(deposit.key, deposit.amount, GridOutputBuffer::saturatedAdd);
+                sources.putIfAbsent(deposit.key, deposit.source);
+            }
+            for (Map.Entry<AEKey, Long> entry : totals.entrySet()) {
+                inserted.put(entry.getKey(), storageService.getInventory().insert(entry.getKey(), entry.getValue(),
+                        Actionable.MODULATE, sources.get(entry.getKey())));
+            }
+        }
+
+        List<Deposit> unplaced = new ArrayList<>();
+        for (Deposit deposit : deposits) {
+            long accepted = Math.min(inserted.getOrDefault(deposit.key, 0L), deposit.amount);
+            inserted.put(deposit.key, inserted.getOrDefault(deposit.key, 0L) - accepted);
+            long missing = deposit.amount - accepted;
+            if (missing <= 0) {
+                continue;
+            }
+            long placed = 0;
+            try {
+                placed = Math.max(deposit.fallback.place(deposit.key, missing), 0);
+            } catch (Exception ignored) {
+            }
+            if (placed < missing) {
+                unplaced.add(new Deposit(deposit.key, missing - placed, deposit.source, deposit.fallback));
+            }
+        }
+        carryOver(unplaced);
+    }
+
+    /**
+     * 把未能放置的产物留到下一 tick 的缓冲中，直接参与结算（不再预留）
+     */
+    private void carryOver(List<Deposit> unplaced) {
+        if (unplaced.isEmpty()) {
+            return;
+        }
+        GridOutputBuffer next = PENDING.computeIfAbsent(grid, GridOutputBuffer::new);
+        for (Deposit deposit : unplaced) {
+            LOGGER.warn("ME grid and machine output slot both rejected {} x {}, retrying next tick",
+                    deposit.amount, deposit.key);
+            next.deposits.add(deposit);
+        }
+    }
+
+    /**
+     * 同一种物品的合并批次，操作源取第一个登记者
+     */
+    private static final class KeyGroup {
+        private final IActionSource source;
+        private final List<SlotRef> refs = new ArrayList<>();
+        private long total;
+
+        private KeyGroup(IActionSource source) {
+            this.source = source;
+        }
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        return a > Long.MAX_VALUE - b ? Long.MAX_VALUE : a + b;
+    }
+
+    /**
+     * 存入的一批产物
+     */
+    private record Deposit(AEKey key, long amount, IActionSource source, Fallback fallback) {
+    }
+
+    /**
+     * 输出槽引用；容器不重写 equals，按实例区分
+     */
+    private interface SlotRef {
+
+        Object inv();
+
+        @Nullable
+        AEKey key();
+
+        long amount();
+
+        /**
+         * 直接改写槽位扣除 amount，绕过输出槽可能存在的提取过滤
+         */
+        void remove(long amount);
+    }
+
+    private record ItemSlotRef(InternalInventory inv, int slot) implements SlotRef {
+
+        @Override
+        @Nullable
+        public AEKey key() {
+            return AEItemKey.of(inv.getStackInSlot(slot));
+        }
+
+        @Override
+        public long amount() {
+            return inv.getStackInSlot(slot).getCount();
+        }
+
+        @Override
+        public void remove(long amount) {
+            ItemStack rest = inv.getStackInSlot(slot).copy();
+            rest.shrink((int) Math.min(amount, rest.getCount()));
+            inv.setItemDirect(slot, rest.isEmpty() ? ItemStack.EMPTY : rest);
+        }
+    }
+
+    private record GenericSlotRef(GenericStackInv inv, int slot) implements SlotRef {
+
+        @Override
+        @Nullable
+        public AEKey key() {
+            GenericStack stack = inv.getStack(slot);
+            return stack == null ? null : stack.what();
+        }
+
+        @Override
+        public long amount() {
+            GenericStack stack = inv.getStack(slot);
+            return stack == null ? 0 : stack.amount();
+        }
+
+        @Override
+        public void remove(long amount) {
+            GenericStack stack = inv.getStack(slot);
+            if (stack == null) {
+                return;
+            }
+            long rest = stack.amount() - amount;
+            inv.setStack(slot, rest > 0 ? new GenericStack(stack.what(), rest) : null);
+        }
+    }
+}
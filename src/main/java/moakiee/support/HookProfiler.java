@@ -0,0 +1,181 @@
+package moakiee.support;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 注入入口的耗时统计
+ *
+ * 在各 Mixin 注入入口前后取 System.nanoTime，按入口聚合为直方图（调用次数、总耗时、p99）。
+ * 默认关闭，关闭时每次调用只多一次 volatile 读；通过 /ae2oc profile start|stop|dump 运行时开关。
+ *
+ * 直方图按 2 的幂分桶（第 i 桶为 [2^(i-1), 2^i) ns），p99 取所在桶的上界，精度为 2 倍以内。
+ * 部分入口（如 getSlotLimit）也会在客户端线程调用，计数使用原子类型。
+ */
+public final class HookProfiler {
+
+    private static volatile boolean enabled = false;
+    private static volatile long startedAt = 0L;
+    private static volatile long stoppedAt = 0L;
+
+    private HookProfiler() {
+    }
+
+    /**
+     * 被统计的注入入口
+     */
+    public enum Hook {
+        INSCRIBER_TICK("MixinInscriberOverclock.ae2oc_parallelOverclockTick"),
+        EX_INSCRIBER_THREAD_TICK("MixinExInscriberThreadOverclock.ae2oc_parallelOverclockThreadTick"),
+        CIRCUIT_CUTTER_HEAD("MixinCircuitCutterOverclock.ae2oc_headTick"),
+        CIRCUIT_CUTTER_TAIL("MixinCircuitCutterOverclock.ae2oc_tailTick"),
+        REACTION_CHAMBER_HEAD("MixinReactionChamberOverclock.ae2oc_headTick"),
+        REACTION_CHAMBER_TAIL("MixinReactionChamberOverclock.ae2oc_tailTick"),
+        AE2CS_BEFORE_SERVER_TICK("MixinAE2CSOverclock.ae2oc_beforeServerTick"),
+        AE2CS_AFTER_SERVER_TICK("MixinAE2CSOverclock.ae2oc_afterServerTick"),
+        AE2CS_CAPACITY_SERVER_TICK("MixinAE2CS*Capacity.ae2oc_beforeServerTick"),
+        SLOT_LIMIT("MixinAppEngInternalInventory.ae2oc_getSlotLimit"),
+        INTERNAL_MAX_POWER("MixinAEBasePoweredBlockEntity.ae2oc_getInternalMaxPower"),
+        IO_PORT_TICK("MixinIOPortSuperSpeed.tickingRequest"),
+        EX_IO_PORT_TICK("MixinExIOPortSuperSpeed.ae2oc_tickingRequest");
+
+        private static final int BUCKETS = 64;
+
+        private final String displayName;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        Hook(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        private void record(long nanos) {
+            if (nanos < 0) {
+                return;
+            }
+            calls.increment();
+            totalNanos.add(nanos);
+            histogram.incrementAndGet(Math.min(64 - Long.numberOfLeadingZeros(nanos), BUCKETS - 1));
+        }
+
+        private void reset() {
+            calls.reset();
+            totalNanos.reset();
+            for (int i = 0; i < BUCKETS; i++) {
+                histogram.set(i, 0);
+            }
+        }
+
+        private Stats snapshot() {
+            long count = calls.sum();
+            long total = totalNanos.sum();
+            return new Stats(this, count, total, percentile(count, 0.99));
+        }
+
+        private long percentile(long count, double fraction) {
+            if (count <= 0) {
+                return 0;
+            }
+            long threshold = (long) Math.ceil(count * fraction);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += histogram.get(i);
+                if (seen >= threshold) {
+                    return i == 0 ? 0 : (i >= 63 ? Long.MAX_VALUE : 1L << i);
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * 单个入口的统计快照
+     *
+     * @param calls      调用次数
+     * @param totalNanos 总耗时 (ns)
+     * @param p99Nanos   p99 耗时上界 (ns)
+     */
+    public record Stats(Hook hook, long calls, long totalNanos, long p99Nanos) {
+        public long averageNanos() {
+            return calls == 0 ? 0 : totalNanos / calls;
+        }
+    }
+
+    /**
+     * 进入注入入口时调用
+     *
+     * @return 起始时间戳；未开启统计时返回 0
+     */
+    public static long begin() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * 离开注入入口时调用（放在 finally 中）
+     *
+     * @param start {@link #begin()} 的返回值
+     */
+    public static void end(Hook hook, long start) {
+        if (start != 0L) {
+            hook.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 清空已有数据并开始统计
+     */
+    public static void start() {
+        for (Hook hook : Hook.values()) {
+            hook.reset();
+        }
+        startedAt = System.nanoTime();
+        enabled = true;
+    }
+
+    /**
+     * 停止统计（保留数据供 dump）
+     */
+    public static void stop() {
+        if (enabled) {
+            stoppedAt = System.nanoTime();
+            enabled = false;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 统计时长 (ns)：进行中为自 start 起的时间，已停止为 start 到 stop 的时间；从未开启时返回 0
+     */
+    public static long elapsedNanos() {
+        if (startedAt == 0L) {
+            return 0L;
+        }
+        return (enabled ? System.nanoTime() : stoppedAt) - startedAt;
+    }
+
+    /**
+     * 当前各入口的统计快照（省略未被调用的入口），按总耗时降序
+     */
+    public static List<Stats> snapshot() {
+        List<Stats> result = new ArrayList<>();
+        for (Hook hook : Hook.values()) {
+            Stats stats = hook.snapshot();
+            if (stats.calls() > 0) {
+                result.add(stats);
+            }
+        }
+        result.sort(Comparator.comparingLong(Stats::totalNanos).reversed());
+        return result;
+    }
+}
@@ -0,0 +1,211 @@
+package moakiee.support;
+
+import appeng.api.upgrades.IUpgradeInventory;
+import appeng.api.upgrades.IUpgradeableObject;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * 宿主解析器：从任意宿主对象（机器、菜单宿主、线程、组件……）出发，
+ * 找到真正持有升级槽的对象或其 BlockEntity。
+ *
+ * 每个具体类只在第一次出现时做一次反射，解析出 getUpgrades() / getBlockEntity() / getHost()
+ * 以及 host / blockEntity 字段的访问路径，并编译为统一签名 (Object)Object 的 MethodHandle，
+ * 通过 ClassValue 缓存。之后的查询只执行缓存好的路径，不再反射，也不分配对象。
+ *
+ * 解析顺序与原先各卡片运行时的递归逻辑保持一致：
+ * IUpgradeableObject → getUpgrades() → getBlockEntity() → getHost() → host 字段。
+ */
+public final class HostResolver {
+
+    /** 与原递归逻辑相同的最大深度 */
+    private static final int MAX_UPGRADE_DEPTH = 4;
+    private static final int MAX_BLOCK_ENTITY_DEPTH = 6;
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodHandle[] NO_HOPS = new MethodHandle[0];
+
+    private static final ClassValue<HostPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected HostPlan computeValue(Class<?> type) {
+            return HostPlan.compile(type);
+        }
+    };
+
+    private HostResolver() {
+    }
+
+    /**
+     * 解析宿主的升级槽。
+     *
+     * @param host 机器 BlockEntity 或其宿主对象
+     * @return 升级槽；找不到时返回 null
+     */
+    @Nullable
+    public static IUpgradeInventory resolveUpgrades(@Nullable Object host) {
+        return resolveUpgrades(host, 0);
+    }
+
+    /**
+     * 解析宿主所属的 BlockEntity。
+     *
+     * @param host 机器 BlockEntity 或其宿主对象
+     * @return BlockEntity；找不到时返回 null
+     */
+    @Nullable
+    public static BlockEntity resolveBlockEntity(@Nullable Object host) {
+        return resolveBlockEntity(host, 0);
+    }
+
+    private static IUpgradeInventory resolveUpgrades(@Nullable Object target, int depth) {
+        if (target == null || depth > MAX_UPGRADE_DEPTH) {
+            return null;
+        }
+
+        if (target instanceof IUpgradeableObject upgradeable) {
+            return upgradeable.getUpgrades();
+        }
+
+        HostPlan plan = PLANS.get(target.getClass());
+        if (plan.getUpgrades != null && invoke(plan.getUpgrades, target) instanceof IUpgradeInventory upgrades) {
+            return upgrades;
+        }
+
+        for (MethodHandle hop : plan.upgradeHops) {
+            Object next = invoke(hop, target);
+            if (next == null || next == target) {
+                continue;
+            }
+            IUpgradeInventory resolved = resolveUpgrades(next, depth + 1);
+            if (resolved != null) {
+                return resolved;
+            }
+        }
+        return null;
+    }
+
+    private static BlockEntity resolveBlockEntity(@Nullable Object target, int depth) {
+        if (target == null || depth > MAX_BLOCK_ENTITY_DEPTH) {
+            return null;
+        }
+
+        if (target instanceof BlockEntity blockEntity) {
+            return blockEntity;
+        }
+
+        HostPlan plan = PLANS.get(target.getClass());
+        for (MethodHandle hop : plan.blockEntityHops) {
+            Object next = invoke(hop, target);
+            if (next == null || next == target) {
+                continue;
+            }
+            BlockEntity resolved = resolveBlockEntity(next, depth + 1);
+            if (resolved != null) {
+                return resolved;
+            }
+        }
+        return null;
+    }
+
+    private static Object invoke(MethodHandle handle, Object target) {
+        try {
+            return (Object) handle.invokeExact(target);
+        } catch (Throwable ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * 单个类的解析路径（编译后不可变）
+     */
+    private static final class HostPlan {
+
+        @Nullable
+        final MethodHandle getUpgrades;
+        /** 寻找升级槽时依次尝试的跳转：getBlockEntity() → getHost() → host 字段 */
+        final MethodHandle[] upgradeHops;
+        /** 寻找 BlockEntity 时依次尝试的跳转：在 upgradeHops 基础上追加 blockEntity 字段 */
+        final MethodHandle[] blockEntityHops;
+
+        private HostPlan(@Nullable MethodHandle getUpgrades, MethodHandle[] upgradeHops, MethodHandle[] blockEntityHops) {
+            this.getUpgrades = getUpgrades;
+            this.upgradeHops = upgradeHops;
+            this.blockEntityHops = blockEntityHops;
+        }
+
+        static HostPlan compile(Class<?> type) {
+            MethodHandle getUpgrades = findNoArgMethod(type, "getUpgrades");
+            MethodHandle getBlockEntity = findNoArgMethod(type, "getBlockEntity");
+            MethodHandle getHost = findNoArgMethod(type, "getHost");
+            MethodHandle hostField = findDeclaredField(type, "host");
+            MethodHandle blockEntityField = findDeclaredField(type, "blockEntity");
+
+            MethodHandle[] upgradeHops = compact(getBlockEntity, getHost, hostField);
+            MethodHandle[] blockEntityHops = compact(getBlockEntity, getHost, hostField, blockEntityField);
+            return new HostPlan(getUpgrades, upgradeHops, blockEntityHops);
+        }
+
+        private static MethodHandle[] compact(MethodHandle... handles) {
+            int count = 0;
+            for (MethodHandle handle : handles) {
+                if (handle != null) {
+                    count++;
+                }
+            }
+            if (count == 0) {
+                return NO_HOPS;
+            }
+            MethodHandle[] result = new MethodHandle[count];
+            int i = 0;
+            for (MethodHandle handle : handles) {
+                if (handle != null) {
+                    result[i++] = handle;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * 与原逻辑的 getMethod 一致：仅查找 public 方法（含继承）
+         */
+        private static MethodHandle findNoArgMethod(Class<?> type, String name) {
+            try {
+                Method method = type.getMethod(name);
+                if (method.getReturnType() == void.class) {
+                    return null;
+                }
+                method.setAccessible(true);
+                return MethodHandles.lookup().unreflect(method).asType(GETTER_TYPE);
+            } catch (Throwable ignored) {
+                return null;
+            }
+        }
+
+        /**
+         * 与原逻辑的 getDeclaredField 一致：仅查找本类声明的字段
+         */
+        private static MethodHandle findDeclaredField(Class<?> type, String name) {
+            try {
+                Field field = type.getDeclaredField(name);
+                if (field.getType().isPrimitive()) {
+                    return null;
+                }
+                field.setAccessible(true);
+                MethodHandle getter = MethodHandles.lookup().unreflectGetter(field);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    getter = MethodHandles.dropArguments(getter, 0, Object.class);
+                }
+                return getter.asType(GETTER_TYPE);
+            } catch (Throwable ignored) {
+                return null;
+            }
+        }
+    }
+}
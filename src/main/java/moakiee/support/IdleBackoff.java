@@ -0,0 +1,53 @@
+package moakiee.support;
+
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.ticking.TickRateModulation;
+import appeng.api.upgrades.IUpgradeInventory;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 带卡机器无事可做时的空闲退避
+ *
+ * 超频路径找不到可执行的配方（无配方、材料/输出空间不足、能量不足）时原先返回 IDLE，
+ * 机器仍按最慢频率反复 tick，每次都要做卡片检测与输出刷新。现在改为返回 SLEEP，
+ * 由 {@link OverclockTimerWheel} 在退避时间后唤醒重试；仍然空闲则退避时间翻倍，直到上限。
+ *
+ * 输入槽变化时原版机器会自行 wakeDevice；升级槽变化则通过 {@link IdleWakeHolder} 登记的节点立即唤醒。
+ * 被外部事件提前唤醒时先按正常流程重试，仍空闲则保持当前退避等级，不重复登记。
+ *
+ * 每台机器持有一个实例，只在服务端主线程使用。
+ */
+public final class IdleBackoff {
+
+    private static final int MIN_DELAY = 2;
+    private static final int MAX_DELAY = 64;
+
+    /** 当前退避时间（tick），0 表示不在空闲状态 */
+    private int delay = 0;
+    private long dueTick = 0L;
+
+    /**
+     * 机器本次无事可做：登记下一次唤醒，返回 SLEEP
+     *
+     * @param node 机器的网格节点
+     * @param host 机器（用于找到升级槽登记唤醒）
+     */
+    public TickRateModulation sleep(IGridNode node, @Nullable Object host) {
+        if (delay == 0 || OverclockTimerWheel.isDue(dueTick)) {
+            delay = delay == 0 ? MIN_DELAY : Math.min(delay * 2, MAX_DELAY);
+            dueTick = OverclockTimerWheel.schedule(node, delay);
+        }
+        IUpgradeInventory upgrades = HostResolver.resolveUpgrades(host);
+        if (upgrades instanceof IdleWakeHolder holder) {
+            holder.ae2oc_setIdleNode(node);
+        }
+        return TickRateModulation.SLEEP;
+    }
+
+    /**
+     * 机器有活可干，退出空闲状态
+     */
+    public void reset() {
+        delay = 0;
+    }
+}
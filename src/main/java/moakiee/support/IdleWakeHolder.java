@@ -0,0 +1,16 @@
+package moakiee.support;
+
+import appeng.api.networking.IGridNode;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 由 Mixin 注入到 AE2 升级槽（AppEngInternalInventory）上的空闲唤醒登记接口。
+ * 机器进入空闲休眠时登记自己的网格节点，升级槽内容变化时 Mixin 立即唤醒它，见 {@link IdleBackoff}。
+ */
+public interface IdleWakeHolder {
+
+    @Nullable
+    IGridNode ae2oc_getIdleNode();
+
+    void ae2oc_setIdleNode(@Nullable IGridNode node);
+}
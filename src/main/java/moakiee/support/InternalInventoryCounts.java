@@ -0,0 +1,158 @@
+package moakiee.support;
+
+import appeng.api.config.Actionable;
+import appeng.api.inventories.InternalInventory;
+import appeng.api.stacks.AEItemKey;
+import appeng.util.inv.AppEngInternalInventory;
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * InternalInventory 的按数量插入/提取
+ *
+ * 以 AEItemKey + long 数量描述物品，直接改写槽位中的 ItemStack：
+ * 模拟时不分配任何对象，实插时只有空槽需要新建一个 ItemStack，不产生中间栈与剩余栈。
+ * {@code MixinInternalInventory} 覆写后的 insertItem 也是在这里实现的薄适配层。
+ *
+ * 只对插入/提取逻辑已知的容器直接改写槽位：
+ * - 插入：insertItem 仍为 InternalInventory 的默认实现（即 MixinInternalInventory 的覆写）
+ * - 提取：extractItem 为 InternalInventory 默认实现或 AppEngInternalInventory 的实现
+ * 其他容器（如带过滤的包装）回退到 insertItem / extractItem，保证过滤规则照常生效。
+ *
+ * 槽位数量仍是 int，单次最多移动 Integer.MAX_VALUE 个。
+ */
+public final class InternalInventoryCounts {
+
+    /** insertItem 是否仍为 InternalInventory 的默认实现（已被 MixinInternalInventory 覆写） */
+    private static final ClassValue<Boolean> DEFAULT_INSERT = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("insertItem", int.class, ItemStack.class, boolean.class)
+                        .getDeclaringClass() == InternalInventory.class;
+            } catch (Throwable ignored) {
+                return false;
+            }
+        }
+    };
+
+    /** extractItem 是否为 InternalInventory 或 AppEngInternalInventory 的实现 */
+    private static final ClassValue<Boolean> DEFAULT_EXTRACT = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                Class<?> declaring = type.getMethod("extractItem", int.class, int.class, boolean.class)
+                        .getDeclaringClass();
+                return declaring == InternalInventory.class || declaring == AppEngInternalInventory.class;
+            } catch (Throwable ignored) {
+                return false;
+            }
+        }
+    };
+
+    private InternalInventoryCounts() {
+    }
+
+    /**
+     * 容器的 insertItem 是否为默认实现（插入逻辑与本类一致）
+     */
+    public static boolean hasDefaultInsert(InternalInventory inventory) {
+        return DEFAULT_INSERT.get(inventory.getClass());
+    }
+
+    /**
+     * 向单个槽位插入 amount 个 key
+     *
+     * @return 实际插入（或模拟可插入）的数量
+     */
+    public static long insertCount(InternalInventory inventory, int slot, AEItemKey key, long amount, Actionable mode) {
+        if (amount <= 0 || slot < 0 || slot >= inventory.size()) {
+            return 0;
+        }
+        if (!hasDefaultInsert(inventory)) {
+            int count = (int) Math.min(amount, Integer.MAX_VALUE);
+            ItemStack leftover = inventory.insertItem(slot, key.toStack(count), mode == Actionable.SIMULATE);
+            return count - leftover.getCount();
+        }
+
+        ItemStack inSlot = inventory.getStackInSlot(slot);
+        if (inSlot.isEmpty()) {
+            ItemStack sample = key.toStack();
+            if (!inventory.isItemValid(slot, sample)) {
+                return 0;
+            }
+            return insertStack(inventory, slot, sample, amount, mode == Actionable.SIMULATE, false);
+        }
+        // 槽内已有同种物品时直接用它做校验，不构造样本
+        if (!key.matches(inSlot) || !inventory.isItemValid(slot, inSlot)) {
+            return 0;
+        }
+        return insertStack(inventory, slot, inSlot, amount, mode == Actionable.SIMULATE, false);
+    }
+
+    /**
+     * 从单个槽位提取至多 amount 个物品
+     *
+     * @param key 只提取该种物品；为 null 时提取槽内的任何物品
+     * @return 实际提取（或模拟可提取）的数量
+     */
+    public static long extractCount(InternalInventory inventory, int slot, @Nullable AEItemKey key, long amount,
+                                    Actionable mode) {
+        if (amount <= 0 || slot < 0 || slot >= inventory.size()) {
+            return 0;
+        }
+        ItemStack inSlot = inventory.getStackInSlot(slot);
+        if (inSlot.isEmpty() || (key != null && !key.matches(inSlot))) {
+            return 0;
+        }
+        if (!DEFAULT_EXTRACT.get(inventory.getClass())) {
+            int count = (int) Math.min(amount, Integer.MAX_VALUE);
+            return inventory.extractItem(slot, count, mode == Actionable.SIMULATE).getCount();
+        }
+
+        int extracted = (int) Math.min(amount, inSlot.getCount());
+        if (mode == Actionable.MODULATE) {
+            if (extracted >= inSlot.getCount()) {
+                inventory.setItemDirect(slot, ItemStack.EMPTY);
+            } else {
+                inSlot.shrink(extracted);
+                // setItemDirect 负责通知内容变化
+                inventory.setItemDirect(slot, inSlot);
+            }
+        }
+        return extracted;
+    }
+
+    /**
+     * MixinInternalInventory 覆写的 insertItem 核心：调用方已校验 stack 非空且 isItemValid
+     *
+     * @param template  待插入物品的样本（只读取种类与 NBT）
+     * @param copyEmpty 空槽时是否复制 template 写入；为 false 时 template 必须是可以直接放入槽位的新栈
+     * @return 实际插入（或模拟可插入）的数量
+     */
+    public static int insertStack(InternalInventory inventory, int slot, ItemStack template, long amount,
+                                  boolean simulate, boolean copyEmpty) {
+        ItemStack inSlot = inventory.getStackInSlot(slot);
+        int freeSpace = inventory.getSlotLimit(slot) - inSlot.getCount();
+        if (freeSpace <= 0) {
+            return 0;
+        }
+        if (!inSlot.isEmpty() && inSlot != template && !ItemStack.isSameItemSameTags(inSlot, template)) {
+            return 0;
+        }
+
+        int inserted = (int) Math.min(amount, freeSpace);
+        if (!simulate) {
+            if (inSlot.isEmpty()) {
+                ItemStack placed = copyEmpty ? template.copy() : template;
+                placed.setCount(inserted);
+                inventory.setItemDirect(slot, placed);
+            } else {
+                inSlot.grow(inserted);
+                // setItemDirect 负责通知内容变化
+                inventory.setItemDirect(slot, inSlot);
+            }
+        }
+        return inserted;
+    }
+}
@@ -12,7 +12,10 @@ public final class MachineBreakProtection {
             "appeng.blockentity.misc.InscriberBlockEntity",
             "com.glodblock.github.extendedae.common.tileentities.TileExInscriber",
             "com.glodblock.github.extendedae.common.tileentities.TileCircuitCutter",
-            "net.pedroksl.advanced_ae.common.entities.ReactionChamberEntity"
+            "net.pedroksl.advanced_ae.common.entities.ReactionChamberEntity",
+            "io.github.lounode.ae2cs.common.block.entity.CircuitEtcherBlockEntity",
+            "io.github.lounode.ae2cs.common.block.entity.CrystalPulverizerBlockEntity",
+            "io.github.lounode.ae2cs.common.block.entity.CrystalAggregatorBlockEntity"
     );
 
     private MachineBreakProtection() {
@@ -32,21 +35,26 @@ public final class MachineBreakProtection {
         return false;
     }
 
-    public static int getInternalItemTotalCount(BlockEntity blockEntity) {
+    /**
+     * 机器内部物品总数：可见的 ItemStack 加上堆叠卡虚拟槽位的溢出部分（{@link VirtualSlots}）
+     */
+    public static long getInternalItemTotalCount(BlockEntity blockEntity) {
         if (blockEntity == null) {
             return 0;
         }
 
+        long overflow = VirtualSlots.machineOverflow(blockEntity);
         try {
             Method getInternalInventory = blockEntity.getClass().getMethod("getInternalInventory");
             Object internalInventory = getInternalInventory.invoke(blockEntity);
-            return countInventoryStacks(internalInventory);
+            long total = countInventoryStacks(internalInventory) + overflow;
+            return total < 0 ? Long.MAX_VALUE : total;
         } catch (Exception ignored) {
-            return 0;
+            return overflow;
         }
     }
 
-    private static int countInventoryStacks(Object inventory) {
+    private static long countInventoryStacks(Object inventory) {
         if (inventory == null) {
             return 0;
         }
@@ -56,7 +64,7 @@ public final class MachineBreakProtection {
             Method getStackInSlotMethod = inventory.getClass().getMethod("getStackInSlot", int.class);
 
             int size = (int) sizeMethod.invoke(inventory);
-            int total = 0;
+            long total = 0;
             for (int slot = 0; slot < size; slot++) {
                 Object rawStack = getStackInSlotMethod.invoke(inventory, slot);
                 if (rawStack instanceof ItemStack stack && !stack.isEmpty()) {
@@ -0,0 +1,148 @@
+package moakiee.support;
+
+import appeng.api.inventories.InternalInventory;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.AEKey;
+import appeng.helpers.externalstorage.GenericStackInv;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * 输出槽剩余容量的闭式查询
+ *
+ * 与 MixinInternalInventory / MixinGenericStackInv 中的插入逻辑一一对应，
+ * 直接由槽位当前内容与上限算出还能放入多少，不构造探测用的 ItemStack，也不调用模拟插入。
+ *
+ * 仅对插入逻辑已知的容器生效：
+ * - InternalInventory（未重写 insertItem 的实现，包括 AppEngInternalInventory 及 AE2CS 的输出槽）
+ * - GenericStackInv
+ * 其他容器返回 {@link #UNKNOWN}，由调用方回退到模拟插入。
+ */
+public final class OutputCapacity {
+
+    /** 无法直接计算，需要回退到模拟插入 */
+    public static final long UNKNOWN = -1;
+
+    private OutputCapacity() {
+    }
+
+    /**
+     * 查询单个槽位还能接受多少个 template 对应的物品
+     *
+     * @param inventory 输出容器
+     * @param slot      槽位
+     * @param template  产物样本（只读取种类与 NBT，不关心数量）
+     * @return 剩余容量；无法计算时返回 {@link #UNKNOWN}
+     */
+    public static long remainingCapacity(Object inventory, int slot, ItemStack template) {
+        if (template.isEmpty()) {
+            return 0;
+        }
+        if (inventory instanceof InternalInventory inv) {
+            return remainingItemCapacity(inv, slot, template);
+        }
+        if (inventory instanceof GenericStackInv inv) {
+            AEItemKey key = AEItemKey.of(template);
+            return key == null ? 0 : remainingGenericCapacity(inv, slot, key);
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * 查询单个槽位还能接受多少个 key
+     *
+     * @return 剩余容量；无法计算时返回 {@link #UNKNOWN}
+     */
+    public static long remainingCapacity(Object inventory, int slot, AEKey key) {
+        if (inventory instanceof GenericStackInv inv) {
+            return remainingGenericCapacity(inv, slot, key);
+        }
+        if (inventory instanceof InternalInventory inv) {
+            if (!(key instanceof AEItemKey itemKey)) {
+                return 0;
+            }
+            return remainingItemCapacity(inv, slot, itemKey);
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * 查询整个容器还能接受多少个 template 对应的物品（对应 addItems 的语义）
+     *
+     * @return 各槽剩余容量之和；无法计算时返回 {@link #UNKNOWN}
+     */
+    public static long remainingCapacity(Object inventory, ItemStack template) {
+        int size;
+        if (inventory instanceof InternalInventory inv) {
+            size = inv.size();
+        } else if (inventory instanceof GenericStackInv inv) {
+            size = inv.size();
+        } else {
+            return UNKNOWN;
+        }
+
+        long total = 0;
+        for (int slot = 0; slot < size; slot++) {
+            long remaining = remainingCapacity(inventory, slot, template);
+            if (remaining == UNKNOWN) {
+                return UNKNOWN;
+            }
+            total += remaining;
+        }
+        return total;
+    }
+
+    private static long remainingItemCapacity(InternalInventory inv, int slot, ItemStack template) {
+        if (!InternalInventoryCounts.hasDefaultInsert(inv)) {
+            return UNKNOWN;
+        }
+        if (slot < 0 || slot >= inv.size() || !inv.isItemValid(slot, template)) {
+            return 0;
+        }
+
+        ItemStack inSlot = inv.getStackInSlot(slot);
+        if (!inSlot.isEmpty() && !ItemStack.isSameItemSameTags(inSlot, template)) {
+            return 0;
+        }
+        return Math.max(inv.getSlotLimit(slot) - inSlot.getCount(), 0);
+    }
+
+    /**
+     * 与 {@link #remainingItemCapacity(InternalInventory, int, ItemStack)} 相同，按 key 比较；
+     * 槽内已有同种物品时直接用它做 isItemValid 的样本，只有空槽才构造一份样本
+     */
+    private static long remainingItemCapacity(InternalInventory inv, int slot, AEItemKey key) {
+        if (!InternalInventoryCounts.hasDefaultInsert(inv)) {
+            return UNKNOWN;
+        }
+        if (slot < 0 || slot >= inv.size()) {
+            return 0;
+        }
+
+        ItemStack inSlot = inv.getStackInSlot(slot);
+        if (inSlot.isEmpty()) {
+            if (!inv.isItemValid(slot, key.toStack())) {
+                return 0;
+            }
+        } else if (!key.matches(inSlot) || !inv.isItemValid(slot, inSlot)) {
+            return 0;
+        }
+        return Math.max(inv.getSlotLimit(slot) - inSlot.getCount(), 0);
+    }
+
+    private static long remainingGenericCapacity(GenericStackInv inv, int slot, AEKey key) {
+        if (slot < 0 || slot >= inv.size() || !inv.canInsert() || !inv.isAllowed(key)) {
+            return 0;
+        }
+
+        AEKey current = inv.getKey(slot);
+        if (current != null && !current.equals(key)) {
+            return 0;
+        }
+
+        // 超量堆叠的容器只受类型容量限制，否则还受单种物品上限限制
+        long limit = OverstackingRegistry.shouldAllowOverstacking(inv)
+                ? inv.getCapacity(key.getType())
+                : inv.getMaxAmount(key);
+        return Math.max(limit - inv.getAmount(slot), 0);
+    }
+}
@@ -0,0 +1,88 @@
+package moakiee.support;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 机器输出槽的刷新状态（变化驱动 + 指数退避）
+ *
+ * 原先每台装卡机器每 tick 都要把输出槽往 ME 网络刷一次，即使输出槽是空的或网络已满。
+ * 现在输出槽所在容器（见 {@link OutputFlushTrackerHolder}）内容变化时才标记为待刷新；
+ * 网络拒收（部分或全部）时按 1, 2, 4 … {@link #MAX_BACKOFF} 次轮询退避后再重试，
+ * 全部被接受后退避清零。
+ *
+ * 只在服务端主线程使用。
+ */
+public final class OutputFlushTracker {
+
+    /** 最长退避（机器 tick 数） */
+    public static final int MAX_BACKOFF = 64;
+
+    /** 新建时视为待刷新，保证读档后残留的产物能被刷出 */
+    private boolean dirty = true;
+    private int cooldown;
+    private int backoff;
+
+    private OutputFlushTracker() {
+    }
+
+    /**
+     * 本次机器 tick 是否需要刷新该容器，返回 true 时同时清除待刷新标记。
+     * 不支持状态跟踪的容器始终返回 true（保持原有每 tick 刷新的行为）。
+     *
+     * @param inventory 输出容器
+     */
+    public static boolean take(@Nullable Object inventory) {
+        if (!(inventory instanceof OutputFlushTrackerHolder holder)) {
+            return true;
+        }
+        OutputFlushTracker tracker = holder.ae2oc_getFlushTracker();
+        if (tracker == null) {
+            tracker = new OutputFlushTracker();
+            holder.ae2oc_setFlushTracker(tracker);
+        }
+        if (tracker.cooldown > 0) {
+            tracker.cooldown--;
+            return false;
+        }
+        if (!tracker.dirty) {
+            return false;
+        }
+        tracker.dirty = false;
+        return true;
+    }
+
+    /**
+     * 容器内容变化（由 Mixin 调用）
+     */
+    public static void markChanged(OutputFlushTrackerHolder holder) {
+        OutputFlushTracker tracker = holder.ae2oc_getFlushTracker();
+        if (tracker != null) {
+            tracker.dirty = true;
+        }
+    }
+
+    /**
+     * 报告一次刷新结果
+     *
+     * @param inventory 输出容器
+     * @param rejected  是否仍有产物留在输出槽（网络拒收或网络不可用）
+     */
+    public static void onDrained(@Nullable Object inventory, boolean rejected) {
+        if (!(inventory instanceof OutputFlushTrackerHolder holder)) {
+            return;
+        }
+        OutputFlushTracker tracker = holder.ae2oc_getFlushTracker();
+        if (tracker == null) {
+            return;
+        }
+        if (rejected) {
+            tracker.backoff = tracker.backoff == 0 ? 1 : Math.min(tracker.backoff * 2, MAX_BACKOFF);
+            tracker.cooldown = tracker.backoff;
+            tracker.dirty = true;
+        } else {
+            tracker.backoff = 0;
+            tracker.cooldown = 0;
+            tracker.dirty = false;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package moakiee.support;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 由 Mixin 注入到 AppEngInternalInventory 与 GenericStackInv 上的输出刷新状态存储接口。
+ * 槽位内容变化时 Mixin 会标记状态为待刷新，见 {@link OutputFlushTracker}。
+ */
+public interface OutputFlushTrackerHolder {
+
+    @Nullable
+    OutputFlushTracker ae2oc_getFlushTracker();
+
+    void ae2oc_setFlushTracker(@Nullable OutputFlushTracker tracker);
+}
@@ -1,13 +1,8 @@
 package moakiee.support;
 
-import appeng.api.upgrades.IUpgradeableObject;
 import moakiee.Ae2OcConfig;
-import moakiee.ModItems;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-
 /**
  * 超频卡运行时支持类
  * 用于检测机器是否安装了超频卡，并提供快速完工功能
@@ -43,10 +38,7 @@ public final class OverclockCardRuntime {
      * @return 安装的超频卡数量（通常为 0 或 1）
      */
     public static int getInstalledOverclockCards(@Nullable Object host) {
-        if (Ae2OcConfig.isMachineDisabled(host)) {
-            return 0;
-        }
-        return getInstalledOverclockCards(host, 0);
+        return CardSnapshot.of(host).getOverclockCards();
     }
 
     /**
@@ -58,90 +50,4 @@ public final class OverclockCardRuntime {
     public static boolean hasOverclockCard(@Nullable Object host) {
         return getInstalledOverclockCards(host) > 0;
     }
-
-    /**
-     * 递归检测超频卡安装数量
-     */
-    private static int getInstalledOverclockCards(@Nullable Object target, int depth) {
-        if (target == null || depth > 4) {
-            return 0;
-        }
-
-        // 直接实现 IUpgradeableObject 接口
-        if (target instanceof IUpgradeableObject upgradeable) {
-            return upgradeable.getUpgrades().getInstalledUpgrades(ModItems.OVERCLOCK_CARD.get());
-        }
-
-        // 尝试通过 getUpgrades() 方法获取
-        Integer fromGetUpgrades = tryGetInstalledFromGetUpgrades(target);
-        if (fromGetUpgrades != null && fromGetUpgrades > 0) {
-            return fromGetUpgrades;
-        }
-
-        // 尝试通过 getBlockEntity() 方法获取宿主
-        Object byGetBlockEntity = tryInvokeNoArg(target, "getBlockEntity");
-        int fromBlockEntity = getInstalledOverclockCards(byGetBlockEntity, depth + 1);
-        if (fromBlockEntity > 0) {
-            return fromBlockEntity;
-        }
-
-        // 尝试通过 getHost() 方法获取宿主
-        Object byGetHost = tryInvokeNoArg(target, "getHost");
-        int fromHost = getInstalledOverclockCards(byGetHost, depth + 1);
-        if (fromHost > 0) {
-            return fromHost;
-        }
-
-        // 尝试通过 host 字段获取宿主
-        Object byHostField = tryGetField(target, "host");
-        return getInstalledOverclockCards(byHostField, depth + 1);
-    }
-
-    /**
-     * 通过反射调用 getUpgrades().getInstalledUpgrades(OVERCLOCK_CARD)
-     */
-    private static Integer tryGetInstalledFromGetUpgrades(Object target) {
-        try {
-            Method getUpgrades = target.getClass().getMethod("getUpgrades");
-            Object upgradesInv = getUpgrades.invoke(target);
-            if (upgradesInv != null) {
-                Method getInstalled = upgradesInv.getClass().getMethod("getInstalledUpgrades", 
-                        net.minecraft.world.level.ItemLike.class);
-                Object result = getInstalled.invoke(upgradesInv, ModItems.OVERCLOCK_CARD.get());
-                if (result instanceof Integer count) {
-                    return count;
-                }
-            }
-        } catch (Exception ignored) {
-            // 方法不存在或调用失败，继续尝试其他方式
-        }
-        return null;
-    }
-
-    /**
-     * 通过反射调用无参方法
-     */
-    private static Object tryInvokeNoArg(Object target, String methodName) {
-        try {
-            Method method = target.getClass().getMethod(methodName);
-            return method.invoke(target);
-        } catch (Exception ignored) {
-            // 方法不存在或调用失败
-        }
-        return null;
-    }
-
-    /**
-     * 通过反射获取字段值
-     */
-    private static Object tryGetField(Object target, String fieldName) {
-        try {
-            Field field = target.getClass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            return field.get(target);
-        } catch (Exception ignored) {
-            // 字段不存在或访问失败
-        }
-        return null;
-    }
 }
@@ -0,0 +1,104 @@
+package moakiee.support;
+
+import appeng.api.networking.IGrid;
+import appeng.api.networking.IGridNode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 超频批次的定时唤醒
+ *
+ * 超频机器扣电后原本每 tick 返回 URGENT 并累加计数器，直到满 overclockCardProcessTicks 才结算，
+ * 中间 N-1 次 tickingRequest 都是空转。现在机器登记到期 tick 后返回 SLEEP，
+ * 由本时间轮在到期时通过网格的 ITickManager.wakeDevice 唤醒，醒来后立即结算。
+ *
+ * 时间轮按服务端 tick 推进（{@link #advance()} 在每个服务端 tick 开始时调用），
+ * 槽位按到期 tick 取模；超过一圈的条目留在槽中，下一圈再检查。
+ * 机器被其他原因提前唤醒时用 {@link #isDue(long)} 判断是否到期，未到期则继续 SLEEP。
+ * 空闲退避（{@link IdleBackoff}）也通过本时间轮定时唤醒。
+ * 只在服务端主线程使用。
+ */
+public final class OverclockTimerWheel {
+
+    private static final int SLOTS = 128;
+    private static final int MASK = SLOTS - 1;
+
+    @SuppressWarnings("unchecked")
+    private static final List<Entry>[] WHEEL = new List[SLOTS];
+
+    /** 当前服务端 tick（只增不减，服务器重启也不归零，避免旧的到期 tick 失效） */
+    private static long currentTick = 0L;
+
+    static {
+        for (int i = 0; i < SLOTS; i++) {
+            WHEEL[i] = new ArrayList<>();
+        }
+    }
+
+    private record Entry(IGridNode node, long dueTick) {
+    }
+
+    private OverclockTimerWheel() {
+    }
+
+    /**
+     * 登记在 delayTicks 个 tick 后唤醒 node
+     *
+     * @return 到期 tick，交给 {@link #isDue(long)} 判断
+     */
+    public static long schedule(IGridNode node, int delayTicks) {
+        long dueTick = currentTick + Math.max(delayTicks, 1);
+        WHEEL[(int) (dueTick & MASK)].add(new Entry(node, dueTick));
+        return dueTick;
+    }
+
+    /**
+     * dueTick 是否已到
+     */
+    public static boolean isDue(long dueTick) {
+        return currentTick >= dueTick;
+    }
+
+    /**
+     * 推进一个 tick 并唤醒到期的机器，在服务端 tick 开始时调用
+     */
+    public static void advance() {
+        currentTick++;
+        List<Entry> slot = WHEEL[(int) (currentTick & MASK)];
+        if (slot.isEmpty()) {
+            return;
+        }
+        for (Iterator<Entry> it = slot.iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            if (entry.dueTick() <= currentTick) {
+                it.remove();
+                wake(entry.node());
+            }
+        }
+    }
+
+    /**
+     * 丢弃所有登记（服务器关闭时调用）
+     */
+    public static void clear() {
+        for (List<Entry> slot : WHEEL) {
+            slot.clear();
+        }
+    }
+
+    /**
+     * 立即唤醒 node（通过网格的 ITickManager）
+     */
+    public static void wake(IGridNode node) {
+        try {
+            IGrid grid = node.getGrid();
+            if (grid != null) {
+                grid.getTickManager().wakeDevice(node);
+            }
+        } catch (Exception ignored) {
+            // 节点已离开网格：重新加入时会重新注册 tick，醒来后按到期 tick 结算
+        }
+    }
+}
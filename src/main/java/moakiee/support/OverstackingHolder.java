@@ -0,0 +1,11 @@
+package moakiee.support;
+
+/**
+ * 由 Mixin 注入到 AE2 GenericStackInv（含 ConfigInventory）上的超量堆叠标记，见 {@link OverstackingRegistry}。
+ */
+public interface OverstackingHolder {
+
+    boolean ae2oc_isOverstacking();
+
+    void ae2oc_setOverstacking(boolean overstacking);
+}
@@ -1,41 +1,35 @@
 package moakiee.support;
 
-import java.util.Collections;
-import java.util.Set;
-import java.util.WeakHashMap;
-
 /**
- * 注册表：追踪哪些 ConfigInventory 实例应该允许超量堆叠。
- * 使用 WeakHashMap 避免内存泄漏，当 ConfigInventory 被 GC 时自动移除。
+ * 追踪哪些 GenericStackInv / ConfigInventory 实例应该允许超量堆叠。
+ * 标记存放在实例自身的 Mixin 字段上（{@link OverstackingHolder}），查询只是一次字段读取，
+ * 不需要哈希查找，也不依赖弱引用回收；实例被回收时标记随之消失。
  */
 public class OverstackingRegistry {
-    
-    private static final Set<Object> OVERSTACKING_INVENTORIES = 
-        Collections.newSetFromMap(new WeakHashMap<>());
-    
+
     /**
      * 注册一个 inventory 实例，允许其超量堆叠
      */
     public static void register(Object inventory) {
-        if (inventory != null) {
-            OVERSTACKING_INVENTORIES.add(inventory);
+        if (inventory instanceof OverstackingHolder holder) {
+            holder.ae2oc_setOverstacking(true);
         }
     }
-    
+
     /**
      * 取消注册一个 inventory 实例
      */
     public static void unregister(Object inventory) {
-        if (inventory != null) {
-            OVERSTACKING_INVENTORIES.remove(inventory);
+        if (inventory instanceof OverstackingHolder holder) {
+            holder.ae2oc_setOverstacking(false);
         }
     }
-    
+
     /**
      * 检查一个 inventory 实例是否应该允许超量堆叠
      */
     public static boolean shouldAllowOverstacking(Object inventory) {
-        return inventory != null && OVERSTACKING_INVENTORIES.contains(inventory);
+        return inventory instanceof OverstackingHolder holder && holder.ae2oc_isOverstacking();
     }
-    
+
 }
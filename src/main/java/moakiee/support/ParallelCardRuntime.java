@@ -1,15 +1,12 @@
 package moakiee.support;
 
-import appeng.api.upgrades.IUpgradeableObject;
+import appeng.api.upgrades.IUpgradeInventory;
 import moakiee.Ae2OcConfig;
 import moakiee.ModItems;
 import moakiee.item.ParallelCard;
 import net.minecraft.world.level.ItemLike;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-
 /**
  * 并行卡运行时支持类
  * 用于检测机器是否安装了并行卡，并返回对应的并行倍数
@@ -44,10 +41,7 @@ public final class ParallelCardRuntime {
      * @return 并行倍数（>=1）
      */
     public static int getParallelMultiplier(@Nullable Object host) {
-        if (Ae2OcConfig.isMachineDisabled(host)) {
-            return 1;
-        }
-        return getParallelMultiplier(host, 0);
+        return CardSnapshot.of(host).getParallelMultiplier();
     }
 
     /**
@@ -58,48 +52,9 @@ public final class ParallelCardRuntime {
     }
 
     /**
-     * 递归检测并行卡安装情况，返回最高倍率
-     */
-    private static int getParallelMultiplier(@Nullable Object target, int depth) {
-        if (target == null || depth > 4) {
-            return 1;
-        }
-
-        // 方式1: 通过 IUpgradeableObject 接口
-        if (target instanceof IUpgradeableObject upgradeable) {
-            return scanUpgradeInventory(upgradeable);
-        }
-
-        // 方式2: 通过反射 getUpgrades()
-        Integer fromReflect = tryGetMultiplierFromGetUpgrades(target);
-        if (fromReflect != null && fromReflect > 1) {
-            return fromReflect;
-        }
-
-        // 方式3: 通过 getBlockEntity() 递归
-        Object byGetBlockEntity = tryInvokeNoArg(target, "getBlockEntity");
-        int fromBlockEntity = getParallelMultiplier(byGetBlockEntity, depth + 1);
-        if (fromBlockEntity > 1) {
-            return fromBlockEntity;
-        }
-
-        // 方式4: 通过 getHost() 递归
-        Object byGetHost = tryInvokeNoArg(target, "getHost");
-        int fromHost = getParallelMultiplier(byGetHost, depth + 1);
-        if (fromHost > 1) {
-            return fromHost;
-        }
-
-        // 方式5: 通过 host 字段递归
-        Object byHostField = tryGetField(target, "host");
-        return getParallelMultiplier(byHostField, depth + 1);
-    }
-
-    /**
-     * 扫描 IUpgradeableObject 的升级库存，找到最高倍率的并行卡
+     * 扫描升级库存，找到最高倍率的并行卡（仅在重建卡片快照时调用）
      */
-    private static int scanUpgradeInventory(IUpgradeableObject upgradeable) {
-        var upgrades = upgradeable.getUpgrades();
+    static int scanUpgradeInventory(IUpgradeInventory upgrades) {
         for (var cardSupplier : PARALLEL_CARDS_DESC) {
             ItemLike card = cardSupplier.get();
             if (upgrades.getInstalledUpgrades(card) > 0 && card instanceof ParallelCard pc) {
@@ -111,52 +66,4 @@ public final class ParallelCardRuntime {
         }
         return 1;
     }
-
-    /**
-     * 通过反射获取 getUpgrades() 并扫描并行卡
-     */
-    private static Integer tryGetMultiplierFromGetUpgrades(Object target) {
-        try {
-            Method getUpgrades = target.getClass().getMethod("getUpgrades");
-            Object upgradesInv = getUpgrades.invoke(target);
-            if (upgradesInv == null) {
-                return null;
-            }
-
-            Method getInstalled = upgradesInv.getClass().getMethod(
-                    "getInstalledUpgrades", net.minecraft.world.level.ItemLike.class);
-
-            for (var cardSupplier : PARALLEL_CARDS_DESC) {
-                ItemLike card = cardSupplier.get();
-                Object result = getInstalled.invoke(upgradesInv, card);
-                if (result instanceof Integer count && count > 0 && card instanceof ParallelCard pc) {
-                    if (card == ModItems.PARALLEL_CARD_MAX.get()) {
-                        return Ae2OcConfig.getParallelCardMaxMultiplier();
-                    }
-                    return pc.getMultiplier();
-                }
-            }
-        } catch (Exception ignored) {
-        }
-        return null;
-    }
-
-    private static Object tryInvokeNoArg(Object target, String methodName) {
-        try {
-            Method method = target.getClass().getMethod(methodName);
-            return method.invoke(target);
-        } catch (Exception ignored) {
-            return null;
-        }
-    }
-
-    private static Object tryGetField(Object target, String fieldName) {
-        try {
-            Field field = target.getClass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            return field.get(target);
-        } catch (Exception ignored) {
-            return null;
-        }
-    }
 }
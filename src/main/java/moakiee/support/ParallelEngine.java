@@ -1,6 +1,11 @@
 package moakiee.support;
 
+import appeng.api.inventories.InternalInventory;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.stacks.AEItemKey;
 import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.function.BiFunction;
 
@@ -26,6 +31,8 @@ public final class ParallelEngine {
     /**
      * 计算实际并行数（通过模拟插入检测输出空间）
      *
+     * 仅用于插入逻辑未知的输出容器；已知容器请使用直接查询容量的重载。
+     *
      * @param cardMultiplier   并行卡倍数（来自 ParallelCardRuntime，>=1）
      * @param inputCount       输入槽当前物品数量
      * @param recipeInputCount 配方每次消耗的输入数量（压印器一般为 1）
@@ -43,29 +50,50 @@ public final class ParallelEngine {
             double availableEnergy, double unitEnergy) {
 
         if (cardMultiplier <= 0 || inputCount <= 0 || recipeInputCount <= 0) {
-            return new ParallelResult(0, 0);
+            return ParallelResult.none(cardMultiplier);
         }
 
-        // 1. 材料约束
-        int materialLimit = inputCount / recipeInputCount;
-
-        // 2. 输出空间约束（通过模拟插入探测）
+        // 输出空间约束（通过模拟插入探测）
         int outputLimit = probeOutputSpace(outputStack, outputInsertFn, cardMultiplier);
 
-        // 3. 能量约束
-        int energyLimit;
-        if (unitEnergy <= 0.001) {
-            energyLimit = Integer.MAX_VALUE; // 无能耗配方
-        } else {
-            energyLimit = (int) (availableEnergy / unitEnergy);
+        return calculateSimple(cardMultiplier, inputCount, recipeInputCount, outputLimit, availableEnergy, unitEnergy);
+    }
+
+    /**
+     * 计算实际并行数（直接查询输出槽剩余容量）
+     *
+     * 输出槽插入逻辑已知时用 {@link OutputCapacity} 闭式计算，否则回退到模拟插入。
+     *
+     * @param cardMultiplier   并行卡倍数
+     * @param inputCount       输入槽当前物品数量
+     * @param recipeInputCount 配方每次消耗的输入数量
+     * @param outputStack      配方单份产物 ItemStack
+     * @param outputInv        输出容器
+     * @param outputSlot       输出槽位
+     * @param availableEnergy  当前可用能量 (AE)
+     * @param unitEnergy       单次配方能耗 (AE)
+     * @return 并行结算结果
+     */
+    public static ParallelResult calculate(
+            int cardMultiplier,
+            int inputCount, int recipeInputCount,
+            ItemStack outputStack,
+            InternalInventory outputInv, int outputSlot,
+            double availableEnergy, double unitEnergy) {
+
+        if (cardMultiplier <= 0 || inputCount <= 0 || recipeInputCount <= 0) {
+            return ParallelResult.none(cardMultiplier);
+        }
+
+        if (outputStack.isEmpty()) {
+            return calculateSimple(cardMultiplier, inputCount, recipeInputCount, cardMultiplier,
+                    availableEnergy, unitEnergy);
         }
 
-        // 4. 木桶效应
-        int actual = Math.min(cardMultiplier, Math.min(materialLimit, Math.min(outputLimit, energyLimit)));
-        actual = Math.max(actual, 0);
+        long capacity = outputCapacity(outputStack, outputInv, outputSlot, cardMultiplier);
+        int outputLimit = (int) Math.min(capacity / outputStack.getCount(), Integer.MAX_VALUE);
 
-        double totalCost = actual * unitEnergy;
-        return new ParallelResult(actual, totalCost);
+        return calculateSimple(cardMultiplier, inputCount, recipeInputCount, outputLimit, availableEnergy, unitEnergy);
     }
 
     /**
@@ -87,30 +115,93 @@ public final class ParallelEngine {
             double availableEnergy, double unitEnergy) {
 
         if (cardMultiplier <= 0 || inputCount <= 0 || recipeInputCount <= 0) {
-            return new ParallelResult(0, 0);
+            return ParallelResult.none(cardMultiplier);
         }
 
-        int materialLimit = inputCount / recipeInputCount;
+        BatchResult batch = calculateBatch(cardMultiplier,
+                new long[]{inputCount}, new long[]{recipeInputCount},
+                new long[]{Math.max(outputSpaceLimit, 0)}, new long[]{1},
+                availableEnergy, unitEnergy);
+        return new ParallelResult(batch.clampedParallel(), batch.totalEnergyCost(), batch.bottleneck());
+    }
+
+    /**
+     * 向量化计算（N 种输入 × M 种产物，全部使用 long）
+     *
+     * 每种输入/产物各自折算成"可支撑的份数"，与卡倍数、能量一起取 min。
+     * 数量单位由调用方决定（物品个数、流体 mB 等），同一下标的 available 与 perCraft 单位一致即可。
+     *
+     * - perCraft <= 0 的输入视为催化剂（不消耗），不参与约束
+     * - perCraft <= 0 的产物视为不产出，不参与约束
+     * - 输出容量传 Long.MAX_VALUE 表示不受限（例如直出 ME 网络）
+     *
+     * @param cardMultiplier   并行卡倍数
+     * @param inputAvailable   各输入当前可用数量
+     * @param inputPerCraft    各输入每份配方消耗数量
+     * @param outputCapacity   各产物的剩余输出空间
+     * @param outputPerCraft   各产物每份配方产出数量
+     * @param availableEnergy  可用能量
+     * @param unitEnergy       单次能耗
+     * @return 结算结果（含瓶颈项）
+     */
+    public static BatchResult calculateBatch(
+            long cardMultiplier,
+            long[] inputAvailable, long[] inputPerCraft,
+            long[] outputCapacity, long[] outputPerCraft,
+            double availableEnergy, double unitEnergy) {
 
-        int energyLimit;
-        if (unitEnergy <= 0.001) {
-            energyLimit = Integer.MAX_VALUE;
-        } else {
-            energyLimit = (int) (availableEnergy / unitEnergy);
+        if (cardMultiplier <= 0) {
+            return new BatchResult(0, 0, Bottleneck.CARD, -1);
         }
 
-        int actual = Math.min(cardMultiplier, Math.min(materialLimit, Math.min(outputSpaceLimit, energyLimit)));
-        actual = Math.max(actual, 0);
+        long actual = cardMultiplier;
+        Bottleneck bottleneck = Bottleneck.CARD;
+        int index = -1;
 
-        double totalCost = actual * unitEnergy;
-        return new ParallelResult(actual, totalCost);
+        // 1. 材料约束
+        for (int i = 0; i < inputAvailable.length; i++) {
+            long perCraft = inputPerCraft[i];
+            if (perCraft <= 0) {
+                continue;
+            }
+            long limit = Math.max(inputAvailable[i], 0) / perCraft;
+            if (limit < actual) {
+                actual = limit;
+                bottleneck = Bottleneck.MATERIAL;
+                index = i;
+            }
+        }
+
+        // 2. 输出空间约束
+        for (int i = 0; i < outputCapacity.length; i++) {
+            long perCraft = outputPerCraft[i];
+            if (perCraft <= 0) {
+                continue;
+            }
+            long limit = Math.max(outputCapacity[i], 0) / perCraft;
+            if (limit < actual) {
+                actual = limit;
+                bottleneck = Bottleneck.OUTPUT;
+                index = i;
+            }
+        }
+
+        // 3. 能量约束（double → long 的强转在溢出时饱和到 Long.MAX_VALUE）
+        if (unitEnergy > 0.001) {
+            long limit = (long) (Math.max(availableEnergy, 0) / unitEnergy);
+            if (limit < actual) {
+                actual = limit;
+                bottleneck = Bottleneck.ENERGY;
+                index = -1;
+            }
+        }
+
+        return new BatchResult(actual, actual * unitEnergy, bottleneck, index);
     }
 
     /**
      * 探测输出槽能接受多少份产物。
      *
-     * 策略：二分查找最大可插入份数，避免一次构造超大 ItemStack 导致溢出
-     *
      * @param singleOutput    单份产物
      * @param outputInsertFn  模拟插入函数
      * @param maxParallel     上限
@@ -125,20 +216,77 @@ public final class ParallelEngine {
             return maxParallel; // 无产物的配方（不太可能，保险处理）
         }
 
-        int singleCount = singleOutput.getCount();
+        long accepted = probeOutputCapacity(singleOutput, outputInsertFn, maxParallel);
+        return (int) (accepted / singleOutput.getCount());
+    }
+
+    /**
+     * 探测输出槽对某产物的剩余容量（物品个数），供向量化计算作为 outputCapacity 使用。
+     *
+     * 按 maxParallel 份模拟插入一次；ItemStack.count 是 int，超过部分被截断。
+     *
+     * @param singleOutput    单份产物
+     * @param outputInsertFn  模拟插入函数
+     * @param maxParallel     上限份数
+     * @return 可接受的物品数量；空产物返回 Long.MAX_VALUE
+     */
+    public static long probeOutputCapacity(
+            ItemStack singleOutput,
+            BiFunction<ItemStack, Boolean, ItemStack> outputInsertFn,
+            long maxParallel) {
+
+        if (singleOutput.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+
+        if (maxParallel <= 0) {
+            return 0;
+        }
 
-        // 先尝试最大量，如果全部能塞进去就直接返回
-        long totalCount = (long) maxParallel * singleCount;
         // ItemStack.count 是 int，需要 clamp
-        int testCount = (int) Math.min(totalCount, Integer.MAX_VALUE);
+        int singleCount = singleOutput.getCount();
+        int testCount = maxParallel > Integer.MAX_VALUE / singleCount
+                ? Integer.MAX_VALUE
+                : (int) (maxParallel * singleCount);
 
         ItemStack testStack = singleOutput.copyWithCount(testCount);
         ItemStack remaining = outputInsertFn.apply(testStack, true);
 
-        int accepted = testCount - remaining.getCount();
-        int outputLimit = accepted / singleCount;
+        return Math.max(testCount - remaining.getCount(), 0);
+    }
 
-        return Math.max(outputLimit, 0);
+    /**
+     * 输出槽对某产物的剩余容量（物品个数），供向量化计算作为 outputCapacity 使用。
+     *
+     * @param singleOutput 单份产物
+     * @param outputInv    输出容器
+     * @param outputSlot   输出槽位
+     * @param maxParallel  回退到模拟插入时的探测上限份数
+     * @return 可接受的物品数量
+     */
+    public static long outputCapacity(ItemStack singleOutput, InternalInventory outputInv, int outputSlot,
+                                      long maxParallel) {
+        long remaining = OutputCapacity.remainingCapacity(outputInv, outputSlot, singleOutput);
+        if (remaining != OutputCapacity.UNKNOWN) {
+            return remaining;
+        }
+        return probeOutputCapacity(singleOutput,
+                (stack, simulate) -> outputInv.insertItem(outputSlot, stack, simulate), maxParallel);
+    }
+
+    /**
+     * 产物直出 ME 网络时的剩余容量：网络本 tick 余量（扣除已存入 {@link GridOutputBuffer} 的部分）+ 本地输出槽余量
+     *
+     * 网络收不下的部分由 {@link GridOutputBuffer#deliver} 放回本地槽，两者之和即为不会丢失产物的上限。
+     *
+     * @return 可接受的物品数量
+     */
+    public static long directOutputCapacity(ItemStack singleOutput, InternalInventory outputInv, int outputSlot,
+                                            long maxParallel, @Nullable IGridNode node, IActionSource source) {
+        long local = outputCapacity(singleOutput, outputInv, outputSlot, maxParallel);
+        AEItemKey key = AEItemKey.of(singleOutput);
+        long room = key == null ? 0 : GridOutputBuffer.networkRoom(node, key, source);
+        return local > Long.MAX_VALUE - room ? Long.MAX_VALUE : local + room;
     }
 
     /**
@@ -146,7 +294,84 @@ public final class ParallelEngine {
      *
      * @param actualParallel 实际并行倍数（木桶效应后的值）
      * @param totalEnergyCost 总能量消耗 = actualParallel × unitEnergy
+     * @param bottleneck      压低并行数的约束项
+     */
+    public record ParallelResult(int actualParallel, double totalEnergyCost, Bottleneck bottleneck) {
+
+        /**
+         * 卡倍数或输入为 0 时的空结果
+         */
+        static ParallelResult none(int cardMultiplier) {
+            return new ParallelResult(0, 0, cardMultiplier <= 0 ? Bottleneck.CARD : Bottleneck.MATERIAL);
+        }
+
+        /**
+         * 调用方在传入前已用其他约束压低了卡倍数（如压印模板数量）时，
+         * 把"卡倍数"瓶颈改记为实际的约束项
+         *
+         * @param cause 压低卡倍数的约束项
+         */
+        public ParallelResult withCardLimitFrom(Bottleneck cause) {
+            return bottleneck == Bottleneck.CARD ? new ParallelResult(actualParallel, totalEnergyCost, cause) : this;
+        }
+
+        /**
+         * 先按不限能量算出份数、再由 {@link EnergyLedger#reserve} 一次性预留时，按实际批准的份数压低并行数
+         *
+         * @param granted    批准的份数
+         * @param unitEnergy 单次能耗
+         */
+        public ParallelResult withEnergyGrant(long granted, double unitEnergy) {
+            if (granted >= actualParallel) {
+                return this;
+            }
+            int parallel = (int) Math.max(granted, 0);
+            return new ParallelResult(parallel, parallel * unitEnergy, Bottleneck.ENERGY);
+        }
+    }
+
+    /**
+     * 限制并行数的约束项
      */
-    public record ParallelResult(int actualParallel, double totalEnergyCost) {
+    public enum Bottleneck {
+        /** 并行卡倍数 */
+        CARD,
+        /** 输入材料 */
+        MATERIAL,
+        /** 压印模板（PRESS 配方的上下模板数量） */
+        TEMPLATE,
+        /** 输出空间 */
+        OUTPUT,
+        /** 可用能量 */
+        ENERGY
+    }
+
+    /**
+     * 向量化结算结果
+     *
+     * @param actualParallel  实际并行倍数
+     * @param totalEnergyCost 总能量消耗
+     * @param bottleneck      压低并行数的约束项（并列时取先检查到的一项）
+     * @param bottleneckIndex 瓶颈对应的输入/产物下标；卡倍数与能量为 -1
+     */
+    public record BatchResult(long actualParallel, double totalEnergyCost, Bottleneck bottleneck, int bottleneckIndex) {
+
+        /**
+         * 供仍以 int 计数的调用方使用
+         */
+        public int clampedParallel() {
+            return (int) Math.min(actualParallel, Integer.MAX_VALUE);
+        }
+
+        /**
+         * 同 {@link ParallelResult#withEnergyGrant}
+         */
+        public BatchResult withEnergyGrant(long granted, double unitEnergy) {
+            if (granted >= actualParallel) {
+                return this;
+            }
+            long parallel = Math.max(granted, 0);
+            return new BatchResult(parallel, parallel * unitEnergy, Bottleneck.ENERGY, -1);
+        }
     }
 }
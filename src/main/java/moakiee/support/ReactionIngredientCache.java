@@ -0,0 +1,224 @@
+package moakiee.support;
+
+import appeng.api.inventories.InternalInventory;
+import appeng.api.stacks.AEFluidKey;
+import appeng.api.stacks.GenericStack;
+import appeng.helpers.externalstorage.GenericStackInv;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.fluids.FluidStack;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 反应仓配方输入与槽位的匹配缓存
+ *
+ * 反应仓配方的每个输入（IngredientStack）可由若干物品槽和流体槽满足。原先每次计算并行数、每次扣料
+ * 都要对"输入 × 槽位"逐一反射调用 IngredientStack 做匹配测试，并为流体构造 FluidStack。
+ *
+ * 这里按机器缓存匹配结果：每个输入的单份需求量、能满足它的物品槽、流体槽是否满足。
+ * 匹配只与槽内物品/流体的种类有关，与数量无关；每次使用前逐槽比对种类（不涉及反射），
+ * 配方或任一槽的种类变化时才重建，之后的计算与扣料都是 O(输入数)。
+ *
+ * 每台机器持有一个实例，只在服务端主线程使用。
+ */
+public final class ReactionIngredientCache {
+
+    /** 反应仓的流体输入槽（0 号为输出槽） */
+    private static final int FLUID_INPUT_SLOT = 1;
+
+    private static final long[][] FALLBACK = {{1}, {1}};
+
+    @Nullable
+    private Object recipe;
+    /** 建立缓存时各物品槽的种类（数量为 1 的副本或 EMPTY） */
+    private ItemStack[] slotKinds = new ItemStack[0];
+    @Nullable
+    private AEFluidKey fluidKind;
+
+    private long[] perCraft = new long[0];
+    private int[][] itemSlots = new int[0][];
+    private boolean[] fluidMatches = new boolean[0];
+
+    /**
+     * 收集配方各输入的可用量与单份需求量（物品与流体统一按 long 计数）
+     *
+     * @return {available[], perCraft[]}；读取失败时退化为单份
+     */
+    public long[][] collect(Object recipe, InternalInventory items, GenericStackInv tank) {
+        if (!refresh(recipe, items, tank) || perCraft.length == 0) {
+            return FALLBACK;
+        }
+
+        long fluidAmount = fluidAmount(tank);
+        long[] available = new long[perCraft.length];
+        for (int i = 0; i < perCraft.length; i++) {
+            long total = 0;
+            for (int slot : itemSlots[i]) {
+                total += items.getStackInSlot(slot).getCount();
+            }
+            if (fluidMatches[i]) {
+                total += fluidAmount;
+            }
+            available[i] = total;
+        }
+        return new long[][]{available, perCraft.clone()};
+    }
+
+    /**
+     * 批量消耗 batchCount 份输入：按输入顺序依次从匹配的物品槽、再从流体槽扣除，流体槽只写一次
+     */
+    public void consume(Object recipe, InternalInventory items, GenericStackInv tank, int batchCount) {
+        if (batchCount <= 0 || !refresh(recipe, items, tank)) {
+            return;
+        }
+
+        GenericStack fluid = tank.getStack(FLUID_INPUT_SLOT);
+        long fluidAmount = fluidAmount(tank);
+        long fluidConsumed = 0;
+
+        for (int i = 0; i < perCraft.length; i++) {
+            long remaining = perCraft[i] * batchCount;
+
+            for (int slot : itemSlots[i]) {
+                if (remaining <= 0) {
+                    break;
+                }
+                ItemStack stack = items.getStackInSlot(slot);
+                if (stack.isEmpty()) {
+                    continue;
+                }
+                int take = (int) Math.min(remaining, stack.getCount());
+                stack.shrink(take);
+                items.setItemDirect(slot, stack);
+                remaining -= take;
+            }
+
+            if (remaining > 0 && fluidMatches[i]) {
+                long take = Math.min(remaining, fluidAmount - fluidConsumed);
+                fluidConsumed += take;
+            }
+        }
+
+        if (fluidConsumed > 0 && fluid != null) {
+            long left = fluidAmount - fluidConsumed;
+            tank.setStack(FLUID_INPUT_SLOT, left <= 0 ? null : new GenericStack(fluid.what(), left));
+        }
+    }
+
+    /**
+     * 配方与各槽种类均未变化时沿用缓存，否则重建
+     *
+     * @return 缓存是否可用
+     */
+    private boolean refresh(Object recipe, InternalInventory items, GenericStackInv tank) {
+        AEFluidKey fluid = fluidKind(tank);
+        if (recipe == this.recipe && Objects.equals(fluid, fluidKind) && sameKinds(items)) {
+            return true;
+        }
+        try {
+            rebuild(recipe, items, fluid);
+            return true;
+        } catch (Exception e) {
+            this.recipe = null;
+            return false;
+        }
+    }
+
+    private boolean sameKinds(InternalInventory items) {
+        if (slotKinds.length != items.size()) {
+            return false;
+        }
+        for (int i = 0; i < slotKinds.length; i++) {
+            if (!ItemStack.isSameItemSameTags(slotKinds[i], items.getStackInSlot(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rebuild(Object recipe, InternalInventory items, @Nullable AEFluidKey fluid) throws Exception {
+        this.recipe = null;
+
+        Method getValidInputs = recipe.getClass().getMethod("getValidInputs");
+        List<?> validInputs = (List<?>) getValidInputs.invoke(recipe);
+
+        int size = items.size();
+        ItemStack[] kinds = new ItemStack[size];
+        for (int slot = 0; slot < size; slot++) {
+            ItemStack stack = items.getStackInSlot(slot);
+            kinds[slot] = stack.isEmpty() ? ItemStack.EMPTY : stack.copyWithCount(1);
+        }
+        FluidStack fluidSample = fluid == null ? null : fluid.toStack(1);
+
+        int count = validInputs.size();
+        long[] amounts = new long[count];
+        int[][] slots = new int[count][];
+        boolean[] fluids = new boolean[count];
+        int[] matched = new int[size];
+        for (int i = 0; i < count; i++) {
+            Object input = validInputs.get(i);
+            int required = (int) input.getClass().getMethod("getAmount").invoke(input);
+            amounts[i] = required <= 0 ? 1 : required;
+
+            int found = 0;
+            for (int slot = 0; slot < size; slot++) {
+                if (!kinds[slot].isEmpty() && test(input, kinds[slot])) {
+                    matched[found++] = slot;
+                }
+            }
+            slots[i] = Arrays.copyOf(matched, found);
+            fluids[i] = fluidSample != null && test(input, fluidSample);
+        }
+
+        this.slotKinds = kinds;
+        this.fluidKind = fluid;
+        this.perCraft = amounts;
+        this.itemSlots = slots;
+        this.fluidMatches = fluids;
+        this.recipe = recipe;
+    }
+
+    /**
+     * 用 IngredientStack 的 sample 副本对 stack 的副本调用 consume()，amount 减少说明匹配。
+     * 完全复用原版匹配逻辑，不依赖任何字段名。
+     */
+    private static boolean test(Object ingredientStack, Object stack) {
+        try {
+            Object sample = ingredientStack.getClass().getMethod("sample").invoke(ingredientStack);
+            Method getAmount = sample.getClass().getMethod("getAmount");
+            int before = (int) getAmount.invoke(sample);
+            if (before <= 0) {
+                return false;
+            }
+
+            Object copy;
+            if (stack instanceof ItemStack is) {
+                copy = is.copy();
+            } else if (stack instanceof FluidStack fs) {
+                copy = fs.copy();
+            } else {
+                return false;
+            }
+
+            sample.getClass().getMethod("consume", Object.class).invoke(sample, copy);
+            return (int) getAmount.invoke(sample) < before;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Nullable
+    private static AEFluidKey fluidKind(GenericStackInv tank) {
+        GenericStack stack = tank.getStack(FLUID_INPUT_SLOT);
+        return stack != null && stack.amount() > 0 && stack.what() instanceof AEFluidKey key ? key : null;
+    }
+
+    private static long fluidAmount(GenericStackInv tank) {
+        GenericStack stack = tank.getStack(FLUID_INPUT_SLOT);
+        return stack != null && stack.what() instanceof AEFluidKey ? Math.max(stack.amount(), 0) : 0;
+    }
+}
@@ -0,0 +1,184 @@
+package moakiee.support;
+
+import appeng.api.stacks.AEFluidKey;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.AEKey;
+import appeng.recipes.handlers.InscriberRecipe;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.fluids.FluidStack;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 配方单份产物的不可变模板缓存
+ *
+ * 原先每批结算都要 getResultItem().copy() / copyWithCount，反应仓在 HEAD 与 RETURN 中还会多次
+ * getResultFluid().copy()。这里按配方对象缓存 AEItemKey / AEFluidKey 与单份数量，
+ * 批量产出统一表示为 key × long 数量，热路径上只在真正写入物品槽时才构造 ItemStack。
+ *
+ * 以配方对象为弱引用键，配方被替换后自动回收；数据包重载时 {@link #clear()} 整体清空。
+ *
+ * 支持的配方：AE2 压印器（含扩展压印器）、ExtendedAE 电路切片器、AdvancedAE 反应仓。
+ */
+public final class RecipeOutputs {
+
+    private static final Map<Object, Output> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private RecipeOutputs() {
+    }
+
+    /**
+     * 单份产物：种类 + 数量。物品产物额外保留一个只读样本，供输出容量查询使用
+     */
+    public static final class Output {
+        private final AEKey key;
+        private final long amount;
+        private final ItemStack template;
+
+        private Output(AEKey key, long amount, ItemStack template) {
+            this.key = key;
+            this.amount = amount;
+            this.template = template;
+        }
+
+        public AEKey key() {
+            return key;
+        }
+
+        /** 单份产物数量（物品为个数，流体为 mB） */
+        public long amount() {
+            return amount;
+        }
+
+        public boolean isItem() {
+            return key instanceof AEItemKey;
+        }
+
+        /**
+         * 单份物品产物样本（共享实例，调用方不得修改）；流体产物返回 EMPTY
+         */
+        public ItemStack template() {
+            return template;
+        }
+
+        /**
+         * crafts 份产物的总量，溢出时饱和到 Long.MAX_VALUE
+         */
+        public long total(long crafts) {
+            if (crafts <= 0) {
+                return 0;
+            }
+            return amount > Long.MAX_VALUE / crafts ? Long.MAX_VALUE : amount * crafts;
+        }
+
+        /**
+         * 构造 count 个物品产物（截断到 int）；流体产物返回 EMPTY
+         */
+        public ItemStack toStack(long count) {
+            if (!(key instanceof AEItemKey itemKey) || count <= 0) {
+                return ItemStack.EMPTY;
+            }
+            return itemKey.toStack((int) Math.min(count, Integer.MAX_VALUE));
+        }
+
+        private static Output ofItem(ItemStack stack) {
+            AEItemKey key = AEItemKey.of(stack);
+            return key == null ? null : new Output(key, stack.getCount(), stack.copy());
+        }
+
+        private static Output ofFluid(FluidStack stack) {
+            AEFluidKey key = AEFluidKey.of(stack);
+            return key == null || stack.getAmount() <= 0 ? null : new Output(key, stack.getAmount(), ItemStack.EMPTY);
+        }
+    }
+
+    /**
+     * 压印器配方的产物
+     *
+     * @return 产物为空时返回 null
+     */
+    @Nullable
+    public static Output of(InscriberRecipe recipe) {
+        Output cached = CACHE.get(recipe);
+        if (cached != null) {
+            return cached;
+        }
+        return put(recipe, Output.ofItem(recipe.getResultItem()));
+    }
+
+    /**
+     * 电路切片器配方的产物（配方的 output 字段）
+     *
+     * @return 产物为空或读取失败时返回 null
+     */
+    @Nullable
+    public static Output ofCutter(Object recipe) {
+        Output cached = CACHE.get(recipe);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            Field field = findField(recipe.getClass(), "output");
+            field.setAccessible(true);
+            return put(recipe, field.get(recipe) instanceof ItemStack stack ? Output.ofItem(stack) : null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 反应仓配方的产物（按 isItemOutput 取物品或流体）
+     *
+     * @return 产物为空或读取失败时返回 null
+     */
+    @Nullable
+    public static Output ofReaction(Object recipe) {
+        Output cached = CACHE.get(recipe);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            Class<?> type = recipe.getClass();
+            Output output;
+            if ((boolean) type.getMethod("isItemOutput").invoke(recipe)) {
+                output = type.getMethod("getResultItem").invoke(recipe) instanceof ItemStack stack
+                        ? Output.ofItem(stack) : null;
+            } else {
+                output = type.getMethod("getResultFluid").invoke(recipe) instanceof FluidStack stack
+                        ? Output.ofFluid(stack) : null;
+            }
+            return put(recipe, output);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 清空缓存（数据包重载后调用）
+     */
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    @Nullable
+    private static Output put(Object recipe, @Nullable Output output) {
+        if (output != null) {
+            CACHE.put(recipe, output);
+        }
+        return output;
+    }
+
+    private static Field findField(Class<?> type, String name) throws NoSuchFieldException {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredField(name);
+            } catch (NoSuchFieldException ignored) {
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+}
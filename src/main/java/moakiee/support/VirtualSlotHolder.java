@@ -0,0 +1,28 @@
+package moakiee.support;
+
+import appeng.api.stacks.AEItemKey;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 由 Mixin 注入到 AppEngInternalInventory 上的虚拟槽位存储接口，见 {@link VirtualSlots}。
+ * 每个槽位在可见的 ItemStack 之外另存一段 long 数量（溢出部分）及其物品种类。
+ */
+public interface VirtualSlotHolder {
+
+    /**
+     * 是否允许向溢出部分写入（装有堆叠卡的机器槽位）
+     */
+    boolean ae2oc_isVirtualSlotsEnabled();
+
+    void ae2oc_setVirtualSlotsEnabled(boolean enabled);
+
+    long ae2oc_getOverflow(int slot);
+
+    @Nullable
+    AEItemKey ae2oc_getOverflowKey(int slot);
+
+    /**
+     * 设置溢出部分；amount 为 0 时清空该槽的溢出
+     */
+    void ae2oc_setOverflow(int slot, @Nullable AEItemKey key, long amount);
+}
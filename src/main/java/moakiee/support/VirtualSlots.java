@@ -0,0 +1,198 @@
+package moakiee.support;
+
+import appeng.api.config.Actionable;
+import appeng.api.inventories.InternalInventory;
+import appeng.api.stacks.AEItemKey;
+import moakiee.support.machine.MachineAdapter;
+import moakiee.support.machine.MachineAdapters;
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * 装有堆叠卡的机器槽位的 long 数量存储
+ *
+ * 槽位中的 ItemStack 数量是 int，堆叠卡上限受 Integer.MAX_VALUE 限制。
+ * 开启虚拟槽位的容器在可见 ItemStack 之外为每个槽位另存一段 long 溢出量（{@link VirtualSlotHolder}）：
+ * - 可见部分照常工作，AE2 菜单、机器自身的配方逻辑看到的都是它（最多为槽位上限）
+ * - 插入时先填满可见部分，再写入溢出部分
+ * - 提取时先取溢出部分，可见部分保持满
+ * - 可见部分被取走（setItemDirect 写入更少的同种物品或空栈）时，Mixin 立即从溢出部分补足
+ * 溢出部分随容器的 writeToNBT / readFromNBT 以 long 保存，机器被拆除时随掉落物一起掉出。
+ *
+ * 目前由 AE2CS 的物品机器（电路蚀刻器、水晶粉碎机、水晶聚合器）在装有堆叠卡时开启。
+ * 卡片移除后不再接受新的溢出，已有的溢出量仍会逐步补回可见部分。
+ */
+public final class VirtualSlots {
+
+    /** 溢出部分上限，保证 可见 + 溢出 不超过 Long.MAX_VALUE */
+    public static final long MAX_OVERFLOW = Long.MAX_VALUE - Integer.MAX_VALUE;
+
+    private VirtualSlots() {
+    }
+
+    /**
+     * 槽位中的物品总数（可见部分 + 同种物品的溢出部分）
+     */
+    public static long amount(InternalInventory inventory, int slot) {
+        ItemStack inSlot = inventory.getStackInSlot(slot);
+        if (!(inventory instanceof VirtualSlotHolder holder)) {
+            return inSlot.getCount();
+        }
+        long overflow = holder.ae2oc_getOverflow(slot);
+        if (overflow <= 0) {
+            return inSlot.getCount();
+        }
+        AEItemKey key = holder.ae2oc_getOverflowKey(slot);
+        if (inSlot.isEmpty() || (key != null && key.matches(inSlot))) {
+            return inSlot.getCount() + overflow;
+        }
+        return inSlot.getCount();
+    }
+
+    /**
+     * 向单个槽位插入：先填可见部分，开启虚拟槽位时剩余写入溢出部分
+     *
+     * @return 实际插入（或模拟可插入）的数量
+     */
+    public static long insert(InternalInventory inventory, int slot, AEItemKey key, long amount, Actionable mode) {
+        long inserted = InternalInventoryCounts.insertCount(inventory, slot, key, amount, mode);
+        if (inserted >= amount || !(inventory instanceof VirtualSlotHolder holder)
+                || !holder.ae2oc_isVirtualSlotsEnabled()) {
+            return inserted;
+        }
+
+        // 可见部分已满（模拟时视为已填入）且为同种物品，才能继续写溢出
+        ItemStack inSlot = inventory.getStackInSlot(slot);
+        boolean visibleMatches = inSlot.isEmpty() ? inserted > 0 : key.matches(inSlot);
+        if (!visibleMatches) {
+            return inserted;
+        }
+        long overflow = holder.ae2oc_getOverflow(slot);
+        AEItemKey overflowKey = holder.ae2oc_getOverflowKey(slot);
+        if (overflow > 0 && !key.equals(overflowKey)) {
+            return inserted;
+        }
+
+        long extra = Math.min(amount - inserted, MAX_OVERFLOW - Math.max(overflow, 0));
+        if (extra <= 0) {
+            return inserted;
+        }
+        if (mode == Actionable.MODULATE) {
+            holder.ae2oc_setOverflow(slot, key, overflow + extra);
+            // 借 setItemDirect 通知宿主内容变化
+            inventory.setItemDirect(slot, inventory.getStackInSlot(slot));
+        }
+        return inserted + extra;
+    }
+
+    /**
+     * 从单个槽位提取：先取溢出部分，再取可见部分
+     *
+     * @param key 只提取该种物品；为 null 时提取槽内的任何物品
+     * @return 实际提取（或模拟可提取）的数量
+     */
+    public static long extract(InternalInventory inventory, int slot, @Nullable AEItemKey key, long amount,
+                               Actionable mode) {
+        if (amount <= 0) {
+            return 0;
+        }
+        long fromOverflow = 0;
+        if (inventory instanceof VirtualSlotHolder holder) {
+            long overflow = holder.ae2oc_getOverflow(slot);
+            AEItemKey overflowKey = holder.ae2oc_getOverflowKey(slot);
+            ItemStack inSlot = inventory.getStackInSlot(slot);
+            boolean matches = overflowKey != null && (key == null || key.equals(overflowKey))
+                    && (inSlot.isEmpty() || overflowKey.matches(inSlot));
+            if (overflow > 0 && matches) {
+                fromOverflow = Math.min(amount, overflow);
+                if (mode == Actionable.MODULATE) {
+                    holder.ae2oc_setOverflow(slot, overflowKey, overflow - fromOverflow);
+                    inventory.setItemDirect(slot, inventory.getStackInSlot(slot));
+                }
+            }
+        }
+        if (fromOverflow >= amount) {
+            return fromOverflow;
+        }
+        return fromOverflow + InternalInventoryCounts.extractCount(inventory, slot, key, amount - fromOverflow, mode);
+    }
+
+    /**
+     * setItemDirect 写入前调用：可见部分不满且有同种物品的溢出时，返回补足后的栈
+     *
+     * @param limit 可见部分的上限（槽位上限）
+     * @return 补足后的栈；不需要补足时返回 null
+     */
+    @Nullable
+    public static ItemStack refill(VirtualSlotHolder holder, int slot, ItemStack incoming, int limit) {
+        long overflow = holder.ae2oc_getOverflow(slot);
+        if (overflow <= 0 || incoming.getCount() >= limit) {
+            return null;
+        }
+        AEItemKey key = holder.ae2oc_getOverflowKey(slot);
+        if (key == null || (!incoming.isEmpty() && !key.matches(incoming))) {
+            return null;
+        }
+
+        int move = (int) Math.min(overflow, limit - incoming.getCount());
+        holder.ae2oc_setOverflow(slot, key, overflow - move);
+        return incoming.isEmpty() ? key.toStack(move) : incoming.copyWithCount(incoming.getCount() + move);
+    }
+
+    /**
+     * 机器输入/输出槽中溢出部分的总量（不含可见部分）
+     */
+    public static long machineOverflow(@Nullable Object machine) {
+        long total = 0;
+        for (InternalInventory inventory : machineSlots(machine)) {
+            if (inventory instanceof VirtualSlotHolder holder) {
+                for (int slot = 0; slot < inventory.size(); slot++) {
+                    total += Math.max(holder.ae2oc_getOverflow(slot), 0);
+                    if (total < 0) {
+                        return Long.MAX_VALUE;
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 机器被拆除时把输入/输出槽的溢出部分加入掉落物并清空；每个栈最多 Integer.MAX_VALUE 个
+     */
+    public static void dropMachineOverflow(@Nullable Object machine, List<ItemStack> drops) {
+        for (InternalInventory inventory : machineSlots(machine)) {
+            if (!(inventory instanceof VirtualSlotHolder holder)) {
+                continue;
+            }
+            for (int slot = 0; slot < inventory.size(); slot++) {
+                long overflow = holder.ae2oc_getOverflow(slot);
+                AEItemKey key = holder.ae2oc_getOverflowKey(slot);
+                if (overflow <= 0 || key == null) {
+                    continue;
+                }
+                holder.ae2oc_setOverflow(slot, null, 0);
+                while (overflow > 0) {
+                    int count = (int) Math.min(overflow, Integer.MAX_VALUE);
+                    drops.add(key.toStack(count));
+                    overflow -= count;
+                }
+            }
+        }
+    }
+
+    private static List<InternalInventory> machineSlots(@Nullable Object machine) {
+        MachineAdapter<Object> adapter = MachineAdapters.get(machine);
+        if (adapter == null) {
+            return List.of();
+        }
+        InternalInventory input = adapter.getInputSlots(machine);
+        InternalInventory output = adapter.getOutputSlots(machine);
+        if (input == null) {
+            return output == null ? List.of() : List.of(output);
+        }
+        return output == null || output == input ? List.of(input) : List.of(input, output);
+    }
+}
@@ -0,0 +1,381 @@
+package moakiee.support.machine;
+
+import appeng.api.config.Actionable;
+import appeng.api.inventories.InternalInventory;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.energy.IEnergySource;
+import appeng.api.networking.security.IActionSource;
+import appeng.helpers.externalstorage.GenericStackInv;
+import moakiee.support.EnergySourceHolder;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Recipe;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+/**
+ * AE2CS 机器适配器（电路蚀刻器、晶体粉碎机、晶体聚合器、熵变反应仓）
+ *
+ * AE2CS 的能量组件只提供 extractAEPower(double, Actionable)，这里包装成 AE2 的 IEnergySource。
+ * 熵变反应仓的输入/输出是泛型槽（非 InternalInventory），对应的物品槽访问返回 null，
+ * 改用 {@link #getGenericInput}/{@link #getGenericOutput}。
+ * 机器与配方上的 AE2CS 成员（consumeInputs、getRecipeOutput、findMatch、required、input、count）
+ * 按具体类解析一次并缓存为 MethodHandle。
+ */
+public class AE2CSMachineAdapter extends ReflectiveMachineAdapter {
+
+    private static final MethodType EXTRACT_TYPE =
+            MethodType.methodType(double.class, Object.class, double.class, Actionable.class);
+
+    private static final ClassValue<MethodHandle> EXTRACT_POWER = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            try {
+                Method method = type.getMethod("extractAEPower", double.class, Actionable.class);
+                method.setAccessible(true);
+                return MethodHandles.lookup().unreflect(method).asType(EXTRACT_TYPE);
+            } catch (Throwable ignored) {
+                return null;
+            }
+        }
+    };
+
+    private static final int CONSUME = 0;
+    private static final int CONSUME_MATCHED = 1;
+    private static final int RECIPE_OUTPUT = 2;
+
+    private static final int FIND_MATCH = 0;
+    private static final int REQUIRED = 1;
+    private static final int INPUT = 2;
+
+    private static final ClassValue<MethodHandle[]> MACHINE_METHODS = new ClassValue<>() {
+        @Override
+        protected MethodHandle[] computeValue(Class<?> type) {
+            return new MethodHandle[]{
+                    find(type, "consumeInputs", MethodType.methodType(boolean.class, Object.class, Object.class)),
+                    find(type, "consumeInputs",
+                            MethodType.methodType(boolean.class, Object.class, Object.class, int[].class)),
+                    find(type, "getRecipeOutput", MethodType.methodType(List.class, Object.class))
+            };
+        }
+    };
+
+    private static final ClassValue<MethodHandle[]> RECIPE_METHODS = new ClassValue<>() {
+        @Override
+        protected MethodHandle[] computeValue(Class<?> type) {
+            return new MethodHandle[]{
+                    find(type, "findMatch", MethodType.methodType(int[].class, Object.class, Object.class)),
+                    find(type, "required", MethodType.methodType(List.class, Object.class)),
+                    find(type, "input", MethodType.methodType(Object.class, Object.class))
+            };
+        }
+    };
+
+    private static final ClassValue<MethodHandle> INGREDIENT_COUNT = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            return find(type, "count", MethodType.methodType(int.class, Object.class));
+        }
+    };
+
+    private final MemberAccessor[] gridNodePath = compilePath("getMainNode.getNode");
+    private final MemberAccessor inputInv = MemberAccessor.of("getInputInv");
+    private final MemberAccessor outputInv = MemberAccessor.of("getOutputInv");
+    private final MemberAccessor energyCost = MemberAccessor.of("activeRecipeEnergyCost");
+    private final MemberAccessor actionSource = MemberAccessor.of("actionSource");
+
+    public AE2CSMachineAdapter() {
+        super("getInputInv", "getOutputInv", "activeRecipe", "recipeProgress");
+    }
+
+    /**
+     * 包装后的能量来源按机器缓存（{@link EnergySourceHolder}），热路径上不再每次分配
+     */
+    @Override
+    @Nullable
+    public IEnergySource getEnergySource(Object machine) {
+        if (!(machine instanceof EnergySourceHolder holder)) {
+            return wrapEnergySource(machine);
+        }
+        IEnergySource source = holder.ae2oc_getEnergySource();
+        if (source == null) {
+            source = wrapEnergySource(machine);
+            holder.ae2oc_setEnergySource(source);
+        }
+        return source;
+    }
+
+    @Nullable
+    private static IEnergySource wrapEnergySource(Object machine) {
+        MethodHandle extract = EXTRACT_POWER.get(machine.getClass());
+        if (extract == null) {
+            return null;
+        }
+        // AE2CS 内部能量不区分 PowerMultiplier，按原值提取
+        return (amount, mode, multiplier) -> {
+            try {
+                return (double) extract.invokeExact(machine, amount, mode);
+            } catch (Throwable ignored) {
+                return 0;
+            }
+        };
+    }
+
+    @Override
+    @Nullable
+    public IGridNode getGridNode(Object machine) {
+        IGridNode node = super.getGridNode(machine);
+        if (node != null) {
+            return node;
+        }
+        return resolve(machine, gridNodePath) instanceof IGridNode gridNode ? gridNode : null;
+    }
+
+    /**
+     * 当前配方的总能耗（AE2CS 中进度即已消耗的能量）；不可用时返回 -1
+     */
+    public int getEnergyCost(Object machine) {
+        return energyCost.getInt(machine, -1);
+    }
+
+    /**
+     * 熵变反应仓的泛型输入槽；其他机器返回 null
+     */
+    @Nullable
+    public GenericStackInv getGenericInput(Object machine) {
+        return inputInv.get(machine) instanceof GenericStackInv inv ? inv : null;
+    }
+
+    /**
+     * 熵变反应仓的泛型输出槽；其他机器返回 null
+     */
+    @Nullable
+    public GenericStackInv getGenericOutput(Object machine) {
+        return outputInv.get(machine) instanceof GenericStackInv inv ? inv : null;
+    }
+
+    /**
+     * 机器自己的操作来源；不可用时返回 {@link IActionSource#empty()}
+     */
+    public IActionSource getActionSource(Object machine) {
+        return actionSource.get(machine) instanceof IActionSource source ? source : IActionSource.empty();
+    }
+
+    /**
+     * 执行一次配方的材料消耗（粉碎机、熵变反应仓）
+     *
+     * @return 消耗成功返回 true
+     */
+    public boolean consumeInputs(Object machine, Object recipe) {
+        MethodHandle consume = MACHINE_METHODS.get(machine.getClass())[CONSUME];
+        if (consume == null) {
+            return false;
+        }
+        try {
+            return (boolean) consume.invokeExact(machine, recipe);
+        } catch (Throwable ignored) {
+            return false;
+        }
+    }
+
+    /**
+     * 按 {@link #findMatch} 得到的槽位对应关系执行一次配方的材料消耗（蚀刻器、聚合器）
+     *
+     * @return 消耗成功返回 true
+     */
+    public boolean consumeInputs(Object machine, Object recipe, int[] match) {
+        MethodHandle consume = MACHINE_METHODS.get(machine.getClass())[CONSUME_MATCHED];
+        if (consume == null) {
+            return false;
+        }
+        try {
+            return (boolean) consume.invokeExact(machine, recipe, match);
+        } catch (Throwable ignored) {
+            return false;
+        }
+    }
+
+    /**
+     * 熵变反应仓配方的单份产物（GenericStack 列表）；不可用时返回 null
+     */
+    @Nullable
+    public List<?> getRecipeOutput(Object machine, Object recipe) {
+        MethodHandle output = MACHINE_METHODS.get(machine.getClass())[RECIPE_OUTPUT];
+        if (output == null) {
+            return null;
+        }
+        try {
+            return (List<?>) output.invokeExact(recipe);
+        } catch (Throwable ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * 三槽配方（蚀刻器、聚合器）的输入
+     */
+    @Nullable
+    public Object threeItemInput(InternalInventory input) {
+        MethodHandle of = RecipeInputs.THREE_ITEM;
+        if (of == null) {
+            return null;
+        }
+        try {
+            return (Object) of.invokeExact(input.getStackInSlot(0), input.getStackInSlot(1), input.getStackInSlot(2));
+        } catch (Throwable ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * 单槽配方（粉碎机）的输入
+     */
+    @Nullable
+    public Object singleItemInput(InternalInventory input) {
+        MethodHandle of = RecipeInputs.SINGLE_ITEM;
+        if (of == null) {
+            return null;
+        }
+        try {
+            return (Object) of.invokeExact(input.getStackInSlot(0));
+        } catch (Throwable ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * 三槽配方的 配方材料序号 → 输入槽 对应关系；不匹配时返回 null
+     */
+    @Nullable
+    public int[] findMatch(Object recipe, InternalInventory input) {
+        MethodHandle find = RECIPE_METHODS.get(recipe.getClass())[FIND_MATCH];
+        Object recipeInput = find == null ? null : threeItemInput(input);
+        if (recipeInput == null) {
+            return null;
+        }
+        try {
+            return (int[]) find.invokeExact(recipe, recipeInput);
+        } catch (Throwable ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * 三槽配方的材料列表（带数量的材料）；不可用时返回 null
+     */
+    @Nullable
+    public List<?> getRequired(Object recipe) {
+        MethodHandle required = RECIPE_METHODS.get(recipe.getClass())[REQUIRED];
+        if (required == null) {
+            return null;
+        }
+        try {
+            return (List<?>) required.invokeExact(recipe);
+        } catch (Throwable ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * 单槽配方的材料（带数量的材料）；不可用时返回 null
+     */
+    @Nullable
+    public Object getInput(Object recipe) {
+        MethodHandle input = RECIPE_METHODS.get(recipe.getClass())[INPUT];
+        if (input == null) {
+            return null;
+        }
+        try {
+            return (Object) input.invokeExact(recipe);
+        } catch (Throwable ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * 带数量材料的单份需求量；不可用时返回 1
+     */
+    public int getCount(@Nullable Object sizedIngredient) {
+        MethodHandle count = sizedIngredient == null ? null : INGREDIENT_COUNT.get(sizedIngredient.getClass());
+        if (count == null) {
+            return 1;
+        }
+        try {
+            return Math.max((int) count.invokeExact(sizedIngredient), 1);
+        } catch (Throwable ignored) {
+            return 1;
+        }
+    }
+
+    /**
+     * 按配方输入计算单份产物；不可用时返回 {@link ItemStack#EMPTY}
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ItemStack assemble(Object recipe, @Nullable Object input, RegistryAccess registryAccess) {
+        if (!(recipe instanceof Recipe typed) || !(input instanceof Container container)) {
+            return ItemStack.EMPTY;
+        }
+        try {
+            ItemStack result = typed.assemble(container, registryAccess);
+            return result == null ? ItemStack.EMPTY : result;
+        } catch (Throwable ignored) {
+            return ItemStack.EMPTY;
+        }
+    }
+
+    /**
+     * 按名称和句柄参数个数沿父类链查找方法（参数类型来自 AE2CS，编译期不可引用）
+     */
+    @Nullable
+    private static MethodHandle find(Class<?> type, String name, MethodType handleType) {
+        int arity = handleType.parameterCount() - 1;
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                if (!method.getName().equals(name) || method.isBridge()) {
+                    continue;
+                }
+                boolean isStatic = Modifier.isStatic(method.getModifiers());
+                if (method.getParameterCount() != (isStatic ? arity + 1 : arity)) {
+                    continue;
+                }
+                try {
+                    method.setAccessible(true);
+                    return MethodHandles.lookup().unreflect(method).asType(handleType);
+                } catch (Throwable ignored) {
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * AE2CS 配方输入类的工厂方法，首次使用时解析
+     */
+    private static final class RecipeInputs {
+
+        static final MethodHandle THREE_ITEM = factory("ThreeItemStackRecipeInput",
+                ItemStack.class, ItemStack.class, ItemStack.class);
+        static final MethodHandle SINGLE_ITEM = factory("SingleItemStackRecipeInput", ItemStack.class);
+
+        private RecipeInputs() {
+        }
+
+        @Nullable
+        private static MethodHandle factory(String simpleName, Class<?>... params) {
+            try {
+                Class<?> type = Class.forName("io.github.lounode.ae2cs.common.recipe.input." + simpleName);
+                return MethodHandles.lookup().unreflect(type.getMethod("of", params))
+                        .asType(MethodType.methodType(Object.class, params));
+            } catch (Throwable ignored) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package moakiee.support.machine;
+
+import appeng.api.inventories.InternalInventory;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.energy.IEnergySource;
+import appeng.api.networking.security.IActionHost;
+import moakiee.mixin.AccessorTileCircuitCutter;
+import net.minecraft.world.item.crafting.Recipe;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * ExtendedAE 电路切片器适配器
+ *
+ * 槽位与进度通过访问器 Mixin（{@link AccessorTileCircuitCutter}）直接读写。
+ * 配方上下文 ctx 的类型来自 ExtendedAE 依赖的工具库，不能在访问器上声明，
+ * 它的成员（currentRecipe、shouldTick、findRecipe、testRecipe、runRecipe）按具体类解析一次并缓存为 MethodHandle。
+ */
+public final class CircuitCutterAdapter implements MachineAdapter<Object> {
+
+    public static final CircuitCutterAdapter INSTANCE = new CircuitCutterAdapter();
+
+    private static final int SHOULD_TICK = 0;
+    private static final int FIND_RECIPE = 1;
+    private static final int TEST_RECIPE = 2;
+    private static final int RUN_RECIPE = 3;
+
+    private static final ClassValue<MethodHandle[]> CTX_METHODS = new ClassValue<>() {
+        @Override
+        protected MethodHandle[] computeValue(Class<?> type) {
+            return new MethodHandle[]{
+                    find(type, "shouldTick", MethodType.methodType(boolean.class, Object.class)),
+                    find(type, "findRecipe", MethodType.methodType(void.class, Object.class)),
+                    find(type, "testRecipe", MethodType.methodType(boolean.class, Object.class, Recipe.class), Recipe.class),
+                    find(type, "runRecipe", MethodType.methodType(void.class, Object.class, Recipe.class), Recipe.class)
+            };
+        }
+    };
+
+    private final MemberAccessor ctx = MemberAccessor.of("ctx");
+    private final MemberAccessor currentRecipe = MemberAccessor.of("currentRecipe");
+
+    private CircuitCutterAdapter() {
+    }
+
+    @Override
+    public InternalInventory getInputSlots(Object machine) {
+        return ((AccessorTileCircuitCutter) machine).ae2oc_getInput();
+    }
+
+    @Override
+    public InternalInventory getOutputSlots(Object machine) {
+        return ((AccessorTileCircuitCutter) machine).ae2oc_getOutput();
+    }
+
+    @Override
+    @Nullable
+    public Object getCurrentRecipe(Object machine) {
+        return currentRecipe.get(ctx.get(machine));
+    }
+
+    /**
+     * 当前配方；没有时按原版逻辑（shouldTick 后 findRecipe）查找一次
+     */
+    @Nullable
+    public Object findRecipe(Object machine) {
+        Object context = ctx.get(machine);
+        Object recipe = currentRecipe.get(context);
+        if (recipe != null || context == null) {
+            return recipe;
+        }
+        MethodHandle[] methods = CTX_METHODS.get(context.getClass());
+        try {
+            if (methods[SHOULD_TICK] != null && methods[FIND_RECIPE] != null
+                    && (boolean) methods[SHOULD_TICK].invokeExact(context)) {
+                methods[FIND_RECIPE].invokeExact(context);
+                return currentRecipe.get(context);
+            }
+        } catch (Throwable ignored) {
+        }
+        return null;
+    }
+
+    /**
+     * 材料是否足够执行一次配方
+     */
+    public boolean testRecipe(Object machine, Object recipe) {
+        Object context = ctx.get(machine);
+        MethodHandle test = context == null ? null : CTX_METHODS.get(context.getClass())[TEST_RECIPE];
+        if (test == null || !(recipe instanceof Recipe<?> typed)) {
+            return false;
+        }
+        try {
+            return (boolean) test.invokeExact(context, typed);
+        } catch (Throwable ignored) {
+            return false;
+        }
+    }
+
+    /**
+     * 执行一次配方（只消耗材料，产物由调用方写入）
+     *
+     * @return 执行成功返回 true
+     */
+    public boolean runRecipe(Object machine, Object recipe) {
+        Object context = ctx.get(machine);
+        MethodHandle run = context == null ? null : CTX_METHODS.get(context.getClass())[RUN_RECIPE];
+        if (run == null || !(recipe instanceof Recipe<?> typed)) {
+            return false;
+        }
+        try {
+            run.invokeExact(context, typed);
+            return true;
+        } catch (Throwable ignored) {
+            return false;
+        }
+    }
+
+    /**
+     * 清除当前配方，下次 tick 重新查找
+     */
+    public void clearRecipe(Object machine) {
+        currentRecipe.set(ctx.get(machine), null);
+    }
+
+    public void setWorking(Object machine, boolean working) {
+        ((AccessorTileCircuitCutter) machine).ae2oc_invokeSetWorking(working);
+    }
+
+    @Override
+    @Nullable
+    public IEnergySource getEnergySource(Object machine) {
+        return machine instanceof IEnergySource source ? source : null;
+    }
+
+    @Override
+    @Nullable
+    public IGridNode getGridNode(Object machine) {
+        return machine instanceof IActionHost host ? host.getActionableNode() : null;
+    }
+
+    @Override
+    public int getProgress(Object machine) {
+        return ((AccessorTileCircuitCutter) machine).ae2oc_getProgress();
+    }
+
+    @Override
+    public boolean setProgress(Object machine, int progress) {
+        ((AccessorTileCircuitCutter) machine).ae2oc_setProgress(progress);
+        return true;
+    }
+
+    @Nullable
+    private static MethodHandle find(Class<?> type, String name, MethodType handleType, Class<?>... params) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            try {
+                Method method = c.getDeclaredMethod(name, params);
+                method.setAccessible(true);
+                MethodHandle handle = MethodHandles.lookup().unreflect(method);
+                if (handleType.returnType() == void.class) {
+                    handle = MethodHandles.dropReturn(handle);
+                }
+                return handle.asType(handleType);
+            } catch (Throwable ignored) {
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,118 @@
+package moakiee.support.machine;
+
+import appeng.api.inventories.InternalInventory;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.energy.IEnergySource;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * ExtendedAE 扩展压印器线程（InscriberThread）适配器
+ *
+ * 线程对象本身没有能量与网格节点，这些都来自 host 字段指向的 TileExInscriber。
+ * 槽位布局与 AE2 压印器一致：sideItemHandler 的 0 号为输入、1 号为输出。
+ */
+public class ExInscriberThreadAdapter extends ReflectiveMachineAdapter implements PressMachineAdapter<Object> {
+
+    private final MemberAccessor host = MemberAccessor.of("host");
+    private final MemberAccessor side = MemberAccessor.of("sideItemHandler");
+    private final MemberAccessor top = MemberAccessor.of("topItemHandler");
+    private final MemberAccessor bottom = MemberAccessor.of("bottomItemHandler");
+    private final MemberAccessor smash = MemberAccessor.of("smash");
+    private final MemberAccessor finalStep = MemberAccessor.of("finalStep");
+
+    public ExInscriberThreadAdapter() {
+        super(null, null, "getTask", "processingTime");
+    }
+
+    /**
+     * 线程所属的 TileExInscriber
+     */
+    @Nullable
+    public Object getHost(Object thread) {
+        return host.get(thread);
+    }
+
+    /**
+     * 侧面槽位（0 号输入、1 号输出）
+     */
+    @Nullable
+    public InternalInventory getSideSlots(Object thread) {
+        return side.get(thread) instanceof InternalInventory inv ? inv : null;
+    }
+
+    /**
+     * 是否正在播放压印动画
+     */
+    public boolean isSmash(Object thread) {
+        return smash.get(thread) instanceof Boolean value && value;
+    }
+
+    public void setSmash(Object thread, boolean value) {
+        smash.set(thread, value);
+    }
+
+    /**
+     * 压印动画进度
+     */
+    public int getFinalStep(Object thread) {
+        return finalStep.getInt(thread, 0);
+    }
+
+    public void setFinalStep(Object thread, int value) {
+        finalStep.set(thread, value);
+    }
+
+    @Override
+    @Nullable
+    public InternalInventory getInputSlots(Object thread) {
+        InternalInventory inv = getSideSlots(thread);
+        return inv == null ? null : inv.getSlotInv(0);
+    }
+
+    @Override
+    @Nullable
+    public InternalInventory getOutputSlots(Object thread) {
+        InternalInventory inv = getSideSlots(thread);
+        return inv == null ? null : inv.getSlotInv(1);
+    }
+
+    @Override
+    @Nullable
+    public InternalInventory getTopSlot(Object thread) {
+        return top.get(thread) instanceof InternalInventory inv ? inv : null;
+    }
+
+    @Override
+    @Nullable
+    public InternalInventory getBottomSlot(Object thread) {
+        return bottom.get(thread) instanceof InternalInventory inv ? inv : null;
+    }
+
+    @Override
+    @Nullable
+    public IEnergySource getEnergySource(Object thread) {
+        return getHostEnergySource(getHost(thread));
+    }
+
+    @Override
+    @Nullable
+    public IGridNode getGridNode(Object thread) {
+        return getHostGridNode(getHost(thread));
+    }
+
+    /**
+     * 宿主 TileExInscriber 的能量源
+     */
+    @Nullable
+    public IEnergySource getHostEnergySource(@Nullable Object host) {
+        return super.getEnergySource(host);
+    }
+
+    /**
+     * 宿主 TileExInscriber 的网格节点
+     */
+    @Nullable
+    public IGridNode getHostGridNode(@Nullable Object host) {
+        return host == null ? null : super.getGridNode(host);
+    }
+}
@@ -0,0 +1,75 @@
+package moakiee.support.machine;
+
+import appeng.api.inventories.InternalInventory;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.energy.IEnergySource;
+import appeng.blockentity.misc.InscriberBlockEntity;
+import moakiee.mixin.AccessorInscriberBlockEntity;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * AE2 压印器适配器，通过访问器 Mixin 直接读写字段，不经过反射。
+ * 槽位布局：sideItemHandler 的 0 号为输入、1 号为输出；top/bottom 为模板槽。
+ */
+public final class InscriberMachineAdapter implements PressMachineAdapter<InscriberBlockEntity> {
+
+    public static final InscriberMachineAdapter INSTANCE = new InscriberMachineAdapter();
+
+    private InscriberMachineAdapter() {
+    }
+
+    /**
+     * 侧面槽位（0 号输入、1 号输出）
+     */
+    public InternalInventory getSideSlots(InscriberBlockEntity machine) {
+        return ((AccessorInscriberBlockEntity) machine).ae2oc_getSideItemHandler();
+    }
+
+    @Override
+    public InternalInventory getInputSlots(InscriberBlockEntity machine) {
+        return getSideSlots(machine).getSlotInv(0);
+    }
+
+    @Override
+    public InternalInventory getOutputSlots(InscriberBlockEntity machine) {
+        return getSideSlots(machine).getSlotInv(1);
+    }
+
+    @Override
+    public InternalInventory getTopSlot(InscriberBlockEntity machine) {
+        return ((AccessorInscriberBlockEntity) machine).ae2oc_getTopItemHandler();
+    }
+
+    @Override
+    public InternalInventory getBottomSlot(InscriberBlockEntity machine) {
+        return ((AccessorInscriberBlockEntity) machine).ae2oc_getBottomItemHandler();
+    }
+
+    @Override
+    @Nullable
+    public Object getCurrentRecipe(InscriberBlockEntity machine) {
+        return machine.getTask();
+    }
+
+    @Override
+    public IEnergySource getEnergySource(InscriberBlockEntity machine) {
+        return machine;
+    }
+
+    @Override
+    @Nullable
+    public IGridNode getGridNode(InscriberBlockEntity machine) {
+        return machine.getActionableNode();
+    }
+
+    @Override
+    public int getProgress(InscriberBlockEntity machine) {
+        return machine.getProcessingTime();
+    }
+
+    @Override
+    public boolean setProgress(InscriberBlockEntity machine, int progress) {
+        ((AccessorInscriberBlockEntity) machine).ae2oc_invokeSetProcessingTime(progress);
+        return true;
+    }
+}
@@ -0,0 +1,62 @@
+package moakiee.support.machine;
+
+import appeng.api.inventories.InternalInventory;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.energy.IEnergySource;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 加工机器适配器：为并行/超频逻辑提供统一的类型化访问入口。
+ *
+ * 每种机器类型只需要一个实现（无状态、可复用），通过 {@link MachineAdapters#register} 注册。
+ * 内置实现覆盖 AE2 压印器、ExtendedAE 电路切片器与扩展压印器线程、
+ * AdvancedAE 反应仓以及 AE2CS 的四台机器；第三方 mod 可以为自己的机器注册实现。
+ *
+ * 所有方法都不应抛出异常：无法访问时返回 null / 默认值。
+ *
+ * @param <M> 机器类型（BlockEntity 或线程等宿主对象）
+ */
+public interface MachineAdapter<M> {
+
+    /**
+     * 输入物品槽；机器不使用物品输入时返回 null
+     */
+    @Nullable
+    InternalInventory getInputSlots(M machine);
+
+    /**
+     * 本地输出物品槽；机器不使用物品输出时返回 null
+     */
+    @Nullable
+    InternalInventory getOutputSlots(M machine);
+
+    /**
+     * 当前正在进行的配方；空闲时返回 null
+     */
+    @Nullable
+    Object getCurrentRecipe(M machine);
+
+    /**
+     * 机器自身的能量来源（内部缓存）；不可用时返回 null
+     */
+    @Nullable
+    IEnergySource getEnergySource(M machine);
+
+    /**
+     * 机器所在的网格节点，用于访问 ME 网络存储与能量；未连接时返回 null
+     */
+    @Nullable
+    IGridNode getGridNode(M machine);
+
+    /**
+     * 当前加工进度（单位由机器决定：tick 或已消耗能量）；不可用时返回 -1
+     */
+    int getProgress(M machine);
+
+    /**
+     * 写入加工进度
+     *
+     * @return 写入成功返回 true
+     */
+    boolean setProgress(M machine, int progress);
+}
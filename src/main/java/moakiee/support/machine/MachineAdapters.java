@@ -0,0 +1,87 @@
+package moakiee.support.machine;
+
+import appeng.blockentity.misc.InscriberBlockEntity;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 机器适配器注册表
+ *
+ * 按类名注册（可选 mod 的类在编译期不可引用），查询时沿父类链匹配，
+ * 结果按具体类缓存，热路径上只有一次 Map 查找。
+ *
+ * 第三方 mod 应在 FMLCommonSetupEvent 中调用 {@link #register} 注册自己的机器。
+ */
+public final class MachineAdapters {
+
+    /** ExtendedAE 电路切片器 */
+    public static final CircuitCutterAdapter CIRCUIT_CUTTER = CircuitCutterAdapter.INSTANCE;
+
+    /** AdvancedAE 反应仓 */
+    public static final ReactionChamberAdapter REACTION_CHAMBER = ReactionChamberAdapter.INSTANCE;
+
+    /** ExtendedAE 扩展压印器线程 */
+    public static final ExInscriberThreadAdapter EX_INSCRIBER_THREAD = new ExInscriberThreadAdapter();
+
+    /** AE2CS 四台机器共用 */
+    public static final AE2CSMachineAdapter AE2CS_MACHINE = new AE2CSMachineAdapter();
+
+    private static final Map<String, MachineAdapter<?>> BY_CLASS_NAME = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Optional<MachineAdapter<?>>> RESOLVED = new ConcurrentHashMap<>();
+
+    static {
+        register(InscriberBlockEntity.class, InscriberMachineAdapter.INSTANCE);
+        register("com.glodblock.github.extendedae.common.tileentities.TileCircuitCutter", CIRCUIT_CUTTER);
+        register("com.glodblock.github.extendedae.common.me.InscriberThread", EX_INSCRIBER_THREAD);
+        register("net.pedroksl.advanced_ae.common.entities.ReactionChamberEntity", REACTION_CHAMBER);
+        register("io.github.lounode.ae2cs.common.block.entity.CircuitEtcherBlockEntity", AE2CS_MACHINE);
+        register("io.github.lounode.ae2cs.common.block.entity.CrystalPulverizerBlockEntity", AE2CS_MACHINE);
+        register("io.github.lounode.ae2cs.common.block.entity.CrystalAggregatorBlockEntity", AE2CS_MACHINE);
+        register("io.github.lounode.ae2cs.common.block.entity.EntropyVariationReactionChamberBlockEntity", AE2CS_MACHINE);
+    }
+
+    private MachineAdapters() {
+    }
+
+    /**
+     * 注册机器适配器（子类自动继承）
+     */
+    public static <M> void register(Class<M> machineClass, MachineAdapter<? super M> adapter) {
+        register(machineClass.getName(), adapter);
+    }
+
+    /**
+     * 按完整类名注册机器适配器，用于编译期不可引用的机器类
+     */
+    public static void register(String machineClassName, MachineAdapter<?> adapter) {
+        BY_CLASS_NAME.put(machineClassName, adapter);
+        RESOLVED.clear();
+    }
+
+    /**
+     * 查找机器对应的适配器
+     *
+     * @return 适配器；未注册时返回 null
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static <M> MachineAdapter<M> get(@Nullable M machine) {
+        if (machine == null) {
+            return null;
+        }
+        return (MachineAdapter<M>) RESOLVED.computeIfAbsent(machine.getClass(), MachineAdapters::lookup).orElse(null);
+    }
+
+    private static Optional<MachineAdapter<?>> lookup(Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            MachineAdapter<?> adapter = BY_CLASS_NAME.get(c.getName());
+            if (adapter != null) {
+                return Optional.of(adapter);
+            }
+        }
+        return Optional.empty();
+    }
+}
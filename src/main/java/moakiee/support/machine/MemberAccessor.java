@@ -0,0 +1,130 @@
+package moakiee.support.machine;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Locale;
+
+/**
+ * 按名称访问成员（字段或无参方法）的句柄缓存。
+ *
+ * 每个具体类第一次访问时解析一次（沿父类链查找），编译为 MethodHandle 并通过 ClassValue 缓存；
+ * 之后的访问不再反射。用于在编译期无法直接引用的可选 mod 机器上读写字段。
+ *
+ * 读取顺序：无参方法 name() → 字段 name
+ * 写入顺序：单参数方法 setName(value) → 非 final 字段 name
+ */
+final class MemberAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final String name;
+    private final ClassValue<MethodHandle[]> handles = new ClassValue<>() {
+        @Override
+        protected MethodHandle[] computeValue(Class<?> type) {
+            return new MethodHandle[]{findGetter(type), findSetter(type)};
+        }
+    };
+
+    private MemberAccessor(String name) {
+        this.name = name;
+    }
+
+    static MemberAccessor of(String name) {
+        return new MemberAccessor(name);
+    }
+
+    @Nullable
+    Object get(@Nullable Object target) {
+        if (target == null) {
+            return null;
+        }
+        MethodHandle getter = handles.get(target.getClass())[0];
+        if (getter == null) {
+            return null;
+        }
+        try {
+            return (Object) getter.invokeExact(target);
+        } catch (Throwable ignored) {
+            return null;
+        }
+    }
+
+    int getInt(@Nullable Object target, int fallback) {
+        return get(target) instanceof Integer value ? value : fallback;
+    }
+
+    boolean set(@Nullable Object target, @Nullable Object value) {
+        if (target == null) {
+            return false;
+        }
+        MethodHandle setter = handles.get(target.getClass())[1];
+        if (setter == null) {
+            return false;
+        }
+        try {
+            setter.invokeExact(target, value);
+            return true;
+        } catch (Throwable ignored) {
+            return false;
+        }
+    }
+
+    private MethodHandle findGetter(Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            try {
+                Method method = c.getDeclaredMethod(name);
+                if (method.getReturnType() != void.class && !Modifier.isStatic(method.getModifiers())) {
+                    method.setAccessible(true);
+                    return MethodHandles.lookup().unreflect(method).asType(GETTER_TYPE);
+                }
+            } catch (Throwable ignored) {
+            }
+        }
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            try {
+                Field field = c.getDeclaredField(name);
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    field.setAccessible(true);
+                    return MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+                }
+            } catch (Throwable ignored) {
+            }
+        }
+        return null;
+    }
+
+    private MethodHandle findSetter(Class<?> type) {
+        String setterName = "set" + name.substring(0, 1).toUpperCase(Locale.ROOT) + name.substring(1);
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                if (method.getName().equals(setterName) && method.getParameterCount() == 1
+                        && !Modifier.isStatic(method.getModifiers())) {
+                    try {
+                        method.setAccessible(true);
+                        return MethodHandles.dropReturn(MethodHandles.lookup().unreflect(method)).asType(SETTER_TYPE);
+                    } catch (Throwable ignored) {
+                    }
+                }
+            }
+        }
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            try {
+                Field field = c.getDeclaredField(name);
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers)) {
+                    field.setAccessible(true);
+                    return MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+                }
+            } catch (Throwable ignored) {
+            }
+        }
+        return null;
+    }
+}
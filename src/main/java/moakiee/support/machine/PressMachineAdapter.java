@@ -0,0 +1,24 @@
+package moakiee.support.machine;
+
+import appeng.api.inventories.InternalInventory;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 压印类机器（AE2 压印器、ExtendedAE 扩展压印器线程）的附加访问：上下模板槽
+ *
+ * @param <M> 机器类型
+ */
+public interface PressMachineAdapter<M> extends MachineAdapter<M> {
+
+    /**
+     * 上模板槽
+     */
+    @Nullable
+    InternalInventory getTopSlot(M machine);
+
+    /**
+     * 下模板槽
+     */
+    @Nullable
+    InternalInventory getBottomSlot(M machine);
+}
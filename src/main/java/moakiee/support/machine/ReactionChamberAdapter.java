@@ -0,0 +1,166 @@
+package moakiee.support.machine;
+
+import appeng.api.inventories.InternalInventory;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.energy.IEnergySource;
+import appeng.api.networking.security.IActionHost;
+import appeng.blockentity.AEBaseBlockEntity;
+import appeng.helpers.externalstorage.GenericStackInv;
+import moakiee.mixin.AccessorReactionChamberEntity;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * AdvancedAE 反应仓适配器
+ *
+ * 槽位、流体槽、进度与 dirty 标记通过访问器 Mixin（{@link AccessorReactionChamberEntity}）直接读写。
+ * 涉及 AdvancedAE 配方类型的成员（getTask、cachedTask、findRecipe、配方的 getEnergy）
+ * 不能在访问器上声明，按具体类解析一次并缓存为 MethodHandle。
+ * 流体槽的 0 号为输出、1 号为输入。
+ */
+public final class ReactionChamberAdapter implements MachineAdapter<Object> {
+
+    public static final ReactionChamberAdapter INSTANCE = new ReactionChamberAdapter();
+
+    private static final MethodType FIND_RECIPE_TYPE = MethodType.methodType(Object.class, Object.class, Level.class);
+    private static final MethodType ENERGY_TYPE = MethodType.methodType(int.class, Object.class);
+
+    private static final ClassValue<MethodHandle> FIND_RECIPE = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                try {
+                    Method method = c.getDeclaredMethod("findRecipe", Level.class);
+                    method.setAccessible(true);
+                    return MethodHandles.lookup().unreflect(method).asType(FIND_RECIPE_TYPE);
+                } catch (Throwable ignored) {
+                }
+            }
+            return null;
+        }
+    };
+
+    private static final ClassValue<MethodHandle> RECIPE_ENERGY = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            try {
+                Method method = type.getMethod("getEnergy");
+                method.setAccessible(true);
+                return MethodHandles.lookup().unreflect(method).asType(ENERGY_TYPE);
+            } catch (Throwable ignored) {
+                return null;
+            }
+        }
+    };
+
+    private final MemberAccessor task = MemberAccessor.of("getTask");
+    private final MemberAccessor cachedTask = MemberAccessor.of("cachedTask");
+
+    private ReactionChamberAdapter() {
+    }
+
+    @Override
+    public InternalInventory getInputSlots(Object machine) {
+        return ((AccessorReactionChamberEntity) machine).ae2oc_getInputInv();
+    }
+
+    @Override
+    public InternalInventory getOutputSlots(Object machine) {
+        return ((AccessorReactionChamberEntity) machine).ae2oc_getOutputInv();
+    }
+
+    /**
+     * 流体槽（0 号输出、1 号输入）
+     */
+    public GenericStackInv getTank(Object machine) {
+        return ((AccessorReactionChamberEntity) machine).ae2oc_invokeGetTank();
+    }
+
+    @Override
+    @Nullable
+    public Object getCurrentRecipe(Object machine) {
+        return task.get(machine);
+    }
+
+    /**
+     * 配方的单份能耗；读取失败时返回 0
+     */
+    public int getRecipeEnergy(@Nullable Object recipe) {
+        MethodHandle energy = recipe == null ? null : RECIPE_ENERGY.get(recipe.getClass());
+        if (energy == null) {
+            return 0;
+        }
+        try {
+            return (int) energy.invokeExact(recipe);
+        } catch (Throwable ignored) {
+            return 0;
+        }
+    }
+
+    /**
+     * 输入变化（dirty）后按原版逻辑重新查找配方：找不到时清空进度与缓存的配方，并通知客户端更新
+     */
+    public void refreshIfDirty(Object machine, @Nullable Level level) {
+        AccessorReactionChamberEntity accessor = (AccessorReactionChamberEntity) machine;
+        if (!accessor.ae2oc_isDirty()) {
+            return;
+        }
+        MethodHandle find = FIND_RECIPE.get(machine.getClass());
+        if (level != null && find != null) {
+            Object recipe;
+            try {
+                recipe = (Object) find.invokeExact(machine, level);
+            } catch (Throwable ignored) {
+                recipe = null;
+            }
+            if (recipe == null) {
+                accessor.ae2oc_setProcessingTime(0);
+                accessor.ae2oc_invokeSetWorking(false);
+                clearCachedTask(machine);
+            }
+        }
+        if (machine instanceof AEBaseBlockEntity blockEntity) {
+            blockEntity.markForUpdate();
+        }
+        accessor.ae2oc_setDirty(false);
+    }
+
+    /**
+     * 清除缓存的配方，下次 tick 重新查找
+     */
+    public void clearCachedTask(Object machine) {
+        cachedTask.set(machine, null);
+    }
+
+    public void setWorking(Object machine, boolean working) {
+        ((AccessorReactionChamberEntity) machine).ae2oc_invokeSetWorking(working);
+    }
+
+    @Override
+    @Nullable
+    public IEnergySource getEnergySource(Object machine) {
+        return machine instanceof IEnergySource source ? source : null;
+    }
+
+    @Override
+    @Nullable
+    public IGridNode getGridNode(Object machine) {
+        return machine instanceof IActionHost host ? host.getActionableNode() : null;
+    }
+
+    @Override
+    public int getProgress(Object machine) {
+        return ((AccessorReactionChamberEntity) machine).ae2oc_getProcessingTime();
+    }
+
+    @Override
+    public boolean setProgress(Object machine, int progress) {
+        ((AccessorReactionChamberEntity) machine).ae2oc_setProcessingTime(progress);
+        return true;
+    }
+}
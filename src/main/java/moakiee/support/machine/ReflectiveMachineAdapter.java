@@ -0,0 +1,108 @@
+package moakiee.support.machine;
+
+import appeng.api.inventories.InternalInventory;
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.energy.IEnergySource;
+import appeng.api.networking.security.IActionHost;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 基于成员名称的通用适配器，用于编译期无法直接引用的可选 mod 机器。
+ *
+ * 成员路径支持用 "." 串联（例如 "ctx.currentRecipe"），每一段都由 {@link MemberAccessor}
+ * 按具体类解析一次并缓存，之后的访问只执行缓存的 MethodHandle。
+ *
+ * 能量来源与网格节点默认取机器自身（AENetworkPowerBlockEntity 同时实现了 IEnergySource 与 IActionHost）。
+ */
+public class ReflectiveMachineAdapter implements MachineAdapter<Object> {
+
+    private final MemberAccessor[] inputPath;
+    private final MemberAccessor[] outputPath;
+    private final MemberAccessor[] recipePath;
+    private final MemberAccessor progress;
+
+    /**
+     * @param inputPath  输入物品槽的成员路径，null 表示无
+     * @param outputPath 输出物品槽的成员路径，null 表示无
+     * @param recipePath 当前配方的成员路径，null 表示无
+     * @param progress   加工进度的成员名，null 表示无
+     */
+    public ReflectiveMachineAdapter(@Nullable String inputPath, @Nullable String outputPath,
+                                    @Nullable String recipePath, @Nullable String progress) {
+        this.inputPath = compilePath(inputPath);
+        this.outputPath = compilePath(outputPath);
+        this.recipePath = compilePath(recipePath);
+        this.progress = progress == null ? null : MemberAccessor.of(progress);
+    }
+
+    @Override
+    @Nullable
+    public InternalInventory getInputSlots(Object machine) {
+        return resolve(machine, inputPath) instanceof InternalInventory inv ? inv : null;
+    }
+
+    @Override
+    @Nullable
+    public InternalInventory getOutputSlots(Object machine) {
+        return resolve(machine, outputPath) instanceof InternalInventory inv ? inv : null;
+    }
+
+    @Override
+    @Nullable
+    public Object getCurrentRecipe(Object machine) {
+        return resolve(machine, recipePath);
+    }
+
+    @Override
+    @Nullable
+    public IEnergySource getEnergySource(Object machine) {
+        return machine instanceof IEnergySource source ? source : null;
+    }
+
+    @Override
+    @Nullable
+    public IGridNode getGridNode(Object machine) {
+        return machine instanceof IActionHost host ? host.getActionableNode() : null;
+    }
+
+    @Override
+    public int getProgress(Object machine) {
+        return progress == null ? -1 : progress.getInt(machine, -1);
+    }
+
+    @Override
+    public boolean setProgress(Object machine, int value) {
+        return progress != null && progress.set(machine, value);
+    }
+
+    /**
+     * 沿成员路径逐段读取
+     */
+    @Nullable
+    protected static Object resolve(@Nullable Object target, @Nullable MemberAccessor[] path) {
+        if (path == null) {
+            return null;
+        }
+        Object current = target;
+        for (MemberAccessor accessor : path) {
+            current = accessor.get(current);
+            if (current == null) {
+                return null;
+            }
+        }
+        return current;
+    }
+
+    @Nullable
+    protected static MemberAccessor[] compilePath(@Nullable String path) {
+        if (path == null || path.isEmpty()) {
+            return null;
+        }
+        String[] names = path.split("\\.");
+        MemberAccessor[] accessors = new MemberAccessor[names.length];
+        for (int i = 0; i < names.length; i++) {
+            accessors[i] = MemberAccessor.of(names[i]);
+        }
+        return accessors;
+    }
+}